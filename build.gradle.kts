@@ -2,6 +2,7 @@ plugins {
     java
     alias(libs.plugins.spring.boot)
     alias(libs.plugins.spring.dependency.management)
+    alias(libs.plugins.jmh)
     id("jacoco")
 }
 
@@ -23,6 +24,8 @@ dependencyManagement {
 
 dependencies {
     implementation(libs.spring.boot.starter.web)
+    implementation(libs.spring.boot.starter.actuator)
+    runtimeOnly(libs.micrometer.registry.prometheus)
     compileOnly(libs.lombok)
     annotationProcessor(libs.lombok)
     annotationProcessor(libs.spring.boot.configuration.processor)
@@ -30,12 +33,26 @@ dependencies {
 }
 
 // about source and compilation
+sourceSets {
+    create("loadTest") {
+        compileClasspath += sourceSets.main.get().output
+        runtimeClasspath += sourceSets.main.get().output
+    }
+}
+configurations["loadTestImplementation"].extendsFrom(configurations.implementation.get())
+configurations["loadTestRuntimeOnly"].extendsFrom(configurations.runtimeOnly.get())
+dependencies {
+    "loadTestImplementation"(libs.hdrhistogram)
+}
+
 java {
-    sourceCompatibility = JavaVersion.VERSION_17
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    }
 }
 
 with(extensions.getByType(JacocoPluginExtension::class.java)) {
-    toolVersion = "0.8.7"
+    toolVersion = "0.8.11"
 }
 
 // bundling tasks
@@ -50,3 +67,124 @@ tasks.test {
     ignoreFailures = true
     useJUnitPlatform()
 }
+
+// benchmark tasks
+// run a subset with ./gradlew jmh -Pjmh.includes=PointServiceBenchmark -Pjmh.profilers=gc
+// override the thread count with -Pjmh.threads=4 (e.g. to sweep ShardScalingBenchmark over core counts)
+jmh {
+    jmhVersion.set(libs.versions.jmh.get())
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
+    findProperty("jmh.includes")?.let { includes.set(listOf(it.toString())) }
+    findProperty("jmh.profilers")?.let { profilers.set(it.toString().split(",")) }
+    findProperty("jmh.threads")?.let { threads.set(it.toString().toInt()) }
+}
+
+// load test tasks
+// compare platform and virtual threads with ./gradlew loadTest -PloadTest.concurrency=2000
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Measures concurrent request capacity with and without virtual threads."
+    classpath = sourceSets["loadTest"].runtimeClasspath
+    mainClass.set("io.hhplus.tdd.loadtest.VirtualThreadCapacityLoadTest")
+    jvmArgs("-Djdk.tracePinnedThreads=short")
+    findProperty("loadTest.concurrency")?.let { args(it.toString()) }
+}
+
+// drive the real HTTP API with an open-model workload and check that balances match histories
+// the defaults (20 requests/s, zipfian users) pass on the default wiring; higher rates need a flatter distribution or faster stores
+// e.g. ./gradlew pointLoadTest -PloadTest.rate=100 -PloadTest.distribution=uniform -PloadTest.duration=1m -PloadTest.app="--point.history.store=INDEXED"
+// exits with a failure when the error rate exceeds loadTest.maxErrorRate or any balance is inconsistent
+tasks.register<JavaExec>("pointLoadTest") {
+    group = "verification"
+    description = "Runs an open-model HTTP load test against the app and verifies balances against histories."
+    classpath = sourceSets["loadTest"].runtimeClasspath
+    mainClass.set("io.hhplus.tdd.loadtest.PointLoadTest")
+    project.properties.filterKeys { it.startsWith("loadTest.") }
+        .forEach { (key, value) -> systemProperty(key, value.toString()) }
+}
+
+// startup tasks
+// ./gradlew cdsArchive packages the app and its AOT classes as build/cds/app.jar (dependencies in build/cds/lib)
+// and records build/cds/app.jsa from a fast-startup training run that exits once the context is refreshed
+// AOT processing runs only for this jar, so bootJar and regular builds stay on the plain classes
+// ./gradlew startupBenchmark -Pstartup.runs=10 compares time to the first successful GET /point/{id}
+// for the plain boot jar, the fast-startup profile, and the profile with AOT and CDS
+val cdsDir = layout.buildDirectory.dir("cds")
+val cdsAotDir = cdsDir.map { it.dir("aot") }
+val cdsProcessAot = tasks.register<JavaExec>("cdsProcessAot") {
+    group = "build"
+    description = "Generates Spring AOT sources, resources and classes for the CDS jar."
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("org.springframework.boot.SpringApplicationAotProcessor")
+    args(
+        "io.hhplus.tdd.TddApplication",
+        cdsAotDir.get().dir("sources").asFile.absolutePath,
+        cdsAotDir.get().dir("resources").asFile.absolutePath,
+        cdsAotDir.get().dir("classes").asFile.absolutePath,
+        project.group.toString(),
+        project.name
+    )
+    outputs.dir(cdsAotDir.map { it.dir("sources") })
+    outputs.dir(cdsAotDir.map { it.dir("resources") })
+    outputs.dir(cdsAotDir.map { it.dir("classes") })
+    doFirst {
+        delete(cdsAotDir)
+    }
+}
+val cdsCompileAot = tasks.register<JavaCompile>("cdsCompileAot") {
+    group = "build"
+    description = "Compiles the AOT-generated sources for the CDS jar."
+    dependsOn(cdsProcessAot)
+    source(cdsAotDir.map { it.dir("sources") })
+    classpath = sourceSets.main.get().runtimeClasspath
+    destinationDirectory.set(cdsAotDir.map { it.dir("compiled") })
+}
+val cdsLibs = tasks.register<Sync>("cdsLibs") {
+    from(configurations.runtimeClasspath)
+    into(cdsDir.map { it.dir("lib") })
+}
+val cdsJar = tasks.register<Jar>("cdsJar") {
+    group = "build"
+    description = "Packages the application and its AOT-generated classes as a plain jar with a lib/ class path."
+    dependsOn(cdsLibs, cdsCompileAot)
+    archiveFileName.set("app.jar")
+    destinationDirectory.set(cdsDir)
+    duplicatesStrategy = DuplicatesStrategy.EXCLUDE
+    from(sourceSets.main.get().output)
+    from(cdsCompileAot)
+    from(cdsAotDir.map { it.dir("resources") })
+    from(cdsAotDir.map { it.dir("classes") })
+    val classPath = configurations.runtimeClasspath.map { files -> files.joinToString(" ") { "lib/${it.name}" } }
+    manifest {
+        attributes("Main-Class" to "io.hhplus.tdd.TddApplication")
+    }
+    doFirst {
+        manifest.attributes("Class-Path" to classPath.get())
+    }
+}
+val cdsArchive = tasks.register<JavaExec>("cdsArchive") {
+    group = "build"
+    description = "Records a class data sharing archive from a training run of build/cds/app.jar."
+    val archive = cdsDir.map { it.file("app.jsa") }
+    dependsOn(cdsJar)
+    classpath = files(cdsJar)
+    mainClass.set("io.hhplus.tdd.TddApplication")
+    jvmArgs("-XX:ArchiveClassesAtExit=${archive.get().asFile.absolutePath}", "-Dspring.aot.enabled=true", "-Dspring.context.exit=onRefresh")
+    args("--spring.profiles.active=fast-startup")
+    outputs.file(archive)
+}
+tasks.register<JavaExec>("startupBenchmark") {
+    group = "verification"
+    description = "Measures time to the first successful GET /point/{id} for default and startup-optimized launches."
+    dependsOn("bootJar", cdsArchive)
+    classpath = sourceSets["loadTest"].runtimeClasspath
+    mainClass.set("io.hhplus.tdd.loadtest.StartupBenchmark")
+    systemProperty("startup.java", javaLauncher.get().executablePath.asFile.absolutePath)
+    systemProperty("startup.bootJar", tasks.named<Jar>("bootJar").get().archiveFile.get().asFile.absolutePath)
+    systemProperty("startup.cdsJar", cdsJar.get().archiveFile.get().asFile.absolutePath)
+    systemProperty("startup.cdsArchive", cdsDir.get().file("app.jsa").asFile.absolutePath)
+    systemProperty("startup.logDir", layout.buildDirectory.dir("startup").get().asFile.absolutePath)
+    project.properties.filterKeys { it.startsWith("startup.") }
+        .forEach { (key, value) -> systemProperty(key, value.toString()) }
+}
@@ -0,0 +1,69 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.database.PointBalanceProperties;
+import io.hhplus.tdd.database.UserPointRepository;
+import io.hhplus.tdd.point.UserPoint;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 잔고 저장 방식별 조회/갱신 비용과 요청당 할당량 (테이블의 HashMap<Long, UserPoint> vs 원시 타입 해시 테이블)
+ * 요청당 할당 바이트는 gc 프로파일러의 gc.alloc.rate.norm 으로 확인한다.
+ * ./gradlew jmh -Pjmh.includes=BalanceStoreBenchmark -Pjmh.profilers=gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(4)
+public class BalanceStoreBenchmark {
+
+    private static final int USER_COUNT = 100_000;
+
+    @Param({"TABLE", "PRIMITIVE"})
+    public PointBalanceProperties.Store store;
+
+    private UserPointRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = BenchmarkRepositories.userPointRepository(false, store);
+        // 절반만 채워 조회의 절반은 잔고가 없는 사용자가 되도록 한다.
+        for (long id = 1; id <= USER_COUNT; id += 2) {
+            repository.insertOrUpdate(id, 1_000L);
+        }
+    }
+
+    /**
+     * 충전/사용이 잔고를 읽는 경로
+     */
+    @Benchmark
+    public long selectPoint() {
+        return repository.selectPoint(randomUser());
+    }
+
+    /**
+     * 잔고 조회 응답을 만드는 경로
+     */
+    @Benchmark
+    public UserPoint selectById() {
+        return repository.selectById(randomUser());
+    }
+
+    /**
+     * 충전 한 건의 읽기-갱신, 응답으로 돌려줄 UserPoint 는 양쪽 모두 만든다.
+     */
+    @Benchmark
+    public UserPoint charge() {
+        long id = randomUser();
+        return repository.insertOrUpdate(id, repository.selectPoint(id) + 1);
+    }
+
+    private long randomUser() {
+        return ThreadLocalRandom.current().nextLong(1, USER_COUNT + 1);
+    }
+}
@@ -0,0 +1,59 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.database.IndexedPointHistoryRepository;
+import io.hhplus.tdd.database.OffHeapPointHistoryRepository;
+import io.hhplus.tdd.database.PointBalanceProperties;
+import io.hhplus.tdd.database.PointHistoryProperties;
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.PointShards;
+import io.hhplus.tdd.database.PrimitiveUserPointRepository;
+import io.hhplus.tdd.database.TablePointHistoryRepository;
+import io.hhplus.tdd.database.TableUserPointRepository;
+import io.hhplus.tdd.database.UserPointRepository;
+import io.hhplus.tdd.database.UserPointTable;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 벤치마크용 저장소 조립
+ * - throttled 가 true 이면 원래 테이블(모의 I/O 지연 포함)을, false 이면 지연 없는 테이블을 사용해 순수 서비스 비용만 측정한다.
+ * - 테이블은 항상 운영과 같은 어댑터로 감싸므로, 스레드 안전하지 않은 원래 테이블도 여러 스레드에서 호출할 수 있다.
+ */
+final class BenchmarkRepositories {
+
+    private BenchmarkRepositories() {
+    }
+
+    static UserPointRepository userPointRepository(boolean throttled) {
+        return new TableUserPointRepository(throttled ? new UserPointTable() : new UnthrottledUserPointTable());
+    }
+
+    static UserPointRepository userPointRepository(boolean throttled, PointBalanceProperties.Store store) {
+        return store == PointBalanceProperties.Store.PRIMITIVE ? new PrimitiveUserPointRepository() : userPointRepository(throttled);
+    }
+
+    static PointHistoryRepository pointHistoryRepository(boolean throttled, PointHistoryProperties.Store store) {
+        if (store == PointHistoryProperties.Store.OFF_HEAP) return new OffHeapPointHistoryRepository();
+
+        PointHistoryTable table = throttled ? new PointHistoryTable() : new UnthrottledPointHistoryTable();
+        PointHistoryRepository repository = new TablePointHistoryRepository(table);
+        return store == PointHistoryProperties.Store.INDEXED ? new IndexedPointHistoryRepository(repository) : repository;
+    }
+
+    /**
+     * 샤드마다 지연 없는 테이블을 따로 두는 샤딩 저장소
+     * 운영 조립과 같이 한 샤드의 잔고/내역 테이블을 샤드마다 하나인 락으로 감싼다.
+     */
+    static PointShards pointShards(int count) {
+        UserPointRepository[] balances = new UserPointRepository[count];
+        PointHistoryRepository[] histories = new PointHistoryRepository[count];
+        for (int i = 0; i < count; i++) {
+            ReadWriteLock shardLock = new ReentrantReadWriteLock();
+            balances[i] = new TableUserPointRepository(new UnthrottledUserPointTable(), shardLock);
+            histories[i] = new TablePointHistoryRepository(new UnthrottledPointHistoryTable(), shardLock);
+        }
+        return new PointShards(128, balances, histories);
+    }
+}
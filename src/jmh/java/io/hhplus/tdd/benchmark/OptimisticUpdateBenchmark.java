@@ -0,0 +1,108 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.database.PointHistoryProperties;
+import io.hhplus.tdd.database.PointUpdateProperties;
+import io.hhplus.tdd.database.UserPointRepository;
+import io.hhplus.tdd.database.VersionedUserPointRepository;
+import io.hhplus.tdd.point.PointMetrics;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.UserLockManager;
+import io.hhplus.tdd.point.UserPoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 잔고 갱신 방식별 충전/사용 처리량 (사용자 락 vs 버전 조건부 쓰기)
+ * - contention=low : 10 만 명에게 고르게 나눠 겹치는 일이 거의 없는 경우
+ * - contention=high : 4 명에게 몰려 같은 사용자의 갱신이 계속 겹치는 경우
+ * OPTIMISTIC 의 조건부 쓰기 시도 수, 겹친 수, 포기한 수는 보조 지표(attempts, conflicts, exhausted)로 남긴다.
+ * ./gradlew jmh -Pjmh.includes=OptimisticUpdateBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(8)
+public class OptimisticUpdateBenchmark {
+
+    private static final long INITIAL_POINT = 1_000_000_000L;
+
+    @Param({"LOCK", "OPTIMISTIC"})
+    public PointUpdateProperties.Mode mode;
+
+    @Param({"low", "high"})
+    public String contention;
+
+    private PointService pointService;
+    private VersionedUserPointRepository versioned;
+    private int users;
+
+    /**
+     * 내역이 계속 쌓이므로 반복마다 새 저장소로 시작한다.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UserPointRepository userPointRepository = BenchmarkRepositories.userPointRepository(false);
+        if (mode == PointUpdateProperties.Mode.OPTIMISTIC) {
+            versioned = new VersionedUserPointRepository(userPointRepository, 100, Duration.ofNanos(1_000), Duration.ofMillis(1),
+                    Duration.ofSeconds(5));
+            userPointRepository = versioned;
+        }
+        pointService = new PointService(
+                userPointRepository,
+                BenchmarkRepositories.pointHistoryRepository(false, PointHistoryProperties.Store.OFF_HEAP),
+                new UserLockManager(meterRegistry),
+                new PointMetrics(meterRegistry));
+        users = "high".equals(contention) ? 4 : 100_000;
+        // 사용 요청이 잔고 부족으로 실패하지 않도록 미리 충전해 둔다.
+        for (long id = 1; id <= users; id++) {
+            pointService.charge(id, INITIAL_POINT);
+        }
+    }
+
+    @Benchmark
+    public UserPoint chargeAndUse(Conflicts conflicts) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = random.nextLong(1, users + 1);
+        // 충전 3 : 사용 1 비율
+        UserPoint updated = random.nextInt(4) != 0 ? pointService.charge(id, 10L) : pointService.use(id, 10L);
+        conflicts.record(versioned);
+        return updated;
+    }
+
+    /**
+     * 반복마다 새로 만든 저장소의 누적 수
+     * 스레드별 값은 합쳐 보고되므로, 저장소 전체의 수는 첫 스레드가 호출마다 읽어 담고 나머지 스레드는 0 으로 둔다.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Conflicts {
+
+        public long attempts;
+        public long conflicts;
+        public long exhausted;
+
+        private boolean reporter;
+
+        @Setup(Level.Trial)
+        public void setUp(ThreadParams threadParams) {
+            reporter = threadParams.getThreadIndex() == 0;
+        }
+
+        void record(VersionedUserPointRepository versioned) {
+            if (!reporter || versioned == null) return;
+            attempts = versioned.attemptCount();
+            conflicts = versioned.conflictCount();
+            exhausted = versioned.exhaustedCount();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.database.PointHistoryProperties;
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.point.TransactionType;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 내역 저장 방식별 메모리 사용량과 GC 비용
+ * 내역을 채운 뒤 전체 GC 를 일으켜 걸린 시간(살아 있는 힙을 모두 훑는 비용)을 재고,
+ * GC 뒤의 힙 사용량, 힙 밖 사용량, GC 누적 시간을 보조 지표로 남긴다.
+ * ./gradlew jmh -Pjmh.includes=PointHistoryFootprintBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g", "-XX:+UseG1GC"})
+public class PointHistoryFootprintBenchmark {
+
+    private static final int USER_COUNT = 10_000;
+
+    @Param({"10000000"})
+    public int rows;
+
+    @Param({"TABLE", "INDEXED", "OFF_HEAP"})
+    public PointHistoryProperties.Store store;
+
+    private PointHistoryRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = BenchmarkRepositories.pointHistoryRepository(false, store);
+        for (int i = 0; i < rows; i++) {
+            repository.insert(i % USER_COUNT + 1, 100L, i % 3 == 0 ? TransactionType.USE : TransactionType.CHARGE, i);
+        }
+    }
+
+    @Benchmark
+    public PointHistoryRepository fullGc(Footprint footprint) {
+        System.gc();
+        footprint.record();
+        // 측정 중에 저장소가 수거되지 않도록 돌려준다.
+        return repository;
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        public long heapUsedMegabytes;
+        public long offHeapMegabytes;
+        public long gcMillis;
+
+        void record() {
+            heapUsedMegabytes = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() >> 20;
+            offHeapMegabytes = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                    .filter(pool -> pool.getName().equals("direct"))
+                    .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                    .sum() >> 20;
+            gcMillis = ManagementFactory.getGarbageCollectorMXBeans().stream()
+                    .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                    .sum();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.database.PointHistoryProperties;
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryQuery;
+import io.hhplus.tdd.point.TransactionType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 전체 내역 수에 따른 사용자 내역 조회 비용 (테이블 전체 탐색 vs 사용자별 색인 vs 힙 밖 열 저장소)
+ * 테이블 지연은 빼고 조회 자체의 비용만 측정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class PointHistoryScanBenchmark {
+
+    private static final int USER_COUNT = 10_000;
+
+    @Param({"1000000", "10000000"})
+    public int rows;
+
+    @Param({"TABLE", "INDEXED", "OFF_HEAP"})
+    public PointHistoryProperties.Store store;
+
+    private PointHistoryRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        repository = BenchmarkRepositories.pointHistoryRepository(false, store);
+        for (int i = 0; i < rows; i++) {
+            repository.insert(i % USER_COUNT + 1, 100L, i % 3 == 0 ? TransactionType.USE : TransactionType.CHARGE, i);
+        }
+    }
+
+    @Benchmark
+    public List<PointHistory> selectAllByUserId() {
+        return repository.selectAllByUserId(randomUser());
+    }
+
+    @Benchmark
+    public List<PointHistory> selectFirstPage() {
+        return repository.selectByUserId(randomUser(), PointHistoryQuery.all().toPage());
+    }
+
+    private long randomUser() {
+        return ThreadLocalRandom.current().nextLong(1, USER_COUNT + 1);
+    }
+}
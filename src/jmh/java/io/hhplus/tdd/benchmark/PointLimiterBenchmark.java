@@ -0,0 +1,52 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.point.PointConcurrencyLimitProperties;
+import io.hhplus.tdd.point.PointConcurrencyLimiter;
+import io.hhplus.tdd.point.PointRateLimitProperties;
+import io.hhplus.tdd.point.PointRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 제한에 걸리지 않는 요청에 요청 수/동시 처리 수 제한이 더하는 비용
+ * 한도를 넉넉히 두어 거절되지 않는 경로만 측정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(8)
+public class PointLimiterBenchmark {
+
+    private static final int USER_COUNT = 10_000;
+
+    private PointRateLimiter rateLimiter;
+    private PointConcurrencyLimiter concurrencyLimiter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new PointRateLimiter(
+                new PointRateLimitProperties(true, 1e9, 1_000_000, 1e9, 1_000_000, USER_COUNT), meterRegistry);
+        concurrencyLimiter = new PointConcurrencyLimiter(
+                new PointConcurrencyLimitProperties(true, 1000, 1000, 1000, Duration.ofSeconds(1), 0.9), meterRegistry);
+    }
+
+    @Benchmark
+    public void rateLimit() {
+        rateLimiter.acquire(ThreadLocalRandom.current().nextLong(1, USER_COUNT + 1));
+    }
+
+    @Benchmark
+    public void rateAndConcurrencyLimit() {
+        rateLimiter.acquire(ThreadLocalRandom.current().nextLong(1, USER_COUNT + 1));
+        concurrencyLimiter.acquire();
+        concurrencyLimiter.release(1_000L);
+    }
+}
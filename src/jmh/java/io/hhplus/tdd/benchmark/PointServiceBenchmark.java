@@ -0,0 +1,100 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.database.PointHistoryProperties;
+import io.hhplus.tdd.point.PointMetrics;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.UserLockManager;
+import io.hhplus.tdd.point.UserPoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PointService 의 충전/사용/조회 처리량
+ * - singleUser : 모든 스레드가 한 사용자에게 몰리는 경합 상황
+ * - uniform : 모든 사용자에게 고르게 분산
+ * - zipfian : 소수의 인기 사용자에게 요청이 몰리는 분포
+ * - throttled=false 이면 테이블 지연을 뺀 순수 서비스 비용을 측정한다.
+ * - throttled=true 이면 원래 테이블을 운영과 같은 어댑터({@code TableUserPointRepository}, {@code TablePointHistoryRepository})로 감싸
+ *   테이블 단위 락 아래에서 호출하므로, 여러 스레드로 측정해도 테이블이 깨지지 않는다. 이때 처리량은 테이블 지연에 묶인다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(8)
+public class PointServiceBenchmark {
+
+    private static final int USER_COUNT = 10_000;
+    private static final long INITIAL_POINT = 1_000_000_000L;
+
+    @Param({"false", "true"})
+    public boolean throttled;
+
+    @Param({"TABLE", "INDEXED"})
+    public PointHistoryProperties.Store historyStore;
+
+    private PointService pointService;
+    private ZipfianGenerator zipfian;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 운영과 같은 계측 비용이 포함되도록 지표를 켠 채로 측정한다.
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        pointService = new PointService(
+                BenchmarkRepositories.userPointRepository(throttled),
+                BenchmarkRepositories.pointHistoryRepository(throttled, historyStore),
+                new UserLockManager(meterRegistry),
+                new PointMetrics(meterRegistry));
+        zipfian = new ZipfianGenerator(USER_COUNT, 0.99);
+        if (!throttled) {
+            // 사용 요청이 잔고 부족으로 실패하지 않도록 미리 충전해 둔다.
+            for (long id = 1; id <= USER_COUNT; id++) {
+                pointService.charge(id, INITIAL_POINT);
+            }
+        }
+    }
+
+    @Benchmark
+    public UserPoint singleUserCharge() {
+        return pointService.charge(1L, 1L);
+    }
+
+    @Benchmark
+    public UserPoint uniformChargeAndUse() {
+        return chargeOrUse(ThreadLocalRandom.current().nextLong(1, USER_COUNT + 1));
+    }
+
+    @Benchmark
+    public UserPoint zipfianChargeAndUse() {
+        return chargeOrUse(zipfian.next());
+    }
+
+    @Benchmark
+    public UserPoint uniformPoint() {
+        return pointService.point(ThreadLocalRandom.current().nextLong(1, USER_COUNT + 1));
+    }
+
+    @Benchmark
+    public List<?> zipfianHistory() {
+        return pointService.history(zipfian.next());
+    }
+
+    private UserPoint chargeOrUse(long id) {
+        // 충전 3 : 사용 1 비율
+        if (ThreadLocalRandom.current().nextInt(4) != 0) {
+            return pointService.charge(id, 10L);
+        }
+        try {
+            return pointService.use(id, 10L);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package io.hhplus.tdd.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.point.PointBinaryFormat;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 내역 목록 응답의 직렬화 비용과 크기 (JSON vs application/x-point-binary)
+ * 쓰기는 응답 스트림 대신 바이트 수만 세는 스트림에 쓰고, 읽기는 미리 만든 본문을 목록으로 되돌린다.
+ * 본문 크기(bytes on wire)는 보조 지표(wireBytes)로 남긴다.
+ * ./gradlew jmh -Pjmh.includes=PointWireFormatBenchmark -Pjmh.profilers=gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class PointWireFormatBenchmark {
+
+    private static final TypeReference<List<PointHistory>> HISTORIES = new TypeReference<>() {
+    };
+
+    @Param({"10000"})
+    public int rows;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private List<PointHistory> histories;
+    private byte[] json;
+    private byte[] binary;
+
+    /**
+     * 한 사용자의 id 순 내역, 금액과 시각은 실제처럼 흩어 둔다.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        histories = new ArrayList<>(rows);
+        long id = 1_000_000L;
+        long updateMillis = System.currentTimeMillis();
+        for (int i = 0; i < rows; i++) {
+            id += random.nextLong(1, 500);
+            updateMillis += random.nextLong(0, 60_000);
+            histories.add(new PointHistory(id, 42L, random.nextLong(1, 100_000),
+                    random.nextInt(3) == 0 ? TransactionType.USE : TransactionType.CHARGE, updateMillis));
+        }
+
+        json = objectMapper.writeValueAsBytes(histories);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PointBinaryFormat.writeHistories(histories, out);
+        binary = out.toByteArray();
+    }
+
+    @Benchmark
+    public long writeJson(Wire wire) throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        objectMapper.writeValue(out, histories);
+        wire.wireBytes = out.count;
+        return out.count;
+    }
+
+    @Benchmark
+    public long writeBinary(Wire wire) throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        PointBinaryFormat.writeHistories(histories, out);
+        wire.wireBytes = out.count;
+        return out.count;
+    }
+
+    @Benchmark
+    public List<PointHistory> readJson(Wire wire) throws IOException {
+        wire.wireBytes = json.length;
+        return objectMapper.readValue(new ByteArrayInputStream(json), HISTORIES);
+    }
+
+    @Benchmark
+    public List<PointHistory> readBinary(Wire wire) throws IOException {
+        wire.wireBytes = binary.length;
+        return PointBinaryFormat.readHistories(new ByteArrayInputStream(binary));
+    }
+
+    /**
+     * 한 번 쓰거나 읽은 본문의 바이트 수
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Wire {
+
+        public long wireBytes;
+    }
+
+    /**
+     * 응답 스트림 대신 쓴 바이트 수만 센다. (Jackson 이 쓰고 나서 닫아도 계속 쓸 수 있다)
+     */
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
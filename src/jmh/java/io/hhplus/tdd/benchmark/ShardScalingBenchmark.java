@@ -0,0 +1,55 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.database.PointShards;
+import io.hhplus.tdd.point.PointMetrics;
+import io.hhplus.tdd.point.PointService;
+import io.hhplus.tdd.point.UserLockManager;
+import io.hhplus.tdd.point.UserPoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 샤드 수에 따른 충전 처리량
+ * - 운영과 같이 샤드마다 하나인 락이 그 샤드의 잔고/내역 테이블 호출을 감싸므로, shards=1 이면 모든 스레드가 한 락을 두고 다툰다.
+ * - 스레드 수를 늘려 가며 측정해 shards=1 은 제자리이고 샤드를 나눈 경우 처리량이 코어 수에 비례해 늘어나는지 확인한다.
+ * ./gradlew jmh -Pjmh.includes=ShardScalingBenchmark -Pjmh.threads=8
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(Threads.MAX)
+public class ShardScalingBenchmark {
+
+    private static final int USER_COUNT = 100_000;
+
+    @Param({"1", "4", "16"})
+    public int shards;
+
+    private PointService pointService;
+
+    /**
+     * 내역이 계속 쌓이므로 반복마다 새 저장소로 시작한다.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PointShards pointShards = BenchmarkRepositories.pointShards(shards);
+        pointService = new PointService(
+                pointShards.userPointRepository(),
+                pointShards.pointHistoryRepository(),
+                new UserLockManager(meterRegistry),
+                new PointMetrics(meterRegistry));
+    }
+
+    @Benchmark
+    public UserPoint uniformCharge() {
+        return pointService.charge(ThreadLocalRandom.current().nextLong(1, USER_COUNT + 1), 10L);
+    }
+}
@@ -0,0 +1,28 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.UserPoint;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 지연(throttle) 없이 {@link UserPointTable} 과 같은 방식(HashMap)으로 잔고를 다루는 벤치마크용 테이블
+ * 원래 테이블처럼 잠그지 않으므로, 운영과 같이 {@link io.hhplus.tdd.database.TableUserPointRepository} 의 락으로 감싸 쓴다.
+ */
+class UnthrottledUserPointTable extends UserPointTable {
+
+    private final Map<Long, UserPoint> table = new HashMap<>();
+
+    @Override
+    public UserPoint selectById(Long id) {
+        return table.getOrDefault(id, UserPoint.empty(id));
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        UserPoint userPoint = new UserPoint(id, amount, System.currentTimeMillis());
+        table.put(id, userPoint);
+        return userPoint;
+    }
+}
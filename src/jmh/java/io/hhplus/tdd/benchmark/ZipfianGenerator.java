@@ -0,0 +1,40 @@
+package io.hhplus.tdd.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 1 ~ n 사이의 값을 Zipf 분포로 뽑는다. 작은 값일수록 자주 나와 소수의 사용자에게 요청이 몰리는 상황을 흉내 낸다.
+ * (Gray et al., "Quickly Generating Billion-Record Synthetic Databases" 의 방식)
+ */
+final class ZipfianGenerator {
+
+    private final long items;
+    private final double theta;
+    private final double alpha;
+    private final double zetaN;
+    private final double eta;
+
+    ZipfianGenerator(long items, double theta) {
+        this.items = items;
+        this.theta = theta;
+        this.alpha = 1.0 / (1.0 - theta);
+        this.zetaN = zeta(items, theta);
+        this.eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta(2, theta) / zetaN);
+    }
+
+    long next() {
+        double u = ThreadLocalRandom.current().nextDouble();
+        double uz = u * zetaN;
+        if (uz < 1.0) return 1;
+        if (uz < 1.0 + Math.pow(0.5, theta)) return 2;
+        return 1 + (long) (items * Math.pow(eta * u - eta + 1, alpha));
+    }
+
+    private static double zeta(long n, double theta) {
+        double sum = 0;
+        for (long i = 1; i <= n; i++) {
+            sum += 1 / Math.pow(i, theta);
+        }
+        return sum;
+    }
+}
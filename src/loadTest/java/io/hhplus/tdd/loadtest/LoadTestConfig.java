@@ -0,0 +1,85 @@
+package io.hhplus.tdd.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 부하 시험 설정, 시스템 속성(loadTest.*)으로 바꾼다.
+ * - rate : 초당 도착하는 요청 수 (응답을 기다리지 않고 보내는 열린 모델, 도착 간격은 지수 분포)
+ *   기본값 20 은 기본 조립(테이블을 사용자 id 로 나눔, 사용자 락)에서 기본 분포로 통과하는 값이다. zipfian(theta 0.99, 1000 명)에서는
+ *   가장 인기 있는 사용자가 쓰기의 약 14% 를 받고, 같은 사용자의 충전/사용은 사용자 락에서 한 건씩(테이블 지연으로 건당 평균 약 400ms) 처리되므로
+ *   초당 약 30 건에서 그 사용자의 대기열이 끝없이 늘어난다. 더 높은 도착률은 uniform 분포(기본 조립에서 초당 200 건까지 실패 없음)나
+ *   테이블을 대신하는 저장소(--point.balance.store=PRIMITIVE 등)로 잰다.
+ * - duration : 측정 시간 (예: 30s, 2m)
+ * - users / distribution / theta : 요청할 사용자 수와 분포(uniform, zipfian), zipfian 의 치우침 정도
+ * - mix : 요청 종류별 비율 (예: charge=40,use=20,point=30,history=10)
+ * - amount : 충전/사용 금액의 최댓값, 1 ~ amount 사이에서 고른다.
+ * - initialPoint : 측정 전에 모든 사용자에게 충전해 두는 포인트, 사용 요청이 잔고 부족으로 실패하지 않게 한다.
+ * - maxInFlight : 응답을 기다리는 요청 수의 상한, 넘으면 보내지 않고 버린 것으로 센다.
+ * - timeout : 요청 하나의 응답 제한 시간
+ * - maxErrorRate : 이 비율을 넘게 실패하면 시험을 실패로 끝낸다.
+ * - app : 애플리케이션에 넘길 인자 (예: "--point.history.store=INDEXED --point.shard.enabled=true")
+ */
+record LoadTestConfig(
+        int rate,
+        Duration duration,
+        int users,
+        String distribution,
+        double theta,
+        Map<Operation, Integer> mix,
+        long amount,
+        long initialPoint,
+        int maxInFlight,
+        Duration timeout,
+        double maxErrorRate,
+        List<String> app
+) {
+
+    enum Operation {
+        CHARGE, USE, POINT, HISTORY
+    }
+
+    static LoadTestConfig fromSystemProperties() {
+        LoadTestConfig config = new LoadTestConfig(
+                Integer.parseInt(property("rate", "20")),
+                duration(property("duration", "30s")),
+                Integer.parseInt(property("users", "1000")),
+                property("distribution", "zipfian"),
+                Double.parseDouble(property("theta", "0.99")),
+                mix(property("mix", "charge=40,use=20,point=30,history=10")),
+                Long.parseLong(property("amount", "100")),
+                Long.parseLong(property("initialPoint", "1000000")),
+                Integer.parseInt(property("maxInFlight", "10000")),
+                duration(property("timeout", "30s")),
+                Double.parseDouble(property("maxErrorRate", "0.01")),
+                Arrays.stream(property("app", "").trim().split("\\s+")).filter(arg -> !arg.isEmpty()).toList());
+        if (config.rate <= 0) throw new IllegalArgumentException("rate 는 1 이상이어야 합니다: " + config.rate);
+        if (config.users <= 0) throw new IllegalArgumentException("users 는 1 이상이어야 합니다: " + config.users);
+        if (config.amount <= 0) throw new IllegalArgumentException("amount 는 1 이상이어야 합니다: " + config.amount);
+        return config;
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadTest." + name, defaultValue);
+    }
+
+    private static Duration duration(String value) {
+        return Duration.parse("PT" + value.toUpperCase());
+    }
+
+    private static Map<Operation, Integer> mix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] pair = entry.trim().split("=");
+            if (pair.length != 2) throw new IllegalArgumentException("잘못된 mix 항목: " + entry);
+            mix.put(Operation.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("mix 의 비율 합은 1 이상이어야 합니다: " + value);
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,325 @@
+package io.hhplus.tdd.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.TddApplication;
+import io.hhplus.tdd.loadtest.LoadTestConfig.Operation;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 애플리케이션을 임의 포트로 띄우고 실제 HTTP API 로 부하를 건 뒤, 처리량/지연/실패율과 잔고 정합성을 확인한다.
+ * - 열린 모델: 요청은 정해진 도착률(지수 분포 간격)로 응답을 기다리지 않고 보낸다. 지연은 보내려던 시각부터 재므로,
+ *   서버가 밀려 요청을 늦게 보낸 시간도 지연에 포함된다(coordinated omission 보정).
+ * - 정합성: 모든 요청이 끝난 뒤 사용자마다 잔고가 내역의 충전 합계 - 사용 합계와 같은지 확인한다.
+ *   결과가 확실한 충전/사용(성공, 또는 처리 전에 거절된 429/503)만 있었던 사용자는 클라이언트가 센 잔고와도 비교한다.
+ * - 실패율이 maxErrorRate 를 넘거나 정합성이 맞지 않으면 종료 코드 1 로 끝나므로 성능 변경의 관문으로 쓴다.
+ * 설정은 {@link LoadTestConfig} 를 참고한다.
+ */
+public class PointLoadTest {
+
+    private static final int VERIFY_CONCURRENCY = 64;
+    private static final int MAX_EXAMPLES = 10;
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final LoadTestConfig config;
+    private final HttpClient client;
+    private final String baseUrl;
+    private final UserIdSampler sampler;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+    // 클라이언트가 센 사용자별 잔고, 결과를 알 수 없는 충전/사용이 있었던 사용자는 uncertain 에 넣고 비교하지 않는다.
+    private final ConcurrentHashMap<Long, LongAdder> ledger = new ConcurrentHashMap<>();
+    private final Set<Long> uncertain = ConcurrentHashMap.newKeySet();
+
+    PointLoadTest(LoadTestConfig config, HttpClient client, int port) {
+        this.config = config;
+        this.client = client;
+        this.baseUrl = "http://localhost:" + port + "/point/";
+        this.sampler = new UserIdSampler(config.users(), config.distribution(), config.theta());
+        this.operations = config.mix().keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int sum = 0;
+        for (int i = 0; i < operations.length; i++) {
+            sum += config.mix().get(operations[i]);
+            cumulativeWeights[i] = sum;
+        }
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        List<String> appArgs = new ArrayList<>(List.of("--server.port=0", "--logging.level.root=WARN"));
+        appArgs.addAll(config.app());
+
+        boolean passed;
+        ConfigurableApplicationContext context = SpringApplication.run(TddApplication.class, appArgs.toArray(String[]::new));
+        try (ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientExecutor)
+                    .build();
+
+            PointLoadTest loadTest = new PointLoadTest(config, client, port);
+            System.out.printf("사용자 %d 명, %s 분포, 초당 %d 건, %s 동안, 비율 %s, 애플리케이션 인자 %s%n",
+                    config.users(), config.distribution(), config.rate(), config.duration(), config.mix(), config.app());
+            // 모든 사용자에게 미리 충전해 두는 동안 연결 수립과 JIT 예열도 함께 끝낸다.
+            loadTest.seed();
+            long elapsedNanos = loadTest.run();
+            passed = loadTest.report(elapsedNanos) & loadTest.verify();
+        } finally {
+            context.close();
+        }
+        System.out.println(passed ? "\n통과" : "\n실패");
+        System.exit(passed ? 0 : 1);
+    }
+
+    private void seed() throws InterruptedException {
+        for (long userId = 1; userId <= config.users(); userId++) {
+            ledger.put(userId, new LongAdder());
+        }
+        if (config.initialPoint() <= 0) return;
+
+        forEachUser(userId -> {
+            HttpResponse<Void> response = client.send(write(userId, "charge", config.initialPoint()), HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() == 200) {
+                ledger.get(userId).add(config.initialPoint());
+            } else {
+                uncertain.add(userId);
+            }
+        });
+    }
+
+    /**
+     * 측정 시간 동안 도착률에 맞춰 요청을 보내고, 보낸 요청이 모두 끝날 때까지 기다린 시간을 돌려준다.
+     */
+    private long run() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / (double) config.rate();
+        long durationNanos = config.duration().toNanos();
+        long start = System.nanoTime();
+        double offset = 0;
+        while (true) {
+            offset += -Math.log(1 - random.nextDouble()) * meanIntervalNanos;
+            if (offset >= durationNanos) break;
+
+            long intended = start + (long) offset;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+            if (inFlight.get() >= config.maxInFlight()) {
+                dropped.increment();
+                continue;
+            }
+            send(nextOperation(random), sampler.next(), intended, random);
+        }
+
+        long deadline = System.nanoTime() + config.timeout().toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        return System.nanoTime() - start;
+    }
+
+    private void send(Operation operation, long userId, long intended, ThreadLocalRandom random) {
+        long amount = random.nextLong(1, config.amount() + 1);
+        HttpRequest request = switch (operation) {
+            case CHARGE -> write(userId, "charge", amount);
+            case USE -> write(userId, "use", amount);
+            case POINT -> read(baseUrl + userId);
+            case HISTORY -> read(baseUrl + userId + "/histories");
+        };
+
+        inFlight.incrementAndGet();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            int status = error == null ? response.statusCode() : -1;
+            stats.get(operation).record(System.nanoTime() - intended, status);
+            if (operation == Operation.CHARGE || operation == Operation.USE) {
+                if (status == 200) {
+                    ledger.get(userId).add(operation == Operation.CHARGE ? amount : -amount);
+                } else if (status != 429 && status != 503) {
+                    // 실패 응답(잔고 부족 포함)이나 응답 없음은 반영 여부를 알 수 없다. 429/503 은 처리 전에 거절된 것이다.
+                    uncertain.add(userId);
+                }
+            }
+            inFlight.decrementAndGet();
+        });
+    }
+
+    private Operation nextOperation(ThreadLocalRandom random) {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (pick < cumulativeWeights[i]) return operations[i];
+        }
+        return operations[operations.length - 1];
+    }
+
+    private boolean report(long elapsedNanos) {
+        System.out.printf("%n%-8s %9s %9s %8s %12s %9s %9s %9s %9s%n",
+                "request", "count", "ok", "errors", "throughput/s", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)");
+        long total = 0;
+        long errors = 0;
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            OperationStats operationStats = entry.getValue();
+            long count = operationStats.latencies.getTotalCount();
+            if (count == 0) continue;
+            total += count;
+            errors += operationStats.errors.sum();
+            System.out.printf("%-8s %9d %9d %8d %12.0f %9.1f %9.1f %9.1f %9.1f%n",
+                    entry.getKey().name().toLowerCase(),
+                    count,
+                    operationStats.ok.sum(),
+                    operationStats.errors.sum(),
+                    operationStats.ok.sum() * 1e9 / elapsedNanos,
+                    millis(operationStats.latencies.getValueAtPercentile(50)),
+                    millis(operationStats.latencies.getValueAtPercentile(99)),
+                    millis(operationStats.latencies.getValueAtPercentile(99.9)),
+                    millis(operationStats.latencies.getMaxValue()));
+            if (!operationStats.statuses.isEmpty()) {
+                System.out.printf("%-8s 실패 응답 %s (-1 은 응답 없음)%n", "", operationStats.statuses);
+            }
+        }
+
+        double errorRate = total == 0 ? 0 : (errors + dropped.sum()) / (double) (total + dropped.sum());
+        System.out.printf("%n전체 %d 건, 응답 대기 상한으로 보내지 못한 요청 %d 건, 아직 끝나지 않은 요청 %d 건, 실패율 %.2f%% (허용 %.2f%%)%n",
+                total, dropped.sum(), inFlight.get(), errorRate * 100, config.maxErrorRate() * 100);
+        return errorRate <= config.maxErrorRate() && inFlight.get() == 0;
+    }
+
+    /**
+     * 사용자마다 잔고와 내역 합계를 비교한다.
+     */
+    private boolean verify() throws InterruptedException {
+        LongAdder checked = new LongAdder();
+        List<String> inconsistent = new ArrayList<>();
+        List<String> ledgerMismatches = new ArrayList<>();
+        LongAdder failed = new LongAdder();
+
+        forEachUser(userId -> {
+            HttpResponse<String> point = client.send(read(baseUrl + userId), HttpResponse.BodyHandlers.ofString());
+            HttpResponse<String> histories = client.send(read(baseUrl + userId + "/histories/stream"), HttpResponse.BodyHandlers.ofString());
+            if (point.statusCode() != 200 || histories.statusCode() != 200) {
+                failed.increment();
+                return;
+            }
+
+            long balance = objectMapper.readTree(point.body()).get("point").asLong();
+            long historySum = 0;
+            for (String line : histories.body().split("\n")) {
+                if (line.isBlank()) continue;
+                JsonNode pointHistory = objectMapper.readTree(line);
+                long amount = pointHistory.get("amount").asLong();
+                historySum += "CHARGE".equals(pointHistory.get("type").asText()) ? amount : -amount;
+            }
+            checked.increment();
+            synchronized (inconsistent) {
+                if (balance != historySum) {
+                    inconsistent.add("사용자 " + userId + ": 잔고 " + balance + ", 내역 합계 " + historySum);
+                }
+                if (!uncertain.contains(userId) && balance != ledger.get(userId).sum()) {
+                    ledgerMismatches.add("사용자 " + userId + ": 잔고 " + balance + ", 클라이언트 합계 " + ledger.get(userId).sum());
+                }
+            }
+        });
+
+        System.out.printf("%n정합성 확인: 사용자 %d 명 (조회 실패 %d 명, 결과를 알 수 없는 요청이 있었던 사용자 %d 명)%n",
+                checked.sum(), failed.sum(), uncertain.size());
+        System.out.printf("잔고 != 내역 합계: %d 명%n", inconsistent.size());
+        inconsistent.stream().limit(MAX_EXAMPLES).forEach(example -> System.out.println("  " + example));
+        System.out.printf("잔고 != 클라이언트 합계: %d 명%n", ledgerMismatches.size());
+        ledgerMismatches.stream().limit(MAX_EXAMPLES).forEach(example -> System.out.println("  " + example));
+        return failed.sum() == 0 && inconsistent.isEmpty() && ledgerMismatches.isEmpty();
+    }
+
+    /**
+     * 모든 사용자에 대해 동시에 최대 VERIFY_CONCURRENCY 개씩 실행한다.
+     */
+    private void forEachUser(UserAction action) throws InterruptedException {
+        Semaphore permits = new Semaphore(VERIFY_CONCURRENCY);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long userId = 1; userId <= config.users(); userId++) {
+                long id = userId;
+                permits.acquire();
+                executor.execute(() -> {
+                    try {
+                        action.run(id);
+                    } catch (IOException | InterruptedException e) {
+                        uncertain.add(id);
+                        System.out.printf("사용자 %d 요청 실패: %s%n", id, e);
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private HttpRequest write(long userId, String action, long amount) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + userId + "/" + action))
+                .timeout(config.timeout())
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString(String.valueOf(amount)))
+                .build();
+    }
+
+    private HttpRequest read(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(config.timeout())
+                .GET()
+                .build();
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    @FunctionalInterface
+    private interface UserAction {
+        void run(long userId) throws IOException, InterruptedException;
+    }
+
+    private static final class OperationStats {
+
+        private final ConcurrentHistogram latencies = new ConcurrentHistogram(HIGHEST_LATENCY_MICROS, 3);
+        private final LongAdder ok = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final ConcurrentHashMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        private void record(long latencyNanos, int status) {
+            latencies.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_LATENCY_MICROS));
+            if (status >= 200 && status < 300) {
+                ok.increment();
+            } else {
+                errors.increment();
+                statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package io.hhplus.tdd.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 애플리케이션을 새 프로세스로 띄워 첫 GET /point/{id} 가 200 으로 응답하기까지 걸린 시간을 잰다.
+ * 시간은 프로세스를 띄우기 직전부터 재며, 실행 방식마다 runs 번씩 번갈아 띄워 중앙값을 비교한다.
+ * - default : bootJar 를 기본 설정으로 실행
+ * - lazy-warmup : bootJar 를 fast-startup 프로필(지연 초기화, 예열)로 실행
+ * - optimized : AOT 처리한 클래스를 담은 build/cds/app.jar 를 fast-startup 프로필과 CDS 아카이브로 실행
+ * 설정은 시스템 속성(startup.*)으로 받으며, ./gradlew startupBenchmark 가 jar 와 아카이브 경로를 넘긴다.
+ * 테이블 조회는 최대 200ms 동안 잠들어 측정을 흔들기 때문에, 기본으로 모든 실행에 원시 타입 잔고 저장소를 쓰게 한다. (startup.appArgs)
+ * 각 실행의 로그는 startup.logDir 에 남긴다.
+ */
+public class StartupBenchmark {
+
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(5);
+
+    public static void main(String[] args) throws Exception {
+        String java = System.getProperty("startup.java", Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        String bootJar = System.getProperty("startup.bootJar");
+        String cdsJar = System.getProperty("startup.cdsJar");
+        String cdsArchive = System.getProperty("startup.cdsArchive");
+        int runs = Integer.parseInt(System.getProperty("startup.runs", "5"));
+        long userId = Long.parseLong(System.getProperty("startup.userId", "1"));
+        Duration timeout = Duration.ofSeconds(Long.parseLong(System.getProperty("startup.timeoutSeconds", "120")));
+        Path logDir = Path.of(System.getProperty("startup.logDir", "build/startup"));
+        List<String> appArgs = Arrays.stream(System.getProperty("startup.appArgs", "--point.balance.store=PRIMITIVE").trim().split("\\s+"))
+                .filter(arg -> !arg.isEmpty())
+                .toList();
+        if (bootJar == null || cdsJar == null || cdsArchive == null) {
+            throw new IllegalArgumentException("startup.bootJar, startup.cdsJar, startup.cdsArchive 를 지정해야 합니다.");
+        }
+        Files.createDirectories(logDir);
+
+        Map<String, List<String>> variants = new LinkedHashMap<>();
+        variants.put("default", List.of(java, "-jar", bootJar));
+        variants.put("lazy-warmup", List.of(java, "-jar", bootJar, "--spring.profiles.active=fast-startup"));
+        variants.put("optimized", List.of(java, "-XX:SharedArchiveFile=" + cdsArchive, "-Dspring.aot.enabled=true",
+                "-jar", cdsJar, "--spring.profiles.active=fast-startup"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+        Map<String, long[]> results = new LinkedHashMap<>();
+        variants.keySet().forEach(name -> results.put(name, new long[runs]));
+        for (int run = 0; run < runs; run++) {
+            for (Map.Entry<String, List<String>> variant : variants.entrySet()) {
+                List<String> command = new ArrayList<>(variant.getValue());
+                command.addAll(appArgs);
+                long millis = measure(client, command, userId, timeout,
+                        logDir.resolve(variant.getKey() + "-" + run + ".log"));
+                results.get(variant.getKey())[run] = millis;
+                System.out.printf("%-12s run %d: %d ms%n", variant.getKey(), run + 1, millis);
+            }
+        }
+
+        System.out.printf("%n첫 GET /point/%d 성공까지 걸린 시간 (%d 회)%n", userId, runs);
+        System.out.printf("%-12s %8s %8s %8s%n", "variant", "min(ms)", "p50(ms)", "max(ms)");
+        for (Map.Entry<String, long[]> result : results.entrySet()) {
+            long[] sorted = result.getValue().clone();
+            Arrays.sort(sorted);
+            System.out.printf("%-12s %8d %8d %8d%n", result.getKey(), sorted[0], sorted[(sorted.length - 1) / 2], sorted[sorted.length - 1]);
+        }
+    }
+
+    /**
+     * 프로세스를 띄우고 첫 200 응답까지 조회를 반복한 뒤 프로세스를 끝낸다.
+     */
+    private static long measure(HttpClient client, List<String> baseCommand, long userId, Duration timeout, Path log)
+            throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>(baseCommand);
+        command.add("--server.port=" + port);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/point/" + userId))
+                .timeout(timeout)
+                .GET()
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            long deadline = start + timeout.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) throw new IllegalStateException("애플리케이션이 종료되었습니다. 로그: " + log);
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                } catch (IOException e) {
+                    // 아직 포트를 열지 않았거나 요청을 받을 준비가 안 됐다.
+                }
+                Thread.sleep(POLL_INTERVAL);
+            }
+            throw new IllegalStateException(timeout + " 안에 응답하지 않았습니다. 로그: " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) process.destroyForcibly().waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
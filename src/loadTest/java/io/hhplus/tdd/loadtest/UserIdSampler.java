@@ -0,0 +1,51 @@
+package io.hhplus.tdd.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 1 ~ users 사이의 사용자 id 를 고른다.
+ * - uniform : 모든 사용자를 같은 확률로
+ * - zipfian : 작은 id 일수록 자주, 소수의 인기 사용자에게 요청이 몰리는 상황
+ *   (Gray et al., "Quickly Generating Billion-Record Synthetic Databases" 의 방식)
+ */
+final class UserIdSampler {
+
+    private final long users;
+    private final boolean zipfian;
+    private final double theta;
+    private final double alpha;
+    private final double zetaN;
+    private final double eta;
+
+    UserIdSampler(long users, String distribution, double theta) {
+        this.users = users;
+        this.zipfian = switch (distribution) {
+            case "uniform" -> false;
+            case "zipfian" -> true;
+            default -> throw new IllegalArgumentException("지원하지 않는 분포: " + distribution);
+        };
+        this.theta = theta;
+        this.alpha = 1.0 / (1.0 - theta);
+        this.zetaN = zipfian ? zeta(users, theta) : 0;
+        this.eta = zipfian ? (1 - Math.pow(2.0 / users, 1 - theta)) / (1 - zeta(2, theta) / zetaN) : 0;
+    }
+
+    long next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (!zipfian) return random.nextLong(1, users + 1);
+
+        double u = random.nextDouble();
+        double uz = u * zetaN;
+        if (uz < 1.0) return 1;
+        if (uz < 1.0 + Math.pow(0.5, theta)) return Math.min(2, users);
+        return Math.min(users, 1 + (long) (users * Math.pow(eta * u - eta + 1, alpha)));
+    }
+
+    private static double zeta(long n, double theta) {
+        double sum = 0;
+        for (long i = 1; i <= n; i++) {
+            sum += 1 / Math.pow(i, theta);
+        }
+        return sum;
+    }
+}
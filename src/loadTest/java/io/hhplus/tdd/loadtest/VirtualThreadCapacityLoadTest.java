@@ -0,0 +1,101 @@
+package io.hhplus.tdd.loadtest;
+
+import io.hhplus.tdd.TddApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 플랫폼 스레드와 가상 스레드로 각각 애플리케이션을 띄워, 동시에 보낸 조회 요청을 모두 처리하는 데 걸린 시간을 비교한다.
+ * 테이블 조회는 최대 200ms 동안 잠들기 때문에, 플랫폼 스레드에서는 Tomcat 스레드 수(기본 200)만큼씩만 동시에 처리된다.
+ * 테이블은 동시 쓰기에 안전하지 않으므로 서로 다른 사용자의 잔고 조회만 보낸다.
+ */
+public class VirtualThreadCapacityLoadTest {
+
+    private static final int DEFAULT_CONCURRENCY = 2_000;
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_CONCURRENCY;
+
+        Result platform = run(false, concurrency);
+        Result virtual = run(true, concurrency);
+
+        System.out.printf("%n동시 요청 %d 건%n", concurrency);
+        System.out.printf("%-10s %10s %12s %10s %10s %10s %8s%n", "threads", "elapsed(ms)", "throughput/s", "p50(ms)", "p99(ms)", "max(ms)", "errors");
+        platform.print("platform");
+        virtual.print("virtual");
+    }
+
+    private static Result run(boolean virtualThreads, int concurrency) throws Exception {
+        ConfigurableApplicationContext context = SpringApplication.run(TddApplication.class,
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--logging.level.root=WARN");
+        try (ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientExecutor)
+                    .build();
+
+            // 연결 수립과 JIT 예열은 측정에서 뺀다.
+            fire(client, port, Math.min(concurrency, 200));
+            return fire(client, port, concurrency);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static Result fire(HttpClient client, int port, int concurrency) {
+        long[] latencies = new long[concurrency];
+        AtomicInteger errors = new AtomicInteger();
+        List<CompletableFuture<?>> futures = new ArrayList<>(concurrency);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            int index = i;
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/point/" + (i + 1))).GET().build();
+            long sentAt = System.nanoTime();
+            futures.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        latencies[index] = System.nanoTime() - sentAt;
+                        if (error != null || response.statusCode() != 200) errors.incrementAndGet();
+                    }));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).exceptionally(error -> null).join();
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        return new Result(concurrency, elapsed, latencies, errors.get());
+    }
+
+    private record Result(int requests, long elapsedNanos, long[] sortedLatencies, int errors) {
+
+        void print(String name) {
+            System.out.printf("%-10s %10d %12.0f %10d %10d %10d %8d%n",
+                    name,
+                    elapsedNanos / 1_000_000,
+                    requests * 1e9 / elapsedNanos,
+                    percentile(0.50),
+                    percentile(0.99),
+                    sortedLatencies[sortedLatencies.length - 1] / 1_000_000,
+                    errors);
+        }
+
+        private long percentile(double p) {
+            int index = (int) Math.ceil(p * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)] / 1_000_000;
+        }
+    }
+}
@@ -1,12 +1,55 @@
 package io.hhplus.tdd;
 
+import io.hhplus.tdd.point.IdempotencyKeyConflictException;
+import io.hhplus.tdd.point.PointConflictException;
+import io.hhplus.tdd.point.PointHistoryCursorExpiredException;
+import io.hhplus.tdd.point.PointMailboxFullException;
+import io.hhplus.tdd.point.PointOverloadedException;
+import io.hhplus.tdd.point.PointRateLimitedException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 
+import java.util.concurrent.TimeoutException;
+
 @RestControllerAdvice
 class ApiControllerAdvice extends ResponseEntityExceptionHandler {
+    @ExceptionHandler(value = PointMailboxFullException.class)
+    public ResponseEntity<ErrorResponse> handleMailboxFull(PointMailboxFullException e) {
+        return ResponseEntity.status(429).body(new ErrorResponse("429", "요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요."));
+    }
+
+    @ExceptionHandler(value = PointRateLimitedException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimited(PointRateLimitedException e) {
+        return ResponseEntity.status(429).body(new ErrorResponse("429", "요청이 너무 많습니다. 잠시 후 다시 시도해주세요."));
+    }
+
+    @ExceptionHandler(value = PointOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleOverloaded(PointOverloadedException e) {
+        return ResponseEntity.status(503).body(new ErrorResponse("503", "처리 중인 요청이 많습니다. 잠시 후 다시 시도해주세요."));
+    }
+
+    @ExceptionHandler(value = PointConflictException.class)
+    public ResponseEntity<ErrorResponse> handlePointConflict(PointConflictException e) {
+        return ResponseEntity.status(409).body(new ErrorResponse("409", "다른 요청과 겹쳐 처리하지 못했습니다. 다시 시도해주세요."));
+    }
+
+    @ExceptionHandler(value = PointHistoryCursorExpiredException.class)
+    public ResponseEntity<ErrorResponse> handleHistoryCursorExpired(PointHistoryCursorExpiredException e) {
+        return ResponseEntity.status(410).body(new ErrorResponse("410", "압축된 내역을 가리키는 커서입니다. 처음부터 다시 조회해주세요."));
+    }
+
+    @ExceptionHandler(value = IdempotencyKeyConflictException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyKeyConflict(IdempotencyKeyConflictException e) {
+        return ResponseEntity.status(422).body(new ErrorResponse("422", "이미 다른 요청에 사용된 멱등성 키입니다."));
+    }
+
+    @ExceptionHandler(value = TimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleTimeout(TimeoutException e) {
+        return ResponseEntity.status(504).body(new ErrorResponse("504", "조회 시간이 초과되었습니다."));
+    }
+
     @ExceptionHandler(value = Exception.class)
     public ResponseEntity<ErrorResponse> handleException(Exception e) {
         return ResponseEntity.status(500).body(new ErrorResponse("500", "에러가 발생했습니다."));
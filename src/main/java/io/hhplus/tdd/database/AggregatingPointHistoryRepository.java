@@ -0,0 +1,47 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryQuery;
+import io.hhplus.tdd.point.PointStatsStore;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 내역을 쓸 때 사용자별 통계도 함께 갱신하는 저장소
+ * 충전/사용과 일괄 처리가 모두 내역 저장소를 거치므로 어느 경로로 쓰든 통계에 반영된다.
+ * 한 번의 변경 안에서 쓴 내역은 {@link AggregatingUserPointRepository} 가 잔고 쓰기가 끝난 뒤에 통계에 반영한다.
+ */
+public class AggregatingPointHistoryRepository implements PointHistoryRepository {
+
+    private final PointHistoryRepository delegate;
+    private final PointStatsStore pointStatsStore;
+
+    public AggregatingPointHistoryRepository(PointHistoryRepository delegate, PointStatsStore pointStatsStore) {
+        this.delegate = delegate;
+        this.pointStatsStore = pointStatsStore;
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        PointHistory pointHistory = delegate.insert(userId, amount, type, updateMillis);
+        pointStatsStore.record(userId, type, amount, updateMillis);
+        return pointHistory;
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        return delegate.selectAllByUserId(userId);
+    }
+
+    @Override
+    public List<PointHistory> selectByUserId(long userId, PointHistoryQuery query) {
+        return delegate.selectByUserId(userId, query);
+    }
+
+    @Override
+    public void forEachByUserId(long userId, PointHistoryQuery query, Consumer<PointHistory> action) {
+        delegate.forEachByUserId(userId, query, action);
+    }
+}
@@ -0,0 +1,41 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointStatsStore;
+import io.hhplus.tdd.point.UserPoint;
+
+import java.util.function.Supplier;
+
+/**
+ * 한 번의 변경({@link #writeAtomically}) 안에서 {@link AggregatingPointHistoryRepository} 가 남긴 통계 기록을
+ * 잔고 쓰기까지 끝난 뒤에 반영하는 저장소, 변경이 실패하면 통계에 넣지 않는다.
+ */
+public class AggregatingUserPointRepository implements UserPointRepository {
+
+    private final UserPointRepository delegate;
+    private final PointStatsStore pointStatsStore;
+
+    public AggregatingUserPointRepository(UserPointRepository delegate, PointStatsStore pointStatsStore) {
+        this.delegate = delegate;
+        this.pointStatsStore = pointStatsStore;
+    }
+
+    @Override
+    public UserPoint selectById(long id) {
+        return delegate.selectById(id);
+    }
+
+    @Override
+    public long selectPoint(long id) {
+        return delegate.selectPoint(id);
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        return delegate.insertOrUpdate(id, amount);
+    }
+
+    @Override
+    public <T> T writeAtomically(long id, Supplier<T> action) {
+        return pointStatsStore.recordAfter(() -> delegate.writeAtomically(id, action));
+    }
+}
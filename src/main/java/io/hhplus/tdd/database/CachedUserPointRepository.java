@@ -0,0 +1,180 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 원본 저장소 앞에서 잔고를 캐시하는 저장소
+ * - 조회 시 캐시에 없을 때만 원본을 읽어 채우고(read-through), 갱신은 원본에 쓴 결과로 캐시를 덮어쓴다(write-through).
+ * - 크기가 제한된 LRU 를 여러 세그먼트로 나눠 두어 세그먼트마다 따로 잠근다.
+ * - 원본을 읽는 동안 갱신이 끝났다면 조회 결과로 덮어쓰지 않으므로, 이 저장소를 거친 쓰기와 항상 일관된다.
+ * - 한 번의 변경({@link #writeAtomically})이 실패하면 그 안에서 캐시에 쓴 잔고가 원본에 없을 수 있으므로 항목을 지운다.
+ */
+public class CachedUserPointRepository implements UserPointRepository {
+
+    private static final int SEGMENT_COUNT = 16;
+
+    private final UserPointRepository delegate;
+    private final Segment[] segments;
+    private final long ttlNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachedUserPointRepository(UserPointRepository delegate, int maximumSize, Duration ttl) {
+        if (maximumSize <= 0) throw new IllegalArgumentException("캐시 크기는 1 이상이어야 합니다: " + maximumSize);
+
+        this.delegate = delegate;
+        this.ttlNanos = ttl.toNanos();
+        int segmentCount = Math.min(SEGMENT_COUNT, maximumSize);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            // 나머지는 앞쪽 세그먼트부터 하나씩 더 받아 전체 합이 maximumSize 가 되도록 나눈다.
+            segments[i] = new Segment(maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0));
+        }
+    }
+
+    @Override
+    public UserPoint selectById(long id) {
+        Segment segment = segmentOf(id);
+        UserPoint cached = segment.get(id);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        UserPoint loaded = delegate.selectById(id);
+        return segment.putIfAbsent(id, loaded);
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        UserPoint userPoint = delegate.insertOrUpdate(id, amount);
+        segmentOf(id).put(id, userPoint);
+        return userPoint;
+    }
+
+    @Override
+    public <T> T writeAtomically(long id, Supplier<T> action) {
+        try {
+            return delegate.writeAtomically(id, action);
+        } catch (RuntimeException e) {
+            segmentOf(id).remove(id);
+            throw e;
+        }
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment segmentOf(long id) {
+        return segments[Math.floorMod(Long.hashCode(id), segments.length)];
+    }
+
+    private record Entry(UserPoint userPoint, long storedNanos) {
+    }
+
+    private final class Segment {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<Long, Entry> entries;
+
+        private Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                    if (size() <= capacity) return false;
+                    evictions.increment();
+                    return true;
+                }
+            };
+        }
+
+        private UserPoint get(long id) {
+            lock.lock();
+            try {
+                Entry entry = entries.get(id);
+                if (entry == null) return null;
+                if (isExpired(entry)) {
+                    entries.remove(id);
+                    return null;
+                }
+                return entry.userPoint();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 조회 결과로 채울 때 사용, 그 사이 갱신으로 채워진 항목이 있으면 그 값을 돌려준다.
+         */
+        private UserPoint putIfAbsent(long id, UserPoint userPoint) {
+            lock.lock();
+            try {
+                Entry existing = entries.get(id);
+                if (existing != null && !isExpired(existing)) {
+                    return existing.userPoint();
+                }
+                entries.put(id, new Entry(userPoint, System.nanoTime()));
+                return userPoint;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void put(long id, UserPoint userPoint) {
+            lock.lock();
+            try {
+                entries.put(id, new Entry(userPoint, System.nanoTime()));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void remove(long id) {
+            lock.lock();
+            try {
+                entries.remove(id);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int size() {
+            lock.lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean isExpired(Entry entry) {
+            return ttlNanos > 0 && System.nanoTime() - entry.storedNanos() >= ttlNanos;
+        }
+    }
+}
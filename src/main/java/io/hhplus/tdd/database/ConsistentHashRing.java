@@ -0,0 +1,61 @@
+package io.hhplus.tdd.database;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 가상 노드를 둔 일관된 해싱 고리
+ * - 샤드마다 virtualNodes 개의 점을 고리에 올리고, 사용자 id 의 해시에서 시계 방향으로 처음 만나는 점의 샤드를 고른다.
+ * - 샤드 수가 바뀌어도 새 샤드의 점 사이에 들어가는 사용자만 자리를 옮긴다.
+ * - 만든 뒤에는 바뀌지 않는 정렬된 배열이므로 잠그지 않고 이분 탐색으로 찾는다.
+ */
+final class ConsistentHashRing {
+
+    private final long[] points;
+    private final int[] shards;
+
+    ConsistentHashRing(int shardCount, int virtualNodes) {
+        if (shardCount <= 0) throw new IllegalArgumentException("샤드 수는 1 이상이어야 합니다: " + shardCount);
+        if (virtualNodes <= 0) throw new IllegalArgumentException("가상 노드 수는 1 이상이어야 합니다: " + virtualNodes);
+
+        TreeMap<Long, Integer> ring = new TreeMap<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (int node = 0; node < virtualNodes; node++) {
+                ring.put(nodePoint(shard, node), shard);
+            }
+        }
+        this.points = new long[ring.size()];
+        this.shards = new int[ring.size()];
+        int i = 0;
+        for (Map.Entry<Long, Integer> entry : ring.entrySet()) {
+            points[i] = entry.getKey();
+            shards[i] = entry.getValue();
+            i++;
+        }
+    }
+
+    int shardOf(long userId) {
+        int index = Arrays.binarySearch(points, mix(userId));
+        if (index < 0) index = -index - 1;
+        return shards[index == points.length ? 0 : index];
+    }
+
+    /**
+     * 사용자 id 와 같은 방식으로 섞으면 (0 번 샤드, n 번 노드)의 점이 사용자 id n 의 점과 같아져 작은 id 가 모두 0 번 샤드로 가므로,
+     * 샤드 번호를 먼저 섞은 값에 노드 번호를 더해 한 번 더 섞는다.
+     */
+    private static long nodePoint(int shard, int node) {
+        return mix(mix(shard) + node);
+    }
+
+    /**
+     * 연속된 id 도 고리 위에 고르게 흩어지도록 섞는다. (SplitMix64)
+     */
+    private static long mix(long value) {
+        long hash = value + 0x9E3779B97F4A7C15L;
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+}
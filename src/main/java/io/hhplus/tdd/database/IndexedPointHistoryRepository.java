@@ -0,0 +1,82 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryQuery;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.time.ZoneId;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 원본 저장소에 내역을 쓰면서 사용자별 색인을 함께 유지하는 저장소
+ * - 조회는 원본 전체를 훑지 않고 해당 사용자의 색인만 읽으므로 사용자의 내역 수에만 비례한다.
+ * - 색인은 이 저장소를 통해 들어온 내역만 담으므로, 원본 저장소는 이 저장소를 통해서만 쓰여야 한다.
+ * - 압축({@link PointHistoryCompactor})하면 오래된 내역은 색인에서 요약 행으로 바뀐다. 원본 저장소의 행은 그대로 남는다.
+ */
+public class IndexedPointHistoryRepository implements PointHistoryRepository {
+
+    private final PointHistoryRepository delegate;
+    private final ConcurrentHashMap<Long, UserPointHistoryColumns> index = new ConcurrentHashMap<>();
+    private final LongAdder rowCount = new LongAdder();
+
+    public IndexedPointHistoryRepository(PointHistoryRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        PointHistory pointHistory = delegate.insert(userId, amount, type, updateMillis);
+        index.computeIfAbsent(userId, UserPointHistoryColumns::new)
+                .append(pointHistory.id(), amount, type, updateMillis);
+        rowCount.increment();
+        return pointHistory;
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        UserPointHistoryColumns columns = index.get(userId);
+        return columns == null ? List.of() : columns.toList();
+    }
+
+    @Override
+    public List<PointHistory> selectByUserId(long userId, PointHistoryQuery query) {
+        UserPointHistoryColumns columns = index.get(userId);
+        return columns == null ? List.of() : columns.select(query, query.limitOrMax());
+    }
+
+    @Override
+    public void forEachByUserId(long userId, PointHistoryQuery query, Consumer<PointHistory> action) {
+        UserPointHistoryColumns columns = index.get(userId);
+        if (columns != null) columns.forEach(query, action);
+    }
+
+    /**
+     * 사용자를 하나씩 잠가 가며 오래된 내역을 요약 행으로 합친다. ({@link UserPointHistoryColumns#compact})
+     */
+    PointHistoryCompactor.Result compact(long hotCutoff, long monthlyCutoff, ZoneId zone) {
+        PointHistoryCompactor.Result result = PointHistoryCompactor.Result.EMPTY;
+        for (UserPointHistoryColumns columns : index.values()) {
+            PointHistoryCompactor.Result compacted = columns.compact(hotCutoff, monthlyCutoff, zone);
+            rowCount.add(compacted.rowsAfter() - compacted.rowsBefore());
+            result = result.plus(compacted);
+        }
+        return result;
+    }
+
+    /**
+     * 색인에 담긴 전체 내역 수 (요약 행 포함)
+     */
+    public long rowCount() {
+        return rowCount.sum();
+    }
+
+    /**
+     * 색인에 담긴 사용자 수
+     */
+    public int userCount() {
+        return index.size();
+    }
+}
@@ -0,0 +1,200 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryQuery;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 내역을 힙 밖(direct ByteBuffer)의 열 단위 조각에 보관하는 저장소
+ * - 조각마다 id / 사용자 id / 금액 / 종류 / 시각 / 같은 사용자의 다음 행 위치를 열로 나눠 담는다. 행마다 힙 객체를 두지 않으므로 GC 가 훑을 것이 없다.
+ * - 사용자별로 첫 행과 마지막 행 위치만 힙에 두고, 행끼리는 다음 행 위치로 이어 id 오름차순으로 따라간다.
+ * - 조회 결과를 만들 때만 {@link PointHistory} 로 바꾼다.
+ * - 쓰기는 하나씩 잠가 id 를 부여하고, 읽기는 잠그지 않는다. 사용자의 행 수(volatile)를 마지막에 올리므로 읽는 쪽은 그만큼만 따라간다.
+ * - 테이블을 대신하는 원본 저장소이며, 한 번 쓴 내역은 지우지 않는다.
+ */
+public class OffHeapPointHistoryRepository implements PointHistoryRepository {
+
+    private static final int DEFAULT_CHUNK_ROWS = 1 << 20;
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final long NO_ROW = -1L;
+
+    // 행당 크기: id, userId, amount, updateMillis, next(8 바이트씩) + type(1 바이트)
+    private static final int ROW_BYTES = Long.BYTES * 5 + Byte.BYTES;
+
+    private final int chunkRows;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ConcurrentHashMap<Long, UserRows> users = new ConcurrentHashMap<>();
+    private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+    private volatile long rowCount;
+
+    public OffHeapPointHistoryRepository() {
+        this(DEFAULT_CHUNK_ROWS);
+    }
+
+    OffHeapPointHistoryRepository(int chunkRows) {
+        if (chunkRows <= 0) throw new IllegalArgumentException("조각 크기는 1 이상이어야 합니다: " + chunkRows);
+        this.chunkRows = chunkRows;
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        appendLock.lock();
+        try {
+            long row = rowCount;
+            if (row == (long) chunks.length * chunkRows) addChunk();
+
+            long id = row + 1;
+            ByteBuffer chunk = chunks[chunkOf(row)];
+            int slot = slotOf(row);
+            chunk.putLong(offset(Column.ID, slot), id);
+            chunk.putLong(offset(Column.USER_ID, slot), userId);
+            chunk.putLong(offset(Column.AMOUNT, slot), amount);
+            chunk.putLong(offset(Column.UPDATE_MILLIS, slot), updateMillis);
+            chunk.putLong(offset(Column.NEXT, slot), NO_ROW);
+            chunk.put(offset(Column.TYPE, slot), (byte) type.ordinal());
+
+            UserRows userRows = users.get(userId);
+            if (userRows == null) {
+                users.put(userId, new UserRows(row));
+            } else {
+                ByteBuffer lastChunk = chunks[chunkOf(userRows.last)];
+                lastChunk.putLong(offset(Column.NEXT, slotOf(userRows.last)), row);
+                userRows.last = row;
+                userRows.count++;
+            }
+            rowCount = row + 1;
+            return new PointHistory(id, userId, amount, type, updateMillis);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        return selectByUserId(userId, PointHistoryQuery.all());
+    }
+
+    @Override
+    public List<PointHistory> selectByUserId(long userId, PointHistoryQuery query) {
+        UserRows userRows = users.get(userId);
+        if (userRows == null) return List.of();
+
+        List<PointHistory> histories = new ArrayList<>(Math.min(query.limitOrMax(), userRows.count));
+        forEach(userId, userRows, query, histories::add);
+        return histories;
+    }
+
+    @Override
+    public void forEachByUserId(long userId, PointHistoryQuery query, Consumer<PointHistory> action) {
+        UserRows userRows = users.get(userId);
+        if (userRows != null) forEach(userId, userRows, query, action);
+    }
+
+    /**
+     * 보관 중인 전체 내역 수
+     */
+    public long rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * 내역이 있는 사용자 수
+     */
+    public int userCount() {
+        return users.size();
+    }
+
+    /**
+     * 힙 밖에 잡아 둔 바이트 수
+     */
+    public long offHeapBytes() {
+        return (long) chunks.length * chunkRows * ROW_BYTES;
+    }
+
+    /**
+     * 읽기 시작할 때의 행 수만큼만 따라가므로, 그 뒤에 붙은 행은 보지 않는다.
+     */
+    private void forEach(long userId, UserRows userRows, PointHistoryQuery query, Consumer<PointHistory> action) {
+        int count = userRows.count;
+        ByteBuffer[] chunks = this.chunks;
+        int remaining = query.limitOrMax();
+        long row = userRows.first;
+        for (int i = 0; i < count && remaining > 0; i++) {
+            ByteBuffer chunk = chunks[chunkOf(row)];
+            int slot = slotOf(row);
+            long id = chunk.getLong(offset(Column.ID, slot));
+            TransactionType type = TYPES[chunk.get(offset(Column.TYPE, slot))];
+            long updateMillis = chunk.getLong(offset(Column.UPDATE_MILLIS, slot));
+            if (query.matches(id, type, updateMillis)) {
+                action.accept(new PointHistory(id, userId, chunk.getLong(offset(Column.AMOUNT, slot)), type, updateMillis));
+                remaining--;
+            }
+            row = chunk.getLong(offset(Column.NEXT, slot));
+        }
+    }
+
+    private void addChunk() {
+        ByteBuffer chunk = ByteBuffer.allocateDirect(chunkRows * ROW_BYTES).order(ByteOrder.nativeOrder());
+        ByteBuffer[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+        grown[grown.length - 1] = chunk;
+        chunks = grown;
+    }
+
+    private int chunkOf(long row) {
+        return (int) (row / chunkRows);
+    }
+
+    private int slotOf(long row) {
+        return (int) (row % chunkRows);
+    }
+
+    /**
+     * 조각 안에서 열은 [id 열][userId 열][amount 열][updateMillis 열][next 열][type 열] 순서로 놓인다.
+     */
+    private int offset(Column column, int slot) {
+        return column.start * chunkRows + slot * column.width;
+    }
+
+    private enum Column {
+        ID(0, Long.BYTES),
+        USER_ID(Long.BYTES, Long.BYTES),
+        AMOUNT(Long.BYTES * 2, Long.BYTES),
+        UPDATE_MILLIS(Long.BYTES * 3, Long.BYTES),
+        NEXT(Long.BYTES * 4, Long.BYTES),
+        TYPE(Long.BYTES * 5, Byte.BYTES);
+
+        // 조각 안에서 열이 시작하는 위치(행 수 단위)와 값 하나의 크기
+        private final int start;
+        private final int width;
+
+        Column(int start, int width) {
+            this.start = start;
+            this.width = width;
+        }
+    }
+
+    /**
+     * 사용자의 첫 행과 마지막 행 위치, first 는 만들 때 한 번만 정하고 last 는 쓰기 잠금 안에서만 바꾼다.
+     */
+    private static final class UserRows {
+
+        private final long first;
+        private long last;
+        private volatile int count;
+
+        private UserRows(long first) {
+            this.first = first;
+            this.last = first;
+            this.count = 1;
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.database.persistence.SnapshotReader;
+import io.hhplus.tdd.database.persistence.SnapshotWriter;
+import io.hhplus.tdd.database.persistence.WriteAheadLog;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryQuery;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 잔고와 내역을 메모리에 두고, 모든 변경을 로그에 먼저 남긴 뒤 반영하는 저장소
+ * - 시작할 때 가장 최근 스냅샷을 읽고, 스냅샷 이후의 로그를 다시 적용해 상태를 복구한다.
+ * - 스냅샷은 주기적으로, 그리고 종료할 때 남기며 스냅샷에 포함된 로그 세그먼트는 지운다.
+ * - 테이블은 호출마다 지연이 있어 수백만 건을 다시 넣을 수 없으므로, 사용 시 테이블 대신 이 저장소가 원본이 된다.
+ * - 같은 사용자의 잔고 갱신은 서비스의 사용자 락(낙관적 갱신이면 버전 저장소의 쓰기 자리)으로 직렬화된다고 가정한다.
+ *   로그 순서와 메모리 반영 순서가 같아야 하기 때문이다.
+ * - {@link UserPointRepository#writeAtomically} 안에서 남긴 내역과 잔고는 모았다가 하나의 기록(LEDGER)으로 남기고 함께 반영한다.
+ *   기록 하나는 체크섬으로 통째로 검증되므로, 복구 시 충전/사용의 내역과 잔고는 둘 다 적용되거나 둘 다 빠진다.
+ *   그 밖에서 부른 쓰기는 예전처럼 내역(HISTORY)과 잔고(BALANCE)를 따로 기록한다.
+ */
+public class PersistentPointStore implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PersistentPointStore.class);
+    private static final byte BALANCE = 1;
+    private static final byte HISTORY = 2;
+    private static final byte LEDGER = 3;
+    private static final int BALANCE_FIELD_BYTES = 3 * Long.BYTES;
+    private static final int HISTORY_FIELD_BYTES = 1 + 4 * Long.BYTES;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final Path directory;
+    private final ConcurrentHashMap<Long, UserPoint> balances = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, UserPointHistoryColumns> histories = new ConcurrentHashMap<>();
+    private final AtomicLong historySequence = new AtomicLong();
+    // 쓰기는 로그 기록과 메모리 반영을 읽기 락 안에서 함께 하고, 스냅샷은 쓰기 락으로 진행 중인 쓰기가 없는 위치를 잡는다.
+    private final ReentrantReadWriteLock stateLock = new ReentrantReadWriteLock();
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private final WriteAheadLog wal;
+    private final ScheduledExecutorService snapshotScheduler;
+    private final UserPointRepository userPointRepository = new BalanceRepository();
+    private final PointHistoryRepository pointHistoryRepository = new HistoryRepository();
+    // writeAtomically 를 실행 중인 스레드가 모으고 있는 쓰기
+    private final ThreadLocal<PendingWrite> pendingWrite = new ThreadLocal<>();
+    private long snapshotLsn;
+
+    public PersistentPointStore(PointPersistenceProperties properties) throws IOException {
+        this.directory = Path.of(properties.directory());
+
+        long start = System.nanoTime();
+        Optional<Path> snapshot = SnapshotReader.latest(directory);
+        if (snapshot.isPresent()) {
+            snapshotLsn = loadSnapshot(snapshot.get());
+        }
+        long[] replayed = {0L};
+        this.wal = WriteAheadLog.open(directory, properties.segmentSize().toBytes(), properties.fsync(),
+                properties.groupCommitInterval(), snapshotLsn, payload -> {
+                    apply(payload);
+                    replayed[0]++;
+                });
+        log.info("포인트 저장소 복구 완료 (잔고 {} 건, 마지막 내역 id {}, 로그 재적용 {} 건, {} ms)",
+                balances.size(), historySequence.get(), replayed[0], TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        this.snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "point-snapshot"));
+        long intervalMillis = properties.snapshotInterval().toMillis();
+        if (intervalMillis > 0) {
+            snapshotScheduler.scheduleWithFixedDelay(this::snapshotQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public UserPointRepository userPointRepository() {
+        return userPointRepository;
+    }
+
+    public PointHistoryRepository pointHistoryRepository() {
+        return pointHistoryRepository;
+    }
+
+    /**
+     * 현재 상태를 스냅샷으로 남기고, 스냅샷에 포함된 로그 세그먼트를 지운다.
+     * 스냅샷을 쓰는 동안에도 쓰기는 계속되므로, 스냅샷에는 기록 위치 이후의 변경이 일부 섞일 수 있다.
+     * 로그 재적용은 잔고는 덮어쓰고 이미 있는 내역은 건너뛰므로 같은 변경이 두 번 적용되어도 결과가 같다.
+     */
+    public void snapshot() throws IOException {
+        snapshotLock.lock();
+        try {
+            long lsn;
+            stateLock.writeLock().lock();
+            try {
+                lsn = wal.position();
+            } finally {
+                stateLock.writeLock().unlock();
+            }
+            if (lsn == snapshotLsn) return;
+
+            long start = System.nanoTime();
+            long rows = 0;
+            try (SnapshotWriter writer = new SnapshotWriter(directory, lsn)) {
+                for (UserPoint userPoint : balances.values()) {
+                    writer.putLong(userPoint.id());
+                    writer.putLong(userPoint.point());
+                    writer.putLong(userPoint.updateMillis());
+                }
+                writer.putLong(0L);
+                for (Map.Entry<Long, UserPointHistoryColumns> entry : histories.entrySet()) {
+                    UserPointHistoryColumns.Rows userRows = entry.getValue().rows();
+                    if (userRows.size() == 0) continue;
+                    writer.putLong(entry.getKey());
+                    writer.putInt(userRows.size());
+                    for (int i = 0; i < userRows.size(); i++) {
+                        writer.putLong(userRows.ids()[i]);
+                        writer.putLong(userRows.amounts()[i]);
+                        writer.putByte(userRows.types()[i]);
+                        writer.putLong(userRows.updateMillis()[i]);
+                    }
+                    rows += userRows.size();
+                }
+                writer.putLong(0L);
+                // 스냅샷에 섞여 들어간 변경의 로그가 스냅샷보다 먼저 디스크에 남도록 한다.
+                wal.sync();
+                writer.commit();
+            }
+            snapshotLsn = lsn;
+            wal.deleteSegmentsBefore(lsn);
+            log.info("포인트 스냅샷 저장 (위치 {}, 잔고 {} 건, 내역 {} 건, {} ms)",
+                    lsn, balances.size(), rows, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException, InterruptedException {
+        snapshotScheduler.shutdown();
+        snapshotScheduler.awaitTermination(1, TimeUnit.MINUTES);
+        // 다음 시작 때 로그를 다시 적용하지 않도록 종료 전에 스냅샷을 남긴다.
+        snapshot();
+        wal.close();
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            log.error("포인트 스냅샷 저장 실패", e);
+        }
+    }
+
+    private long loadSnapshot(Path path) throws IOException {
+        try (SnapshotReader reader = new SnapshotReader(path)) {
+            for (long userId = reader.getLong(); userId != 0L; userId = reader.getLong()) {
+                balances.put(userId, new UserPoint(userId, reader.getLong(), reader.getLong()));
+            }
+            for (long userId = reader.getLong(); userId != 0L; userId = reader.getLong()) {
+                int size = reader.getInt();
+                long[] ids = new long[size];
+                long[] amounts = new long[size];
+                byte[] types = new byte[size];
+                long[] updateMillis = new long[size];
+                for (int i = 0; i < size; i++) {
+                    ids[i] = reader.getLong();
+                    amounts[i] = reader.getLong();
+                    types[i] = reader.getByte();
+                    updateMillis[i] = reader.getLong();
+                }
+                histories.put(userId, new UserPointHistoryColumns(userId, new UserPointHistoryColumns.Rows(ids, amounts, types, updateMillis, size)));
+                if (size > 0 && ids[size - 1] > historySequence.get()) historySequence.set(ids[size - 1]);
+            }
+            reader.verify();
+            return reader.lsn();
+        }
+    }
+
+    /**
+     * 로그 기록 하나를 메모리에 다시 적용한다. LEDGER 는 체크섬이 맞아야 넘어오므로 담긴 내역과 잔고를 모두 적용한다.
+     */
+    private void apply(ByteBuffer payload) {
+        byte kind = payload.get();
+        switch (kind) {
+            case BALANCE -> applyBalance(payload);
+            case HISTORY -> applyHistory(payload);
+            case LEDGER -> {
+                int historyCount = payload.getInt();
+                for (int i = 0; i < historyCount; i++) {
+                    applyHistory(payload);
+                }
+                int balanceCount = payload.getInt();
+                for (int i = 0; i < balanceCount; i++) {
+                    applyBalance(payload);
+                }
+            }
+            default -> throw new IllegalStateException("알 수 없는 로그 기록 종류: " + kind);
+        }
+    }
+
+    private void applyBalance(ByteBuffer payload) {
+        long userId = payload.getLong();
+        balances.put(userId, new UserPoint(userId, payload.getLong(), payload.getLong()));
+    }
+
+    private void applyHistory(ByteBuffer payload) {
+        long id = payload.getLong();
+        long userId = payload.getLong();
+        long amount = payload.getLong();
+        TransactionType type = TYPES[payload.get()];
+        long updateMillis = payload.getLong();
+        UserPointHistoryColumns columns = histories.computeIfAbsent(userId, UserPointHistoryColumns::new);
+        if (!columns.contains(id)) columns.append(id, amount, type, updateMillis);
+        if (id > historySequence.get()) historySequence.set(id);
+    }
+
+    private static void putBalance(ByteBuffer buffer, UserPoint userPoint) {
+        buffer.putLong(userPoint.id())
+                .putLong(userPoint.point())
+                .putLong(userPoint.updateMillis());
+    }
+
+    private static void putHistory(ByteBuffer buffer, PointHistory pointHistory) {
+        buffer.putLong(pointHistory.id())
+                .putLong(pointHistory.userId())
+                .putLong(pointHistory.amount())
+                .put((byte) pointHistory.type().ordinal())
+                .putLong(pointHistory.updateMillis());
+    }
+
+    private void appendToMemory(PointHistory pointHistory) {
+        histories.computeIfAbsent(pointHistory.userId(), UserPointHistoryColumns::new)
+                .append(pointHistory.id(), pointHistory.amount(), pointHistory.type(), pointHistory.updateMillis());
+    }
+
+    private void write(byte[] record, Runnable apply) {
+        stateLock.readLock().lock();
+        try {
+            wal.append(record);
+            apply.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException("포인트 로그 기록 실패", e);
+        } finally {
+            stateLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 모은 내역과 잔고를 하나의 기록으로 남기고 함께 반영한다.
+     */
+    private void commit(PendingWrite pending) {
+        if (pending.histories.isEmpty() && pending.balances.isEmpty()) return;
+
+        ByteBuffer record = ByteBuffer.allocate(1 + Integer.BYTES + pending.histories.size() * HISTORY_FIELD_BYTES
+                + Integer.BYTES + pending.balances.size() * BALANCE_FIELD_BYTES);
+        record.put(LEDGER);
+        record.putInt(pending.histories.size());
+        pending.histories.forEach(pointHistory -> putHistory(record, pointHistory));
+        record.putInt(pending.balances.size());
+        pending.balances.forEach(userPoint -> putBalance(record, userPoint));
+        write(record.array(), () -> {
+            pending.histories.forEach(PersistentPointStore.this::appendToMemory);
+            pending.balances.forEach(userPoint -> balances.put(userPoint.id(), userPoint));
+        });
+    }
+
+    private static final class PendingWrite {
+        private final List<PointHistory> histories = new ArrayList<>();
+        private final List<UserPoint> balances = new ArrayList<>();
+    }
+
+    private final class BalanceRepository implements UserPointRepository {
+
+        @Override
+        public UserPoint selectById(long id) {
+            UserPoint userPoint = balances.get(id);
+            return userPoint == null ? UserPoint.empty(id) : userPoint;
+        }
+
+        @Override
+        public UserPoint insertOrUpdate(long id, long amount) {
+            UserPoint userPoint = new UserPoint(id, amount, System.currentTimeMillis());
+            PendingWrite pending = pendingWrite.get();
+            if (pending != null) {
+                pending.balances.add(userPoint);
+                return userPoint;
+            }
+
+            ByteBuffer record = ByteBuffer.allocate(1 + BALANCE_FIELD_BYTES).put(BALANCE);
+            putBalance(record, userPoint);
+            write(record.array(), () -> balances.put(id, userPoint));
+            return userPoint;
+        }
+
+        /**
+         * action 이 예외 없이 끝났을 때만 모은 쓰기를 남긴다. 이미 모으는 중이면 바깥 변경에 합친다.
+         */
+        @Override
+        public <T> T writeAtomically(long id, Supplier<T> action) {
+            if (pendingWrite.get() != null) return action.get();
+
+            PendingWrite pending = new PendingWrite();
+            pendingWrite.set(pending);
+            T result;
+            try {
+                result = action.get();
+            } finally {
+                pendingWrite.remove();
+            }
+            commit(pending);
+            return result;
+        }
+    }
+
+    private final class HistoryRepository implements PointHistoryRepository {
+
+        @Override
+        public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+            PointHistory pointHistory = new PointHistory(historySequence.incrementAndGet(), userId, amount, type, updateMillis);
+            PendingWrite pending = pendingWrite.get();
+            if (pending != null) {
+                pending.histories.add(pointHistory);
+                return pointHistory;
+            }
+
+            ByteBuffer record = ByteBuffer.allocate(1 + HISTORY_FIELD_BYTES).put(HISTORY);
+            putHistory(record, pointHistory);
+            write(record.array(), () -> appendToMemory(pointHistory));
+            return pointHistory;
+        }
+
+        @Override
+        public List<PointHistory> selectAllByUserId(long userId) {
+            UserPointHistoryColumns columns = histories.get(userId);
+            return columns == null ? List.of() : columns.toList();
+        }
+
+        @Override
+        public List<PointHistory> selectByUserId(long userId, PointHistoryQuery query) {
+            UserPointHistoryColumns columns = histories.get(userId);
+            return columns == null ? List.of() : columns.select(query, query.limitOrMax());
+        }
+
+        @Override
+        public void forEachByUserId(long userId, PointHistoryQuery query, Consumer<PointHistory> action) {
+            UserPointHistoryColumns columns = histories.get(userId);
+            if (columns != null) columns.forEach(query, action);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package io.hhplus.tdd.database;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 포인트 잔고 저장 설정
+ * - store : TABLE 이면 테이블 사용, PRIMITIVE 이면 테이블 대신 원시 타입 배열의 해시 테이블에 보관
+ */
+@ConfigurationProperties(prefix = "point.balance")
+public record PointBalanceProperties(
+        @DefaultValue("TABLE") Store store
+) {
+
+    public enum Store {
+        TABLE, PRIMITIVE
+    }
+}
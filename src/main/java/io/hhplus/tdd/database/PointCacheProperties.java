@@ -0,0 +1,20 @@
+package io.hhplus.tdd.database;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 포인트 잔고 캐시 설정
+ * - enabled : 캐시 사용 여부
+ * - maximumSize : 캐시에 담을 최대 사용자 수, 넘치면 가장 오래 조회되지 않은 사용자부터 제거
+ * - ttl : 0 보다 크면 저장된 지 ttl 이 지난 항목은 다시 조회한다.
+ */
+@ConfigurationProperties(prefix = "point.cache")
+public record PointCacheProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("10000") int maximumSize,
+        @DefaultValue("0s") Duration ttl
+) {
+}
@@ -0,0 +1,25 @@
+package io.hhplus.tdd.database;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.time.ZoneId;
+
+/**
+ * 내역 압축 설정, 사용자별 색인(INDEXED)에서만 쓸 수 있다.
+ * - enabled : true 이면 interval 마다 백그라운드에서 오래된 내역을 기간별 요약 행으로 합친다.
+ * - hotRetention : 이보다 오래된 내역은 (일, 종류)별 요약 행으로 합친다.
+ * - dailyRetention : 이보다 오래된 일 요약 행은 (월, 종류)별로 다시 합친다.
+ * - interval : 압축 주기
+ * - zone : 일/월 경계를 정하는 시간대
+ */
+@ConfigurationProperties(prefix = "point.history.compaction")
+public record PointHistoryCompactionProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("30d") Duration hotRetention,
+        @DefaultValue("365d") Duration dailyRetention,
+        @DefaultValue("1h") Duration interval,
+        @DefaultValue("Asia/Seoul") ZoneId zone
+) {
+}
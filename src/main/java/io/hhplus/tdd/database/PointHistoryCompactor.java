@@ -0,0 +1,133 @@
+package io.hhplus.tdd.database;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 사용자별 색인의 오래된 내역을 기간별 요약 행(차가운 계층)으로 합치는 백그라운드 작업
+ * - 색인 저장소(샤딩을 켜면 샤드마다 하나)를 등록받아 차례로 압축한다. 사용자 하나씩만 잠그므로 쓰기를 멈추지 않는다.
+ * - 합칠 내역이 없는 사용자는 바로 건너뛰므로, 반복 실행 비용은 대부분 새로 오래된 내역 수에 비례한다.
+ * - 회수량은 색인 바이트(색인 배열 크기로 어림한 값)다. 원본 테이블(PointHistoryTable)은 행을 모두 남기므로 힙 전체는 그만큼 줄지 않는다.
+ */
+public class PointHistoryCompactor {
+
+    private static final Logger log = LoggerFactory.getLogger(PointHistoryCompactor.class);
+
+    private final PointHistoryCompactionProperties properties;
+    private final List<IndexedPointHistoryRepository> repositories = new CopyOnWriteArrayList<>();
+    private final ReentrantLock runLock = new ReentrantLock();
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder compactedRows = new LongAdder();
+    private final LongAdder reclaimedBytes = new LongAdder();
+    private final ScheduledExecutorService scheduler;
+
+    public PointHistoryCompactor(PointHistoryCompactionProperties properties) {
+        if (properties.hotRetention().isNegative() || properties.dailyRetention().isNegative()) {
+            throw new IllegalArgumentException("보존 기간은 0 이상이어야 합니다.");
+        }
+        this.properties = properties;
+
+        long intervalMillis = properties.interval().toMillis();
+        if (properties.enabled() && intervalMillis > 0) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "point-history-compactor"));
+            scheduler.scheduleWithFixedDelay(this::compactQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * 압축 결과, 사용자별 결과를 더해 한 번의 실행 결과를 만든다. 행과 바이트는 색인 기준이다.
+     */
+    public record Result(long users, long rowsBefore, long rowsAfter, long bytesBefore, long bytesAfter) {
+
+        public static final Result EMPTY = new Result(0, 0, 0, 0, 0);
+
+        public Result plus(Result other) {
+            return new Result(users + other.users, rowsBefore + other.rowsBefore, rowsAfter + other.rowsAfter,
+                    bytesBefore + other.bytesBefore, bytesAfter + other.bytesAfter);
+        }
+
+        public long compactedRows() {
+            return rowsBefore - rowsAfter;
+        }
+
+        public long reclaimedBytes() {
+            return bytesBefore - bytesAfter;
+        }
+    }
+
+    void register(IndexedPointHistoryRepository repository) {
+        repositories.add(repository);
+    }
+
+    /**
+     * nowMillis 를 기준으로 보존 기간이 지난 내역을 압축한다. 이전 실행이 끝나지 않았으면 끝날 때까지 기다린다.
+     */
+    public Result compact(long nowMillis) {
+        runLock.lock();
+        try {
+            long start = System.nanoTime();
+            long hotCutoff = nowMillis - properties.hotRetention().toMillis();
+            long monthlyCutoff = nowMillis - properties.dailyRetention().toMillis();
+            Result result = Result.EMPTY;
+            for (IndexedPointHistoryRepository repository : repositories) {
+                result = result.plus(repository.compact(hotCutoff, monthlyCutoff, properties.zone()));
+            }
+            runs.increment();
+            compactedRows.add(result.compactedRows());
+            reclaimedBytes.add(result.reclaimedBytes());
+            if (result.users() > 0) {
+                log.info("포인트 내역 압축 (사용자 {} 명, 색인 행 {} -> {} 건, 색인 {} KB 회수, {} ms)",
+                        result.users(), result.rowsBefore(), result.rowsAfter(), result.reclaimedBytes() / 1024,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+            return result;
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    /**
+     * 압축 실행 횟수
+     */
+    public long runCount() {
+        return runs.sum();
+    }
+
+    /**
+     * 압축으로 줄어든 행 수
+     */
+    public long compactedRowCount() {
+        return compactedRows.sum();
+    }
+
+    /**
+     * 압축으로 줄어든 색인 바이트 (색인 배열 크기로 어림한 값, 원본 테이블의 행은 그대로 남는다)
+     */
+    public long reclaimedBytes() {
+        return reclaimedBytes.sum();
+    }
+
+    public void close() throws InterruptedException {
+        if (scheduler == null) return;
+        scheduler.shutdown();
+        scheduler.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    private void compactQuietly() {
+        try {
+            compact(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            log.error("포인트 내역 압축 실패", e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package io.hhplus.tdd.database;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 조립 중에 만들어진 쓰기 버퍼 저장소(샤딩을 켜면 샤드마다 하나)를 모아 종료 시 함께 닫는다.
+ * - 쓰기 버퍼는 다른 저장소(동시 조회 합치기, 이벤트 발행 등) 안쪽에 감싸여 빈으로 드러나지 않으므로, 스프링이 직접 닫을 수 없다.
+ * - 내역 저장소 빈이 이 빈에 의존하므로, 내역을 쓰는 빈이 모두 내려간 뒤에 닫혀 버퍼에 남은 내역을 빠짐없이 반영한다.
+ */
+public class PointHistoryFlushers {
+
+    private final List<WriteBehindPointHistoryRepository> repositories = new CopyOnWriteArrayList<>();
+
+    void register(WriteBehindPointHistoryRepository repository) {
+        repositories.add(repository);
+    }
+
+    /**
+     * 아직 원본 저장소에 반영되지 않은 내역 수 (모든 쓰기 버퍼 합계)
+     */
+    public long pendingCount() {
+        long pending = 0;
+        for (WriteBehindPointHistoryRepository repository : repositories) {
+            pending += repository.pendingCount();
+        }
+        return pending;
+    }
+
+    /**
+     * 모든 쓰기 버퍼를 닫는다. 하나가 실패해도 나머지는 닫고, 첫 실패를 던진다.
+     */
+    public void close() throws InterruptedException {
+        RuntimeException failure = null;
+        for (WriteBehindPointHistoryRepository repository : repositories) {
+            try {
+                repository.close();
+            } catch (RuntimeException e) {
+                if (failure == null) failure = e;
+                else failure.addSuppressed(e);
+            }
+        }
+        if (failure != null) throw failure;
+    }
+}
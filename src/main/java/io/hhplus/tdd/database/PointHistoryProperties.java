@@ -0,0 +1,23 @@
+package io.hhplus.tdd.database;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 포인트 내역 저장 설정
+ * - store : TABLE 이면 테이블만 사용, INDEXED 이면 테이블에 쓰면서 사용자별 색인에서 조회,
+ *           OFF_HEAP 이면 테이블 대신 힙 밖의 열 단위 저장소에 보관
+ * - writeBehind : true 이면 내역을 메모리 버퍼에 먼저 쌓고 백그라운드에서 테이블에 반영한다.
+ * - flushBatchSize : 백그라운드 플러셔가 한 번에 버퍼에서 꺼내는 최대 건수
+ */
+@ConfigurationProperties(prefix = "point.history")
+public record PointHistoryProperties(
+        @DefaultValue("TABLE") Store store,
+        @DefaultValue("false") boolean writeBehind,
+        @DefaultValue("256") int flushBatchSize
+) {
+
+    public enum Store {
+        TABLE, INDEXED, OFF_HEAP
+    }
+}
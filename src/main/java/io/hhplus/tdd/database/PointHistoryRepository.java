@@ -0,0 +1,47 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryQuery;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 포인트 내역 저장소
+ * - 서비스는 {@link PointHistoryTable} 대신 이 인터페이스를 통해 내역을 읽고 쓴다.
+ */
+public interface PointHistoryRepository {
+
+    PointHistory insert(long userId, long amount, TransactionType type, long updateMillis);
+
+    /**
+     * 사용자의 내역을 id 오름차순으로 조회
+     */
+    List<PointHistory> selectAllByUserId(long userId);
+
+    /**
+     * 조건에 맞는 사용자의 내역을 id 오름차순으로 조회
+     */
+    default List<PointHistory> selectByUserId(long userId, PointHistoryQuery query) {
+        List<PointHistory> histories = new ArrayList<>(Math.min(query.limitOrMax(), PointHistoryQuery.MAX_LIMIT));
+        forEachByUserId(userId, query, histories::add);
+        return histories;
+    }
+
+    /**
+     * 조건에 맞는 사용자의 내역을 id 오름차순으로 하나씩 넘긴다.
+     * 기본 구현은 사용자 내역 전체를 읽은 뒤 거르므로, 가능한 저장소는 목록을 만들지 않고 넘기도록 재정의한다.
+     */
+    default void forEachByUserId(long userId, PointHistoryQuery query, Consumer<PointHistory> action) {
+        int remaining = query.limitOrMax();
+        for (PointHistory pointHistory : selectAllByUserId(userId)) {
+            if (remaining == 0) return;
+            if (query.matches(pointHistory)) {
+                action.accept(pointHistory);
+                remaining--;
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.database.persistence.FsyncPolicy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * 잔고/내역 영속화 설정
+ * - enabled : true 이면 테이블 대신 로그와 스냅샷으로 보존되는 저장소를 사용한다.
+ * - directory : 로그 세그먼트와 스냅샷 파일을 둘 디렉터리
+ * - fsync : 로그를 디스크에 내려쓰는 시점 (PER_OP / BATCHED / OS)
+ * - groupCommitInterval : BATCHED 에서 내려쓰기 전에 기록을 더 모으는 시간, 0 이면 이전 동기화 동안 쌓인 기록만 모아 바로 내려쓴다.
+ * - segmentSize : 로그 세그먼트 파일 하나의 크기
+ * - snapshotInterval : 스냅샷 주기, 0 이면 종료할 때만 남긴다.
+ */
+@ConfigurationProperties(prefix = "point.persistence")
+public record PointPersistenceProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("data/point") String directory,
+        @DefaultValue("BATCHED") FsyncPolicy fsync,
+        @DefaultValue("0ms") Duration groupCommitInterval,
+        @DefaultValue("64MB") DataSize segmentSize,
+        @DefaultValue("5m") Duration snapshotInterval
+) {
+}
@@ -0,0 +1,358 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointEventRingBuffer;
+import io.hhplus.tdd.point.PointStatsProperties;
+import io.hhplus.tdd.point.PointStatsStore;
+import io.hhplus.tdd.point.PointStreamProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import java.io.IOException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 설정에 따라 서비스가 사용할 저장소를 조립한다.
+ * 조건은 빈 생성 시점에 판단하므로 설정만 바꿔 기능을 켜고 끌 수 있다.
+ * 테이블 호출 시간은 가장 안쪽에서 기록하고, 켜진 기능의 상태(캐시 적중, 미반영 내역 수 등)는 지표로 등록한다.
+ * 영속화를 켜면 테이블 대신 {@link PersistentPointStore} 가 원본 저장소가 된다.
+ * 잔고의 동시 조회 합치기는 테이블을 읽는 경우에만 둔다. 영속 저장소와 원시 타입 저장소는 메모리에서 바로 읽으므로 합칠 이유가 없다.
+ * 샤딩을 켜면 샤드마다 같은 방식으로 조립한 저장소를 {@link PointShards} 가 사용자 id 로 나눠 쓴다.
+ * 샤딩을 꺼도 테이블을 쓰면 같은 방식으로 테이블을 사용자 id 로 나눠(point.table.stripes) 테이블 락을 나눈다.
+ * 내역 압축을 켜면 만들어진 사용자별 색인을 모두 {@link PointHistoryCompactor} 에 등록한다.
+ */
+@Configuration
+public class PointRepositoryConfig {
+
+    /**
+     * 영속화를 켠 경우에만 저장소에서 꺼내 쓰므로 그때 처음 만들어진다(복구 포함).
+     */
+    @Bean
+    @Lazy
+    public PersistentPointStore persistentPointStore(PointPersistenceProperties properties) throws IOException {
+        return new PersistentPointStore(properties);
+    }
+
+    /**
+     * 지연 초기화(spring.main.lazy-initialization)를 켜도 압축 작업은 첫 요청을 기다리지 않고 기동 때 시작한다.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter pointHistoryCompactorEagerInitialization() {
+        return LazyInitializationExcludeFilter.forBeanTypes(PointHistoryCompactor.class);
+    }
+
+    /**
+     * 꺼져 있으면 등록만 받고 스스로 실행하지 않는다.
+     */
+    @Bean
+    public PointHistoryCompactor pointHistoryCompactor(PointHistoryCompactionProperties properties, MeterRegistry meterRegistry) {
+        PointHistoryCompactor compactor = new PointHistoryCompactor(properties);
+        if (properties.enabled()) {
+            FunctionCounter.builder("point.history.compaction.runs", compactor, PointHistoryCompactor::runCount)
+                    .register(meterRegistry);
+            FunctionCounter.builder("point.history.compaction.rows", compactor, PointHistoryCompactor::compactedRowCount)
+                    .register(meterRegistry);
+            // 색인 바이트만 센다. (원본 테이블의 행은 남는다) 배열 여유분이 작은 사용자는 요약 행만큼 늘 수도 있어 카운터 대신 게이지로 둔다.
+            Gauge.builder("point.history.compaction.reclaimed", compactor, PointHistoryCompactor::reclaimedBytes)
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        }
+        return compactor;
+    }
+
+    /**
+     * 쓰기 버퍼는 다른 저장소 안쪽에 감싸이므로 이 빈이 모아 두었다가 종료 시 닫는다.
+     */
+    @Bean
+    public PointHistoryFlushers pointHistoryFlushers() {
+        return new PointHistoryFlushers();
+    }
+
+    /**
+     * 샤딩을 켜거나 테이블을 나눠 두는 경우에만 저장소에서 꺼내 쓰므로 그때 처음 만들어진다.
+     * 샤드마다 테이블(또는 대신하는 저장소)을 따로 만들고, 켜진 기능도 샤드마다 따로 둔다. 지표에는 샤드 번호를 붙인다.
+     * 한 샤드의 잔고/내역 테이블 호출은 샤드마다 하나인 락으로 감싸므로, 샤드를 나누면 테이블 락 경합도 샤드 수만큼 나뉜다.
+     * 샤딩을 끈 경우는 {@link #tableStripes} 로 테이블만 나눈다.
+     */
+    @Bean
+    @Lazy
+    public PointShards pointShards(PointShardProperties shardProperties, PointTableProperties tableProperties,
+                                   UserPointTable userPointTable, PointHistoryTable pointHistoryTable,
+                                   PointBalanceProperties balanceProperties,
+                                   PointHistoryProperties historyProperties,
+                                   PointSingleFlightProperties singleFlightProperties,
+                                   PointHistoryCompactor compactor, PointHistoryFlushers flushers,
+                                   MeterRegistry meterRegistry) {
+        if (!shardProperties.enabled()) {
+            return tableStripes(shardProperties, tableProperties, userPointTable, pointHistoryTable, balanceProperties,
+                    historyProperties, singleFlightProperties, compactor, flushers, meterRegistry);
+        }
+        int count = shardProperties.count();
+        if (count <= 0) throw new IllegalArgumentException("샤드 수는 1 이상이어야 합니다: " + count);
+
+        UserPointRepository[] balances = new UserPointRepository[count];
+        PointHistoryRepository[] histories = new PointHistoryRepository[count];
+        for (int i = 0; i < count; i++) {
+            Tags tags = Tags.of("shard", String.valueOf(i));
+            ReadWriteLock shardLock = new ReentrantReadWriteLock();
+            balances[i] = balanceRepository(new UserPointTable(), shardLock, balanceProperties, singleFlightProperties, tags, meterRegistry);
+            histories[i] = historyRepository(new PointHistoryTable(), shardLock, historyProperties, singleFlightProperties, compactor, flushers, tags, meterRegistry);
+        }
+        PointShards shards = new PointShards(shardProperties.virtualNodes(), balances, histories);
+        for (int i = 0; i < count; i++) {
+            int shard = i;
+            FunctionCounter.builder("point.shard.operations", shards, s -> s.readCount(shard))
+                    .tags("shard", String.valueOf(shard), "type", "read")
+                    .register(meterRegistry);
+            FunctionCounter.builder("point.shard.operations", shards, s -> s.writeCount(shard))
+                    .tags("shard", String.valueOf(shard), "type", "write")
+                    .register(meterRegistry);
+        }
+        Gauge.builder("point.shard.moved.users", shards, PointShards::movedUserCount)
+                .register(meterRegistry);
+        FunctionCounter.builder("point.shard.moved.rows", shards, PointShards::movedRowCount)
+                .register(meterRegistry);
+        return shards;
+    }
+
+    @Bean
+    public UserPointRepository userPointRepository(UserPointTable userPointTable, PointBalanceProperties balanceProperties,
+                                                   PointHistoryProperties historyProperties,
+                                                   PointTableProperties tableProperties,
+                                                   PointCacheProperties cacheProperties,
+                                                   PointSingleFlightProperties singleFlightProperties,
+                                                   PointShardProperties shardProperties,
+                                                   ObjectProvider<PointShards> pointShards,
+                                                   PointUpdateProperties updateProperties,
+                                                   PointStatsProperties statsProperties, PointStatsStore pointStatsStore,
+                                                   PointStreamProperties streamProperties, PointEventRingBuffer ringBuffer,
+                                                   PointPersistenceProperties persistenceProperties,
+                                                   ObjectProvider<PersistentPointStore> persistentPointStore,
+                                                   MeterRegistry meterRegistry) {
+        UserPointRepository repository;
+        if (persistenceProperties.enabled()) {
+            if (shardProperties.enabled()) throw new IllegalStateException("영속화와 샤딩은 함께 켤 수 없습니다.");
+            repository = persistentPointStore.getObject().userPointRepository();
+        } else if (shardProperties.enabled() || stripesTables(tableProperties, balanceProperties, historyProperties)) {
+            repository = pointShards.getObject().userPointRepository();
+        } else {
+            repository = balanceRepository(userPointTable, new ReentrantReadWriteLock(), balanceProperties, singleFlightProperties, Tags.empty(), meterRegistry);
+        }
+        if (cacheProperties.enabled()) {
+            // 샤드를 옮겨도 잔고 값은 그대로이므로 캐시는 샤드 바깥에 하나만 둔다.
+            CachedUserPointRepository cached = new CachedUserPointRepository(repository, cacheProperties.maximumSize(), cacheProperties.ttl());
+            FunctionCounter.builder("point.cache.requests", cached, CachedUserPointRepository::hitCount)
+                    .tag("result", "hit")
+                    .register(meterRegistry);
+            FunctionCounter.builder("point.cache.requests", cached, CachedUserPointRepository::missCount)
+                    .tag("result", "miss")
+                    .register(meterRegistry);
+            FunctionCounter.builder("point.cache.evictions", cached, CachedUserPointRepository::evictionCount)
+                    .register(meterRegistry);
+            Gauge.builder("point.cache.size", cached, CachedUserPointRepository::size)
+                    .register(meterRegistry);
+            repository = cached;
+        }
+        // 서비스가 버전 저장소를 알아볼 수 있도록 그 안쪽에 둔다. 버전 저장소는 한 번의 변경을 그대로 안쪽에 넘긴다.
+        if (statsProperties.enabled()) repository = new AggregatingUserPointRepository(repository, pointStatsStore);
+        if (streamProperties.enabled()) repository = new PublishingUserPointRepository(repository, ringBuffer);
+        if (updateProperties.mode() == PointUpdateProperties.Mode.OPTIMISTIC) {
+            // 샤드 이동은 사용자 락으로 그 사용자의 쓰기를 막는데, 낙관적 갱신은 사용자 락을 잡지 않아 이동 중에도 옛 샤드에 쓸 수 있다.
+            if (shardProperties.enabled()) throw new IllegalStateException("낙관적 갱신과 샤딩은 함께 켤 수 없습니다.");
+            // 가장 바깥에 두어 잔고를 쓰는 모든 경로가 버전을 거치게 한다.
+            VersionedUserPointRepository versioned = new VersionedUserPointRepository(repository,
+                    updateProperties.maxAttempts(), updateProperties.backoff(), updateProperties.maxBackoff(),
+                    updateProperties.maxWait());
+            FunctionCounter.builder("point.update.attempts", versioned, VersionedUserPointRepository::attemptCount)
+                    .register(meterRegistry);
+            FunctionCounter.builder("point.update.conflicts", versioned, VersionedUserPointRepository::conflictCount)
+                    .register(meterRegistry);
+            FunctionCounter.builder("point.update.exhausted", versioned, VersionedUserPointRepository::exhaustedCount)
+                    .register(meterRegistry);
+            Gauge.builder("point.update.active", versioned, VersionedUserPointRepository::activeSlotCount)
+                    .register(meterRegistry);
+            repository = versioned;
+        }
+        return repository;
+    }
+
+    @Bean
+    public PointHistoryRepository pointHistoryRepository(PointHistoryTable pointHistoryTable, PointHistoryProperties properties,
+                                                         PointBalanceProperties balanceProperties,
+                                                         PointTableProperties tableProperties,
+                                                         PointSingleFlightProperties singleFlightProperties,
+                                                         PointStatsProperties statsProperties, PointStatsStore pointStatsStore,
+                                                         PointStreamProperties streamProperties, PointEventRingBuffer ringBuffer,
+                                                         PointShardProperties shardProperties,
+                                                         ObjectProvider<PointShards> pointShards,
+                                                         PointPersistenceProperties persistenceProperties,
+                                                         ObjectProvider<PersistentPointStore> persistentPointStore,
+                                                         PointHistoryCompactionProperties compactionProperties,
+                                                         PointHistoryCompactor compactor,
+                                                         PointHistoryFlushers flushers,
+                                                         MeterRegistry meterRegistry) {
+        if (compactionProperties.enabled()
+                && (persistenceProperties.enabled() || properties.store() != PointHistoryProperties.Store.INDEXED)) {
+            throw new IllegalStateException("내역 압축은 영속화 없이 INDEXED 저장소에서만 켤 수 있습니다.");
+        }
+        PointHistoryRepository repository;
+        if (persistenceProperties.enabled()) {
+            if (shardProperties.enabled()) throw new IllegalStateException("영속화와 샤딩은 함께 켤 수 없습니다.");
+            // 영속 저장소는 이미 사용자별 색인에서 읽고 지연 없이 쓰므로 색인과 쓰기 버퍼를 겹쳐 두지 않는다.
+            repository = persistentPointStore.getObject().pointHistoryRepository();
+        } else if (shardProperties.enabled() || stripesTables(tableProperties, balanceProperties, properties)) {
+            repository = pointShards.getObject().pointHistoryRepository();
+        } else {
+            repository = historyRepository(pointHistoryTable, new ReentrantReadWriteLock(), properties, singleFlightProperties, compactor, flushers, Tags.empty(), meterRegistry);
+        }
+        // 통계와 이벤트는 가장 바깥에서 갱신/발행해 저장 방식과 관계없이 반영한다. 둘 다 잔고 쓰기(와 영속화)가 끝난 뒤에 반영된다.
+        if (statsProperties.enabled()) repository = new AggregatingPointHistoryRepository(repository, pointStatsStore);
+        if (streamProperties.enabled()) repository = new PublishingPointHistoryRepository(repository, ringBuffer);
+        return repository;
+    }
+
+    /**
+     * 샤딩을 끈 채 잔고나 내역에 테이블을 쓰면 테이블을 사용자 id 로 나눠 둔다.
+     */
+    private static boolean stripesTables(PointTableProperties tableProperties, PointBalanceProperties balanceProperties,
+                                         PointHistoryProperties historyProperties) {
+        if (tableProperties.stripes() <= 0) throw new IllegalArgumentException("테이블 수는 1 이상이어야 합니다: " + tableProperties.stripes());
+        return tableProperties.stripes() > 1
+                && (balanceProperties.store() == PointBalanceProperties.Store.TABLE
+                || historyProperties.store() != PointHistoryProperties.Store.OFF_HEAP);
+    }
+
+    /**
+     * 샤딩을 끈 채 테이블을 사용자 id 로 나눠 둔 저장소
+     * - 테이블을 쓰는 쪽은 나눈 몫마다 테이블과 락을 따로 만든다. 잔고와 내역 테이블도 락을 따로 두어, 다른 몫의 사용자끼리는 물론
+     *   같은 몫의 잔고 쓰기와 내역 쓰기도 서로 기다리지 않는다. 빈으로 등록된 테이블은 첫 몫이 쓴다.
+     * - 테이블을 쓰지 않는 쪽(원시 타입/힙 밖 저장소)은 스스로 동시 쓰기를 다루므로 하나만 만들어 모든 몫이 함께 쓴다.
+     * - 사용자를 옮기지 않으므로 샤드 지표는 두지 않고, 테이블 쪽 지표에만 몫 번호(stripe)를 붙인다.
+     */
+    private PointShards tableStripes(PointShardProperties shardProperties, PointTableProperties tableProperties,
+                                     UserPointTable userPointTable, PointHistoryTable pointHistoryTable,
+                                     PointBalanceProperties balanceProperties, PointHistoryProperties historyProperties,
+                                     PointSingleFlightProperties singleFlightProperties,
+                                     PointHistoryCompactor compactor, PointHistoryFlushers flushers,
+                                     MeterRegistry meterRegistry) {
+        int count = tableProperties.stripes();
+        boolean balanceTable = balanceProperties.store() == PointBalanceProperties.Store.TABLE;
+        boolean historyTable = historyProperties.store() != PointHistoryProperties.Store.OFF_HEAP;
+        UserPointRepository sharedBalance = balanceTable ? null
+                : balanceRepository(userPointTable, new ReentrantReadWriteLock(), balanceProperties, singleFlightProperties, Tags.empty(), meterRegistry);
+        PointHistoryRepository sharedHistory = historyTable ? null
+                : historyRepository(pointHistoryTable, new ReentrantReadWriteLock(), historyProperties, singleFlightProperties, compactor, flushers, Tags.empty(), meterRegistry);
+
+        UserPointRepository[] balances = new UserPointRepository[count];
+        PointHistoryRepository[] histories = new PointHistoryRepository[count];
+        for (int i = 0; i < count; i++) {
+            Tags tags = Tags.of("stripe", String.valueOf(i));
+            balances[i] = balanceTable
+                    ? balanceRepository(i == 0 ? userPointTable : new UserPointTable(), new ReentrantReadWriteLock(),
+                    balanceProperties, singleFlightProperties, tags, meterRegistry)
+                    : sharedBalance;
+            histories[i] = historyTable
+                    ? historyRepository(i == 0 ? pointHistoryTable : new PointHistoryTable(), new ReentrantReadWriteLock(),
+                    historyProperties, singleFlightProperties, compactor, flushers, tags, meterRegistry)
+                    : sharedHistory;
+        }
+        return new PointShards(shardProperties.virtualNodes(), balances, histories);
+    }
+
+    /**
+     * 테이블(또는 대신하는 원시 타입 저장소)에서 시작하는 잔고 저장소
+     * 잔고의 동시 조회 합치기는 테이블을 읽는 경우에만 둔다. 테이블 호출은 tableLock 으로 감싼다.
+     */
+    private UserPointRepository balanceRepository(UserPointTable userPointTable, ReadWriteLock tableLock,
+                                                  PointBalanceProperties balanceProperties,
+                                                  PointSingleFlightProperties singleFlightProperties,
+                                                  Tags tags, MeterRegistry meterRegistry) {
+        if (balanceProperties.store() == PointBalanceProperties.Store.PRIMITIVE) {
+            PrimitiveUserPointRepository primitive = new PrimitiveUserPointRepository();
+            Gauge.builder("point.balance.users", primitive, PrimitiveUserPointRepository::size)
+                    .tags(tags)
+                    .register(meterRegistry);
+            return primitive;
+        }
+
+        UserPointRepository repository = new TimedUserPointRepository(new TableUserPointRepository(userPointTable, tableLock), meterRegistry);
+        if (singleFlightProperties.enabled()) {
+            // 캐시 안쪽에 두어 캐시에 없는 조회만 합친다.
+            SingleFlightUserPointRepository singleFlight = new SingleFlightUserPointRepository(repository);
+            FunctionCounter.builder("point.single-flight.shared", singleFlight, SingleFlightUserPointRepository::sharedCount)
+                    .tag("table", "user_point")
+                    .tags(tags)
+                    .register(meterRegistry);
+            repository = singleFlight;
+        }
+        return repository;
+    }
+
+    /**
+     * 테이블(또는 대신하는 힙 밖 저장소)에서 시작하는 내역 저장소
+     * 테이블 호출은 tableLock 으로 감싸고, 쓰기 버퍼는 종료 시 닫히도록 flushers 에 등록한다.
+     */
+    private PointHistoryRepository historyRepository(PointHistoryTable pointHistoryTable, ReadWriteLock tableLock,
+                                                     PointHistoryProperties properties,
+                                                     PointSingleFlightProperties singleFlightProperties,
+                                                     PointHistoryCompactor compactor, PointHistoryFlushers flushers,
+                                                     Tags tags, MeterRegistry meterRegistry) {
+        PointHistoryRepository repository;
+        if (properties.store() == PointHistoryProperties.Store.OFF_HEAP) {
+            // 테이블을 쓰지 않으므로 테이블 호출 시간도 기록하지 않는다.
+            OffHeapPointHistoryRepository offHeap = new OffHeapPointHistoryRepository();
+            Gauge.builder("point.history.offheap.rows", offHeap, OffHeapPointHistoryRepository::rowCount)
+                    .tags(tags)
+                    .register(meterRegistry);
+            Gauge.builder("point.history.offheap.users", offHeap, OffHeapPointHistoryRepository::userCount)
+                    .tags(tags)
+                    .register(meterRegistry);
+            Gauge.builder("point.history.offheap.bytes", offHeap, OffHeapPointHistoryRepository::offHeapBytes)
+                    .baseUnit("bytes")
+                    .tags(tags)
+                    .register(meterRegistry);
+            repository = offHeap;
+        } else {
+            repository = new TimedPointHistoryRepository(new TablePointHistoryRepository(pointHistoryTable, tableLock), meterRegistry);
+        }
+        if (properties.store() == PointHistoryProperties.Store.INDEXED) {
+            IndexedPointHistoryRepository indexed = new IndexedPointHistoryRepository(repository);
+            Gauge.builder("point.history.index.rows", indexed, IndexedPointHistoryRepository::rowCount)
+                    .tags(tags)
+                    .register(meterRegistry);
+            Gauge.builder("point.history.index.users", indexed, IndexedPointHistoryRepository::userCount)
+                    .tags(tags)
+                    .register(meterRegistry);
+            compactor.register(indexed);
+            repository = indexed;
+        }
+        if (properties.writeBehind()) {
+            WriteBehindPointHistoryRepository writeBehind = new WriteBehindPointHistoryRepository(repository, properties.flushBatchSize());
+            Gauge.builder("point.history.pending", writeBehind, WriteBehindPointHistoryRepository::pendingCount)
+                    .tags(tags)
+                    .register(meterRegistry);
+            FunctionCounter.builder("point.history.retries", writeBehind, WriteBehindPointHistoryRepository::retryCount)
+                    .tags(tags)
+                    .register(meterRegistry);
+            flushers.register(writeBehind);
+            repository = writeBehind;
+        }
+        if (singleFlightProperties.enabled()) {
+            // 가장 바깥에 두어 내역 추가(쓰기 버퍼에 넣은 경우 포함)가 끝난 뒤의 조회는 이전 조회에 합류하지 않게 한다.
+            SingleFlightPointHistoryRepository singleFlight = new SingleFlightPointHistoryRepository(repository);
+            FunctionCounter.builder("point.single-flight.shared", singleFlight, SingleFlightPointHistoryRepository::sharedCount)
+                    .tag("table", "point_history")
+                    .tags(tags)
+                    .register(meterRegistry);
+            repository = singleFlight;
+        }
+        return repository;
+    }
+}
@@ -0,0 +1,18 @@
+package io.hhplus.tdd.database;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 잔고/내역 샤딩 설정
+ * - enabled : true 이면 사용자 id 로 잔고와 내역을 count 개의 샤드에 나눠 보관한다. 영속화와 함께 쓸 수 없다.
+ * - count : 샤드 수
+ * - virtualNodes : 샤드마다 해시 고리에 올리는 가상 노드 수, 클수록 사용자가 샤드에 고르게 나뉜다.
+ */
+@ConfigurationProperties(prefix = "point.shard")
+public record PointShardProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("8") int count,
+        @DefaultValue("128") int virtualNodes
+) {
+}
@@ -0,0 +1,222 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryQuery;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 사용자 id 로 잔고와 내역을 여러 샤드에 나눠 보관한다.
+ * - 샤드마다 따로 만든 저장소(테이블 등)를 두므로, 잠금과 내역 id 발급이 샤드끼리 겹치지 않는다.
+ * - 사용자의 샤드는 {@link ConsistentHashRing} 으로 정하고, {@link #move(long, int)} 로 옮긴 사용자는 옮긴 자리를 먼저 따른다.
+ * - 내역 id 는 (샤드 안의 id) * 샤드 수 + 샤드 번호로 바꿔 내보낸다. 샤드끼리 겹치지 않고, 한 사용자의 내역은 id 오름차순을 유지한다.
+ * - 샤드별 조회/쓰기 수를 세어 요청이 몰리는 샤드를 찾을 수 있게 한다.
+ */
+public class PointShards {
+
+    private final ConsistentHashRing ring;
+    private final UserPointRepository[] balances;
+    private final PointHistoryRepository[] histories;
+    private final LongAdder[] reads;
+    private final LongAdder[] writes;
+    private final LongAdder movedRows = new LongAdder();
+    private final ConcurrentHashMap<Long, Placement> placements = new ConcurrentHashMap<>();
+    private final UserPointRepository userPointRepository = new BalanceRepository();
+    private final PointHistoryRepository pointHistoryRepository = new HistoryRepository();
+
+    public PointShards(int virtualNodes, UserPointRepository[] balances, PointHistoryRepository[] histories) {
+        if (balances.length != histories.length) {
+            throw new IllegalArgumentException("잔고와 내역의 샤드 수가 다릅니다: " + balances.length + ", " + histories.length);
+        }
+
+        this.ring = new ConsistentHashRing(balances.length, virtualNodes);
+        this.balances = balances.clone();
+        this.histories = histories.clone();
+        this.reads = new LongAdder[balances.length];
+        this.writes = new LongAdder[balances.length];
+        for (int i = 0; i < balances.length; i++) {
+            reads[i] = new LongAdder();
+            writes[i] = new LongAdder();
+        }
+    }
+
+    public UserPointRepository userPointRepository() {
+        return userPointRepository;
+    }
+
+    public PointHistoryRepository pointHistoryRepository() {
+        return pointHistoryRepository;
+    }
+
+    public int shardCount() {
+        return balances.length;
+    }
+
+    /**
+     * 사용자가 지금 머무는 샤드
+     */
+    public int shardOf(long userId) {
+        Placement placement = placementOf(userId);
+        return placement == null ? ring.shardOf(userId) : placement.shard();
+    }
+
+    /**
+     * 사용자의 잔고와 내역을 다른 샤드로 옮기고, 옮긴 내역 수를 돌려준다.
+     * - 잔고와 내역을 대상 샤드에 모두 쓴 뒤에 자리를 바꾸므로, 옮기는 동안의 조회는 원래 샤드에서 빠짐없이 읽는다.
+     * - 같은 사용자의 쓰기가 끼어들면 옮긴 내역에서 빠지므로, 호출하는 쪽에서 사용자 락을 잡은 채로 부른다.
+     * - 원래 샤드의 행은 지우지 않고 남는다(테이블은 지울 수 없다). 나중에 그 샤드로 되돌아오면 남은 행은 건너뛴다.
+     * - 옮긴 내역은 대상 샤드에서 새 id 를 받으므로, 옮기기 전의 id 로 이어 받던(after) 조회는 처음부터 다시 읽어야 한다.
+     */
+    public int move(long userId, int target) {
+        if (target < 0 || target >= shardCount()) throw new IllegalArgumentException("잘못된 샤드 번호: " + target);
+
+        Placement placement = placementOf(userId);
+        int source = placement == null ? ring.shardOf(userId) : placement.shard();
+        long sourceFloor = placement == null ? 0L : placement.floor();
+        if (source == target) return 0;
+
+        // 대상 샤드에 남아 있는 이 사용자의 행은 예전에 머물다 떠난 흔적이므로 그 뒤의 id 만 읽도록 기억해 둔다.
+        long[] targetFloor = {0L};
+        histories[target].forEachByUserId(userId, PointHistoryQuery.all(), pointHistory -> targetFloor[0] = pointHistory.id());
+
+        int[] moved = {0};
+        histories[source].forEachByUserId(userId, PointHistoryQuery.all().withAfter(sourceFloor), pointHistory -> {
+            histories[target].insert(userId, pointHistory.amount(), pointHistory.type(), pointHistory.updateMillis());
+            moved[0]++;
+        });
+        balances[target].insertOrUpdate(userId, balances[source].selectPoint(userId));
+        writes[target].add(moved[0] + 1L);
+
+        if (targetFloor[0] == 0L && target == ring.shardOf(userId)) {
+            placements.remove(userId);
+        } else {
+            placements.put(userId, new Placement(target, targetFloor[0]));
+        }
+        movedRows.add(moved[0]);
+        return moved[0];
+    }
+
+    public long readCount(int shard) {
+        return reads[shard].sum();
+    }
+
+    public long writeCount(int shard) {
+        return writes[shard].sum();
+    }
+
+    /**
+     * 해싱과 다른 샤드에 머무는(옮긴) 사용자 수
+     */
+    public int movedUserCount() {
+        return placements.size();
+    }
+
+    /**
+     * 지금까지 옮긴 내역 수
+     */
+    public long movedRowCount() {
+        return movedRows.sum();
+    }
+
+    private Placement placementOf(long userId) {
+        // 옮긴 사용자가 없으면 id 를 감싸 찾지 않는다.
+        return placements.isEmpty() ? null : placements.get(userId);
+    }
+
+    private long globalId(long localId, int shard) {
+        return localId * shardCount() + shard;
+    }
+
+    /**
+     * 사용자의 샤드와 그 샤드에서 건너뛸 옛 행의 마지막 id(floor)
+     */
+    private record Placement(int shard, long floor) {
+    }
+
+    private final class BalanceRepository implements UserPointRepository {
+
+        @Override
+        public UserPoint selectById(long id) {
+            int shard = shardOf(id);
+            reads[shard].increment();
+            return balances[shard].selectById(id);
+        }
+
+        @Override
+        public long selectPoint(long id) {
+            int shard = shardOf(id);
+            reads[shard].increment();
+            return balances[shard].selectPoint(id);
+        }
+
+        @Override
+        public UserPoint insertOrUpdate(long id, long amount) {
+            int shard = shardOf(id);
+            writes[shard].increment();
+            return balances[shard].insertOrUpdate(id, amount);
+        }
+    }
+
+    private final class HistoryRepository implements PointHistoryRepository {
+
+        @Override
+        public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+            int shard = shardOf(userId);
+            writes[shard].increment();
+            PointHistory pointHistory = histories[shard].insert(userId, amount, type, updateMillis);
+            return new PointHistory(globalId(pointHistory.id(), shard), userId, amount, type, updateMillis);
+        }
+
+        @Override
+        public List<PointHistory> selectAllByUserId(long userId) {
+            return selectByUserId(userId, PointHistoryQuery.all());
+        }
+
+        @Override
+        public List<PointHistory> selectByUserId(long userId, PointHistoryQuery query) {
+            Placement placement = placementOf(userId);
+            int shard = placement == null ? ring.shardOf(userId) : placement.shard();
+            reads[shard].increment();
+
+            List<PointHistory> local = histories[shard].selectByUserId(userId, localQuery(query, shard, placement));
+            List<PointHistory> histories = new ArrayList<>(local.size());
+            for (PointHistory pointHistory : local) {
+                histories.add(toGlobal(pointHistory, shard));
+            }
+            return histories;
+        }
+
+        @Override
+        public void forEachByUserId(long userId, PointHistoryQuery query, Consumer<PointHistory> action) {
+            Placement placement = placementOf(userId);
+            int shard = placement == null ? ring.shardOf(userId) : placement.shard();
+            reads[shard].increment();
+
+            histories[shard].forEachByUserId(userId, localQuery(query, shard, placement),
+                    pointHistory -> action.accept(toGlobal(pointHistory, shard)));
+        }
+
+        /**
+         * 이어 받기 기준(after)을 샤드 안의 id 로 바꾸고, 예전에 머물다 떠난 행은 건너뛰도록 한다.
+         * 샤드 안의 id 가 x 이면 바깥 id 는 x * 샤드 수 + shard 이므로, 바깥 id > after 는 x > floor((after - shard) / 샤드 수) 와 같다.
+         */
+        private PointHistoryQuery localQuery(PointHistoryQuery query, int shard, Placement placement) {
+            long floor = placement == null ? 0L : placement.floor();
+            if (query.after() == null && floor == 0L) return query;
+
+            long after = query.after() == null ? 0L : Math.floorDiv(query.after() - shard, shardCount());
+            return query.withAfter(Math.max(after, floor));
+        }
+
+        private PointHistory toGlobal(PointHistory pointHistory, int shard) {
+            return new PointHistory(globalId(pointHistory.id(), shard), pointHistory.userId(), pointHistory.amount(),
+                    pointHistory.type(), pointHistory.updateMillis());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package io.hhplus.tdd.database;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 동시 조회 합치기(single-flight) 설정
+ * - enabled : 같은 사용자의 동시 잔고/내역 조회를 원본 조회 하나로 합칠지 여부
+ */
+@ConfigurationProperties(prefix = "point.single-flight")
+public record PointSingleFlightProperties(
+        @DefaultValue("true") boolean enabled
+) {
+}
@@ -0,0 +1,15 @@
+package io.hhplus.tdd.database;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 테이블 설정
+ * - stripes : 샤딩을 끈 채 테이블을 쓸 때 사용자 id 로 나눠 둘 테이블 수, 테이블마다 락을 따로 두어 다른 테이블의 사용자끼리는 테이블 쓰기를 기다리지 않는다.
+ *             1 이면 빈으로 등록된 테이블 하나를 모든 사용자가 함께 쓴다.
+ */
+@ConfigurationProperties(prefix = "point.table")
+public record PointTableProperties(
+        @DefaultValue("32") int stripes
+) {
+}
@@ -0,0 +1,29 @@
+package io.hhplus.tdd.database;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 잔고 갱신 방식 설정
+ * - mode : LOCK 이면 사용자 락을 잡고 읽기 ~ 쓰기를 직렬화, OPTIMISTIC 이면 잠그지 않고 읽은 뒤 버전이 그대로일 때만 쓴다.
+ *   샤드 이동이 사용자 락에 기대므로 OPTIMISTIC 은 샤딩(point.shard.enabled)과 함께 켤 수 없다.
+ * - maxAttempts : OPTIMISTIC 에서 읽은 뒤 다른 갱신이 먼저 반영되었을 때 다시 시도하는 최대 횟수, 넘으면 409
+ *   다른 갱신이 쓰는 중이면 끝날 때까지 기다렸다 읽으며 그 시간은 횟수에 넣지 않으므로, 저장소 지연과 관계없이 겹친 갱신 수만큼 시도하면 된다.
+ * - maxWait : OPTIMISTIC 에서 한 번의 갱신이 다른 갱신의 쓰기가 끝나기를 기다리는 시간의 합, 넘으면 409
+ * - backoff / maxBackoff : 다시 시도하기 전에 기다리는 시간, 시도마다 두 배씩 늘리되 maxBackoff 를 넘지 않고 그 안에서 무작위로 고른다.
+ */
+@ConfigurationProperties(prefix = "point.update")
+public record PointUpdateProperties(
+        @DefaultValue("LOCK") Mode mode,
+        @DefaultValue("10") int maxAttempts,
+        @DefaultValue("1ms") Duration backoff,
+        @DefaultValue("50ms") Duration maxBackoff,
+        @DefaultValue("5s") Duration maxWait
+) {
+
+    public enum Mode {
+        LOCK, OPTIMISTIC
+    }
+}
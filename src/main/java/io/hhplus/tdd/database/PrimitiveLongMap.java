@@ -0,0 +1,211 @@
+package io.hhplus.tdd.database;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * long 키마다 long 값 열 여러 개를 원시 타입 배열의 열린 주소법 해시 테이블에 두는 맵
+ * - 키를 Long 으로 감싸거나 행마다 객체를 두지 않는다. 값은 열 번호로 읽고 쓴다.
+ * - 키로 세그먼트를 나눠 세그먼트마다 따로 잠근다. 조회는 낙관적 읽기로 잠그지 않고, 그 사이 쓰기가 있었을 때만 읽기 잠금으로 다시 읽는다.
+ * - 갱신({@link #update})은 세그먼트의 쓰기 잠금 안에서 부르므로, 같은 키의 갱신은 차례로 반영되고 갱신과 함께 바꾸는 다른 상태도 같은 순서를 따른다.
+ * - 없는 키는 갱신할 때 값이 모두 0 인 행으로 추가한다. 행은 지우지 않는다.
+ */
+public final class PrimitiveLongMap {
+
+    private static final int SEGMENT_BITS = 6;
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * 행을 읽는다. 키가 없으면 index 는 음수다.
+     * 낙관적 읽기 중에는 다른 쓰기와 겹친 값을 받을 수 있으므로(그 결과는 버리고 다시 읽는다) 부작용 없이 값만 만든다.
+     */
+    @FunctionalInterface
+    public interface Reader<T> {
+        T read(long key, long[][] columns, int index);
+    }
+
+    /**
+     * 쓰기 잠금 안에서 행을 고친다. 인자 두 개를 함께 넘겨, 값을 담으려고 람다를 새로 만들지 않아도 되게 한다.
+     */
+    @FunctionalInterface
+    public interface Updater {
+        void update(long key, long[][] columns, int index, long first, long second);
+    }
+
+    private final int columnCount;
+    private final Segment[] segments = new Segment[1 << SEGMENT_BITS];
+
+    public PrimitiveLongMap(int columnCount) {
+        if (columnCount <= 0) throw new IllegalArgumentException("열 수는 1 이상이어야 합니다: " + columnCount);
+
+        this.columnCount = columnCount;
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * 키의 column 열 값, 키가 없으면 0
+     */
+    public long get(long key, int column) {
+        long hash = hash(key);
+        return segmentOf(hash).get(key, hash, column);
+    }
+
+    public <T> T read(long key, Reader<T> reader) {
+        long hash = hash(key);
+        return segmentOf(hash).read(key, hash, reader);
+    }
+
+    /**
+     * 키의 행을 (없으면 추가해) updater 로 고친다.
+     */
+    public void update(long key, Updater updater, long first, long second) {
+        long hash = hash(key);
+        segmentOf(hash).update(key, hash, updater, first, second);
+    }
+
+    /**
+     * 저장된 키 수
+     */
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * 세그먼트는 상위 비트로, 세그먼트 안의 위치는 하위 비트로 고른다.
+     */
+    private Segment segmentOf(long hash) {
+        return segments[(int) (hash >>> (Long.SIZE - SEGMENT_BITS))];
+    }
+
+    private static long hash(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 32);
+    }
+
+    /**
+     * 한 번 만든 배열은 크기가 바뀌지 않고, 늘릴 때는 새 Table 로 바꿔 끼운다.
+     * 낙관적 읽기 중에도 모든 열은 항상 같은 Table 에서 꺼내므로 위치가 어긋나지 않는다.
+     */
+    private static final class Table {
+
+        private final boolean[] used;
+        private final long[] keys;
+        private final long[][] columns;
+        private final int mask;
+
+        private Table(int capacity, int columnCount) {
+            this.used = new boolean[capacity];
+            this.keys = new long[capacity];
+            this.columns = new long[columnCount][capacity];
+            this.mask = capacity - 1;
+        }
+
+        /**
+         * 위치를 찾지 못하면 음수, 낙관적 읽기 중 배열이 바뀌어도 끝나도록 최대 용량만큼만 탐색한다.
+         */
+        private int indexOf(long key, long hash) {
+            int index = (int) hash & mask;
+            for (int probe = 0; probe <= mask; probe++) {
+                if (!used[index]) return -1;
+                if (keys[index] == key) return index;
+                index = (index + 1) & mask;
+            }
+            return -1;
+        }
+
+        private int emptySlot(long hash) {
+            int index = (int) hash & mask;
+            while (used[index]) {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+    }
+
+    private final class Segment {
+
+        private final StampedLock lock = new StampedLock();
+        private Table table = new Table(INITIAL_CAPACITY, columnCount);
+        private int size;
+
+        private long get(long key, long hash, int column) {
+            long stamp = lock.tryOptimisticRead();
+            Table current = table;
+            int index = current.indexOf(key, hash);
+            long value = index < 0 ? 0L : current.columns[column][index];
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    current = table;
+                    index = current.indexOf(key, hash);
+                    value = index < 0 ? 0L : current.columns[column][index];
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return value;
+        }
+
+        private <T> T read(long key, long hash, Reader<T> reader) {
+            long stamp = lock.tryOptimisticRead();
+            Table current = table;
+            T value = reader.read(key, current.columns, current.indexOf(key, hash));
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    current = table;
+                    value = reader.read(key, current.columns, current.indexOf(key, hash));
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return value;
+        }
+
+        private void update(long key, long hash, Updater updater, long first, long second) {
+            long stamp = lock.writeLock();
+            try {
+                int index = table.indexOf(key, hash);
+                if (index < 0) {
+                    // 채움률을 절반 이하로 유지해 탐색 길이를 짧게 둔다.
+                    if ((size + 1) * 2 > table.used.length) table = grow(table);
+                    index = table.emptySlot(hash);
+                    table.used[index] = true;
+                    table.keys[index] = key;
+                    size++;
+                }
+                updater.update(key, table.columns, index, first, second);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private int size() {
+            long stamp = lock.readLock();
+            try {
+                return size;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private Table grow(Table table) {
+            Table grown = new Table(table.used.length << 1, columnCount);
+            for (int i = 0; i < table.used.length; i++) {
+                if (!table.used[i]) continue;
+                int index = grown.emptySlot(hash(table.keys[i]));
+                grown.used[index] = true;
+                grown.keys[index] = table.keys[i];
+                for (int column = 0; column < columnCount; column++) {
+                    grown.columns[column][index] = table.columns[column][i];
+                }
+            }
+            return grown;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+
+/**
+ * 잔고를 원시 타입 배열(사용자 id / 포인트 / 갱신 시각)의 열린 주소법 해시 테이블에 보관하는 저장소
+ * - 키를 Long 으로 감싸거나 행마다 {@link UserPoint} 를 두지 않으므로, {@link #selectPoint(long)} 와 갱신은 객체를 만들지 않는다.
+ *   {@link UserPoint} 는 응답으로 돌려줄 때만 만든다.
+ * - 세그먼트 잠금과 낙관적 읽기는 {@link PrimitiveLongMap} 이 맡는다.
+ * - 테이블을 대신하는 원본 저장소다.
+ */
+public class PrimitiveUserPointRepository implements UserPointRepository {
+
+    private static final int POINT = 0;
+    private static final int UPDATE_MILLIS = 1;
+
+    private static final PrimitiveLongMap.Reader<UserPoint> USER_POINT = (id, columns, index) ->
+            index < 0 ? UserPoint.empty(id) : new UserPoint(id, columns[POINT][index], columns[UPDATE_MILLIS][index]);
+    private static final PrimitiveLongMap.Updater PUT = (id, columns, index, point, updateMillis) -> {
+        columns[POINT][index] = point;
+        columns[UPDATE_MILLIS][index] = updateMillis;
+    };
+
+    private final PrimitiveLongMap points = new PrimitiveLongMap(2);
+
+    @Override
+    public UserPoint selectById(long id) {
+        return points.read(id, USER_POINT);
+    }
+
+    @Override
+    public long selectPoint(long id) {
+        return points.get(id, POINT);
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        long updateMillis = System.currentTimeMillis();
+        points.update(id, PUT, amount, updateMillis);
+        return new UserPoint(id, amount, updateMillis);
+    }
+
+    /**
+     * 잔고가 저장된 사용자 수
+     */
+    public long size() {
+        return points.size();
+    }
+}
@@ -0,0 +1,47 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointEventRingBuffer;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryQuery;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 내역이 쓰이면 이벤트 버퍼에 발행하는 저장소
+ * 내역 조회로 변화를 확인하던 쪽이 보는 것과 같은 행을 같은 순서(사용자별 id 순)로 받는다.
+ * 한 번의 변경 안에서 쓴 내역은 {@link PublishingUserPointRepository} 가 잔고 쓰기와 영속화가 끝난 뒤에 발행한다.
+ */
+public class PublishingPointHistoryRepository implements PointHistoryRepository {
+
+    private final PointHistoryRepository delegate;
+    private final PointEventRingBuffer ringBuffer;
+
+    public PublishingPointHistoryRepository(PointHistoryRepository delegate, PointEventRingBuffer ringBuffer) {
+        this.delegate = delegate;
+        this.ringBuffer = ringBuffer;
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        PointHistory pointHistory = delegate.insert(userId, amount, type, updateMillis);
+        ringBuffer.publish(pointHistory);
+        return pointHistory;
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        return delegate.selectAllByUserId(userId);
+    }
+
+    @Override
+    public List<PointHistory> selectByUserId(long userId, PointHistoryQuery query) {
+        return delegate.selectByUserId(userId, query);
+    }
+
+    @Override
+    public void forEachByUserId(long userId, PointHistoryQuery query, Consumer<PointHistory> action) {
+        delegate.forEachByUserId(userId, query, action);
+    }
+}
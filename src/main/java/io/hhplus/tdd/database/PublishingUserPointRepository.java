@@ -0,0 +1,41 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointEventRingBuffer;
+import io.hhplus.tdd.point.UserPoint;
+
+import java.util.function.Supplier;
+
+/**
+ * 한 번의 변경({@link #writeAtomically}) 안에서 {@link PublishingPointHistoryRepository} 가 남긴 이벤트를
+ * 잔고 쓰기와 영속화까지 끝난 뒤에 발행하는 저장소, 변경이 실패하면 발행하지 않는다.
+ */
+public class PublishingUserPointRepository implements UserPointRepository {
+
+    private final UserPointRepository delegate;
+    private final PointEventRingBuffer ringBuffer;
+
+    public PublishingUserPointRepository(UserPointRepository delegate, PointEventRingBuffer ringBuffer) {
+        this.delegate = delegate;
+        this.ringBuffer = ringBuffer;
+    }
+
+    @Override
+    public UserPoint selectById(long id) {
+        return delegate.selectById(id);
+    }
+
+    @Override
+    public long selectPoint(long id) {
+        return delegate.selectPoint(id);
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        return delegate.insertOrUpdate(id, amount);
+    }
+
+    @Override
+    public <T> T writeAtomically(long id, Supplier<T> action) {
+        return ringBuffer.publishAfter(() -> delegate.writeAtomically(id, action));
+    }
+}
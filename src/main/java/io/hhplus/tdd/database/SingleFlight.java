@@ -0,0 +1,79 @@
+package io.hhplus.tdd.database;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 같은 키에 대한 동시 조회를 원본 호출 하나로 합친다(single-flight).
+ * - 먼저 들어온 조회만 원본을 호출하고, 그 사이 들어온 같은 키의 조회는 그 결과를 함께 받는다.
+ * - 사용자별 쓰기가 끝나면 {@link #invalidate(long)} 로 세대를 올린다. 조회는 시작할 때의 세대보다 이전에 시작된 호출에는 합류하지 않으므로,
+ *   쓰기가 끝난 뒤 시작한 조회가 쓰기 전에 시작된 호출의 결과를 받는 일은 없다.
+ * - 세대는 사용자 id 로 나눈 줄(stripe)마다 두므로, 같은 줄의 다른 사용자 쓰기로 합류하지 못하는 경우가 있을 뿐 결과가 틀리지는 않는다.
+ */
+final class SingleFlight<K, V> {
+
+    private static final int STRIPE_COUNT = 64;
+
+    private final ConcurrentHashMap<K, Call<V>> calls = new ConcurrentHashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPE_COUNT);
+    private final LongAdder shared = new LongAdder();
+
+    V execute(long userId, K key, Supplier<V> loader) {
+        long generation = generations.get(stripeOf(userId));
+        Call<V> mine = new Call<>(generation);
+        Call<V> call = calls.compute(key, (k, existing) -> existing != null && existing.generation() >= generation ? existing : mine);
+        if (call != mine) {
+            shared.increment();
+            return await(call);
+        }
+
+        try {
+            V value = loader.get();
+            mine.result().complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.result().completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, mine);
+        }
+    }
+
+    /**
+     * 사용자의 쓰기가 끝난 뒤 호출한다. 이후 시작하는 조회는 진행 중인 호출에 합류하지 않는다.
+     */
+    void invalidate(long userId) {
+        generations.incrementAndGet(stripeOf(userId));
+    }
+
+    /**
+     * 다른 조회의 결과를 함께 받은 횟수
+     */
+    long sharedCount() {
+        return shared.sum();
+    }
+
+    private V await(Call<V> call) {
+        try {
+            return call.result().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    private int stripeOf(long userId) {
+        return Math.floorMod(Long.hashCode(userId), STRIPE_COUNT);
+    }
+
+    private record Call<V>(long generation, CompletableFuture<V> result) {
+
+        private Call(long generation) {
+            this(generation, new CompletableFuture<>());
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryQuery;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 같은 사용자, 같은 조건의 동시 내역 조회를 원본 조회 하나로 합치는 저장소
+ * - 여러 요청이 같은 목록을 받으므로 수정할 수 없는 목록으로 돌려준다.
+ * - 하나씩 넘기는 조회(forEachByUserId)는 받는 쪽마다 처리가 다르므로 합치지 않는다.
+ * - 내역 추가가 끝난 뒤 시작한 조회는 추가 전에 시작된 조회에 합류하지 않는다.
+ */
+public class SingleFlightPointHistoryRepository implements PointHistoryRepository {
+
+    private final PointHistoryRepository delegate;
+    private final SingleFlight<Key, List<PointHistory>> singleFlight = new SingleFlight<>();
+
+    public SingleFlightPointHistoryRepository(PointHistoryRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        try {
+            return delegate.insert(userId, amount, type, updateMillis);
+        } finally {
+            singleFlight.invalidate(userId);
+        }
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        return singleFlight.execute(userId, new Key(userId, null),
+                () -> Collections.unmodifiableList(delegate.selectAllByUserId(userId)));
+    }
+
+    @Override
+    public List<PointHistory> selectByUserId(long userId, PointHistoryQuery query) {
+        return singleFlight.execute(userId, new Key(userId, query),
+                () -> Collections.unmodifiableList(delegate.selectByUserId(userId, query)));
+    }
+
+    @Override
+    public void forEachByUserId(long userId, PointHistoryQuery query, Consumer<PointHistory> action) {
+        delegate.forEachByUserId(userId, query, action);
+    }
+
+    /**
+     * 다른 조회의 결과를 함께 받아 원본 조회를 건너뛴 횟수
+     */
+    public long sharedCount() {
+        return singleFlight.sharedCount();
+    }
+
+    /**
+     * 전체 조회는 query 가 null 이다.
+     */
+    private record Key(long userId, PointHistoryQuery query) {
+    }
+}
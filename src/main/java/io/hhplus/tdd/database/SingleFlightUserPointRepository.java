@@ -0,0 +1,39 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+
+/**
+ * 같은 사용자의 동시 잔고 조회를 원본 조회 하나로 합치는 저장소
+ * 갱신이 끝난 뒤 시작한 조회는 갱신 전에 시작된 조회에 합류하지 않는다.
+ */
+public class SingleFlightUserPointRepository implements UserPointRepository {
+
+    private final UserPointRepository delegate;
+    private final SingleFlight<Long, UserPoint> singleFlight = new SingleFlight<>();
+
+    public SingleFlightUserPointRepository(UserPointRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public UserPoint selectById(long id) {
+        return singleFlight.execute(id, id, () -> delegate.selectById(id));
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        try {
+            return delegate.insertOrUpdate(id, amount);
+        } finally {
+            // 실패했더라도 반영됐을 수 있으므로 항상 세대를 올린다.
+            singleFlight.invalidate(id);
+        }
+    }
+
+    /**
+     * 다른 조회의 결과를 함께 받아 원본 조회를 건너뛴 횟수
+     */
+    public long sharedCount() {
+        return singleFlight.sharedCount();
+    }
+}
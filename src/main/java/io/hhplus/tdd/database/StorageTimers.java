@@ -0,0 +1,21 @@
+package io.hhplus.tdd.database;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 저장소 호출 시간 타이머(point.storage) 생성
+ */
+final class StorageTimers {
+
+    private StorageTimers() {
+    }
+
+    static Timer of(MeterRegistry meterRegistry, String table, String method) {
+        return Timer.builder("point.storage")
+                .description("저장소 호출 시간")
+                .tag("table", table)
+                .tag("method", method)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,51 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * {@link PointHistoryTable} 을 그대로 사용하는 내역 저장소
+ * 테이블은 ArrayList 와 커서를 잠그지 않고 다루므로, 사용자 락과 별개로 테이블 호출을 읽기/쓰기 락으로 감싼다.
+ * - 조회는 지연 없이 목록만 훑으므로 읽기 락으로 다른 조회와 함께 진행한다.
+ * - 추가는 모의 지연이 커서 증가/add 와 한 메서드 안에 있어 지연만 따로 빼낼 수 없으므로, 지연을 포함한 호출 전체를 쓰기 락으로 감싼다.
+ * 쓰기는 테이블 하나에서 한 건씩 진행되므로, 여러 사용자의 쓰기를 동시에 진행하려면 테이블을 사용자 id 로 나눠 둔다. ({@link PointShards})
+ * 샤드처럼 여러 테이블을 한 단위로 잠가야 하면 같은 락을 넘긴다.
+ */
+public class TablePointHistoryRepository implements PointHistoryRepository {
+
+    private final PointHistoryTable pointHistoryTable;
+    private final ReadWriteLock tableLock;
+
+    public TablePointHistoryRepository(PointHistoryTable pointHistoryTable) {
+        this(pointHistoryTable, new ReentrantReadWriteLock());
+    }
+
+    public TablePointHistoryRepository(PointHistoryTable pointHistoryTable, ReadWriteLock tableLock) {
+        this.pointHistoryTable = pointHistoryTable;
+        this.tableLock = tableLock;
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        tableLock.writeLock().lock();
+        try {
+            return pointHistoryTable.insert(userId, amount, type, updateMillis);
+        } finally {
+            tableLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        tableLock.readLock().lock();
+        try {
+            return pointHistoryTable.selectAllByUserId(userId);
+        } finally {
+            tableLock.readLock().unlock();
+        }
+    }
+}
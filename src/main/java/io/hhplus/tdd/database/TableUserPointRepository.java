@@ -0,0 +1,49 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * {@link UserPointTable} 을 그대로 사용하는 포인트 저장소
+ * 테이블은 HashMap 을 잠그지 않고 다루므로, 사용자 락과 별개로 테이블 호출을 읽기/쓰기 락으로 감싼다.
+ * - 조회끼리는 HashMap 을 함께 읽어도 안전하므로 읽기 락으로 모의 지연까지 함께 진행한다.
+ * - 쓰기는 모의 지연이 put 과 한 메서드 안에 있어 지연만 따로 빼낼 수 없으므로, 지연을 포함한 호출 전체를 쓰기 락으로 감싼다.
+ * 쓰기는 테이블 하나에서 한 건씩 진행되므로, 여러 사용자의 쓰기를 동시에 진행하려면 테이블을 사용자 id 로 나눠 둔다. ({@link PointShards})
+ * 샤드처럼 여러 테이블을 한 단위로 잠가야 하면 같은 락을 넘긴다.
+ */
+public class TableUserPointRepository implements UserPointRepository {
+
+    private final UserPointTable userPointTable;
+    private final ReadWriteLock tableLock;
+
+    public TableUserPointRepository(UserPointTable userPointTable) {
+        this(userPointTable, new ReentrantReadWriteLock());
+    }
+
+    public TableUserPointRepository(UserPointTable userPointTable, ReadWriteLock tableLock) {
+        this.userPointTable = userPointTable;
+        this.tableLock = tableLock;
+    }
+
+    @Override
+    public UserPoint selectById(long id) {
+        tableLock.readLock().lock();
+        try {
+            return userPointTable.selectById(id);
+        } finally {
+            tableLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        tableLock.writeLock().lock();
+        try {
+            return userPointTable.insertOrUpdate(id, amount);
+        } finally {
+            tableLock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryQuery;
+import io.hhplus.tdd.point.TransactionType;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 원본 저장소 호출 시간을 point.storage(table=point_history, method=...) 타이머로 기록하는 저장소
+ * 색인, 쓰기 버퍼 등 다른 저장소보다 안쪽에 두어 실제 테이블 호출만 기록한다.
+ */
+public class TimedPointHistoryRepository implements PointHistoryRepository {
+
+    private final PointHistoryRepository delegate;
+    private final Timer insertTimer;
+    private final Timer selectAllTimer;
+    private final Timer selectTimer;
+    private final Timer forEachTimer;
+
+    public TimedPointHistoryRepository(PointHistoryRepository delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.insertTimer = StorageTimers.of(meterRegistry, "point_history", "insert");
+        this.selectAllTimer = StorageTimers.of(meterRegistry, "point_history", "selectAllByUserId");
+        this.selectTimer = StorageTimers.of(meterRegistry, "point_history", "selectByUserId");
+        this.forEachTimer = StorageTimers.of(meterRegistry, "point_history", "forEachByUserId");
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        return insertTimer.record(() -> delegate.insert(userId, amount, type, updateMillis));
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        return selectAllTimer.record(() -> delegate.selectAllByUserId(userId));
+    }
+
+    @Override
+    public List<PointHistory> selectByUserId(long userId, PointHistoryQuery query) {
+        return selectTimer.record(() -> delegate.selectByUserId(userId, query));
+    }
+
+    @Override
+    public void forEachByUserId(long userId, PointHistoryQuery query, Consumer<PointHistory> action) {
+        // 넘겨받은 쪽에서 쓴 시간(응답 쓰기 등)은 저장소 시간이 아니므로 빼고 기록한다.
+        long[] actionNanos = {0L};
+        long start = System.nanoTime();
+        try {
+            delegate.forEachByUserId(userId, query, pointHistory -> {
+                long actionStart = System.nanoTime();
+                try {
+                    action.accept(pointHistory);
+                } finally {
+                    actionNanos[0] += System.nanoTime() - actionStart;
+                }
+            });
+        } finally {
+            forEachTimer.record(System.nanoTime() - start - actionNanos[0], TimeUnit.NANOSECONDS);
+        }
+    }
+}
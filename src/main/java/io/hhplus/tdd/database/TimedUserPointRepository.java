@@ -0,0 +1,32 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 원본 저장소 호출 시간을 point.storage(table=user_point, method=...) 타이머로 기록하는 저장소
+ * 캐시 등 다른 저장소보다 안쪽에 두어 실제 테이블 호출만 기록한다.
+ */
+public class TimedUserPointRepository implements UserPointRepository {
+
+    private final UserPointRepository delegate;
+    private final Timer selectTimer;
+    private final Timer insertOrUpdateTimer;
+
+    public TimedUserPointRepository(UserPointRepository delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.selectTimer = StorageTimers.of(meterRegistry, "user_point", "selectById");
+        this.insertOrUpdateTimer = StorageTimers.of(meterRegistry, "user_point", "insertOrUpdate");
+    }
+
+    @Override
+    public UserPoint selectById(long id) {
+        return selectTimer.record(() -> delegate.selectById(id));
+    }
+
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        return insertOrUpdateTimer.record(() -> delegate.insertOrUpdate(id, amount));
+    }
+}
@@ -0,0 +1,309 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryCursorExpiredException;
+import io.hhplus.tdd.point.PointHistoryQuery;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 한 사용자의 포인트 내역을 id 오름차순의 원시 타입 배열(id / 금액 / 종류 / 시각)로 보관한다.
+ * 행마다 {@link PointHistory} 객체를 두지 않고, 조회 결과를 만들 때만 객체로 바꾼다.
+ * 압축({@link #compact})한 오래된 내역은 기간별 요약 행으로 따로(차가운 계층) 두고, 조회할 때 id 순으로 섞어 넘긴다.
+ * 요약 행은 합친 내역의 가장 작은 id 와 가장 큰 id 를 함께 두어, 커서(after)가 그 사이를 가리키면 이어 넘기지 않는다.
+ * 영속 저장소는 압축하지 않으므로 {@link #rows()} 는 최근 내역만 담는다.
+ */
+class UserPointHistoryColumns {
+
+    private static final int INITIAL_CAPACITY = 8;
+    // 스트리밍 조회 시 한 번에 꺼내는 건수, 요청당 메모리를 이 크기로 제한한다.
+    private static final int CHUNK_SIZE = 256;
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final byte DAY = 0;
+    private static final byte MONTH = 1;
+    // 요약 행 크기: id, 가장 작은 id, amount, 기간 시작 시각(8 바이트씩) + type, 기간 단위(1 바이트씩)
+    private static final int SUMMARY_BYTES = Long.BYTES * 4 + Byte.BYTES * 2;
+
+    private final long userId;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] amounts = new long[INITIAL_CAPACITY];
+    private byte[] types = new byte[INITIAL_CAPACITY];
+    private long[] updateMillis = new long[INITIAL_CAPACITY];
+    private int size;
+    // 차가운 계층의 요약 행, id 오름차순이며 압축할 때마다 필요한 크기로 새로 만든다.
+    private long[] summaryIds = new long[0];
+    private long[] summaryMinIds = new long[0];
+    private long[] summaryAmounts = new long[0];
+    private byte[] summaryTypes = new byte[0];
+    private byte[] summaryPeriods = new byte[0];
+    private long[] summaryMillis = new long[0];
+
+    UserPointHistoryColumns(long userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * 스냅샷에서 읽은 id 오름차순 배열을 그대로 사용한다.
+     */
+    UserPointHistoryColumns(long userId, Rows rows) {
+        this.userId = userId;
+        this.ids = rows.ids();
+        this.amounts = rows.amounts();
+        this.types = rows.types();
+        this.updateMillis = rows.updateMillis();
+        this.size = rows.size();
+        if (ids.length == 0) grow();
+    }
+
+    void append(long id, long amount, TransactionType type, long millis) {
+        lock.lock();
+        try {
+            if (size == ids.length) grow();
+
+            // 거의 항상 맨 뒤에 붙지만, 같은 사용자의 insert 가 동시에 들어와 id 순서가 뒤바뀐 경우에도 정렬을 유지한다.
+            int position = size;
+            while (position > 0 && ids[position - 1] > id) {
+                position--;
+            }
+            int moved = size - position;
+            if (moved > 0) {
+                System.arraycopy(ids, position, ids, position + 1, moved);
+                System.arraycopy(amounts, position, amounts, position + 1, moved);
+                System.arraycopy(types, position, types, position + 1, moved);
+                System.arraycopy(updateMillis, position, updateMillis, position + 1, moved);
+            }
+            ids[position] = id;
+            amounts[position] = amount;
+            types[position] = (byte) type.ordinal();
+            updateMillis[position] = millis;
+            size++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    List<PointHistory> toList() {
+        return select(PointHistoryQuery.all(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * 조건에 맞는 내역을 최대 limit 건까지 조회, after 커서 위치는 id 이진 탐색으로 찾는다.
+     * 요약 행과 최근 내역을 id 순으로 섞어 넘기며, 요약 행의 시각은 기간의 시작 시각으로 조건과 비교한다.
+     * after 가 요약 행이 합친 id 범위 안을 가리키면 이미 넘긴 내역이 요약 행에 섞여 다시 넘어가므로 {@link PointHistoryCursorExpiredException} 을 던진다.
+     */
+    List<PointHistory> select(PointHistoryQuery query, int limit) {
+        lock.lock();
+        try {
+            if (query.after() != null) checkCursor(query.after());
+            List<PointHistory> histories = new ArrayList<>(Math.min(limit, size + summaryIds.length));
+            int summary = startPosition(summaryIds, summaryIds.length, query.afterOrZero());
+            int i = startPosition(ids, size, query.afterOrZero());
+            while (histories.size() < limit && (summary < summaryIds.length || i < size)) {
+                if (i == size || (summary < summaryIds.length && summaryIds[summary] < ids[i])) {
+                    if (query.matches(summaryIds[summary], TYPES[summaryTypes[summary]], summaryMillis[summary])) {
+                        histories.add(summaryRow(summary));
+                    }
+                    summary++;
+                } else {
+                    if (query.matches(ids[i], TYPES[types[i]], updateMillis[i])) {
+                        histories.add(row(i));
+                    }
+                    i++;
+                }
+            }
+            return histories;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 조건에 맞는 내역을 조각 단위로 커서를 옮겨 가며 넘긴다.
+     * 내역이 많아도 전체 목록을 만들지 않고, 조각을 꺼낼 때만 잠그므로 넘겨받은 쪽이 느려도 쓰기를 막지 않는다.
+     */
+    void forEach(PointHistoryQuery query, Consumer<PointHistory> action) {
+        int remaining = query.limitOrMax();
+        PointHistoryQuery chunkQuery = query;
+        while (remaining > 0) {
+            List<PointHistory> chunk = select(chunkQuery, Math.min(CHUNK_SIZE, remaining));
+            chunk.forEach(action);
+            remaining -= chunk.size();
+            if (chunk.size() < CHUNK_SIZE) return;
+            chunkQuery = chunkQuery.withAfter(chunk.get(chunk.size() - 1).id());
+        }
+    }
+
+    boolean contains(long id) {
+        lock.lock();
+        try {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0 || Arrays.binarySearch(summaryIds, id) >= 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 현재 내역의 복사본, 스냅샷을 쓰는 동안 잠그지 않도록 복사해서 넘긴다.
+     */
+    Rows rows() {
+        lock.lock();
+        try {
+            return new Rows(Arrays.copyOf(ids, size), Arrays.copyOf(amounts, size), Arrays.copyOf(types, size),
+                    Arrays.copyOf(updateMillis, size), size);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 요약 행을 포함한 행 수
+     */
+    int size() {
+        lock.lock();
+        try {
+            return size + summaryIds.length;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * hotCutoff 보다 오래된 앞쪽 내역을 (일, 종류)별 요약 행으로 합치고, monthlyCutoff 보다 오래된 일 요약 행은 (월, 종류)별로 다시 합친다.
+     * 요약 행의 id 는 합친 내역 중 가장 큰 id, 금액은 합계, 시각은 기간의 시작 시각이므로 종류별 합계는 압축 전과 같다.
+     * 합친 내역 중 가장 작은 id 도 함께 둔다.
+     * 합칠 것이 없으면 첫 행의 시각과 요약 행만 보고 바로 끝난다.
+     * 압축 중에는 이 사용자만 잠그며, 조각 단위 조회가 압축과 겹쳐 커서가 요약 행 범위 안에 들면 그 조회는 {@link PointHistoryCursorExpiredException} 으로 끝난다.
+     */
+    PointHistoryCompactor.Result compact(long hotCutoff, long monthlyCutoff, ZoneId zone) {
+        lock.lock();
+        try {
+            int cut = 0;
+            while (cut < size && updateMillis[cut] < hotCutoff) {
+                cut++;
+            }
+            boolean promote = false;
+            for (int i = 0; i < summaryIds.length && !promote; i++) {
+                promote = summaryPeriods[i] == DAY && summaryMillis[i] < monthlyCutoff;
+            }
+            if (cut == 0 && !promote) return PointHistoryCompactor.Result.EMPTY;
+
+            long rowsBefore = size + summaryIds.length;
+            long bytesBefore = footprint();
+            Map<Period, long[]> summaries = new HashMap<>();
+            for (int i = 0; i < summaryIds.length; i++) {
+                summarize(summaries, summaryMinIds[i], summaryIds[i], summaryAmounts[i], summaryTypes[i], summaryMillis[i],
+                        monthlyCutoff, zone);
+            }
+            for (int i = 0; i < cut; i++) {
+                summarize(summaries, ids[i], ids[i], amounts[i], types[i], updateMillis[i], monthlyCutoff, zone);
+            }
+
+            List<Map.Entry<Period, long[]>> entries = new ArrayList<>(summaries.entrySet());
+            entries.sort(Comparator.comparingLong(entry -> entry.getValue()[1]));
+            int count = entries.size();
+            summaryIds = new long[count];
+            summaryMinIds = new long[count];
+            summaryAmounts = new long[count];
+            summaryTypes = new byte[count];
+            summaryPeriods = new byte[count];
+            summaryMillis = new long[count];
+            for (int i = 0; i < count; i++) {
+                Period period = entries.get(i).getKey();
+                summaryIds[i] = entries.get(i).getValue()[1];
+                summaryMinIds[i] = entries.get(i).getValue()[2];
+                summaryAmounts[i] = entries.get(i).getValue()[0];
+                summaryTypes[i] = period.type();
+                summaryPeriods[i] = period.unit();
+                summaryMillis[i] = period.start();
+            }
+
+            if (cut > 0) {
+                // 남은 내역만큼 배열을 줄인다.
+                int remaining = size - cut;
+                int capacity = Math.max(INITIAL_CAPACITY, remaining + (remaining >> 2));
+                ids = Arrays.copyOfRange(ids, cut, cut + capacity);
+                amounts = Arrays.copyOfRange(amounts, cut, cut + capacity);
+                types = Arrays.copyOfRange(types, cut, cut + capacity);
+                updateMillis = Arrays.copyOfRange(updateMillis, cut, cut + capacity);
+                size = remaining;
+            }
+            return new PointHistoryCompactor.Result(1, rowsBefore, size + count, bytesBefore, footprint());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void summarize(Map<Period, long[]> summaries, long minId, long maxId, long amount, byte type, long millis,
+                                  long monthlyCutoff, ZoneId zone) {
+        ZonedDateTime time = Instant.ofEpochMilli(millis).atZone(zone).truncatedTo(ChronoUnit.DAYS);
+        Period period = millis < monthlyCutoff
+                ? new Period(time.withDayOfMonth(1).toInstant().toEpochMilli(), MONTH, type)
+                : new Period(time.toInstant().toEpochMilli(), DAY, type);
+        long[] summary = summaries.computeIfAbsent(period, key -> new long[]{0L, Long.MIN_VALUE, Long.MAX_VALUE});
+        summary[0] += amount;
+        summary[1] = Math.max(summary[1], maxId);
+        summary[2] = Math.min(summary[2], minId);
+    }
+
+    /**
+     * 요약 행의 id 와 같은 커서는 압축 뒤에 넘긴 요약 행에서 받은 것이므로 그대로 이어 간다.
+     * 그 밖에 요약 행의 (가장 작은 id ~ 가장 큰 id) 사이를 가리키면 압축 전에 받은 커서로 보고 거절한다.
+     */
+    private void checkCursor(long after) {
+        if (Arrays.binarySearch(summaryIds, after) >= 0) return;
+        // after 보다 큰 id 의 요약 행만 after 를 범위 안에 둘 수 있다.
+        for (int i = startPosition(summaryIds, summaryIds.length, after); i < summaryIds.length; i++) {
+            if (summaryMinIds[i] <= after) throw new PointHistoryCursorExpiredException(userId, after);
+        }
+    }
+
+    /**
+     * 배열 크기로 어림한 메모리 사용량 (배열 머리와 객체 크기는 빼고 원소만 센다)
+     */
+    private long footprint() {
+        return (long) ids.length * Long.BYTES * 3 + types.length + (long) summaryIds.length * SUMMARY_BYTES;
+    }
+
+    private static int startPosition(long[] sortedIds, int size, long after) {
+        int position = Arrays.binarySearch(sortedIds, 0, size, after);
+        return position >= 0 ? position + 1 : -position - 1;
+    }
+
+    private PointHistory row(int i) {
+        return new PointHistory(ids[i], userId, amounts[i], TYPES[types[i]], updateMillis[i]);
+    }
+
+    private PointHistory summaryRow(int i) {
+        return new PointHistory(summaryIds[i], userId, summaryAmounts[i], TYPES[summaryTypes[i]], summaryMillis[i]);
+    }
+
+    private void grow() {
+        int capacity = Math.max(ids.length << 1, INITIAL_CAPACITY);
+        ids = Arrays.copyOf(ids, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        types = Arrays.copyOf(types, capacity);
+        updateMillis = Arrays.copyOf(updateMillis, capacity);
+    }
+
+    record Rows(long[] ids, long[] amounts, byte[] types, long[] updateMillis, int size) {
+    }
+
+    /**
+     * 요약 행의 기간(시작 시각과 단위)과 종류
+     */
+    private record Period(long start, byte unit, byte type) {
+    }
+}
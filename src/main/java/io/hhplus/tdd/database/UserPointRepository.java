@@ -0,0 +1,35 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+
+import java.util.function.Supplier;
+
+/**
+ * 사용자 포인트 저장소
+ * - 서비스는 {@link UserPointTable} 대신 이 인터페이스를 통해 잔고를 읽고 쓴다.
+ */
+public interface UserPointRepository {
+
+    /**
+     * 사용자의 포인트를 조회, 없으면 0 포인트를 돌려준다.
+     */
+    UserPoint selectById(long id);
+
+    /**
+     * 사용자의 포인트 값만 조회, 없으면 0 을 돌려준다.
+     * 잔고만 필요한 곳(충전/사용)에서 사용하며, 객체 없이 값을 꺼낼 수 있는 저장소는 재정의한다.
+     */
+    default long selectPoint(long id) {
+        return selectById(id).point();
+    }
+
+    UserPoint insertOrUpdate(long id, long amount);
+
+    /**
+     * action 안에서 남긴 내역과 잔고(id 사용자) 쓰기를 한 번의 변경으로 반영한다.
+     * 기본 구현은 그대로 실행한다. 둘을 하나의 기록으로 남기는 저장소({@link PersistentPointStore})와 그 앞을 감싸는 저장소가 재정의한다.
+     */
+    default <T> T writeAtomically(long id, Supplier<T> action) {
+        return action.get();
+    }
+}
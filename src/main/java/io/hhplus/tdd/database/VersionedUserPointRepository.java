@@ -0,0 +1,261 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointConflictException;
+import io.hhplus.tdd.point.UserPoint;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * 사용자별 버전을 두어 잔고를 조건부로 쓰는(compare-and-set) 저장소
+ * - 버전과 쓰는 중 여부를 AtomicLong 하나((버전 << 1) | 쓰는 중)에 담아, 버전 확인과 쓰기 자리 차지를 CAS 한 번으로 한다.
+ * - 읽을 때는 버전을 먼저 읽고 잔고를 읽는다. 그 사이 쓰기가 끼어들었으면 버전이 달라져 조건부 쓰기가 실패하므로 어긋난 값이 쓰이지 않는다.
+ * - 조건 없는 쓰기({@link #insertOrUpdate(long, long)})도 자리를 차지하고 버전을 올리므로, 그 전에 읽은 조건부 쓰기는 실패한다.
+ * - 자리를 차지한 동안의 내역과 잔고 쓰기는 안쪽 저장소의 {@link #writeAtomically} 로 묶고, 그 반영이 끝난 뒤에 자리를 놓는다.
+ *   (영속 저장소는 묶인 쓰기를 끝날 때 메모리에 반영하므로, 먼저 놓으면 새 버전에서 옛 잔고를 읽어 갱신을 잃는다) 호출하는 쪽이 바깥에서 다시 묶지 않는다.
+ * - 갱신은 다른 쓰기가 자리를 차지하고 있으면 놓일 때까지 기다린 뒤에 읽는다. 쓰는 동안(내역 + 잔고, 테이블이면 수백 ms)은
+ *   시도 횟수를 쓰지 않으므로, 최대 시도 횟수는 읽은 뒤 다른 쓰기가 먼저 반영된(다른 갱신이 진행된) 경우에만 줄어든다.
+ *   대신 한 번의 갱신이 자리를 기다리는 시간은 모두 합쳐 maxWait 까지만이고, 넘으면 시도 횟수를 다 쓴 것과 같이 {@link PointConflictException} 을 던진다.
+ * - 버전은 이 프로세스에서만 의미가 있어 메모리에만 둔다. 읽거나 쓰는 중인 스레드가 없어지면 사용자의 자리를 바로 제거하므로
+ *   ({@link io.hhplus.tdd.point.UserLockManager} 와 같은 방식) 보관되는 자리 수는 동시에 갱신 중인 사용자 수를 넘지 않는다.
+ *   쓸 때마다 모든 사용자가 함께 쓰는 카운터에서 새 버전을 받고, 다시 만든 자리는 카운터의 현재 값에서 시작하므로
+ *   제거 전에 읽은 버전은 그 뒤 어떤 쓰기도 없었을 때만 다시 만든 자리의 버전과 같다.
+ */
+public class VersionedUserPointRepository implements UserPointRepository {
+
+    private static final long WRITING = 1L;
+
+    private final UserPointRepository delegate;
+    private final int maxAttempts;
+    private final long backoffNanos;
+    private final long maxBackoffNanos;
+    private final Duration maxWait;
+    private final ConcurrentHashMap<Long, Slot> slots = new ConcurrentHashMap<>();
+    private final AtomicLong versions = new AtomicLong();
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    public VersionedUserPointRepository(UserPointRepository delegate, int maxAttempts, Duration backoff, Duration maxBackoff,
+                                        Duration maxWait) {
+        if (maxAttempts <= 0) throw new IllegalArgumentException("최대 시도 횟수는 1 이상이어야 합니다: " + maxAttempts);
+
+        this.delegate = delegate;
+        this.maxAttempts = maxAttempts;
+        this.backoffNanos = backoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * 버전과 그 버전일 때의 잔고
+     */
+    public record VersionedPoint(long version, long point) {
+    }
+
+    @Override
+    public UserPoint selectById(long id) {
+        return delegate.selectById(id);
+    }
+
+    @Override
+    public long selectPoint(long id) {
+        return delegate.selectPoint(id);
+    }
+
+    @Override
+    public <T> T writeAtomically(long id, Supplier<T> action) {
+        return delegate.writeAtomically(id, action);
+    }
+
+    /**
+     * 다른 쓰기가 진행 중이면 그 전 버전을 돌려주므로, 그 버전으로 한 조건부 쓰기는 실패한다.
+     */
+    public VersionedPoint selectVersioned(long id) {
+        Slot slot = acquire(id);
+        try {
+            long state = slot.state.get();
+            return new VersionedPoint(state >>> 1, delegate.selectPoint(id));
+        } finally {
+            release(id);
+        }
+    }
+
+    /**
+     * 버전을 확인하지 않고 쓴다. 다른 쓰기가 진행 중이면 끝날 때까지(최대 maxWait) 기다린다.
+     */
+    @Override
+    public UserPoint insertOrUpdate(long id, long amount) {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        Slot slot = acquire(id);
+        try {
+            while (true) {
+                long current = awaitIdle(slot.state, id, deadline) << 1;
+                if (slot.state.compareAndSet(current, current | WRITING)) {
+                    return write(slot.state, current, id, amount, point -> point);
+                }
+            }
+        } finally {
+            release(id);
+        }
+    }
+
+    /**
+     * 버전이 expectedVersion 그대로일 때만 쓰고 버전을 올린다. 그 사이 다른 쓰기가 있었거나 진행 중이면 쓰지 않고 null 을 돌려준다.
+     * beforeWrite 는 버전 확인에 성공한 뒤, 잔고를 쓰기 전에 부른다. (내역 기록)
+     */
+    public UserPoint compareAndSet(long id, long expectedVersion, long point, Runnable beforeWrite) {
+        Slot slot = acquire(id);
+        try {
+            return tryWrite(slot.state, expectedVersion, id, point, adjusting(beforeWrite));
+        } finally {
+            release(id);
+        }
+    }
+
+    /**
+     * 잔고를 읽어 change 로 새 잔고를 정하고 조건부로 쓴다. 다른 쓰기가 진행 중이면 끝날 때까지 기다렸다가 읽고,
+     * 읽은 뒤 다른 쓰기가 먼저 반영되면 잠시 기다렸다가 다시 읽어 정한다.
+     * change 는 시도마다 다시 불리므로 부작용 없이 새 잔고만 계산한다. (잔고 부족 같은 실패는 예외로 알린다)
+     * 최대 횟수만큼 모두 겹치거나, 다른 쓰기를 기다린 시간이 모두 합쳐 maxWait 를 넘으면 {@link PointConflictException} 을 던진다.
+     */
+    public UserPoint update(long id, LongUnaryOperator change, Runnable beforeWrite) {
+        return updateAdjusted(id, change, adjusting(beforeWrite));
+    }
+
+    /**
+     * {@link #update(long, LongUnaryOperator, Runnable)} 와 같되, beforeWrite 가 change 로 정한 잔고를 받아 실제로 쓸 잔고를 돌려준다.
+     * 내역을 여러 건 남기다 중간에 실패한 경우처럼, 남긴 만큼만 잔고에 반영해야 할 때 쓴다.
+     */
+    public UserPoint updateAdjusted(long id, LongUnaryOperator change, LongUnaryOperator beforeWrite) {
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        Slot slot = acquire(id);
+        try {
+            for (int attempt = 1; ; attempt++) {
+                attempts.increment();
+                long version = awaitIdle(slot.state, id, deadline);
+                long point = change.applyAsLong(delegate.selectPoint(id));
+                UserPoint updated = tryWrite(slot.state, version, id, point, beforeWrite);
+                if (updated != null) return updated;
+
+                conflicts.increment();
+                if (attempt == maxAttempts) {
+                    exhausted.increment();
+                    throw new PointConflictException(id, maxAttempts);
+                }
+                backoff(attempt);
+            }
+        } finally {
+            release(id);
+        }
+    }
+
+    /**
+     * 조건부 쓰기 시도 수
+     */
+    public long attemptCount() {
+        return attempts.sum();
+    }
+
+    /**
+     * 다른 쓰기와 겹쳐 실패한 조건부 쓰기 수
+     */
+    public long conflictCount() {
+        return conflicts.sum();
+    }
+
+    /**
+     * 최대 횟수만큼 모두 겹치거나 기다릴 수 있는 시간을 넘겨 포기한 갱신 수
+     */
+    public long exhaustedCount() {
+        return exhausted.sum();
+    }
+
+    /**
+     * 현재 보관 중인(읽거나 쓰는 중인) 사용자 자리 수
+     */
+    public int activeSlotCount() {
+        return slots.size();
+    }
+
+    private UserPoint tryWrite(AtomicLong state, long expectedVersion, long id, long point, LongUnaryOperator beforeWrite) {
+        long expected = expectedVersion << 1;
+        if (!state.compareAndSet(expected, expected | WRITING)) return null;
+        return write(state, expected, id, point, beforeWrite);
+    }
+
+    private static LongUnaryOperator adjusting(Runnable beforeWrite) {
+        if (beforeWrite == null) return point -> point;
+        return point -> {
+            beforeWrite.run();
+            return point;
+        };
+    }
+
+    private Slot acquire(long id) {
+        // holders 는 compute 안에서만 변경되므로 같은 키에 대해 원자적으로 증감된다.
+        return slots.compute(id, (key, existing) -> {
+            Slot slot = existing == null ? new Slot(versions.get() << 1) : existing;
+            slot.holders++;
+            return slot;
+        });
+    }
+
+    private void release(long id) {
+        slots.computeIfPresent(id, (key, existing) -> --existing.holders == 0 ? null : existing);
+    }
+
+    /**
+     * 다른 쓰기가 자리를 놓을 때까지 기다렸다가 그때의 버전을 돌려준다. 기다린 횟수는 세지 않고, deadline 을 넘기면 포기한다.
+     * (같은 사용자의 쓰기가 끊이지 않으면 자리가 비는 순간을 계속 놓칠 수 있다)
+     */
+    private long awaitIdle(AtomicLong state, long id, long deadline) {
+        for (int wait = 1; ; wait++) {
+            long current = state.get();
+            if ((current & WRITING) == 0) return current >>> 1;
+            if (System.nanoTime() - deadline >= 0) {
+                exhausted.increment();
+                throw new PointConflictException(id, maxWait);
+            }
+            backoff(wait);
+        }
+    }
+
+    /**
+     * 자리를 차지한 상태에서 쓴다. 잔고를 쓰기 전에 실패하면 버전을 그대로 두고, 쓴 뒤에는 실패하더라도 버전을 올린다.
+     */
+    private UserPoint write(AtomicLong state, long acquired, long id, long point, LongUnaryOperator beforeWrite) {
+        long[] released = {acquired};
+        try {
+            return delegate.writeAtomically(id, () -> {
+                long adjusted = beforeWrite.applyAsLong(point);
+                released[0] = versions.incrementAndGet() << 1;
+                return delegate.insertOrUpdate(id, adjusted);
+            });
+        } finally {
+            state.set(released[0]);
+        }
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffNanos, backoffNanos << Math.min(attempt - 1, 20));
+        if (ceiling > 0) LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        else Thread.onSpinWait();
+    }
+
+    private static final class Slot {
+        // (버전 << 1) | 쓰는 중
+        private final AtomicLong state;
+        private int holders;
+
+        private Slot(long state) {
+            this.state = new AtomicLong(state);
+        }
+    }
+}
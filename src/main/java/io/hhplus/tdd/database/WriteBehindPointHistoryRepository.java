@@ -0,0 +1,262 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryQuery;
+import io.hhplus.tdd.point.TransactionType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 내역을 메모리 버퍼에 먼저 쌓고, 백그라운드 플러셔 하나가 들어온 순서대로 원본 저장소에 반영하는 저장소
+ * - insert 는 버퍼에 넣는 즉시 반환되므로 요청 경로에서 원본 저장소의 지연을 기다리지 않는다.
+ * - 버퍼에 넣을 때 원본 저장소가 부여할 id 를 미리 부여한다. 원본 저장소는 이 저장소를 통해서만 쓰여야 id 가 일치한다.
+ * - 조회 시 아직 반영되지 않은 내역을 함께 돌려주어 자신이 쓴 내역을 바로 읽을 수 있다.
+ * - close 시 버퍼에 남은 내역을 모두 반영한 뒤 종료한다. 플러셔는 데몬 스레드이므로 반영을 보장하려면 반드시 close 해야 한다.
+ * - 잔고는 이미 바뀌었으므로 반영에 실패한 내역은 버리지 않고, 간격을 두 배씩(최대 {@value #MAX_BACKOFF_MILLIS} ms) 늘려 가며 성공할 때까지 다시 시도한다.
+ *   (point.history.retries) 다시 시도하는 동안에는 새 내역을 받지 않고 바로 예외를 던져, 호출하는 쪽이 잔고를 바꾸기 전에 실패를 알게 한다.
+ * - 원본 저장소가 부여한 id 가 미리 부여한 id 와 다르면 이후 조회 병합과 커서가 모두 어긋나므로, 반영을 멈추고 이후 insert 와 close 에서 예외를 던진다.
+ */
+public class WriteBehindPointHistoryRepository implements PointHistoryRepository, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindPointHistoryRepository.class);
+    private static final long POLL_MILLIS = 100L;
+    private static final long MAX_BACKOFF_MILLIS = 2_000L;
+
+    private final PointHistoryRepository delegate;
+    private final int flushBatchSize;
+    private final LinkedBlockingQueue<PointHistory> buffer = new LinkedBlockingQueue<>();
+    // 사용자별 미반영 내역, 키 단위 접근은 모두 compute 계열 메서드 안에서만 한다.
+    private final ConcurrentHashMap<Long, ArrayDeque<PointHistory>> pendingByUser = new ConcurrentHashMap<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final AtomicInteger unflushed = new AtomicInteger();
+    private final LongAdder retries = new LongAdder();
+    private final Thread flusher;
+    private long sequence;
+    private volatile boolean closed;
+    // close 를 기다리다 인터럽트되면 남은 내역을 두고 플러셔를 멈춘다.
+    private volatile boolean aborted;
+    private volatile boolean failing;
+    private volatile IllegalStateException failure;
+
+    public WriteBehindPointHistoryRepository(PointHistoryRepository delegate, int flushBatchSize) {
+        this.delegate = delegate;
+        this.flushBatchSize = flushBatchSize;
+        this.flusher = new Thread(this::flushLoop, "point-history-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    @Override
+    public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+        // id 부여와 버퍼 적재 순서가 어긋나지 않도록 함께 잠근다.
+        appendLock.lock();
+        try {
+            if (closed) throw new IllegalStateException("내역 저장소가 종료되었습니다.");
+            if (failure != null) throw new IllegalStateException("내역 반영이 중단되었습니다.", failure);
+            if (failing) throw new IllegalStateException("내역을 원본 저장소에 반영하지 못하고 있어 새 내역을 받지 않습니다.");
+
+            PointHistory pointHistory = new PointHistory(++sequence, userId, amount, type, updateMillis);
+            pendingByUser.compute(userId, (id, pending) -> {
+                ArrayDeque<PointHistory> queue = pending == null ? new ArrayDeque<>() : pending;
+                queue.addLast(pointHistory);
+                return queue;
+            });
+            unflushed.incrementAndGet();
+            buffer.add(pointHistory);
+            return pointHistory;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public List<PointHistory> selectAllByUserId(long userId) {
+        return selectByUserId(userId, PointHistoryQuery.all());
+    }
+
+    @Override
+    public List<PointHistory> selectByUserId(long userId, PointHistoryQuery query) {
+        // 미반영 내역을 먼저 읽어야 그 사이 반영된 내역이 양쪽 어디에서도 빠지지 않는다.
+        List<PointHistory> pending = pendingOf(userId);
+        List<PointHistory> stored = delegate.selectByUserId(userId, query);
+        if (pending.isEmpty() || stored.size() >= query.limitOrMax()) {
+            return stored;
+        }
+
+        long lastId = stored.isEmpty() ? query.afterOrZero() : stored.get(stored.size() - 1).id();
+        List<PointHistory> merged = new ArrayList<>(stored);
+        appendPending(pending, query, lastId, query.limitOrMax() - stored.size(), merged::add);
+        return merged;
+    }
+
+    @Override
+    public void forEachByUserId(long userId, PointHistoryQuery query, Consumer<PointHistory> action) {
+        List<PointHistory> pending = pendingOf(userId);
+        long[] lastId = {query.afterOrZero()};
+        int[] count = {0};
+        delegate.forEachByUserId(userId, query, pointHistory -> {
+            lastId[0] = pointHistory.id();
+            count[0]++;
+            action.accept(pointHistory);
+        });
+        appendPending(pending, query, lastId[0], query.limitOrMax() - count[0], action);
+    }
+
+    private List<PointHistory> pendingOf(long userId) {
+        List<PointHistory> pending = new ArrayList<>();
+        pendingByUser.computeIfPresent(userId, (id, queue) -> {
+            pending.addAll(queue);
+            return queue;
+        });
+        return pending;
+    }
+
+    /**
+     * 사용자 내역은 id 순서대로 반영되므로, 조건에 맞는 미반영 내역 중 저장소에서 마지막으로 읽은 id 이후의 것만 이어 붙인다.
+     * 이미 반영된 내역이라면 저장소 조회 결과에 포함되어 있으므로 id 로 걸러진다.
+     */
+    private void appendPending(List<PointHistory> pending, PointHistoryQuery query, long lastId, int remaining,
+                               Consumer<PointHistory> action) {
+        for (PointHistory pointHistory : pending) {
+            if (remaining <= 0) return;
+            if (pointHistory.id() > lastId && query.matches(pointHistory)) {
+                action.accept(pointHistory);
+                remaining--;
+            }
+        }
+    }
+
+    /**
+     * 아직 원본 저장소에 반영되지 않은 내역 수 (플러셔가 꺼내 반영 중인 내역 포함)
+     */
+    public int pendingCount() {
+        return unflushed.get();
+    }
+
+    /**
+     * 반영에 실패해 다시 시도한 횟수
+     */
+    public long retryCount() {
+        return retries.sum();
+    }
+
+    /**
+     * 여러 번 불러도 버퍼가 모두 반영될 때까지 기다리기만 한다. 원본 저장소가 살아날 때까지 다시 시도하므로 그동안 기다린다.
+     * 기다리다 인터럽트되면 남은 내역 수를 오류 로그로 남기고 플러셔를 멈춘다.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        appendLock.lock();
+        try {
+            closed = true;
+        } finally {
+            appendLock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            aborted = true;
+            flusher.interrupt();
+            throw e;
+        }
+        if (failure != null) throw failure;
+        log.info("포인트 내역 버퍼 반영 완료 (마지막 id: {})", sequence);
+    }
+
+    private void flushLoop() {
+        List<PointHistory> batch = new ArrayList<>(flushBatchSize);
+        while (!aborted) {
+            PointHistory first;
+            try {
+                first = buffer.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // 인터럽트되더라도 남은 내역은 반영하고 종료한다.
+                closed = true;
+                continue;
+            }
+            if (first == null) {
+                if (closed && buffer.isEmpty()) return;
+                continue;
+            }
+
+            batch.add(first);
+            buffer.drainTo(batch, flushBatchSize - 1);
+            for (PointHistory pointHistory : batch) {
+                if (!flush(pointHistory)) {
+                    log.error("포인트 내역 반영을 멈춥니다. 반영하지 못한 내역 {} 건", pendingCount());
+                    return;
+                }
+            }
+            batch.clear();
+        }
+        log.error("포인트 내역 반영이 중단되었습니다. 반영하지 못한 내역 {} 건", pendingCount());
+    }
+
+    /**
+     * 반영을 이어갈 수 없으면(중단 또는 id 불일치) false
+     */
+    private boolean flush(PointHistory pointHistory) {
+        PointHistory stored = insertWithRetry(pointHistory);
+        if (stored == null) return false;
+
+        pendingByUser.computeIfPresent(pointHistory.userId(), (id, queue) -> {
+            queue.pollFirst();
+            return queue.isEmpty() ? null : queue;
+        });
+        unflushed.decrementAndGet();
+        if (stored.id() != pointHistory.id()) {
+            failure = new IllegalStateException(
+                    "버퍼에서 부여한 내역 id(" + pointHistory.id() + ")와 저장된 id(" + stored.id() + ")가 다릅니다.");
+            log.error("포인트 내역 id 불일치", failure);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 순서를 지키기 위해 실패한 내역을 건너뛰지 않고 성공할 때까지 다시 시도한다. 중단되면 null
+     */
+    private PointHistory insertWithRetry(PointHistory pointHistory) {
+        long backoffMillis = POLL_MILLIS;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                PointHistory stored = delegate.insert(pointHistory.userId(), pointHistory.amount(), pointHistory.type(), pointHistory.updateMillis());
+                if (failing) {
+                    failing = false;
+                    log.info("포인트 내역 반영 재개 ({} 번째 시도에 성공) {}", attempt, pointHistory);
+                }
+                return stored;
+            } catch (RuntimeException e) {
+                failing = true;
+                retries.increment();
+                log.warn("포인트 내역 반영 실패, {} ms 뒤 다시 시도합니다. ({} 번째 시도) {}", backoffMillis, attempt, pointHistory, e);
+                if (!backoff(backoffMillis)) return null;
+                backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+            }
+        }
+    }
+
+    /**
+     * 중단되면 false
+     */
+    private boolean backoff(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+            return !aborted;
+        } catch (InterruptedException e) {
+            aborted = true;
+            return false;
+        }
+    }
+}
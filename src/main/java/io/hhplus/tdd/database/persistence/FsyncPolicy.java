@@ -0,0 +1,11 @@
+package io.hhplus.tdd.database.persistence;
+
+/**
+ * 로그를 디스크에 강제로 내려쓰는(fsync) 시점
+ * - PER_OP : 기록할 때마다 내려쓴 뒤 반환한다. 가장 안전하지만 기록마다 디스크를 기다린다.
+ * - BATCHED : 동기화 스레드가 그동안 쌓인 기록을 한 번에 내려쓰고(group commit), 기록한 쪽은 그때까지 기다린다.
+ * - OS : 내려쓰기를 운영체제에 맡기고 바로 반환한다. 프로세스가 죽어도 남지만 장비가 꺼지면 최근 기록을 잃을 수 있다.
+ */
+public enum FsyncPolicy {
+    PER_OP, BATCHED, OS
+}
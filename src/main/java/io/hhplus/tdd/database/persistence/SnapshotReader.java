@@ -0,0 +1,114 @@
+package io.hhplus.tdd.database.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * 스냅샷 파일 읽기, 모두 읽은 뒤 {@link #verify()} 로 체크섬을 확인한다.
+ */
+public class SnapshotReader implements AutoCloseable {
+
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final CRC32C crc = new CRC32C();
+    private final long lsn;
+    private long remaining;
+
+    public SnapshotReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        // 끝의 체크섬은 내용이 아니므로 읽을 범위에서 뺀다.
+        this.remaining = channel.size() - Integer.BYTES;
+        buffer.limit(0);
+        if (getInt() != SnapshotWriter.MAGIC) throw new IOException("스냅샷 파일이 아닙니다: " + path);
+        int version = getInt();
+        if (version != SnapshotWriter.VERSION) throw new IOException("지원하지 않는 스냅샷 버전: " + version);
+        this.lsn = getLong();
+    }
+
+    /**
+     * 디렉터리에서 가장 최근 스냅샷
+     */
+    public static Optional<Path> latest(Path directory) throws IOException {
+        List<Path> snapshots = list(directory);
+        return snapshots.isEmpty() ? Optional.empty() : Optional.of(snapshots.get(snapshots.size() - 1));
+    }
+
+    static List<Path> list(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) return List.of();
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SnapshotWriter.PREFIX) && name.endsWith(SnapshotWriter.SUFFIX);
+                    })
+                    .sorted(Comparator.comparingLong(SnapshotReader::lsnOf))
+                    .toList();
+        }
+    }
+
+    static long lsnOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SnapshotWriter.PREFIX.length(), name.length() - SnapshotWriter.SUFFIX.length()));
+    }
+
+    /**
+     * 스냅샷이 포함하는 로그 위치, 이 위치부터 로그를 다시 적용하면 된다.
+     */
+    public long lsn() {
+        return lsn;
+    }
+
+    public byte getByte() throws IOException {
+        ensure(Byte.BYTES);
+        return buffer.get();
+    }
+
+    public int getInt() throws IOException {
+        ensure(Integer.BYTES);
+        return buffer.getInt();
+    }
+
+    public long getLong() throws IOException {
+        ensure(Long.BYTES);
+        return buffer.getLong();
+    }
+
+    public void verify() throws IOException {
+        if (buffer.hasRemaining() || remaining > 0) throw new IOException("스냅샷 끝에 읽지 않은 내용이 남았습니다.");
+        ByteBuffer trailer = ByteBuffer.allocate(Integer.BYTES);
+        while (trailer.hasRemaining()) {
+            if (channel.read(trailer) < 0) throw new IOException("스냅샷 체크섬이 없습니다.");
+        }
+        if (trailer.flip().getInt() != (int) crc.getValue()) throw new IOException("스냅샷 체크섬이 맞지 않습니다.");
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() >= bytes) return;
+
+        buffer.compact();
+        buffer.limit((int) Math.min(buffer.capacity(), buffer.position() + remaining));
+        int start = buffer.position();
+        while (buffer.position() < buffer.limit()) {
+            if (channel.read(buffer) < 0) break;
+        }
+        crc.update(buffer.duplicate().flip().position(start));
+        remaining -= buffer.position() - start;
+        buffer.flip();
+        if (buffer.remaining() < bytes) throw new IOException("스냅샷이 잘렸습니다.");
+    }
+}
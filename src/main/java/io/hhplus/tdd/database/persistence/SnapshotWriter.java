@@ -0,0 +1,96 @@
+package io.hhplus.tdd.database.persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * 스냅샷 파일 쓰기
+ * - 임시 파일에 [매직][버전][lsn][내용][CRC32C] 순서로 쓰고, 디스크에 내려쓴 뒤 snapshot-{lsn}.bin 으로 이름을 바꾼다.
+ * - 이름을 바꾸기 전에 실패하면 이전 스냅샷이 그대로 남으므로, 반쯤 쓰인 스냅샷을 읽을 일이 없다.
+ */
+public class SnapshotWriter implements AutoCloseable {
+
+    static final int MAGIC = 0x504E5453;
+    static final int VERSION = 1;
+    static final String PREFIX = "snapshot-";
+    static final String SUFFIX = ".bin";
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private final Path directory;
+    private final Path temporary;
+    private final long lsn;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final CRC32C crc = new CRC32C();
+    private boolean committed;
+
+    public SnapshotWriter(Path directory, long lsn) throws IOException {
+        this.directory = directory;
+        this.lsn = lsn;
+        this.temporary = directory.resolve(fileName(lsn) + ".tmp");
+        this.channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        putInt(MAGIC);
+        putInt(VERSION);
+        putLong(lsn);
+    }
+
+    public void putByte(byte value) throws IOException {
+        ensure(Byte.BYTES);
+        buffer.put(value);
+    }
+
+    public void putInt(int value) throws IOException {
+        ensure(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    public void putLong(long value) throws IOException {
+        ensure(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    /**
+     * 체크섬을 붙여 내려쓰고 스냅샷 파일로 확정한 뒤, 이보다 오래된 스냅샷을 지운다.
+     */
+    public void commit() throws IOException {
+        flush();
+        ByteBuffer trailer = ByteBuffer.allocate(Integer.BYTES).putInt((int) crc.getValue()).flip();
+        while (trailer.hasRemaining()) channel.write(trailer);
+        channel.force(true);
+        channel.close();
+
+        Files.move(temporary, directory.resolve(fileName(lsn)), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        committed = true;
+        for (Path snapshot : SnapshotReader.list(directory)) {
+            if (SnapshotReader.lsnOf(snapshot) < lsn) Files.deleteIfExists(snapshot);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (committed) return;
+        channel.close();
+        Files.deleteIfExists(temporary);
+    }
+
+    static String fileName(long lsn) {
+        return PREFIX + String.format("%020d", lsn) + SUFFIX;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) flush();
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        while (buffer.hasRemaining()) channel.write(buffer);
+        buffer.clear();
+    }
+}
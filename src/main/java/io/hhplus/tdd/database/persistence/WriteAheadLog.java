@@ -0,0 +1,426 @@
+package io.hhplus.tdd.database.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * 메모리 매핑된 세그먼트 파일에 기록을 이어 붙이는 로그
+ * - 기록 하나는 [길이(int)][CRC32C(int)][내용] 으로 저장되고, 길이가 0 인 곳이 세그먼트의 끝이다.
+ * - 위치(lsn)는 로그 전체에서의 바이트 위치이며, 세그먼트 파일 이름은 그 세그먼트의 시작 위치다.
+ * - 열 때 CRC 가 맞지 않거나 잘린 기록을 만나면 거기까지를 로그로 보고, 이후 기록과 뒤쪽 세그먼트를 지운 뒤 그 위치부터 이어 쓴다.
+ */
+public class WriteAheadLog implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteAheadLog.class);
+    private static final int HEADER_BYTES = 8;
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final FsyncPolicy fsyncPolicy;
+    private final long groupCommitNanos;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private Segment current;
+    private int writeOffset;
+
+    // 아직 내려쓰지 않았을 수 있는 세그먼트, BATCHED 에서는 동기화 시 앞에서부터 내려쓰고 다 쓴 세그먼트는 닫는다.
+    private final ArrayDeque<Segment> unsynced = new ArrayDeque<>();
+    private final ReentrantLock forceLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition syncRequested = syncLock.newCondition();
+    private final Condition synced = syncLock.newCondition();
+    private long requestedLsn;
+    private long durableLsn;
+    private IOException syncFailure;
+    private final Thread syncer;
+    private volatile boolean closed;
+
+    private WriteAheadLog(Path directory, long segmentBytes, FsyncPolicy fsyncPolicy, Duration groupCommitInterval) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.fsyncPolicy = fsyncPolicy;
+        this.groupCommitNanos = groupCommitInterval.toNanos();
+        this.syncer = fsyncPolicy == FsyncPolicy.BATCHED ? new Thread(this::syncLoop, "point-wal-sync") : null;
+    }
+
+    /**
+     * 로그를 열고 fromLsn 이후의 기록을 순서대로 넘긴 뒤, 마지막 기록 다음부터 이어 쓸 수 있게 한다.
+     */
+    public static WriteAheadLog open(Path directory, long segmentBytes, FsyncPolicy fsyncPolicy, Duration groupCommitInterval,
+                                     long fromLsn, Consumer<ByteBuffer> replay) throws IOException {
+        if (segmentBytes <= HEADER_BYTES || segmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("잘못된 세그먼트 크기: " + segmentBytes);
+        }
+        Files.createDirectories(directory);
+
+        WriteAheadLog wal = new WriteAheadLog(directory, segmentBytes, fsyncPolicy, groupCommitInterval);
+        wal.recover(fromLsn, replay);
+        if (wal.syncer != null) {
+            // 정상 종료는 close 에서 처리하므로, 닫지 않은 로그가 JVM 종료를 막지 않게 한다.
+            wal.syncer.setDaemon(true);
+            wal.syncer.start();
+        }
+        return wal;
+    }
+
+    /**
+     * 기록을 이어 붙이고, 내려쓰기 정책에 따라 디스크에 남을 때까지 기다린다.
+     *
+     * @return 기록 바로 다음 위치
+     */
+    public long append(byte[] payload) throws IOException {
+        int frameBytes = HEADER_BYTES + payload.length;
+        if (payload.length == 0 || frameBytes > segmentBytes) throw new IllegalArgumentException("잘못된 기록 크기: " + payload.length);
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        int checksum = (int) crc.getValue();
+
+        Segment segment;
+        int offset;
+        long endLsn;
+        appendLock.lock();
+        try {
+            if (closed) throw new IllegalStateException("로그가 닫혔습니다.");
+            if (writeOffset + frameBytes > current.size) roll();
+
+            segment = current;
+            offset = writeOffset;
+            segment.buffer.putInt(offset, payload.length);
+            segment.buffer.putInt(offset + 4, checksum);
+            segment.buffer.put(offset + HEADER_BYTES, payload);
+            writeOffset += frameBytes;
+            segment.written = writeOffset;
+            endLsn = segment.startLsn + writeOffset;
+        } finally {
+            appendLock.unlock();
+        }
+
+        switch (fsyncPolicy) {
+            case PER_OP -> segment.buffer.force(offset, frameBytes);
+            case BATCHED -> awaitDurable(endLsn);
+            case OS -> {
+            }
+        }
+        return endLsn;
+    }
+
+    /**
+     * 지금까지 기록된 마지막 위치
+     */
+    public long position() {
+        appendLock.lock();
+        try {
+            return current.startLsn + writeOffset;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * lsn 이전 기록만 담은 세그먼트 파일을 지운다. 스냅샷으로 대체된 기록을 정리할 때 사용한다.
+     */
+    public void deleteSegmentsBefore(long lsn) throws IOException {
+        long currentStart;
+        appendLock.lock();
+        try {
+            currentStart = current.startLsn;
+        } finally {
+            appendLock.unlock();
+        }
+        for (SegmentFile file : listSegments()) {
+            if (file.startLsn() < currentStart && file.startLsn() + Files.size(file.path()) <= lsn) {
+                Files.deleteIfExists(file.path());
+            }
+        }
+    }
+
+    /**
+     * 지금까지의 기록을 정책과 상관없이 디스크에 내려쓴다.
+     */
+    public void sync() throws IOException {
+        syncAll();
+    }
+
+    @Override
+    public void close() throws IOException, InterruptedException {
+        appendLock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+        } finally {
+            appendLock.unlock();
+        }
+        if (syncer != null) {
+            syncLock.lock();
+            try {
+                syncRequested.signalAll();
+            } finally {
+                syncLock.unlock();
+            }
+            syncer.join();
+        }
+        syncAll();
+        current.channel.close();
+    }
+
+    /**
+     * fromLsn 은 스냅샷을 남길 때의 기록 경계이므로, 그 세그먼트는 fromLsn 위치부터 읽는다.
+     * 손상된 기록을 만나면 그 뒤의 기록은 같은 세그먼트든 다음 세그먼트든 적용하지 않는다.
+     * 뒤쪽 세그먼트는 지우고, 손상된 기록이 있던 위치부터 이어 쓴다.
+     */
+    private void recover(long fromLsn, Consumer<ByteBuffer> replay) throws IOException {
+        List<SegmentFile> files = listSegments();
+        Segment last = null;
+        int lastOffset = 0;
+        for (int i = 0; i < files.size(); i++) {
+            SegmentFile file = files.get(i);
+            boolean isLast = i == files.size() - 1;
+            boolean corrupted = false;
+            int offset;
+            try (FileChannel channel = FileChannel.open(file.path(), StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (file.startLsn() + size <= fromLsn && !isLast) continue;
+                if (file.startLsn() + size < fromLsn) {
+                    throw new IllegalStateException("스냅샷 위치(" + fromLsn + ")가 로그 " + file.path() + " 의 끝보다 뒤에 있습니다.");
+                }
+
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                offset = (int) Math.max(0L, fromLsn - file.startLsn());
+                while (offset + HEADER_BYTES <= size) {
+                    int length = buffer.getInt(offset);
+                    // 길이가 0 이면 세그먼트의 끝이다.
+                    if (length == 0) break;
+                    if (length < 0 || offset + HEADER_BYTES + (long) length > size) {
+                        corrupted = true;
+                        break;
+                    }
+                    int checksum = buffer.getInt(offset + 4);
+                    ByteBuffer payload = buffer.slice(offset + HEADER_BYTES, length);
+                    CRC32C crc = new CRC32C();
+                    crc.update(payload.duplicate());
+                    if ((int) crc.getValue() != checksum) {
+                        corrupted = true;
+                        break;
+                    }
+                    replay.accept(payload);
+                    offset += HEADER_BYTES + length;
+                }
+            }
+            if (corrupted) {
+                log.warn("로그 {} 의 {} 위치에서 손상된 기록을 발견해 이후 기록과 뒤쪽 세그먼트 {} 개를 버립니다.",
+                        file.path(), offset, files.size() - i - 1);
+                for (int j = i + 1; j < files.size(); j++) {
+                    Files.deleteIfExists(files.get(j).path());
+                }
+                isLast = true;
+            }
+            if (isLast) {
+                last = openSegment(file.startLsn(), Math.max(Files.size(file.path()), segmentBytes));
+                lastOffset = offset;
+                break;
+            }
+        }
+
+        if (last == null) {
+            last = openSegment(fromLsn, segmentBytes);
+            lastOffset = 0;
+        }
+        // 매핑된 페이지는 순서와 상관없이 디스크에 내려갈 수 있어, 잘린 기록 뒤에도 흔적이 남을 수 있다.
+        // 이어 쓴 기록이 그 흔적과 섞이지 않도록 남은 영역을 비운다. 이미 0 인 곳은 쓰지 않아 페이지를 더럽히지 않는다.
+        boolean cleared = false;
+        int offset = lastOffset;
+        for (; offset + 8 <= last.size; offset += 8) {
+            if (last.buffer.getLong(offset) != 0L) {
+                last.buffer.putLong(offset, 0L);
+                cleared = true;
+            }
+        }
+        for (; offset < last.size; offset++) {
+            last.buffer.put(offset, (byte) 0);
+        }
+        if (cleared) last.buffer.force();
+        current = last;
+        writeOffset = lastOffset;
+        current.written = current.synced = lastOffset;
+        requestedLsn = durableLsn = position();
+        unsynced.add(current);
+    }
+
+    private void roll() throws IOException {
+        Segment next = openSegment(current.startLsn + current.size, segmentBytes);
+        current = next;
+        writeOffset = 0;
+        syncLock.lock();
+        try {
+            if (fsyncPolicy != FsyncPolicy.BATCHED) {
+                // 동기화 스레드가 없으므로 지난 세그먼트는 바로 닫는다. 매핑은 채널을 닫아도 유지된다.
+                unsynced.pollFirst().channel.close();
+            }
+            unsynced.add(next);
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private Segment openSegment(long startLsn, long size) throws IOException {
+        Path path = directory.resolve(SEGMENT_PREFIX + String.format("%020d", startLsn) + SEGMENT_SUFFIX);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        // 쓰기 모드로 매핑하면 파일이 세그먼트 크기까지 0 으로 채워져 늘어난다.
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        return new Segment(startLsn, (int) size, channel, buffer);
+    }
+
+    private List<SegmentFile> listSegments() throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.map(Path::getFileName)
+                    .map(Path::toString)
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> new SegmentFile(directory.resolve(name),
+                            Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()))))
+                    .sorted((a, b) -> Long.compare(a.startLsn(), b.startLsn()))
+                    .toList();
+        }
+    }
+
+    private void awaitDurable(long lsn) throws IOException {
+        syncLock.lock();
+        try {
+            if (lsn > requestedLsn) {
+                requestedLsn = lsn;
+                syncRequested.signal();
+            }
+            while (durableLsn < lsn) {
+                if (syncFailure != null) throw syncFailure;
+                synced.awaitUninterruptibly();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * 요청이 들어오면 잠시 더 모은 뒤, 그 사이 쌓인 기록을 한 번에 내려쓴다.
+     */
+    private void syncLoop() {
+        while (true) {
+            syncLock.lock();
+            try {
+                while (requestedLsn <= durableLsn && !closed) {
+                    syncRequested.awaitUninterruptibly();
+                }
+                if (requestedLsn <= durableLsn) return;
+            } finally {
+                syncLock.unlock();
+            }
+
+            if (groupCommitNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(groupCommitNanos);
+                } catch (InterruptedException ignored) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            try {
+                syncAll();
+            } catch (IOException e) {
+                log.error("로그 동기화 실패", e);
+                syncLock.lock();
+                try {
+                    syncFailure = e;
+                    synced.signalAll();
+                } finally {
+                    syncLock.unlock();
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * 지금까지 기록된 위치까지 내려쓰고, 기다리는 쪽을 깨운다.
+     */
+    private void syncAll() throws IOException {
+        forceLock.lock();
+        try {
+            forceAll();
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    private void forceAll() throws IOException {
+        long target = position();
+        List<Segment> segments;
+        syncLock.lock();
+        try {
+            segments = new ArrayList<>(unsynced);
+        } finally {
+            syncLock.unlock();
+        }
+        for (Segment segment : segments) {
+            // 매핑 전체가 아니라 지난 동기화 이후 쓰인 범위만 내려쓴다.
+            int written = segment.written;
+            if (written <= segment.synced) continue;
+            try {
+                segment.buffer.force(segment.synced, written - segment.synced);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            segment.synced = written;
+        }
+
+        syncLock.lock();
+        try {
+            // 마지막 세그먼트는 계속 쓰이므로 남기고, 앞쪽 세그먼트는 다 내려썼으니 닫는다.
+            while (unsynced.size() > 1 && segments.contains(unsynced.peekFirst())) {
+                unsynced.pollFirst().channel.close();
+            }
+            if (target > durableLsn) durableLsn = target;
+            synced.signalAll();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private record SegmentFile(Path path, long startLsn) {
+    }
+
+    private static final class Segment {
+
+        private final long startLsn;
+        private final int size;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        // 쓴 위치는 쓰기 락 안에서, 내려쓴 위치는 동기화 락 안에서만 바뀐다.
+        private volatile int written;
+        private int synced;
+
+        private Segment(long startLsn, int size, FileChannel channel, MappedByteBuffer buffer) {
+            this.startLsn = startLsn;
+            this.size = size;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 이미 사용된 Idempotency-Key 로 다른 사용자, 종류, 금액의 요청이 들어온 경우
+ */
+public class IdempotencyKeyConflictException extends RuntimeException {
+
+    public IdempotencyKeyConflictException(String idempotencyKey) {
+        super("이미 다른 요청에 사용된 멱등성 키: " + idempotencyKey);
+    }
+}
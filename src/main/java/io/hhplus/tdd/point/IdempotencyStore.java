@@ -0,0 +1,180 @@
+package io.hhplus.tdd.point;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key 로 같은 충전/사용 요청이 두 번 실행되지 않게 한다.
+ * - 처음 들어온 요청만 실행하고, 같은 키의 요청은 처음 요청의 결과(진행 중이면 같은 future)를 돌려받는다.
+ * - 실패한 요청은 기억하지 않으므로 같은 키로 다시 시도할 수 있다. 진행 중에 함께 기다리던 요청은 같은 실패를 받는다.
+ * - 키는 세그먼트로 나눠 세그먼트마다 따로 잠그고, 세그먼트마다 들어온 순서를 유지해 만료된 키를 앞에서부터 지운다.
+ * - 크기를 넘거나 만료되어도 실행 중인 요청의 키는 지우지 않는다. 지우면 같은 키로 다시 보낸 요청이 한 번 더 실행되기 때문이다.
+ *   그래서 실행 중인 요청이 많으면 잠시 maximumSize 를 넘을 수 있고, 끝난 뒤 다음 키가 들어올 때 지워진다.
+ * - point.idempotency.requests(result=hit/miss), point.idempotency.expired, point.idempotency.evicted 지표를 기록한다.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final int SEGMENT_COUNT = 64;
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final Segment[] segments;
+    private final long ttlNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public IdempotencyStore(IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        if (properties.maximumSize() <= 0) throw new IllegalArgumentException("멱등성 키 저장 크기는 1 이상이어야 합니다: " + properties.maximumSize());
+
+        this.ttlNanos = properties.ttl().toNanos();
+        int segmentCount = Math.min(SEGMENT_COUNT, properties.maximumSize());
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(properties.maximumSize() / segmentCount + (i < properties.maximumSize() % segmentCount ? 1 : 0));
+        }
+
+        FunctionCounter.builder("point.idempotency.requests", hits, LongAdder::sum).tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("point.idempotency.requests", misses, LongAdder::sum).tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("point.idempotency.expired", expirations, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("point.idempotency.evicted", evictions, LongAdder::sum).register(meterRegistry);
+        Gauge.builder("point.idempotency.size", this, IdempotencyStore::size).register(meterRegistry);
+    }
+
+    /**
+     * 키가 없으면 명령을 그대로 실행하고, 있으면 같은 키의 요청이 한 번만 실행되도록 한다.
+     */
+    public CompletableFuture<UserPoint> execute(String idempotencyKey, long userId, TransactionType type, long amount,
+                                                Supplier<CompletableFuture<UserPoint>> command) {
+        if (idempotencyKey == null) return command.get();
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) throw new IllegalArgumentException("잘못된 멱등성 키");
+
+        Segment segment = segments[Math.floorMod(idempotencyKey.hashCode(), segments.length)];
+        Entry entry = new Entry(userId, type, amount, new CompletableFuture<>(), System.nanoTime());
+        Entry existing = segment.putIfAbsent(idempotencyKey, entry);
+        if (existing != null) {
+            if (existing.userId() != userId || existing.type() != type || existing.amount() != amount) {
+                throw new IdempotencyKeyConflictException(idempotencyKey);
+            }
+            hits.increment();
+            return existing.result();
+        }
+
+        misses.increment();
+        CompletableFuture<UserPoint> result;
+        try {
+            result = command.get();
+        } catch (RuntimeException e) {
+            segment.remove(idempotencyKey, entry);
+            entry.result().completeExceptionally(e);
+            throw e;
+        }
+        result.whenComplete((userPoint, error) -> {
+            if (error != null) {
+                segment.remove(idempotencyKey, entry);
+                entry.result().completeExceptionally(error);
+            } else {
+                entry.result().complete(userPoint);
+            }
+        });
+        return entry.result();
+    }
+
+    /**
+     * 기억하고 있는 키 수
+     */
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private record Entry(long userId, TransactionType type, long amount, CompletableFuture<UserPoint> result,
+                         long createdNanos) {
+    }
+
+    private final class Segment {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+        private final int capacity;
+
+        private Segment(int capacity) {
+            this.capacity = capacity;
+        }
+
+        /**
+         * 만료된 키를 먼저 지운 뒤, 키가 없으면 넣고 null 을, 있으면 기존 항목을 돌려준다.
+         */
+        private Entry putIfAbsent(String key, Entry entry) {
+            lock.lock();
+            try {
+                expire(entry.createdNanos());
+                Entry existing = entries.get(key);
+                if (existing != null) return existing;
+                entries.put(key, entry);
+                evict();
+                return null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void remove(String key, Entry entry) {
+            lock.lock();
+            try {
+                entries.remove(key, entry);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int size() {
+            lock.lock();
+            try {
+                return entries.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 들어온 순서대로 보관하므로 만료되지 않은 키를 만나면 멈춘다. 실행 중인 요청의 키는 건너뛴다.
+         */
+        private void expire(long nowNanos) {
+            if (ttlNanos <= 0) return;
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (nowNanos - entry.createdNanos() < ttlNanos) return;
+                if (!entry.result().isDone()) continue;
+                iterator.remove();
+                expirations.increment();
+            }
+        }
+
+        /**
+         * 크기를 넘으면 끝난 요청의 키를 오래된 것부터 지운다. 실행 중인 요청의 키는 건너뛴다.
+         */
+        private void evict() {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (entries.size() > capacity && iterator.hasNext()) {
+                if (!iterator.next().result().isDone()) continue;
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 잔고보다 많은 포인트를 사용하려 할 때 발생
+ */
+public class InsufficientPointException extends IllegalArgumentException {
+
+    public InsufficientPointException() {
+        super("포인트 부족");
+    }
+}
@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 일괄 처리 요청의 명령 하나
+ */
+public record PointBatchCommand(
+        long userId,
+        TransactionType type,
+        long amount
+) {
+}
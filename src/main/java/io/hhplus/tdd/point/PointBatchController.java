@@ -0,0 +1,27 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/point")
+public class PointBatchController {
+
+    private final PointBatchService pointBatchService;
+
+    public PointBatchController(PointBatchService pointBatchService) {
+        this.pointBatchService = pointBatchService;
+    }
+
+    /**
+     * 여러 사용자의 충전/사용 명령을 한 번에 처리하고, 명령별 결과를 요청 순서대로 돌려준다.
+     */
+    @PostMapping("batch")
+    public CompletableFuture<List<PointBatchResult>> batch(
+            @RequestBody List<PointBatchCommand> commands
+    ) {
+        return pointBatchService.execute(commands);
+    }
+}
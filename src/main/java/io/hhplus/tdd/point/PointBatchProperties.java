@@ -0,0 +1,16 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 일괄 충전/사용 설정
+ * - parallelism : 서로 다른 사용자를 동시에 처리할 워커 수
+ * - maxSize : 한 번에 받을 수 있는 최대 명령 수
+ */
+@ConfigurationProperties(prefix = "point.batch")
+public record PointBatchProperties(
+        @DefaultValue("8") int parallelism,
+        @DefaultValue("10000") int maxSize
+) {
+}
@@ -0,0 +1,23 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 일괄 처리 요청의 명령별 결과, 요청과 같은 순서로 돌려준다.
+ * - 성공 시 point 는 해당 명령까지 반영된 잔고, 실패 시 point 는 null 이고 message 에 사유를 담는다.
+ */
+public record PointBatchResult(
+        long userId,
+        TransactionType type,
+        long amount,
+        boolean success,
+        Long point,
+        String message
+) {
+
+    public static PointBatchResult success(PointBatchCommand command, long point) {
+        return new PointBatchResult(command.userId(), command.type(), command.amount(), true, point, null);
+    }
+
+    public static PointBatchResult failure(PointBatchCommand command, String message) {
+        return new PointBatchResult(command.userId(), command.type(), command.amount(), false, null, message);
+    }
+}
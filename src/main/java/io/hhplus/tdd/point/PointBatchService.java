@@ -0,0 +1,192 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.UserPointRepository;
+import io.hhplus.tdd.database.VersionedUserPointRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 여러 사용자의 충전/사용 명령을 한 번에 처리한다.
+ * - 명령을 사용자별로 묶어 사용자마다 잔고 조회와 갱신을 한 번씩만 하고, 내역은 명령마다 남긴다.
+ * - 같은 사용자의 명령은 요청 순서대로 잔고에 적용하며, 잔고가 부족한 사용 명령만 실패로 처리하고 나머지는 계속 적용한다.
+ * - 내역 저장이 실패하면 그 명령부터 해당 사용자의 남은 명령을 실패로 돌려주고, 내역을 남긴 명령까지만 잔고에 반영한다.
+ * - 한 사용자의 내역과 잔고 쓰기는 {@link UserPointRepository#writeAtomically} 로 묶어, 저장소가 지원하면 함께 반영되게 한다.
+ *   (조건부 쓰기는 버전 저장소가 자리를 차지한 동안 직접 묶는다)
+ * - 사용자 단위 처리는 {@link UserLockManager} 로 잠그므로 단건 충전/사용과 섞여도 잔고가 어긋나지 않는다.
+ *   잔고 저장소가 버전을 지원하면 단건 충전/사용처럼 잠그지 않고 조건부 쓰기로 반영한다.
+ * - 서로 다른 사용자는 워커에서 병렬로 처리한다.
+ */
+@Component
+public class PointBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(PointBatchService.class);
+
+    private final UserPointRepository userPointRepository;
+    private final PointHistoryRepository pointHistoryRepository;
+    private final UserLockManager userLockManager;
+    // 낙관적 갱신을 쓰지 않으면 null
+    private final VersionedUserPointRepository versionedUserPointRepository;
+    private final PointMetrics pointMetrics;
+    private final int maxSize;
+    private final ExecutorService workers;
+
+    public PointBatchService(UserPointRepository userPointRepository, PointHistoryRepository pointHistoryRepository,
+                             UserLockManager userLockManager, PointMetrics pointMetrics, PointBatchProperties properties) {
+        if (properties.parallelism() <= 0) throw new IllegalArgumentException("병렬 처리 수는 1 이상이어야 합니다: " + properties.parallelism());
+
+        this.userPointRepository = userPointRepository;
+        this.pointHistoryRepository = pointHistoryRepository;
+        this.userLockManager = userLockManager;
+        this.versionedUserPointRepository = userPointRepository instanceof VersionedUserPointRepository versioned ? versioned : null;
+        this.pointMetrics = pointMetrics;
+        this.maxSize = properties.maxSize();
+        AtomicInteger sequence = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(properties.parallelism(),
+                runnable -> new Thread(runnable, "point-batch-" + sequence.getAndIncrement()));
+    }
+
+    public CompletableFuture<List<PointBatchResult>> execute(List<PointBatchCommand> commands) {
+        if (commands == null || commands.isEmpty() || commands.size() > maxSize) {
+            throw new IllegalArgumentException("잘못된 요청 건수");
+        }
+
+        PointBatchResult[] results = new PointBatchResult[commands.size()];
+        // 사용자별 명령 위치, 요청 순서를 유지한다.
+        Map<Long, List<Integer>> indexesByUser = new LinkedHashMap<>();
+        for (int i = 0; i < commands.size(); i++) {
+            PointBatchCommand command = commands.get(i);
+            String invalid = validate(command);
+            if (invalid != null) {
+                results[i] = PointBatchResult.failure(command, invalid);
+                continue;
+            }
+            indexesByUser.computeIfAbsent(command.userId(), id -> new ArrayList<>()).add(i);
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>(indexesByUser.size());
+        for (Map.Entry<Long, List<Integer>> entry : indexesByUser.entrySet()) {
+            futures.add(CompletableFuture.runAsync(
+                    () -> pointMetrics.record(PointMetrics.Operation.BATCH,
+                            () -> applyUser(entry.getKey(), entry.getValue(), commands, results)),
+                    workers));
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> List.of(results));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private static String validate(PointBatchCommand command) {
+        if (command == null) return "잘못된 명령";
+        if (command.userId() <= 0) return "잘못된 사용자 ID";
+        if (command.type() == null) return "잘못된 명령 종류";
+        if (command.amount() <= 0) return "잘못된 금액";
+        return null;
+    }
+
+    /**
+     * 한 사용자의 명령을 모두 적용한다. 각 명령의 결과는 서로 다른 위치에 쓰므로 사용자끼리 겹치지 않는다.
+     */
+    private void applyUser(long userId, List<Integer> indexes, List<PointBatchCommand> commands, PointBatchResult[] results) {
+        try {
+            if (versionedUserPointRepository != null) {
+                applyUserOptimistically(userId, indexes, commands, results);
+                return;
+            }
+            userLockManager.executeWithLock(userId, () -> userPointRepository.writeAtomically(userId, () -> {
+                long balance = userPointRepository.selectById(userId).point();
+                long initial = balance;
+                for (int i = 0; i < indexes.size(); i++) {
+                    int index = indexes.get(i);
+                    PointBatchCommand command = commands.get(index);
+                    if (command.type() == TransactionType.USE && balance < command.amount()) {
+                        results[index] = PointBatchResult.failure(command, "포인트 부족");
+                        continue;
+                    }
+                    try {
+                        pointHistoryRepository.insert(userId, command.amount(), command.type(), System.currentTimeMillis());
+                    } catch (RuntimeException e) {
+                        // 이미 남긴 내역은 되돌릴 수 없으므로, 내역을 남긴 명령까지만 잔고에 반영하고 나머지는 실패로 돌려준다.
+                        log.error("일괄 처리 중 내역 저장 실패 (사용자 ID: {})", userId, e);
+                        for (int j = i; j < indexes.size(); j++) {
+                            results[indexes.get(j)] = PointBatchResult.failure(commands.get(indexes.get(j)), "에러가 발생했습니다.");
+                        }
+                        break;
+                    }
+                    balance += command.type() == TransactionType.CHARGE ? command.amount() : -command.amount();
+                    results[index] = PointBatchResult.success(command, balance);
+                }
+                if (balance != initial) {
+                    userPointRepository.insertOrUpdate(userId, balance);
+                }
+                return null;
+            }));
+        } catch (RuntimeException e) {
+            log.error("일괄 처리 실패 (사용자 ID: {})", userId, e);
+            for (int index : indexes) {
+                results[index] = PointBatchResult.failure(commands.get(index), "에러가 발생했습니다.");
+            }
+        }
+    }
+
+    /**
+     * 조건부 쓰기가 겹치면 결과를 다시 계산하므로, 계산 중에는 결과만 정하고 내역은 버전 확인에 성공한 뒤 한 번에 남긴다.
+     * 내역 저장이 중간에 실패하면 잠그는 경로와 같이 남은 명령을 실패로 돌리고, 내역을 남긴 명령까지만 잔고에 반영한다.
+     */
+    private void applyUserOptimistically(long userId, List<Integer> indexes, List<PointBatchCommand> commands,
+                                         PointBatchResult[] results) {
+        // 적용할 명령의 indexes 안 위치
+        List<Integer> applied = new ArrayList<>(indexes.size());
+        long[] initialBalance = new long[1];
+        versionedUserPointRepository.updateAdjusted(userId, initial -> {
+            applied.clear();
+            initialBalance[0] = initial;
+            long balance = initial;
+            for (int i = 0; i < indexes.size(); i++) {
+                int index = indexes.get(i);
+                PointBatchCommand command = commands.get(index);
+                if (command.type() == TransactionType.USE && balance < command.amount()) {
+                    results[index] = PointBatchResult.failure(command, "포인트 부족");
+                    continue;
+                }
+                balance += command.type() == TransactionType.CHARGE ? command.amount() : -command.amount();
+                applied.add(i);
+                results[index] = PointBatchResult.success(command, balance);
+            }
+            return balance;
+        }, balance -> {
+            long written = initialBalance[0];
+            for (int position : applied) {
+                PointBatchCommand command = commands.get(indexes.get(position));
+                try {
+                    pointHistoryRepository.insert(userId, command.amount(), command.type(), System.currentTimeMillis());
+                } catch (RuntimeException e) {
+                    log.error("일괄 처리 중 내역 저장 실패 (사용자 ID: {})", userId, e);
+                    for (int j = position; j < indexes.size(); j++) {
+                        results[indexes.get(j)] = PointBatchResult.failure(commands.get(indexes.get(j)), "에러가 발생했습니다.");
+                    }
+                    return written;
+                }
+                written += command.type() == TransactionType.CHARGE ? command.amount() : -command.amount();
+            }
+            return written;
+        });
+    }
+}
@@ -0,0 +1,272 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 포인트 API 의 압축 바이너리 표현 (application/x-point-binary)
+ * - 맨 앞에 형식 버전 1바이트와 내용 종류 1바이트를 두고, 이어지는 정수는 모두 zigzag 가변 길이(LEB128)로 쓴다.
+ * - 잔고 : id, point, updateMillis
+ * - 내역 목록 : 건수, 건마다 (id 차이, userId 차이, amount, 종류 1바이트, updateMillis 차이)
+ *   차이는 바로 앞 건과의 차이로, 한 사용자의 id 순 내역이면 id 와 userId 가 1바이트 안팎으로 줄어든다.
+ * - 일괄 처리 명령 : 건수, 건마다 (userId, 종류 1바이트, amount)
+ * - 일괄 처리 결과 : 건수, 건마다 (userId, 종류 1바이트, amount, 성공 여부 1바이트, 성공 시 잔고 / 실패 시 사유)
+ *   사유는 UTF-8 바이트 수와 바이트로 쓰며, 없으면 바이트 수를 -1 로 쓴다.
+ * 중간 객체 없이 작은 버퍼를 거쳐 스트림에 바로 쓰고 읽는다. 쓴 뒤 스트림을 flush 하지만 닫지는 않는다.
+ * 형식이 맞지 않는 내용을 읽으면 {@link IllegalArgumentException} 을 던진다.
+ */
+public final class PointBinaryFormat {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-point-binary";
+    public static final MediaType MEDIA_TYPE = new MediaType("application", "x-point-binary");
+
+    static final int VERSION = 1;
+    static final int USER_POINT = 1;
+    static final int HISTORIES = 2;
+    static final int BATCH_COMMANDS = 3;
+    static final int BATCH_RESULTS = 4;
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final int MAX_INITIAL_CAPACITY = 1024;
+    private static final int MAX_MESSAGE_BYTES = 64 * 1024;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private PointBinaryFormat() {
+    }
+
+    public static void writeUserPoint(UserPoint userPoint, OutputStream out) throws IOException {
+        Encoder encoder = new Encoder(out, USER_POINT);
+        encoder.writeLong(userPoint.id());
+        encoder.writeLong(userPoint.point());
+        encoder.writeLong(userPoint.updateMillis());
+        encoder.flush();
+    }
+
+    public static UserPoint readUserPoint(InputStream in) throws IOException {
+        Decoder decoder = new Decoder(in, USER_POINT);
+        return new UserPoint(decoder.readLong(), decoder.readLong(), decoder.readLong());
+    }
+
+    public static void writeHistories(List<PointHistory> histories, OutputStream out) throws IOException {
+        Encoder encoder = new Encoder(out, HISTORIES);
+        encoder.writeLong(histories.size());
+        long id = 0;
+        long userId = 0;
+        long updateMillis = 0;
+        for (PointHistory history : histories) {
+            encoder.writeLong(history.id() - id);
+            encoder.writeLong(history.userId() - userId);
+            encoder.writeLong(history.amount());
+            encoder.writeType(history.type());
+            encoder.writeLong(history.updateMillis() - updateMillis);
+            id = history.id();
+            userId = history.userId();
+            updateMillis = history.updateMillis();
+        }
+        encoder.flush();
+    }
+
+    public static List<PointHistory> readHistories(InputStream in) throws IOException {
+        Decoder decoder = new Decoder(in, HISTORIES);
+        int count = decoder.readCount();
+        List<PointHistory> histories = new ArrayList<>(Math.min(count, MAX_INITIAL_CAPACITY));
+        long id = 0;
+        long userId = 0;
+        long updateMillis = 0;
+        for (int i = 0; i < count; i++) {
+            id += decoder.readLong();
+            userId += decoder.readLong();
+            long amount = decoder.readLong();
+            TransactionType type = decoder.readType();
+            updateMillis += decoder.readLong();
+            histories.add(new PointHistory(id, userId, amount, type, updateMillis));
+        }
+        return histories;
+    }
+
+    public static void writeBatchCommands(List<PointBatchCommand> commands, OutputStream out) throws IOException {
+        Encoder encoder = new Encoder(out, BATCH_COMMANDS);
+        encoder.writeLong(commands.size());
+        for (PointBatchCommand command : commands) {
+            encoder.writeLong(command.userId());
+            encoder.writeType(command.type());
+            encoder.writeLong(command.amount());
+        }
+        encoder.flush();
+    }
+
+    public static List<PointBatchCommand> readBatchCommands(InputStream in) throws IOException {
+        Decoder decoder = new Decoder(in, BATCH_COMMANDS);
+        int count = decoder.readCount();
+        List<PointBatchCommand> commands = new ArrayList<>(Math.min(count, MAX_INITIAL_CAPACITY));
+        for (int i = 0; i < count; i++) {
+            commands.add(new PointBatchCommand(decoder.readLong(), decoder.readType(), decoder.readLong()));
+        }
+        return commands;
+    }
+
+    public static void writeBatchResults(List<PointBatchResult> results, OutputStream out) throws IOException {
+        Encoder encoder = new Encoder(out, BATCH_RESULTS);
+        encoder.writeLong(results.size());
+        for (PointBatchResult result : results) {
+            encoder.writeLong(result.userId());
+            encoder.writeType(result.type());
+            encoder.writeLong(result.amount());
+            encoder.writeByte(result.success() ? 1 : 0);
+            if (result.success()) {
+                encoder.writeLong(result.point());
+            } else {
+                encoder.writeString(result.message());
+            }
+        }
+        encoder.flush();
+    }
+
+    public static List<PointBatchResult> readBatchResults(InputStream in) throws IOException {
+        Decoder decoder = new Decoder(in, BATCH_RESULTS);
+        int count = decoder.readCount();
+        List<PointBatchResult> results = new ArrayList<>(Math.min(count, MAX_INITIAL_CAPACITY));
+        for (int i = 0; i < count; i++) {
+            long userId = decoder.readLong();
+            TransactionType type = decoder.readType();
+            long amount = decoder.readLong();
+            boolean success = switch (decoder.readByte()) {
+                case 0 -> false;
+                case 1 -> true;
+                default -> throw new IllegalArgumentException("성공 여부는 0 또는 1 이어야 합니다.");
+            };
+            results.add(success
+                    ? new PointBatchResult(userId, type, amount, true, decoder.readLong(), null)
+                    : new PointBatchResult(userId, type, amount, false, null, decoder.readString()));
+        }
+        return results;
+    }
+
+    /**
+     * 버퍼가 차면 스트림에 내보낸다.
+     */
+    private static final class Encoder {
+
+        private final OutputStream out;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
+
+        private Encoder(OutputStream out, int kind) {
+            this.out = out;
+            buffer[position++] = VERSION;
+            buffer[position++] = (byte) kind;
+        }
+
+        void writeByte(int value) throws IOException {
+            if (position == buffer.length) drain();
+            buffer[position++] = (byte) value;
+        }
+
+        void writeLong(long value) throws IOException {
+            if (buffer.length - position < 10) drain();
+            long zigzag = (value << 1) ^ (value >> 63);
+            while ((zigzag & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((zigzag & 0x7F) | 0x80);
+                zigzag >>>= 7;
+            }
+            buffer[position++] = (byte) zigzag;
+        }
+
+        void writeType(TransactionType type) throws IOException {
+            writeByte(type.ordinal());
+        }
+
+        void writeString(String value) throws IOException {
+            if (value == null) {
+                writeLong(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeLong(bytes.length);
+            drain();
+            out.write(bytes);
+        }
+
+        void flush() throws IOException {
+            drain();
+            out.flush();
+        }
+
+        private void drain() throws IOException {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    /**
+     * 버퍼가 비면 스트림에서 채운다.
+     */
+    private static final class Decoder {
+
+        private final InputStream in;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position;
+        private int limit;
+
+        private Decoder(InputStream in, int kind) throws IOException {
+            this.in = in;
+            int version = readByte();
+            if (version != VERSION) throw new IllegalArgumentException("지원하지 않는 형식 버전입니다: " + version);
+            int actual = readByte();
+            if (actual != kind) throw new IllegalArgumentException("내용 종류가 다릅니다. 기대: " + kind + ", 실제: " + actual);
+        }
+
+        int readByte() throws IOException {
+            if (position == limit && !fill()) throw new IllegalArgumentException("내용이 중간에 끝났습니다.");
+            return buffer[position++] & 0xFF;
+        }
+
+        long readLong() throws IOException {
+            long zigzag = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                zigzag |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+            throw new IllegalArgumentException("가변 길이 정수가 10바이트를 넘습니다.");
+        }
+
+        int readCount() throws IOException {
+            long count = readLong();
+            if (count < 0 || count > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("잘못된 건수입니다: " + count);
+            return (int) count;
+        }
+
+        TransactionType readType() throws IOException {
+            int ordinal = readByte();
+            if (ordinal >= TYPES.length) throw new IllegalArgumentException("알 수 없는 트랜잭션 종류입니다: " + ordinal);
+            return TYPES[ordinal];
+        }
+
+        String readString() throws IOException {
+            long length = readLong();
+            if (length == -1) return null;
+            if (length < 0 || length > MAX_MESSAGE_BYTES) throw new IllegalArgumentException("잘못된 문자열 길이입니다: " + length);
+
+            byte[] bytes = new byte[(int) length];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = (byte) readByte();
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private boolean fill() throws IOException {
+            int read = in.read(buffer, 0, buffer.length);
+            if (read <= 0) return false;
+            position = 0;
+            limit = read;
+            return true;
+        }
+    }
+}
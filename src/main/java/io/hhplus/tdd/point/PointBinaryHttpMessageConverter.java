@@ -0,0 +1,95 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * 잔고, 내역 목록, 일괄 처리 명령/결과를 {@link PointBinaryFormat} 으로 읽고 쓴다.
+ * 요청이 Accept / Content-Type 에 application/x-point-binary 를 지정했을 때만 고른다.
+ */
+public class PointBinaryHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private enum Kind {
+        USER_POINT, HISTORIES, BATCH_COMMANDS, BATCH_RESULTS
+    }
+
+    public PointBinaryHttpMessageConverter() {
+        super(PointBinaryFormat.MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == UserPoint.class;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return kindOf(type) != null && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return kindOf(type != null ? type : clazz) != null && canWrite(mediaType);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        Kind kind = kindOf(type);
+        if (kind == null) throw new HttpMessageNotReadableException("바이너리 형식으로 읽을 수 없는 타입입니다: " + type, inputMessage);
+
+        try {
+            return switch (kind) {
+                case USER_POINT -> PointBinaryFormat.readUserPoint(inputMessage.getBody());
+                case HISTORIES -> PointBinaryFormat.readHistories(inputMessage.getBody());
+                case BATCH_COMMANDS -> PointBinaryFormat.readBatchCommands(inputMessage.getBody());
+                case BATCH_RESULTS -> PointBinaryFormat.readBatchResults(inputMessage.getBody());
+            };
+        } catch (IllegalArgumentException e) {
+            throw new HttpMessageNotReadableException(e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        Kind kind = kindOf(type != null ? type : value.getClass());
+        if (kind == null) throw new HttpMessageNotWritableException("바이너리 형식으로 쓸 수 없는 타입입니다: " + type);
+
+        OutputStream body = outputMessage.getBody();
+        switch (kind) {
+            case USER_POINT -> PointBinaryFormat.writeUserPoint((UserPoint) value, body);
+            case HISTORIES -> PointBinaryFormat.writeHistories((List<PointHistory>) value, body);
+            case BATCH_COMMANDS -> PointBinaryFormat.writeBatchCommands((List<PointBatchCommand>) value, body);
+            case BATCH_RESULTS -> PointBinaryFormat.writeBatchResults((List<PointBatchResult>) value, body);
+        }
+    }
+
+    /**
+     * UserPoint 이거나, 원소 타입이 드러난 List 만 다룬다.
+     */
+    private static Kind kindOf(Type type) {
+        if (type == UserPoint.class) return Kind.USER_POINT;
+        if (!(type instanceof ParameterizedType parameterized) || parameterized.getRawType() != List.class) return null;
+
+        Type element = parameterized.getActualTypeArguments()[0];
+        if (element == PointHistory.class) return Kind.HISTORIES;
+        if (element == PointBatchCommand.class) return Kind.BATCH_COMMANDS;
+        if (element == PointBatchResult.class) return Kind.BATCH_RESULTS;
+        return null;
+    }
+}
@@ -0,0 +1,123 @@
+package io.hhplus.tdd.point;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 포인트 충전/사용 명령을 실행 방식에 맞게 실행한다.
+ * - SYNC : 호출한 스레드에서 바로 실행하고 완료된 결과를 돌려준다.
+ * - PARTITIONED : 사용자 ID 로 정해진 파티션의 메일박스에 넣고, 파티션마다 하나뿐인 워커가 들어온 순서대로 실행한다.
+ *   같은 사용자의 명령은 항상 같은 워커가 처리하므로 도착 순서대로 실행되고, 요청 스레드는 결과를 기다리지 않는다.
+ *   워커도 {@link PointService} 를 거치므로 사용자 락을 잡는다. 일괄 처리({@link PointBatchService})와
+ *   샤드 이동({@link PointShardRebalancer})은 파티션을 거치지 않고 같은 사용자의 잔고를 바꾸기 때문에 락을 뺄 수 없다.
+ *   워커끼리는 같은 사용자를 나눠 갖지 않으므로 이 락은 위 두 경로와 겹칠 때만 기다리고, 평소에는 경합 없이 바로 얻는다.
+ * 파티션별 메일박스 적재 수(point.dispatcher.queue)와 거절된 명령 수(point.dispatcher.rejected)를 지표로 내보낸다.
+ */
+@Component
+public class PointCommandDispatcher implements MeterBinder {
+
+    private final PointService pointService;
+    private final ThreadPoolExecutor[] partitions;
+    private final LongAdder rejected = new LongAdder();
+
+    public PointCommandDispatcher(PointService pointService, PointExecutionProperties properties) {
+        this.pointService = pointService;
+        this.partitions = properties.mode() == PointExecutionProperties.Mode.PARTITIONED
+                ? createPartitions(properties.partitions(), properties.mailboxCapacity())
+                : new ThreadPoolExecutor[0];
+    }
+
+    public CompletableFuture<UserPoint> charge(long id, long amount) {
+        return dispatch(id, () -> pointService.charge(id, amount));
+    }
+
+    public CompletableFuture<UserPoint> use(long id, long amount) {
+        return dispatch(id, () -> pointService.use(id, amount));
+    }
+
+    /**
+     * 파티션별 메일박스에 쌓여 있는 명령 수 (SYNC 모드에서는 빈 배열)
+     */
+    public int[] queueDepths() {
+        int[] depths = new int[partitions.length];
+        for (int i = 0; i < partitions.length; i++) {
+            depths[i] = partitions[i].getQueue().size();
+        }
+        return depths;
+    }
+
+    /**
+     * 메일박스가 가득 차 거절된 명령 수
+     */
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        for (int i = 0; i < partitions.length; i++) {
+            ThreadPoolExecutor partition = partitions[i];
+            Gauge.builder("point.dispatcher.queue", partition, executor -> executor.getQueue().size())
+                    .tag("partition", String.valueOf(i))
+                    .register(meterRegistry);
+        }
+        FunctionCounter.builder("point.dispatcher.rejected", rejected, LongAdder::sum)
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // 이미 받은 명령은 모두 처리한 뒤 종료한다.
+        for (ThreadPoolExecutor partition : partitions) {
+            partition.shutdown();
+        }
+        for (ThreadPoolExecutor partition : partitions) {
+            partition.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private CompletableFuture<UserPoint> dispatch(long id, Supplier<UserPoint> command) {
+        if (partitions.length == 0) {
+            return CompletableFuture.completedFuture(command.get());
+        }
+
+        int partition = partitionOf(id);
+        try {
+            return CompletableFuture.supplyAsync(command, partitions[partition]);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new PointMailboxFullException(partition);
+        }
+    }
+
+    private int partitionOf(long id) {
+        return Math.floorMod(Long.hashCode(id), partitions.length);
+    }
+
+    private static ThreadPoolExecutor[] createPartitions(int count, int mailboxCapacity) {
+        if (count <= 0) throw new IllegalArgumentException("파티션 수는 1 이상이어야 합니다: " + count);
+
+        ThreadPoolExecutor[] partitions = new ThreadPoolExecutor[count];
+        for (int i = 0; i < count; i++) {
+            String name = "point-partition-" + i;
+            // 워커 1개 + 크기가 제한된 큐 = 파티션 전용 메일박스, 큐가 가득 차면 AbortPolicy 로 거절된다.
+            partitions[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(mailboxCapacity),
+                    runnable -> new Thread(runnable, name),
+                    new ThreadPoolExecutor.AbortPolicy());
+        }
+        return partitions;
+    }
+}
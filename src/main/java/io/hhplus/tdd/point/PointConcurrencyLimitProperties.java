@@ -0,0 +1,24 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 포인트 API 동시 처리 수 제한 설정 (AIMD)
+ * - enabled : 제한 사용 여부
+ * - initialLimit / minLimit / maxLimit : 동시 처리 한도의 시작값과 범위
+ * - targetLatency : 처리 시간이 이보다 길면 한도를 줄이고, 짧으면 조금씩 늘린다.
+ * - backoffRatio : 한도를 줄일 때 곱하는 비율
+ */
+@ConfigurationProperties(prefix = "point.concurrency-limit")
+public record PointConcurrencyLimitProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("64") int initialLimit,
+        @DefaultValue("4") int minLimit,
+        @DefaultValue("1000") int maxLimit,
+        @DefaultValue("1s") Duration targetLatency,
+        @DefaultValue("0.9") double backoffRatio
+) {
+}
@@ -0,0 +1,97 @@
+package io.hhplus.tdd.point;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * 처리 시간에 따라 동시 처리 한도를 조절하는 제한기 (AIMD)
+ * - 처리 시간이 targetLatency 를 넘으면 한도에 backoffRatio 를 곱해 줄인다. 몰려서 끝난 느린 요청들로 한도가 한꺼번에 무너지지 않도록 targetLatency 마다 한 번만 줄인다.
+ * - 처리 시간이 목표 안이고 한도의 절반 이상을 쓰고 있으면 한도를 1/한도 만큼 늘린다. 한도만큼 처리가 끝나면 1 이 늘어나는 셈이다.
+ * - 한도는 double 비트로 AtomicLong 에 두어 잠그지 않고 갱신한다.
+ * - 한도와 처리 중인 요청 수, 거절 수(point.limit.rejected reason=concurrency)를 기록한다.
+ */
+@Component
+public class PointConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+    private final AtomicLong lastDecreaseNanos = new AtomicLong(System.nanoTime());
+    private final LongAdder rejections = new LongAdder();
+
+    public PointConcurrencyLimiter(PointConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        if (properties.minLimit() <= 0 || properties.minLimit() > properties.maxLimit()) {
+            throw new IllegalArgumentException("잘못된 동시 처리 한도 범위: " + properties.minLimit() + " ~ " + properties.maxLimit());
+        }
+
+        this.minLimit = properties.minLimit();
+        this.maxLimit = properties.maxLimit();
+        this.targetLatencyNanos = properties.targetLatency().toNanos();
+        this.backoffRatio = properties.backoffRatio();
+        this.limitBits = new AtomicLong(Double.doubleToRawLongBits(
+                Math.min(maxLimit, Math.max(minLimit, properties.initialLimit()))));
+
+        Gauge.builder("point.limit.concurrency", this, PointConcurrencyLimiter::limit).register(meterRegistry);
+        Gauge.builder("point.limit.inflight", inFlight, AtomicInteger::get).register(meterRegistry);
+        FunctionCounter.builder("point.limit.rejected", rejections, LongAdder::sum).tag("reason", "concurrency").register(meterRegistry);
+    }
+
+    /**
+     * 한도 안이면 자리를 하나 차지한다. 한도를 넘으면 예외가 발생하며, 자리를 차지한 경우에만 {@link #release(long)} 를 호출한다.
+     */
+    public void acquire() {
+        while (true) {
+            int current = inFlight.get();
+            int limit = limit();
+            if (current >= limit) {
+                rejections.increment();
+                throw new PointOverloadedException(limit);
+            }
+            if (inFlight.compareAndSet(current, current + 1)) return;
+        }
+    }
+
+    /**
+     * 처리가 끝나면 걸린 시간과 함께 자리를 돌려준다.
+     */
+    public void release(long latencyNanos) {
+        int current = inFlight.getAndDecrement();
+        if (latencyNanos > targetLatencyNanos) {
+            long now = System.nanoTime();
+            long last = lastDecreaseNanos.get();
+            if (now - last >= targetLatencyNanos && lastDecreaseNanos.compareAndSet(last, now)) {
+                updateLimit(limit -> Math.max(minLimit, limit * backoffRatio));
+            }
+        } else if (current * 2 >= limit()) {
+            updateLimit(limit -> Math.min(maxLimit, limit + 1.0 / limit));
+        }
+    }
+
+    /**
+     * 현재 동시 처리 한도
+     */
+    public int limit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    /**
+     * 처리 중인 요청 수
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private void updateLimit(DoubleUnaryOperator update) {
+        limitBits.updateAndGet(bits -> Double.doubleToRawLongBits(update.applyAsDouble(Double.longBitsToDouble(bits))));
+    }
+}
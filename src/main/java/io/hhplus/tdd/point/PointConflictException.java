@@ -0,0 +1,17 @@
+package io.hhplus.tdd.point;
+
+import java.time.Duration;
+
+/**
+ * 낙관적 갱신이 다른 갱신과 계속 겹쳐 정해진 횟수나 시간 안에 반영하지 못한 경우
+ */
+public class PointConflictException extends RuntimeException {
+
+    public PointConflictException(long userId, int attempts) {
+        super("사용자 " + userId + " 의 잔고 갱신이 " + attempts + " 번 모두 다른 갱신과 겹쳤습니다.");
+    }
+
+    public PointConflictException(long userId, Duration waited) {
+        super("사용자 " + userId + " 의 잔고 갱신이 다른 갱신의 쓰기를 " + waited.toMillis() + " ms 기다리고도 반영하지 못했습니다.");
+    }
+}
@@ -10,16 +10,25 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/point")
 public class PointController {
 
     private final PointService pointService;
+    private final PointCommandDispatcher pointCommandDispatcher;
+    private final PointSummaryService pointSummaryService;
+    private final IdempotencyStore idempotencyStore;
 
-    public PointController(PointService pointService) {
+    public PointController(PointService pointService, PointCommandDispatcher pointCommandDispatcher,
+                           PointSummaryService pointSummaryService, IdempotencyStore idempotencyStore) {
         this.pointService = pointService;
+        this.pointCommandDispatcher = pointCommandDispatcher;
+        this.pointSummaryService = pointSummaryService;
+        this.idempotencyStore = idempotencyStore;
     }
 
     /**
@@ -37,30 +46,50 @@ public class PointController {
      */
     @GetMapping("{id}/histories")
     public List<PointHistory> history(
-            @PathVariable long id
+            @PathVariable long id,
+            @ModelAttribute PointHistoryQuery query
+    ) {
+        return pointService.history(id, query);
+    }
+
+    /**
+     * 잔고, 최근 내역, 충전/사용 합계를 한 번에 조회한다. 잔고와 내역은 동시에 조회한다.
+     * timeoutMillis 안에 끝나지 않으면 partial=true 일 때는 끝난 조회만 담아 돌려주고, 아니면 실패한다.
+     */
+    @GetMapping("{id}/summary")
+    public CompletableFuture<PointSummary> summary(
+            @PathVariable long id,
+            @RequestParam(required = false) Integer recent,
+            @RequestParam(required = false) Long timeoutMillis,
+            @RequestParam(defaultValue = "false") boolean partial
     ) {
-        return pointService.history(id);
+        return pointSummaryService.summary(id, recent, timeoutMillis == null ? null : Duration.ofMillis(timeoutMillis), partial);
     }
 
     /**
      * TODO - 특정 유저의 포인트를 충전하는 기능을 작성해주세요.
+     * Idempotency-Key 헤더가 있으면 같은 키로 다시 보낸 요청은 실행하지 않고 처음 결과를 돌려준다.
      */
     @PatchMapping("{id}/charge")
-    public UserPoint charge(
+    public CompletableFuture<UserPoint> charge(
             @PathVariable long id,
-            @RequestBody long amount
+            @RequestBody long amount,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
     ) {
-        return pointService.charge(id, amount);
+        return idempotencyStore.execute(idempotencyKey, id, TransactionType.CHARGE, amount,
+                () -> pointCommandDispatcher.charge(id, amount));
     }
 
     /**
      * TODO - 특정 유저의 포인트를 사용하는 기능을 작성해주세요.
      */
     @PatchMapping("{id}/use")
-    public UserPoint use(
+    public CompletableFuture<UserPoint> use(
             @PathVariable long id,
-            @RequestBody long amount
+            @RequestBody long amount,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey
     ) {
-        return pointService.use(id, amount);
+        return idempotencyStore.execute(idempotencyKey, id, TransactionType.USE, amount,
+                () -> pointCommandDispatcher.use(id, amount));
     }
 }
@@ -0,0 +1,153 @@
+package io.hhplus.tdd.point;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * 내역 이벤트를 담는 미리 할당된 고리 버퍼 (Disruptor 방식)
+ * - 발행하는 쪽은 순번을 하나 받아 그 칸의 원시 타입 열에 값을 쓰고, 칸의 순번을 갱신해 발행을 알린다. 객체를 만들지 않는다.
+ * - 구독자를 기다리지 않는다. 버퍼가 한 바퀴 돌면 가장 오래된 이벤트를 덮어쓰며, 그만큼 뒤처진 구독자는 스스로 뒤처졌음(overrun)을 알게 된다.
+ * - 한 칸을 두 발행자가 동시에 쓰지 않도록, 발행자는 같은 칸의 직전 순번이 발행될 때까지만 기다린다(버퍼 크기만큼 앞선 발행자, 보통 기다리지 않는다).
+ * - 읽는 쪽은 칸의 순번을 값 읽기 전후로 확인해, 읽는 사이 덮어쓰였으면 버린다.
+ * - {@link #publishAfter} 안에서 들어온 이벤트는 모았다가 작업이 성공한 뒤에 발행한다. 잔고 쓰기나 영속화가 실패한 충전/사용은 발행하지 않는다.
+ */
+@Component
+public class PointEventRingBuffer {
+
+    private static final long WRITING = Long.MIN_VALUE;
+    private static final TransactionType[] TYPES = TransactionType.values();
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong();
+    // 칸마다 마지막으로 발행된 순번, 쓰는 중이면 WRITING
+    private final AtomicLongArray sequences;
+    private final long[] ids;
+    private final long[] userIds;
+    private final long[] amounts;
+    private final byte[] types;
+    private final long[] updateMillis;
+    // publishAfter 를 실행 중인 스레드가 모으고 있는 이벤트
+    private final ThreadLocal<List<PointHistory>> deferred = new ThreadLocal<>();
+
+    public PointEventRingBuffer(PointStreamProperties properties, MeterRegistry meterRegistry) {
+        int capacity = properties.bufferSize();
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("이벤트 버퍼 크기는 2 의 거듭제곱이어야 합니다: " + capacity);
+        }
+
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            // 아직 발행되지 않은 칸은 한 바퀴 전 순번이 발행된 것으로 둔다.
+            sequences.set(i, i - (long) capacity);
+        }
+        this.ids = new long[capacity];
+        this.userIds = new long[capacity];
+        this.amounts = new long[capacity];
+        this.types = new byte[capacity];
+        this.updateMillis = new long[capacity];
+
+        Gauge.builder("point.stream.published", cursor, AtomicLong::get).register(meterRegistry);
+    }
+
+    /**
+     * 순번을 받은 칸은 반드시 발행해야 같은 칸의 다음 바퀴 발행자가 멈추지 않으므로, 실패할 수 있는 값 읽기는 순번을 받기 전에 한다.
+     * 모아 두었다 발행하는 이벤트도 작업이 성공한 뒤에 실패하지 않도록, 모으기 전에 같은 값 읽기로 확인한다.
+     */
+    public void publish(PointHistory pointHistory) {
+        long id = pointHistory.id();
+        long userId = pointHistory.userId();
+        long amount = pointHistory.amount();
+        byte type = (byte) pointHistory.type().ordinal();
+        long millis = pointHistory.updateMillis();
+
+        List<PointHistory> pending = deferred.get();
+        if (pending != null) {
+            pending.add(pointHistory);
+            return;
+        }
+
+        long sequence = cursor.getAndIncrement();
+        int index = (int) sequence & mask;
+        while (sequences.get(index) != sequence - capacity) {
+            Thread.onSpinWait();
+        }
+
+        sequences.set(index, WRITING);
+        VarHandle.storeStoreFence();
+        ids[index] = id;
+        userIds[index] = userId;
+        amounts[index] = amount;
+        types[index] = type;
+        updateMillis[index] = millis;
+        sequences.setRelease(index, sequence);
+    }
+
+    /**
+     * action 안에서 들어온 이벤트를 모았다가, action 이 예외 없이 끝나면 발행하고 아니면 버린다. 이미 모으는 중이면 바깥에 합친다.
+     */
+    public <T> T publishAfter(Supplier<T> action) {
+        if (deferred.get() != null) return action.get();
+
+        List<PointHistory> pending = new ArrayList<>(2);
+        deferred.set(pending);
+        T result;
+        try {
+            result = action.get();
+        } finally {
+            deferred.remove();
+        }
+        for (PointHistory pointHistory : pending) {
+            publish(pointHistory);
+        }
+        return result;
+    }
+
+    /**
+     * 다음에 발행될 순번, 지금부터의 이벤트만 받으려면 이 순번부터 읽는다.
+     */
+    public long nextSequence() {
+        return cursor.get();
+    }
+
+    /**
+     * 버퍼에 남아 있는 가장 오래된 순번
+     */
+    public long oldestSequence() {
+        return Math.max(0L, cursor.get() - capacity);
+    }
+
+    /**
+     * 해당 순번의 이벤트, 아직 발행되지 않았거나 이미 덮어쓰였으면 null
+     * null 일 때 {@link #isOverrun(long)} 로 둘 중 어느 쪽인지 확인한다.
+     */
+    public PointHistory read(long sequence) {
+        int index = (int) sequence & mask;
+        if (sequences.getAcquire(index) != sequence) return null;
+
+        PointHistory pointHistory = new PointHistory(ids[index], userIds[index], amounts[index], TYPES[types[index]], updateMillis[index]);
+        VarHandle.loadLoadFence();
+        return sequences.get(index) == sequence ? pointHistory : null;
+    }
+
+    /**
+     * 해당 순번의 칸이 이미 다음 바퀴 이벤트로 덮어쓰였거나 덮어쓰이는 중인지 여부
+     */
+    public boolean isOverrun(long sequence) {
+        return cursor.get() - sequence > capacity;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
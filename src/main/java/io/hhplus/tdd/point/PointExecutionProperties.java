@@ -0,0 +1,21 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 포인트 충전/사용 명령의 실행 방식 설정
+ * - SYNC : 요청 스레드에서 사용자 락을 잡고 바로 실행
+ * - PARTITIONED : 사용자 ID 로 파티션을 정해 파티션 전용 워커가 메일박스 순서대로 실행
+ */
+@ConfigurationProperties(prefix = "point.execution")
+public record PointExecutionProperties(
+        @DefaultValue("SYNC") Mode mode,
+        @DefaultValue("8") int partitions,
+        @DefaultValue("1024") int mailboxCapacity
+) {
+
+    public enum Mode {
+        SYNC, PARTITIONED
+    }
+}
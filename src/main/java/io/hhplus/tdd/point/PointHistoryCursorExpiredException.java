@@ -0,0 +1,12 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 이어 받기 커서(after)가 압축으로 합쳐진 요약 행의 id 범위 안을 가리키는 경우
+ * 그대로 이어 넘기면 이미 받은 내역이 요약 행에 섞여 다시 넘어가므로, 커서 없이 처음부터 다시 조회해야 한다.
+ */
+public class PointHistoryCursorExpiredException extends RuntimeException {
+
+    public PointHistoryCursorExpiredException(long userId, long after) {
+        super("사용자 " + userId + " 의 내역 커서 " + after + " 는 압축된 내역을 가리킵니다.");
+    }
+}
@@ -0,0 +1,66 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 포인트 내역 조회 조건, 값이 없는(null) 조건은 적용하지 않는다.
+ * - after : 이 id 보다 큰 내역만 조회 (커서)
+ * - from / to : from <= updateMillis < to 인 내역만 조회
+ * - type : 해당 종류의 내역만 조회
+ * - limit : 최대 조회 건수
+ */
+public record PointHistoryQuery(
+        Long after,
+        Long from,
+        Long to,
+        TransactionType type,
+        Integer limit
+) {
+
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    public static PointHistoryQuery all() {
+        return new PointHistoryQuery(null, null, null, null, null);
+    }
+
+    public boolean matches(long id, TransactionType type, long updateMillis) {
+        return (after == null || id > after)
+                && (from == null || updateMillis >= from)
+                && (to == null || updateMillis < to)
+                && (this.type == null || this.type == type);
+    }
+
+    public boolean matches(PointHistory pointHistory) {
+        return matches(pointHistory.id(), pointHistory.type(), pointHistory.updateMillis());
+    }
+
+    public long afterOrZero() {
+        return after == null ? 0L : after;
+    }
+
+    public int limitOrMax() {
+        return limit == null ? Integer.MAX_VALUE : limit;
+    }
+
+    /**
+     * 커서나 건수를 지정한 페이지 조회인지
+     */
+    public boolean isPaged() {
+        return after != null || limit != null;
+    }
+
+    public PointHistoryQuery withAfter(long after) {
+        return new PointHistoryQuery(after, from, to, type, limit);
+    }
+
+    public PointHistoryQuery withLimit(Integer limit) {
+        return new PointHistoryQuery(after, from, to, type, limit);
+    }
+
+    /**
+     * 페이지 조회용 조건, 건수가 없으면 기본 건수를, 최대 건수를 넘으면 최대 건수를 적용한다.
+     */
+    public PointHistoryQuery toPage() {
+        if (limit != null && limit <= 0) throw new IllegalArgumentException("잘못된 조회 건수");
+        return withLimit(limit == null ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT));
+    }
+}
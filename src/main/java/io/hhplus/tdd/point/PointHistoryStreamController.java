@@ -0,0 +1,65 @@
+package io.hhplus.tdd.point;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * 포인트 내역을 한 줄에 하나씩(NDJSON) 내려주는 스트리밍 조회
+ * 내역을 목록으로 모으지 않고 저장소에서 읽는 대로 응답에 쓰므로, 내역이 많은 사용자도 요청당 메모리가 일정하다.
+ */
+@RestController
+@RequestMapping("/point")
+public class PointHistoryStreamController {
+
+    private static final int FLUSH_INTERVAL = 256;
+
+    private final PointService pointService;
+    private final ObjectMapper objectMapper;
+
+    public PointHistoryStreamController(PointService pointService, ObjectMapper objectMapper) {
+        this.pointService = pointService;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping(value = "{id}/histories/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamHistory(
+            @PathVariable long id,
+            @ModelAttribute PointHistoryQuery query
+    ) {
+        // 응답을 쓰기 시작한 뒤에는 상태 코드를 바꿀 수 없으므로 본문을 만들기 전에 검증한다.
+        if (id <= 0) throw new IllegalArgumentException("잘못된 사용자 ID");
+        if (query.limit() != null && query.limit() <= 0) throw new IllegalArgumentException("잘못된 조회 건수");
+        // 커서가 압축된 내역을 가리키면 410 으로 알릴 수 있도록 한 건만 먼저 읽어 본다.
+        if (query.after() != null) pointService.history(id, query.withLimit(1));
+
+        StreamingResponseBody body = outputStream -> {
+            BufferedOutputStream out = new BufferedOutputStream(outputStream);
+            int[] written = {0};
+            try {
+                pointService.forEachHistory(id, query, pointHistory -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(pointHistory));
+                        out.write('\n');
+                        // 클라이언트가 앞쪽 행부터 받을 수 있도록 주기적으로 내보낸다.
+                        if (++written[0] % FLUSH_INTERVAL == 0) out.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+}
@@ -0,0 +1,37 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 설정에서 켠 제한기만 포인트 API 앞에 등록한다. 둘 다 꺼져 있으면 인터셉터를 두지 않는다.
+ * 오래 열려 있는 내역 스트리밍 응답(NDJSON, SSE)은 처리 시간을 왜곡하므로 제외한다.
+ */
+@Configuration
+public class PointLimitConfig implements WebMvcConfigurer {
+
+    private final PointRateLimitProperties rateLimitProperties;
+    private final PointConcurrencyLimitProperties concurrencyLimitProperties;
+    private final PointRateLimiter rateLimiter;
+    private final PointConcurrencyLimiter concurrencyLimiter;
+
+    public PointLimitConfig(PointRateLimitProperties rateLimitProperties, PointConcurrencyLimitProperties concurrencyLimitProperties,
+                            PointRateLimiter rateLimiter, PointConcurrencyLimiter concurrencyLimiter) {
+        this.rateLimitProperties = rateLimitProperties;
+        this.concurrencyLimitProperties = concurrencyLimitProperties;
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!rateLimitProperties.enabled() && !concurrencyLimitProperties.enabled()) return;
+
+        registry.addInterceptor(new PointLimitInterceptor(
+                        rateLimitProperties.enabled() ? rateLimiter : null,
+                        concurrencyLimitProperties.enabled() ? concurrencyLimiter : null))
+                .addPathPatterns("/point/**")
+                .excludePathPatterns("/point/*/histories/stream", "/point/stream");
+    }
+}
@@ -0,0 +1,64 @@
+package io.hhplus.tdd.point;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * 포인트 API 앞에서 요청 수 제한과 동시 처리 수 제한을 적용한다.
+ * - 요청 수 제한은 경로의 사용자 id 별, 전체로 나눠 확인하고 넘으면 429 로 거절한다.
+ * - 동시 처리 한도를 넘으면 503 으로 거절한다. 비동기로 처리되는 요청(CompletableFuture 응답)은 응답이 끝날 때 자리를 돌려준다.
+ * - 비동기 처리가 끝나 다시 들어오는 ASYNC 디스패치는 이미 확인한 요청이므로 다시 확인하지 않는다.
+ */
+class PointLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String STARTED_NANOS = PointLimitInterceptor.class.getName() + ".startedNanos";
+
+    private final PointRateLimiter rateLimiter;
+    private final PointConcurrencyLimiter concurrencyLimiter;
+
+    /**
+     * 끄려는 제한기는 null 로 넘긴다.
+     */
+    PointLimitInterceptor(PointRateLimiter rateLimiter, PointConcurrencyLimiter concurrencyLimiter) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) return true;
+
+        if (rateLimiter != null) rateLimiter.acquire(userIdOf(request));
+        if (concurrencyLimiter != null) {
+            concurrencyLimiter.acquire();
+            request.setAttribute(STARTED_NANOS, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        // 비동기 처리가 시작된 디스패치는 아직 끝난 것이 아니므로, 응답이 끝나는 디스패치에서 돌려준다.
+        if (concurrencyLimiter == null || request.isAsyncStarted()) return;
+
+        Object startedNanos = request.getAttribute(STARTED_NANOS);
+        if (startedNanos == null) return;
+        request.removeAttribute(STARTED_NANOS);
+        concurrencyLimiter.release(System.nanoTime() - (long) startedNanos);
+    }
+
+    private Long userIdOf(HttpServletRequest request) {
+        if (!(request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE) instanceof Map<?, ?> variables)) return null;
+        if (!(variables.get("id") instanceof String id)) return null;
+        try {
+            return Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
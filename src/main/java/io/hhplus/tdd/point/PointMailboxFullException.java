@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 파티션 메일박스가 가득 차 명령을 더 받을 수 없을 때 발생
+ */
+public class PointMailboxFullException extends RuntimeException {
+
+    public PointMailboxFullException(int partition) {
+        super("파티션 " + partition + " 의 대기열이 가득 찼습니다.");
+    }
+}
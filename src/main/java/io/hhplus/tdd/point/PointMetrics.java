@@ -0,0 +1,80 @@
+package io.hhplus.tdd.point;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 포인트 기능별 처리 시간과 처리 중인 요청 수를 기록한다.
+ * - point.operation : operation(charge/use/point/history/batch) x outcome(success/insufficient_balance/invalid_input/error) 별 처리 시간
+ * - point.operation.active : operation 별 처리 중인 요청 수
+ * 타이머는 생성 시점에 모두 등록해 두어 요청 경로에서는 조회 없이 기록만 한다.
+ */
+@Component
+public class PointMetrics {
+
+    public enum Operation {
+        CHARGE, USE, POINT, HISTORY, BATCH
+    }
+
+    private enum Outcome {
+        SUCCESS, INSUFFICIENT_BALANCE, INVALID_INPUT, ERROR
+    }
+
+    private final Timer[][] timers = new Timer[Operation.values().length][Outcome.values().length];
+    private final AtomicInteger[] active = new AtomicInteger[Operation.values().length];
+
+    public PointMetrics(MeterRegistry meterRegistry) {
+        for (Operation operation : Operation.values()) {
+            String operationTag = tag(operation);
+            for (Outcome outcome : Outcome.values()) {
+                timers[operation.ordinal()][outcome.ordinal()] = Timer.builder("point.operation")
+                        .tag("operation", operationTag)
+                        .tag("outcome", tag(outcome))
+                        .register(meterRegistry);
+            }
+            active[operation.ordinal()] = new AtomicInteger();
+            Gauge.builder("point.operation.active", active[operation.ordinal()], AtomicInteger::get)
+                    .tag("operation", operationTag)
+                    .register(meterRegistry);
+        }
+    }
+
+    public <T> T record(Operation operation, Supplier<T> action) {
+        AtomicInteger inFlight = active[operation.ordinal()];
+        inFlight.incrementAndGet();
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.ERROR;
+        try {
+            T result = action.get();
+            outcome = Outcome.SUCCESS;
+            return result;
+        } catch (InsufficientPointException e) {
+            outcome = Outcome.INSUFFICIENT_BALANCE;
+            throw e;
+        } catch (IllegalArgumentException e) {
+            outcome = Outcome.INVALID_INPUT;
+            throw e;
+        } finally {
+            timers[operation.ordinal()][outcome.ordinal()].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            inFlight.decrementAndGet();
+        }
+    }
+
+    public void record(Operation operation, Runnable action) {
+        record(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private static String tag(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
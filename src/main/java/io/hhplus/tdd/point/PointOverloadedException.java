@@ -0,0 +1,15 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 처리 지연으로 줄어든 동시 처리 한도를 넘었거나 작업 대기열이 가득 차 요청을 받지 않는 경우
+ */
+public class PointOverloadedException extends RuntimeException {
+
+    public PointOverloadedException(int limit) {
+        super("동시 처리 한도(" + limit + ")를 넘었습니다.");
+    }
+
+    public PointOverloadedException(String message) {
+        super(message);
+    }
+}
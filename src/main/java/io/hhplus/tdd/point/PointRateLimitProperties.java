@@ -0,0 +1,22 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 포인트 API 요청 수 제한 설정 (토큰 버킷)
+ * - enabled : 제한 사용 여부
+ * - userRate / userBurst : 사용자별 초당 허용 요청 수와 한 번에 몰아 쓸 수 있는 요청 수
+ * - globalRate / globalBurst : 전체 초당 허용 요청 수와 한 번에 몰아 쓸 수 있는 요청 수
+ * - maxUsers : 사용자별 버킷을 유지할 최대 사용자 수, 넘치면 가득 찬(쉬고 있는) 버킷부터 정리한다.
+ */
+@ConfigurationProperties(prefix = "point.rate-limit")
+public record PointRateLimitProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("20") double userRate,
+        @DefaultValue("40") int userBurst,
+        @DefaultValue("2000") double globalRate,
+        @DefaultValue("4000") int globalBurst,
+        @DefaultValue("100000") int maxUsers
+) {
+}
@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 사용자별 또는 전체 요청 수 제한을 넘은 경우
+ */
+public class PointRateLimitedException extends RuntimeException {
+
+    public PointRateLimitedException(String scope) {
+        super(scope + " 요청 수 제한을 넘었습니다.");
+    }
+}
@@ -0,0 +1,74 @@
+package io.hhplus.tdd.point;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 사용자별, 전체 토큰 버킷으로 요청 수를 제한한다.
+ * - 사용자 버킷을 먼저 확인하므로 한 사용자에게 몰린 요청은 전체 버킷을 소모하기 전에 거절된다.
+ * - 사용자 버킷이 maxUsers 를 넘으면 가득 찬 버킷을 정리한다(초당 최대 한 번). 정리해도 자리가 없으면 그 사용자는 전체 제한만 적용한다.
+ * - 거절 수를 point.limit.rejected(reason=user/global) 로 기록한다.
+ */
+@Component
+public class PointRateLimiter {
+
+    private static final long CLEANUP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final PointRateLimitProperties properties;
+    private final TokenBucket globalBucket;
+    private final ConcurrentHashMap<Long, TokenBucket> userBuckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastCleanupNanos = new AtomicLong(System.nanoTime() - CLEANUP_INTERVAL_NANOS);
+    private final LongAdder userRejections = new LongAdder();
+    private final LongAdder globalRejections = new LongAdder();
+
+    public PointRateLimiter(PointRateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.globalBucket = new TokenBucket(properties.globalRate(), properties.globalBurst(), System.nanoTime());
+
+        FunctionCounter.builder("point.limit.rejected", userRejections, LongAdder::sum).tag("reason", "user").register(meterRegistry);
+        FunctionCounter.builder("point.limit.rejected", globalRejections, LongAdder::sum).tag("reason", "global").register(meterRegistry);
+        Gauge.builder("point.limit.users", userBuckets, ConcurrentHashMap::size).register(meterRegistry);
+    }
+
+    /**
+     * 사용자 요청 하나를 허용할지 판단한다. 요청에 사용자 id 가 없으면(userId == null) 전체 제한만 적용한다.
+     */
+    public void acquire(Long userId) {
+        long now = System.nanoTime();
+        if (userId != null) {
+            TokenBucket userBucket = userBucketOf(userId, now);
+            if (userBucket != null && !userBucket.tryAcquire(now)) {
+                userRejections.increment();
+                throw new PointRateLimitedException("사용자");
+            }
+        }
+        if (!globalBucket.tryAcquire(now)) {
+            globalRejections.increment();
+            throw new PointRateLimitedException("전체");
+        }
+    }
+
+    private TokenBucket userBucketOf(long userId, long now) {
+        TokenBucket bucket = userBuckets.get(userId);
+        if (bucket != null) return bucket;
+
+        if (userBuckets.size() >= properties.maxUsers()) {
+            cleanup(now);
+            if (userBuckets.size() >= properties.maxUsers()) return null;
+        }
+        return userBuckets.computeIfAbsent(userId, id -> new TokenBucket(properties.userRate(), properties.userBurst(), now));
+    }
+
+    private void cleanup(long now) {
+        long last = lastCleanupNanos.get();
+        if (now - last < CLEANUP_INTERVAL_NANOS || !lastCleanupNanos.compareAndSet(last, now)) return;
+        userBuckets.values().removeIf(bucket -> bucket.isFull(now));
+    }
+}
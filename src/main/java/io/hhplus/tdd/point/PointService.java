@@ -1,61 +1,126 @@
 package io.hhplus.tdd.point;
 
-import io.hhplus.tdd.database.PointHistoryTable;
-import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.UserPointRepository;
+import io.hhplus.tdd.database.VersionedUserPointRepository;
 import org.apache.catalina.User;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+/**
+ * 포인트 조회/충전/사용
+ * 잔고 저장소가 버전을 지원하면(point.update.mode=OPTIMISTIC) 충전/사용은 사용자 락 대신 조건부 쓰기로 반영하고,
+ * 조건부 쓰기가 성공한 경우에만 내역을 남긴다.
+ * 충전/사용 한 건의 내역과 잔고 쓰기는 {@link UserPointRepository#writeAtomically} 로 묶어, 저장소가 지원하면 함께 반영되게 한다.
+ * (조건부 쓰기는 버전 저장소가 자리를 차지한 동안 직접 묶는다)
+ */
 @Component
 public class PointService {
 
     private static final Logger log = LoggerFactory.getLogger(PointService.class);
-    private final UserPointTable userPointTable;
-    private final PointHistoryTable pointHistoryTable;
+    private final UserPointRepository userPointRepository;
+    private final PointHistoryRepository pointHistoryRepository;
+    private final UserLockManager userLockManager;
+    private final PointMetrics pointMetrics;
+    // 낙관적 갱신을 쓰지 않으면 null
+    private final VersionedUserPointRepository versionedUserPointRepository;
 
-    public PointService(UserPointTable userPointTable, PointHistoryTable pointHistoryTable) {
-        this.userPointTable = userPointTable;
-        this.pointHistoryTable = pointHistoryTable;
+    public PointService(UserPointRepository userPointRepository, PointHistoryRepository pointHistoryRepository,
+                        UserLockManager userLockManager, PointMetrics pointMetrics) {
+        this.userPointRepository = userPointRepository;
+        this.pointHistoryRepository = pointHistoryRepository;
+        this.userLockManager = userLockManager;
+        this.pointMetrics = pointMetrics;
+        this.versionedUserPointRepository = userPointRepository instanceof VersionedUserPointRepository versioned ? versioned : null;
     }
 
     public UserPoint point(long id) {
-        if (id <= 0) throw new IllegalArgumentException("잘못된 사용자 ID");
+        return pointMetrics.record(PointMetrics.Operation.POINT, () -> {
+            if (id <= 0) throw new IllegalArgumentException("잘못된 사용자 ID");
 
-        return userPointTable.selectById(id);
+            return userPointRepository.selectById(id);
+        });
     }
 
     public List<PointHistory> history(long id) {
-        if (id <= 0) throw new IllegalArgumentException("잘못된 사용자 ID");
+        return pointMetrics.record(PointMetrics.Operation.HISTORY, () -> {
+            if (id <= 0) throw new IllegalArgumentException("잘못된 사용자 ID");
 
-        return pointHistoryTable.selectAllByUserId(id);
+            return pointHistoryRepository.selectAllByUserId(id);
+        });
+    }
+
+    /**
+     * 조건에 맞는 내역을 조회한다.
+     * 커서(after)나 건수(limit)를 지정하면 한 페이지만큼 조회하고(건수가 없으면 기본 건수), 둘 다 없으면 전부 조회한다.
+     */
+    public List<PointHistory> history(long id, PointHistoryQuery query) {
+        return pointMetrics.record(PointMetrics.Operation.HISTORY, () -> {
+            if (id <= 0) throw new IllegalArgumentException("잘못된 사용자 ID");
+
+            return pointHistoryRepository.selectByUserId(id, query.isPaged() ? query.toPage() : query);
+        });
+    }
+
+    /**
+     * 조건에 맞는 내역을 목록으로 모으지 않고 하나씩 넘긴다. 건수를 지정하지 않으면 전부 넘긴다.
+     */
+    public void forEachHistory(long id, PointHistoryQuery query, Consumer<PointHistory> action) {
+        pointMetrics.record(PointMetrics.Operation.HISTORY, () -> {
+            if (id <= 0) throw new IllegalArgumentException("잘못된 사용자 ID");
+            if (query.limit() != null && query.limit() <= 0) throw new IllegalArgumentException("잘못된 조회 건수");
+
+            pointHistoryRepository.forEachByUserId(id, query, action);
+        });
     }
 
     public UserPoint charge(long id, long amount) {
-        if (id <= 0) throw new IllegalArgumentException("잘못된 사용자 ID");
-        if (amount <= 0) throw new IllegalArgumentException("잘못된 금액");
+        return pointMetrics.record(PointMetrics.Operation.CHARGE, () -> {
+            if (id <= 0) throw new IllegalArgumentException("잘못된 사용자 ID");
+            if (amount <= 0) throw new IllegalArgumentException("잘못된 금액");
+
+            if (versionedUserPointRepository != null) {
+                return versionedUserPointRepository.update(id, point -> point + amount,
+                        () -> pointHistoryRepository.insert(id, amount, TransactionType.CHARGE, System.currentTimeMillis()));
+            }
 
-        UserPoint userPoint = userPointTable.selectById(id);
-        long newPoint = userPoint.point() + amount;
+            // 조회 ~ 갱신 사이에 같은 사용자의 다른 요청이 끼어들지 않도록 사용자 단위로 잠근다.
+            return userLockManager.executeWithLock(id, () -> userPointRepository.writeAtomically(id, () -> {
+                long newPoint = userPointRepository.selectPoint(id) + amount;
 
-       pointHistoryTable.insert(id, amount, TransactionType.CHARGE, System.currentTimeMillis());
-       return userPointTable.insertOrUpdate(id, newPoint);
+                pointHistoryRepository.insert(id, amount, TransactionType.CHARGE, System.currentTimeMillis());
+                return userPointRepository.insertOrUpdate(id, newPoint);
+            }));
+        });
     }
 
     public UserPoint use(long id, long amount) {
-        if (id <= 0) throw new IllegalArgumentException("잘못된 사용자 ID");
-        if (amount <= 0) throw new IllegalArgumentException("잘못된 금액");
-
-        UserPoint userPoint = userPointTable.selectById(id);
-        // 잔고 부족 체크
-        if(userPoint.point() < amount) {
-            throw new IllegalArgumentException("포인트 부족");
-        }
-        // 잔고 update
-        long newPoint = userPoint.point() - amount;
-        pointHistoryTable.insert(id, amount, TransactionType.USE, System.currentTimeMillis());
-        return userPointTable.insertOrUpdate(id, newPoint);
+        return pointMetrics.record(PointMetrics.Operation.USE, () -> {
+            if (id <= 0) throw new IllegalArgumentException("잘못된 사용자 ID");
+            if (amount <= 0) throw new IllegalArgumentException("잘못된 금액");
+
+            if (versionedUserPointRepository != null) {
+                return versionedUserPointRepository.update(id, point -> {
+                    if (point < amount) throw new InsufficientPointException();
+                    return point - amount;
+                }, () -> pointHistoryRepository.insert(id, amount, TransactionType.USE, System.currentTimeMillis()));
+            }
+
+            return userLockManager.executeWithLock(id, () -> userPointRepository.writeAtomically(id, () -> {
+                long point = userPointRepository.selectPoint(id);
+                // 잔고 부족 체크
+                if(point < amount) {
+                    throw new InsufficientPointException();
+                }
+                // 잔고 update
+                long newPoint = point - amount;
+                pointHistoryRepository.insert(id, amount, TransactionType.USE, System.currentTimeMillis());
+                return userPointRepository.insertOrUpdate(id, newPoint);
+            }));
+        });
     }
 }
@@ -0,0 +1,62 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointShardProperties;
+import io.hhplus.tdd.database.PointShards;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * 요청이 몰리는 사용자를 다른 샤드로 옮긴다.
+ * - 충전/사용과 같은 사용자 락을 잡은 채로 옮기므로, 옮기는 동안 그 사용자의 쓰기는 기다리고 조회는 원래 샤드에서 읽는다.
+ * - 어느 샤드가 몰리는지는 샤드별 조회/쓰기 수(point.shard.operations)로 확인한다.
+ */
+@Component
+public class PointShardRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(PointShardRebalancer.class);
+
+    private final PointShardProperties properties;
+    private final ObjectProvider<PointShards> pointShards;
+    private final UserLockManager userLockManager;
+
+    public PointShardRebalancer(PointShardProperties properties, ObjectProvider<PointShards> pointShards,
+                                UserLockManager userLockManager) {
+        this.properties = properties;
+        this.pointShards = pointShards;
+        this.userLockManager = userLockManager;
+    }
+
+    /**
+     * 사용자를 대상 샤드로 옮기고 옮긴 내역 수를 돌려준다. 이미 대상 샤드에 있으면 0 이다.
+     */
+    public int move(long userId, int targetShard) {
+        if (!properties.enabled()) throw new IllegalStateException("샤딩이 꺼져 있습니다.");
+        if (userId <= 0) throw new IllegalArgumentException("잘못된 사용자 ID");
+
+        PointShards shards = pointShards.getObject();
+        return userLockManager.executeWithLock(userId, () -> {
+            int source = shards.shardOf(userId);
+            int moved = shards.move(userId, targetShard);
+            if (source != targetShard) {
+                log.info("사용자 {} 를 샤드 {} 에서 {} 로 옮겼습니다. (내역 {} 건)", userId, source, targetShard, moved);
+            }
+            return moved;
+        });
+    }
+
+    /**
+     * 쓰기가 가장 적은 샤드, 몰리는 샤드의 사용자를 옮길 곳을 고를 때 쓴다.
+     */
+    public int leastLoadedShard() {
+        if (!properties.enabled()) throw new IllegalStateException("샤딩이 꺼져 있습니다.");
+
+        PointShards shards = pointShards.getObject();
+        int least = 0;
+        for (int shard = 1; shard < shards.shardCount(); shard++) {
+            if (shards.writeCount(shard) < shards.writeCount(least)) least = shard;
+        }
+        return least;
+    }
+}
@@ -0,0 +1,28 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 사용자별 누적 통계
+ * - point : 충전 합계 - 사용 합계
+ * - transactionCount : 충전/사용 건수
+ * - lastActivityMillis : 마지막 충전/사용 시각, 내역이 없으면 0
+ */
+public record PointStats(
+        long userId,
+        long point,
+        long totalCharged,
+        long totalUsed,
+        long transactionCount,
+        long lastActivityMillis
+) {
+
+    public static PointStats empty(long userId) {
+        return new PointStats(userId, 0L, 0L, 0L, 0L, 0L);
+    }
+
+    /**
+     * 충전과 사용을 합한 거래 규모
+     */
+    public long volume() {
+        return totalCharged + totalUsed;
+    }
+}
@@ -0,0 +1,39 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/point")
+public class PointStatsController {
+
+    private final PointStatsStore pointStatsStore;
+
+    public PointStatsController(PointStatsStore pointStatsStore) {
+        this.pointStatsStore = pointStatsStore;
+    }
+
+    /**
+     * 충전/사용 합계, 건수, 마지막 거래 시각을 내역을 훑지 않고 조회한다.
+     */
+    @GetMapping("{id}/stats")
+    public PointStats stats(
+            @PathVariable long id
+    ) {
+        if (id <= 0) throw new IllegalArgumentException("잘못된 사용자 ID");
+
+        return pointStatsStore.stats(id);
+    }
+
+    /**
+     * 잔고(BALANCE) 또는 거래 규모(VOLUME)가 큰 순서로 사용자 통계를 조회한다.
+     */
+    @GetMapping("top")
+    public List<PointStats> top(
+            @RequestParam(defaultValue = "BALANCE") PointStatsStore.Ranking by,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return pointStatsStore.top(by, limit);
+    }
+}
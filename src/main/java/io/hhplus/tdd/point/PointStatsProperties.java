@@ -0,0 +1,16 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 사용자별 통계 설정
+ * - enabled : 내역을 쓸 때 통계를 함께 갱신할지 여부, 순위 갱신이 전역 락을 거치므로 기본으로 끈다.
+ * - topCapacity : 순위 조회를 위해 지표별로 유지하는 후보 사용자 수, 조회할 수 있는 최대 순위보다 넉넉히 둔다.
+ */
+@ConfigurationProperties(prefix = "point.stats")
+public record PointStatsProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("1024") int topCapacity
+) {
+}
@@ -0,0 +1,136 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PrimitiveLongMap;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 충전/사용 내역이 쓰일 때마다 사용자별 통계(충전/사용 합계, 건수, 마지막 거래 시각)를 갱신해 두는 저장소
+ * - 조회는 내역을 훑지 않고 저장된 값을 바로 돌려준다.
+ * - 통계는 {@link PrimitiveLongMap} 에 사용자 id 를 키로 두고, 조회는 낙관적 읽기로 잠그지 않는다.
+ * - 잔고 순위와 거래 규모 순위는 {@link TopK} 로 갱신 시점에 함께 유지하므로, 순위 조회는 후보 수에만 비례한다.
+ * - 이 프로세스에서 쓰인 내역만 집계한다. 잔고는 충전 합계 - 사용 합계다.
+ * - {@link #recordAfter} 안에서 들어온 기록은 모았다가 작업이 성공한 뒤에 반영한다. 잔고 쓰기가 실패한 충전/사용은 집계하지 않는다.
+ */
+@Component
+public class PointStatsStore {
+
+    public enum Ranking {
+        BALANCE, VOLUME
+    }
+
+    public static final int MAX_TOP = 100;
+
+    private static final int CHARGED = 0;
+    private static final int SPENT = 1;
+    private static final int COUNT = 2;
+    private static final int LAST_ACTIVITY = 3;
+    // 순위 후보 포함 여부(BALANCE_MEMBER, VOLUME_MEMBER), 쓰기 잠금 안에서만 읽고 쓴다.
+    private static final int MEMBERS = 4;
+    private static final long BALANCE_MEMBER = 1;
+    private static final long VOLUME_MEMBER = 2;
+
+    private static final PrimitiveLongMap.Reader<PointStats> STATS = (userId, columns, index) -> {
+        if (index < 0) return PointStats.empty(userId);
+        long charged = columns[CHARGED][index];
+        long spent = columns[SPENT][index];
+        return new PointStats(userId, charged - spent, charged, spent, columns[COUNT][index], columns[LAST_ACTIVITY][index]);
+    };
+
+    private final PrimitiveLongMap totals = new PrimitiveLongMap(5);
+    private final PrimitiveLongMap.Updater charge = (userId, columns, index, amount, updateMillis) ->
+            apply(userId, columns, index, CHARGED, amount, updateMillis);
+    private final PrimitiveLongMap.Updater use = (userId, columns, index, amount, updateMillis) ->
+            apply(userId, columns, index, SPENT, amount, updateMillis);
+    private final TopK balanceTop;
+    private final TopK volumeTop;
+    // recordAfter 를 실행 중인 스레드가 모으고 있는 기록
+    private final ThreadLocal<List<Deferred>> deferred = new ThreadLocal<>();
+
+    public PointStatsStore(PointStatsProperties properties, MeterRegistry meterRegistry) {
+        this.balanceTop = new TopK(properties.topCapacity());
+        this.volumeTop = new TopK(properties.topCapacity());
+        Gauge.builder("point.stats.users", this, PointStatsStore::size).register(meterRegistry);
+    }
+
+    /**
+     * 내역 한 건을 통계에 더한다.
+     */
+    public void record(long userId, TransactionType type, long amount, long updateMillis) {
+        List<Deferred> pending = deferred.get();
+        if (pending != null) {
+            pending.add(new Deferred(userId, type, amount, updateMillis));
+            return;
+        }
+        totals.update(userId, type == TransactionType.CHARGE ? charge : use, amount, updateMillis);
+    }
+
+    /**
+     * action 안에서 들어온 기록을 모았다가, action 이 예외 없이 끝나면 반영하고 아니면 버린다. 이미 모으는 중이면 바깥에 합친다.
+     */
+    public <T> T recordAfter(Supplier<T> action) {
+        if (deferred.get() != null) return action.get();
+
+        List<Deferred> pending = new ArrayList<>(2);
+        deferred.set(pending);
+        T result;
+        try {
+            result = action.get();
+        } finally {
+            deferred.remove();
+        }
+        for (Deferred record : pending) {
+            record(record.userId(), record.type(), record.amount(), record.updateMillis());
+        }
+        return result;
+    }
+
+    public PointStats stats(long userId) {
+        return totals.read(userId, STATS);
+    }
+
+    /**
+     * 지표 순으로 최대 limit 명의 통계
+     */
+    public List<PointStats> top(Ranking ranking, int limit) {
+        if (limit <= 0 || limit > MAX_TOP) throw new IllegalArgumentException("잘못된 조회 건수");
+
+        List<Long> userIds = (ranking == Ranking.BALANCE ? balanceTop : volumeTop).top(limit);
+        List<PointStats> top = new ArrayList<>(userIds.size());
+        for (long userId : userIds) {
+            top.add(stats(userId));
+        }
+        return top;
+    }
+
+    /**
+     * 통계가 있는 사용자 수
+     */
+    public long size() {
+        return totals.size();
+    }
+
+    /**
+     * 같은 사용자의 갱신 순서대로 순위에 반영되도록, 맵의 쓰기 잠금 안에서 합계와 함께 순위를 갱신한다.
+     */
+    private void apply(long userId, long[][] columns, int index, int column, long amount, long updateMillis) {
+        columns[column][index] += amount;
+        columns[COUNT][index]++;
+        columns[LAST_ACTIVITY][index] = Math.max(columns[LAST_ACTIVITY][index], updateMillis);
+
+        long charged = columns[CHARGED][index];
+        long spent = columns[SPENT][index];
+        long members = columns[MEMBERS][index];
+        boolean balanceMember = balanceTop.update(userId, charged - spent, (members & BALANCE_MEMBER) != 0);
+        boolean volumeMember = volumeTop.update(userId, charged + spent, (members & VOLUME_MEMBER) != 0);
+        columns[MEMBERS][index] = (balanceMember ? BALANCE_MEMBER : 0) | (volumeMember ? VOLUME_MEMBER : 0);
+    }
+
+    private record Deferred(long userId, TransactionType type, long amount, long updateMillis) {
+    }
+}
@@ -0,0 +1,29 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/point")
+public class PointStreamController {
+
+    private final PointStreamService pointStreamService;
+
+    public PointStreamController(PointStreamService pointStreamService) {
+        this.pointStreamService = pointStreamService;
+    }
+
+    /**
+     * 충전/사용 내역을 SSE 로 받는다. userId 를 지정하면 해당 사용자의 내역만 받는다.
+     * after(또는 재연결 시 Last-Event-ID) 를 지정하면 그 id 이후의 내역부터 이어 받는다.
+     */
+    @GetMapping(value = "stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Long after,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId
+    ) {
+        return pointStreamService.subscribe(userId, after != null ? after : lastEventId);
+    }
+}
@@ -0,0 +1,22 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 내역 이벤트 스트리밍(SSE) 설정
+ * - enabled : 내역을 쓸 때 이벤트 버퍼에 발행할지 여부
+ * - bufferSize : 이벤트 버퍼 크기(2 의 거듭제곱), 구독자는 이만큼 뒤처지면 끊긴다.
+ * - maxSubscribers : 동시에 받을 수 있는 최대 구독자 수
+ * - timeout : 구독 연결을 유지하는 최대 시간, 클라이언트는 마지막 이벤트 id 로 다시 구독한다.
+ */
+@ConfigurationProperties(prefix = "point.stream")
+public record PointStreamProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("65536") int bufferSize,
+        @DefaultValue("256") int maxSubscribers,
+        @DefaultValue("30m") Duration timeout
+) {
+}
@@ -0,0 +1,197 @@
+package io.hhplus.tdd.point;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 내역 이벤트 버퍼를 구독자에게 SSE 로 내보낸다.
+ * - 구독자마다 가상 스레드 하나가 자기 커서로 버퍼를 읽어 보내므로, 느린 구독자는 자기만 뒤처지고 발행하는 쪽은 기다리지 않는다.
+ * - 버퍼 크기만큼 뒤처지면(overrun) lag 이벤트로 마지막으로 보낸 id 를 알리고 연결을 끊는다. 클라이언트는 그 id 로 다시 구독한다.
+ * - 이어 받기(after)는 사용자를 지정하면 내역에서 빠짐없이 보낸 뒤 버퍼로 넘어가고, 지정하지 않으면 버퍼에 남은 이벤트에서 이어 보낸다.
+ *   전체 구독에서 버퍼에 남지 않은 이벤트가 있으면 lag 이벤트로 알린 뒤 이어 보낸다.
+ * - 사용자별 이어 받기의 after 가 압축된 내역을 가리키면 구독 전에 410 으로, 이어 보내는 중에 압축되면 expired 이벤트로 알리고 끊는다.
+ *   클라이언트는 after 없이 처음부터 다시 읽는다.
+ */
+@Component
+public class PointStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(PointStreamService.class);
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final PointEventRingBuffer ringBuffer;
+    private final PointService pointService;
+    private final PointStreamProperties properties;
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final LongAdder dropped = new LongAdder();
+
+    public PointStreamService(PointEventRingBuffer ringBuffer, PointService pointService, PointStreamProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.ringBuffer = ringBuffer;
+        this.pointService = pointService;
+        this.properties = properties;
+
+        Gauge.builder("point.stream.subscribers", subscriptions, Set::size).register(meterRegistry);
+        FunctionCounter.builder("point.stream.dropped", dropped, LongAdder::sum).register(meterRegistry);
+    }
+
+    /**
+     * userId 가 null 이면 모든 사용자의 이벤트를, after 가 null 이면 지금부터의 이벤트를 받는다.
+     */
+    public SseEmitter subscribe(Long userId, Long after) {
+        if (!properties.enabled()) throw new IllegalStateException("내역 스트리밍이 꺼져 있습니다.");
+        if (userId != null && userId <= 0) throw new IllegalArgumentException("잘못된 사용자 ID");
+        // 구독을 시작한 뒤에는 상태 코드를 바꿀 수 없으므로, 압축된 내역을 가리키는 커서는 한 건만 읽어 보고 미리 거절한다.
+        if (userId != null && after != null) pointService.history(userId, PointHistoryQuery.all().withAfter(after).withLimit(1));
+
+        SseEmitter emitter = new SseEmitter(properties.timeout().toMillis());
+        Subscription subscription = new Subscription(emitter, userId, after);
+        // 자리를 먼저 차지한 뒤 한도를 확인해 동시에 들어온 구독이 한도를 넘지 않게 한다.
+        subscriptions.add(subscription);
+        if (subscriptions.size() > properties.maxSubscribers()) {
+            subscriptions.remove(subscription);
+            throw new PointOverloadedException(properties.maxSubscribers());
+        }
+
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(error -> subscription.close());
+        Thread.ofVirtual().name("point-stream-subscriber").start(subscription::run);
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Subscription subscription : subscriptions) {
+            subscription.close();
+            subscription.emitter.complete();
+        }
+    }
+
+    private final class Subscription {
+
+        private final SseEmitter emitter;
+        private final Long userId;
+        private final Long after;
+        private volatile boolean closed;
+        private long lastId;
+
+        private Subscription(SseEmitter emitter, Long userId, Long after) {
+            this.emitter = emitter;
+            this.userId = userId;
+            this.after = after;
+            this.lastId = after == null ? 0L : after;
+        }
+
+        private void run() {
+            try {
+                // 내역에서 이어 보내는 동안 쓰인 이벤트도 받을 수 있도록 버퍼 위치를 먼저 잡는다.
+                long sequence = ringBuffer.nextSequence();
+                boolean checkGap = false;
+                if (after != null && userId != null) {
+                    replay();
+                } else if (after != null) {
+                    sequence = ringBuffer.oldestSequence();
+                    checkGap = sequence > 0;
+                }
+
+                while (!closed) {
+                    PointHistory event = ringBuffer.read(sequence);
+                    if (event == null) {
+                        if (ringBuffer.isOverrun(sequence)) {
+                            dropped.increment();
+                            sendLag();
+                            emitter.complete();
+                            return;
+                        }
+                        LockSupport.parkNanos(IDLE_NANOS);
+                        continue;
+                    }
+                    sequence++;
+                    if (checkGap) {
+                        // 버퍼의 첫 이벤트가 바로 다음 id 가 아니면 빠진 이벤트가 있을 수 있다. (샤딩을 켜면 id 가 샤드 수씩 건너뛰므로 빠지지 않아도 알린다)
+                        checkGap = false;
+                        if (event.id() > lastId + 1) sendLag();
+                    }
+                    if (userId != null) {
+                        // 사용자별 이벤트는 id 순으로 발행되므로 이미 보낸 id 이하는 내역에서 이어 보낸 것이다.
+                        if (event.userId() != userId || event.id() <= lastId) continue;
+                    } else if (after != null && event.id() <= after) {
+                        // 사용자가 다르면 id 순서와 발행 순서가 어긋날 수 있어, 전체 구독은 이어 받기 시작점으로만 거른다.
+                        continue;
+                    }
+                    send(event);
+                }
+            } catch (IOException | UncheckedIOException e) {
+                log.debug("구독자 연결이 끊겼습니다. (마지막 id: {})", lastId);
+                close();
+            } catch (PointHistoryCursorExpiredException e) {
+                log.debug("이어 보내는 중 내역이 압축되었습니다. (마지막 id: {})", lastId);
+                close();
+                sendExpired();
+            } catch (RuntimeException e) {
+                log.error("내역 스트리밍 실패 (마지막 id: {})", lastId, e);
+                close();
+                emitter.completeWithError(e);
+            } finally {
+                subscriptions.remove(this);
+            }
+        }
+
+        private void replay() {
+            pointService.forEachHistory(userId, PointHistoryQuery.all().withAfter(after), pointHistory -> {
+                try {
+                    send(pointHistory);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+
+        private void send(PointHistory pointHistory) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(String.valueOf(pointHistory.id()))
+                    .name("point")
+                    .data(pointHistory));
+            lastId = pointHistory.id();
+        }
+
+        private void sendLag() throws IOException {
+            emitter.send(SseEmitter.event()
+                    .name("lag")
+                    .data(Map.of("lastId", lastId)));
+        }
+
+        /**
+         * 보내는 데 실패하면 연결이 이미 끊긴 것이므로 그대로 끝낸다.
+         */
+        private void sendExpired() {
+            try {
+                emitter.send(SseEmitter.event()
+                        .name("expired")
+                        .data(Map.of("lastId", lastId)));
+                emitter.complete();
+            } catch (IOException e) {
+                log.debug("구독자 연결이 끊겼습니다. (마지막 id: {})", lastId);
+            }
+        }
+
+        private void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package io.hhplus.tdd.point;
+
+import java.util.List;
+
+/**
+ * 잔고와 최근 내역, 충전/사용 합계를 한 번에 담은 조회 결과
+ * - 최근 내역은 id 오름차순이다.
+ * - partial 이 true 이면 제한 시간 안에 끝나지 않은 조회의 값(point 또는 내역/합계)이 null 이다.
+ */
+public record PointSummary(
+        long userId,
+        Long point,
+        List<PointHistory> recentHistories,
+        Long totalCharged,
+        Long totalUsed,
+        boolean partial
+) {
+}
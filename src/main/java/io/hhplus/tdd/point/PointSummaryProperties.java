@@ -0,0 +1,21 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * 잔고/내역 통합 조회 설정
+ * - parallelism / queueCapacity : 조회를 나눠 실행할 워커 수와 대기열 크기, 대기열이 가득 차면 503 으로 거절한다.
+ * - recent : 최근 내역 기본 건수
+ * - timeout : 기본 제한 시간, 0 이면 제한 없음
+ */
+@ConfigurationProperties(prefix = "point.summary")
+public record PointSummaryProperties(
+        @DefaultValue("16") int parallelism,
+        @DefaultValue("256") int queueCapacity,
+        @DefaultValue("10") int recent,
+        @DefaultValue("0s") Duration timeout
+) {
+}
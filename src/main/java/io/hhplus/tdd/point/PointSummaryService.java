@@ -0,0 +1,121 @@
+package io.hhplus.tdd.point;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 잔고 조회와 내역 조회를 동시에 실행해 하나의 결과로 합친다.
+ * 두 조회는 서로 다른 테이블을 읽으므로, 응답 시간은 두 조회 시간의 합이 아니라 더 느린 쪽의 시간이 된다.
+ * 워커 대기열이 가득 차면 요청 스레드에서 대신 실행하지 않고 {@link PointOverloadedException} 으로 거절한다.
+ * 요청 스레드에서 실행하면 제한 시간을 지킬 수 없기 때문이다.
+ */
+@Component
+public class PointSummaryService {
+
+    public static final int MAX_RECENT = 100;
+
+    private final PointService pointService;
+    private final PointSummaryProperties properties;
+    private final ThreadPoolExecutor executor;
+
+    public PointSummaryService(PointService pointService, PointSummaryProperties properties) {
+        if (properties.parallelism() <= 0) throw new IllegalArgumentException("병렬 처리 수는 1 이상이어야 합니다: " + properties.parallelism());
+
+        this.pointService = pointService;
+        this.properties = properties;
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.parallelism(), properties.parallelism(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.queueCapacity()),
+                runnable -> new Thread(runnable, "point-summary-" + sequence.getAndIncrement()),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * @param recent      최근 내역 건수, null 이면 기본 건수
+     * @param timeout     제한 시간, null 이면 기본 제한 시간
+     * @param partial     true 이면 제한 시간 안에 끝난 조회만 담아 돌려주고, false 이면 TimeoutException 으로 실패한다.
+     */
+    public CompletableFuture<PointSummary> summary(long id, Integer recent, Duration timeout, boolean partial) {
+        if (id <= 0) throw new IllegalArgumentException("잘못된 사용자 ID");
+        int recentCount = recent == null ? properties.recent() : recent;
+        if (recentCount <= 0 || recentCount > MAX_RECENT) throw new IllegalArgumentException("잘못된 조회 건수");
+        Duration limit = timeout == null ? properties.timeout() : timeout;
+        if (limit.isNegative()) throw new IllegalArgumentException("잘못된 제한 시간");
+
+        CompletableFuture<UserPoint> balance;
+        CompletableFuture<HistoryAggregate> histories;
+        try {
+            balance = CompletableFuture.supplyAsync(() -> pointService.point(id), executor);
+            histories = CompletableFuture.supplyAsync(() -> {
+                HistoryAggregate aggregate = new HistoryAggregate(recentCount);
+                pointService.forEachHistory(id, PointHistoryQuery.all(), aggregate);
+                return aggregate;
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            throw new PointOverloadedException("잔고/내역 조회 대기열이 가득 찼습니다.");
+        }
+
+        if (!limit.isZero()) {
+            long millis = limit.toMillis();
+            if (partial) {
+                balance = balance.completeOnTimeout(null, millis, TimeUnit.MILLISECONDS);
+                histories = histories.completeOnTimeout(null, millis, TimeUnit.MILLISECONDS);
+            } else {
+                balance = balance.orTimeout(millis, TimeUnit.MILLISECONDS);
+                histories = histories.orTimeout(millis, TimeUnit.MILLISECONDS);
+            }
+        }
+        return balance.thenCombine(histories, (userPoint, aggregate) -> new PointSummary(
+                id,
+                userPoint == null ? null : userPoint.point(),
+                aggregate == null ? null : List.copyOf(aggregate.recent),
+                aggregate == null ? null : aggregate.totalCharged,
+                aggregate == null ? null : aggregate.totalUsed,
+                userPoint == null || aggregate == null
+        ));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 내역을 한 번 훑으면서 충전/사용 합계와 마지막 N 건을 함께 구한다.
+     */
+    private static final class HistoryAggregate implements Consumer<PointHistory> {
+
+        private final int recentCount;
+        private final ArrayDeque<PointHistory> recent;
+        private long totalCharged;
+        private long totalUsed;
+
+        private HistoryAggregate(int recentCount) {
+            this.recentCount = recentCount;
+            this.recent = new ArrayDeque<>(recentCount);
+        }
+
+        @Override
+        public void accept(PointHistory pointHistory) {
+            if (pointHistory.type() == TransactionType.CHARGE) {
+                totalCharged += pointHistory.amount();
+            } else {
+                totalUsed += pointHistory.amount();
+            }
+            if (recent.size() == recentCount) recent.pollFirst();
+            recent.addLast(pointHistory);
+        }
+    }
+}
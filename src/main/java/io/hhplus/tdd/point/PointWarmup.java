@@ -0,0 +1,101 @@
+package io.hhplus.tdd.point;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.hhplus.tdd.database.IndexedPointHistoryRepository;
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.PrimitiveUserPointRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 기동 중에 포인트 API 의 주요 경로를 미리 실행해, 첫 요청이 빈 생성과 클래스 로딩, 인터프리터 실행 비용을 치르지 않게 한다.
+ * - 실제 빈으로는 잔고/내역 조회만 한 번 실행한다. 지연 초기화를 켜도 저장소 조립은 여기서 끝난다. 쓰기는 실제 데이터를 남기므로 하지 않는다.
+ * - 충전/사용/조회는 지연 없는 메모리 저장소로 만든 별도 {@link PointService} 로 반복해 같은 코드를 JIT 컴파일 대상으로 만든다.
+ * - 응답 본문을 만드는 JSON/바이너리 직렬화도 함께 실행한다.
+ * 준비 완료(readiness) 전에 실행되므로, 준비 상태를 보고 트래픽을 넣는 환경에서는 예열이 끝난 뒤에 요청이 들어온다.
+ */
+@Component
+public class PointWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PointWarmup.class);
+    private static final int SCRATCH_USERS = 64;
+    // 실제 사용자의 내역이 많더라도 예열은 한 페이지만 읽는다.
+    private static final PointHistoryQuery PAGE = PointHistoryQuery.all().toPage();
+
+    private final PointWarmupProperties properties;
+    private final ObjectProvider<PointService> pointService;
+    private final ObjectProvider<ObjectMapper> objectMapper;
+
+    public PointWarmup(PointWarmupProperties properties, ObjectProvider<PointService> pointService,
+                       ObjectProvider<ObjectMapper> objectMapper) {
+        this.properties = properties;
+        this.pointService = pointService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (!properties.enabled()) return;
+
+        long start = System.nanoTime();
+        ObjectMapper mapper = objectMapper.getObject();
+        PointService service = pointService.getObject();
+        write(mapper, service.point(properties.userId()), service.history(properties.userId(), PAGE));
+
+        PointService scratch = scratchService();
+        for (int i = 0; i < properties.iterations(); i++) {
+            long userId = i % SCRATCH_USERS + 1;
+            scratch.charge(userId, 100L);
+            scratch.use(userId, 50L);
+            write(mapper, scratch.point(userId), scratch.history(userId, PAGE));
+        }
+        log.info("포인트 API 예열 완료 ({} 회, {} ms)", properties.iterations(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * 실제 저장소와 같은 클래스를 쓰되 테이블 지연이 없고, 예열이 끝나면 버려지는 서비스
+     */
+    private static PointService scratchService() {
+        return new PointService(
+                new PrimitiveUserPointRepository(),
+                new IndexedPointHistoryRepository(new ScratchHistorySource()),
+                new UserLockManager(new SimpleMeterRegistry()),
+                new PointMetrics(new SimpleMeterRegistry()));
+    }
+
+    private static void write(ObjectMapper mapper, UserPoint userPoint, List<PointHistory> histories) throws IOException {
+        mapper.writeValueAsBytes(userPoint);
+        mapper.writeValueAsBytes(histories);
+        PointBinaryFormat.writeUserPoint(userPoint, OutputStream.nullOutputStream());
+        PointBinaryFormat.writeHistories(histories, OutputStream.nullOutputStream());
+    }
+
+    /**
+     * id 만 부여하는 원본 저장소, 조회는 색인이 맡는다.
+     */
+    private static class ScratchHistorySource implements PointHistoryRepository {
+
+        private final AtomicLong cursor = new AtomicLong();
+
+        @Override
+        public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+            return new PointHistory(cursor.incrementAndGet(), userId, amount, type, updateMillis);
+        }
+
+        @Override
+        public List<PointHistory> selectAllByUserId(long userId) {
+            return List.of();
+        }
+    }
+}
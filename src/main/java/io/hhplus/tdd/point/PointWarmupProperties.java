@@ -0,0 +1,18 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * 기동 중 예열 설정
+ * - enabled : true 이면 준비 완료 전에 포인트 API 의 주요 경로를 미리 실행한다.
+ * - userId : 실제 저장소로 잔고/내역을 한 번 조회할 사용자 (조회만 하므로 데이터는 바뀌지 않는다)
+ * - iterations : 별도의 메모리 저장소로 충전/사용/조회를 반복할 횟수
+ */
+@ConfigurationProperties(prefix = "point.warmup")
+public record PointWarmupProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("1") long userId,
+        @DefaultValue("2000") int iterations
+) {
+}
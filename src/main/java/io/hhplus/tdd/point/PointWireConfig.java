@@ -0,0 +1,21 @@
+package io.hhplus.tdd.point;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * 포인트 API 에 바이너리 형식(application/x-point-binary)을 JSON 과 함께 제공한다.
+ * 기본 변환기 뒤에 붙이므로 Accept 가 없거나 모든 형식을 받는 요청은 그대로 JSON 으로 응답한다.
+ * 오류 응답은 JSON 으로만 쓸 수 있으므로, 바이너리를 받는 쪽은 Accept 에 application/json 도 함께 지정한다.
+ */
+@Configuration
+public class PointWireConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new PointBinaryHttpMessageConverter());
+    }
+}
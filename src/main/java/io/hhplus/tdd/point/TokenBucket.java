@@ -0,0 +1,39 @@
+package io.hhplus.tdd.point;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 잠금 없이 CAS 로만 동작하는 토큰 버킷 (GCRA)
+ * 남은 토큰 수 대신 "다음 요청이 제때 도착했다고 볼 시각" 하나만 두고, 그 시각이 지금보다 burst 만큼 넘게 앞서 있으면 거절한다.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(double ratePerSecond, int burst, long nowNanos) {
+        if (ratePerSecond <= 0) throw new IllegalArgumentException("초당 허용 요청 수는 0 보다 커야 합니다: " + ratePerSecond);
+        if (burst <= 0) throw new IllegalArgumentException("버스트 크기는 1 이상이어야 합니다: " + burst);
+
+        this.intervalNanos = Math.max(1L, (long) (1_000_000_000L / ratePerSecond));
+        this.toleranceNanos = intervalNanos * burst;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    boolean tryAcquire(long nowNanos) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long next = (arrival - nowNanos < 0 ? nowNanos : arrival) + intervalNanos;
+            if (next - nowNanos > toleranceNanos) return false;
+            if (theoreticalArrival.compareAndSet(arrival, next)) return true;
+        }
+    }
+
+    /**
+     * 토큰이 가득 찬 상태, 이 버킷을 버리고 새로 만들어도 결과가 같다.
+     */
+    boolean isFull(long nowNanos) {
+        return theoreticalArrival.get() - nowNanos <= 0;
+    }
+}
@@ -0,0 +1,126 @@
+package io.hhplus.tdd.point;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 값이 큰 사용자를 최대 capacity 명까지 담는 최소 힙
+ * - 힙에 없는 사용자는 값이 힙의 최솟값보다 클 때만 최솟값 사용자를 밀어내고 들어온다.
+ *   최솟값은 volatile 로 따로 두어, 들어올 수 없는 갱신은 잠그지 않고 걸러 낸다.
+ * - 값이 늘기만 하는 지표(거래 규모)는 정확하다. 줄 수도 있는 지표(잔고)는 힙 안의 사용자 값이 줄어든 사이
+ *   힙 밖의 사용자가 더 커질 수 있어 근사치이며, capacity 를 조회 순위보다 넉넉히 두어 오차를 줄인다.
+ */
+final class TopK {
+
+    private final int capacity;
+    private final long[] ids;
+    private final long[] values;
+    private final Map<Long, Integer> positions = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private int size;
+    private volatile long minimum = Long.MIN_VALUE;
+    private volatile int memberCount;
+
+    TopK(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("순위 후보 수는 1 이상이어야 합니다: " + capacity);
+        this.capacity = capacity;
+        this.ids = new long[capacity];
+        this.values = new long[capacity];
+    }
+
+    /**
+     * member 는 호출하는 쪽이 기억하는 힙 포함 여부로, 틀려도 잠근 뒤 다시 확인하므로 결과는 맞다.
+     * 갱신 후 힙에 들어 있으면 true 를 돌려준다.
+     */
+    boolean update(long id, long value, boolean member) {
+        if (!member && memberCount == capacity && value <= minimum) return false;
+
+        lock.lock();
+        try {
+            Integer position = positions.get(id);
+            if (position != null) {
+                long previous = values[position];
+                values[position] = value;
+                if (value < previous) siftUp(position);
+                else siftDown(position);
+            } else if (size < capacity) {
+                ids[size] = id;
+                values[size] = value;
+                positions.put(id, size);
+                siftUp(size++);
+            } else if (value > values[0]) {
+                positions.remove(ids[0]);
+                ids[0] = id;
+                values[0] = value;
+                positions.put(id, 0);
+                siftDown(0);
+            } else {
+                return false;
+            }
+            minimum = values[0];
+            memberCount = size;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 값이 큰 순서로 최대 limit 명의 사용자 id
+     */
+    List<Long> top(int limit) {
+        long[][] entries;
+        lock.lock();
+        try {
+            entries = new long[size][];
+            for (int i = 0; i < size; i++) {
+                entries[i] = new long[]{values[i], ids[i]};
+            }
+        } finally {
+            lock.unlock();
+        }
+        Arrays.sort(entries, (a, b) -> a[0] != b[0] ? Long.compare(b[0], a[0]) : Long.compare(a[1], b[1]));
+        List<Long> top = new ArrayList<>(Math.min(limit, entries.length));
+        for (int i = 0; i < entries.length && i < limit; i++) {
+            top.add(entries[i][1]);
+        }
+        return top;
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (values[parent] <= values[position]) return;
+            swap(parent, position);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int smallest = position;
+            int left = position * 2 + 1;
+            int right = left + 1;
+            if (left < size && values[left] < values[smallest]) smallest = left;
+            if (right < size && values[right] < values[smallest]) smallest = right;
+            if (smallest == position) return;
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        long id = ids[i];
+        long value = values[i];
+        ids[i] = ids[j];
+        values[i] = values[j];
+        ids[j] = id;
+        values[j] = value;
+        positions.put(ids[i], i);
+        positions.put(ids[j], j);
+    }
+}
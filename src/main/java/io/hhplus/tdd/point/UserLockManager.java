@@ -0,0 +1,73 @@
+package io.hhplus.tdd.point;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 사용자 ID 단위로 공정(fair) 락을 제공하는 락 매니저
+ * - 같은 사용자에 대한 작업은 요청 순서대로 직렬화되고, 다른 사용자끼리는 사용자 락을 두고 기다리지 않는다.
+ * - 원래 테이블은 스레드 안전하지 않아 테이블 쓰기는 테이블마다 한 건씩 진행된다. 저장소 조립에서 테이블을 사용자 id 로 나눠 두므로, 같은 테이블에 모인 사용자끼리만 테이블 쓰기를 기다린다.
+ * - 락을 점유하거나 대기 중인 스레드가 없어지면 바로 제거되므로, 보관되는 락 수는 동시에 처리 중인 사용자 수를 넘지 않는다.
+ * - 락을 얻기까지 기다린 시간(point.lock.wait)과 보관 중인 락 수(point.lock.active)를 기록한다.
+ */
+@Component
+public class UserLockManager {
+
+    private final ConcurrentHashMap<Long, UserLock> locks = new ConcurrentHashMap<>();
+    private final Timer lockWaitTimer;
+
+    public UserLockManager(MeterRegistry meterRegistry) {
+        this.lockWaitTimer = Timer.builder("point.lock.wait")
+                .description("사용자 락을 얻기까지 기다린 시간")
+                .register(meterRegistry);
+        Gauge.builder("point.lock.active", locks, ConcurrentHashMap::size)
+                .description("점유 또는 대기 중인 사용자 락 수")
+                .register(meterRegistry);
+    }
+
+    public <T> T executeWithLock(long userId, Supplier<T> action) {
+        UserLock userLock = acquire(userId);
+        long start = System.nanoTime();
+        userLock.lock.lock();
+        try {
+            // 기록 중 예외가 나더라도 락을 풀도록 try 안에서 기록한다.
+            lockWaitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return action.get();
+        } finally {
+            userLock.lock.unlock();
+            release(userId);
+        }
+    }
+
+    /**
+     * 현재 보관 중인(점유 또는 대기 중인) 락의 수
+     */
+    public int activeLockCount() {
+        return locks.size();
+    }
+
+    private UserLock acquire(long userId) {
+        // holders 는 compute 안에서만 변경되므로 같은 키에 대해 원자적으로 증감된다.
+        return locks.compute(userId, (id, existing) -> {
+            UserLock userLock = existing == null ? new UserLock() : existing;
+            userLock.holders++;
+            return userLock;
+        });
+    }
+
+    private void release(long userId) {
+        locks.computeIfPresent(userId, (id, existing) -> --existing.holders == 0 ? null : existing);
+    }
+
+    private static final class UserLock {
+        private final ReentrantLock lock = new ReentrantLock(true);
+        private int holders;
+    }
+}
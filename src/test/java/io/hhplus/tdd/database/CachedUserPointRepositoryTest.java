@@ -0,0 +1,90 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CachedUserPointRepository 단위 테스트")
+class CachedUserPointRepositoryTest {
+
+    @Mock
+    private UserPointRepository delegate;
+
+    @Test
+    @DisplayName("같은 사용자를 다시 조회하면 원본을 읽지 않고 캐시에서 돌려준다")
+    void select_hit() {
+        // given
+        CachedUserPointRepository repository = new CachedUserPointRepository(delegate, 100, Duration.ZERO);
+        UserPoint userPoint = new UserPoint(1L, 100L, 1L);
+        when(delegate.selectById(1L)).thenReturn(userPoint);
+
+        // when
+        repository.selectById(1L);
+        UserPoint result = repository.selectById(1L);
+
+        // then
+        assertThat(result).isEqualTo(userPoint);
+        verify(delegate, times(1)).selectById(1L);
+        assertThat(repository.hitCount()).isEqualTo(1L);
+        assertThat(repository.missCount()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("갱신하면 캐시도 갱신된 값으로 바뀌어 원본을 다시 읽지 않는다")
+    void insertOrUpdate_writeThrough() {
+        // given
+        CachedUserPointRepository repository = new CachedUserPointRepository(delegate, 100, Duration.ZERO);
+        UserPoint updated = new UserPoint(1L, 500L, 2L);
+        when(delegate.insertOrUpdate(1L, 500L)).thenReturn(updated);
+
+        // when
+        repository.insertOrUpdate(1L, 500L);
+        UserPoint result = repository.selectById(1L);
+
+        // then
+        assertThat(result).isEqualTo(updated);
+        verify(delegate, never()).selectById(anyLong());
+    }
+
+    @Test
+    @DisplayName("최대 크기를 넘으면 가장 오래 조회되지 않은 사용자부터 제거된다")
+    void select_evictsLeastRecentlyUsed() {
+        // given
+        CachedUserPointRepository repository = new CachedUserPointRepository(delegate, 2, Duration.ZERO);
+        when(delegate.selectById(anyLong())).thenAnswer(invocation -> UserPoint.empty(invocation.getArgument(0)));
+
+        // when
+        repository.selectById(1L);
+        repository.selectById(2L);
+        repository.selectById(3L);
+
+        // then
+        assertThat(repository.size()).isEqualTo(2L);
+        assertThat(repository.evictionCount()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("ttl 이 지난 항목은 원본에서 다시 읽는다")
+    void select_expired() throws InterruptedException {
+        // given
+        CachedUserPointRepository repository = new CachedUserPointRepository(delegate, 100, Duration.ofMillis(10));
+        when(delegate.selectById(1L)).thenReturn(UserPoint.empty(1L));
+        repository.selectById(1L);
+
+        // when
+        Thread.sleep(20);
+        repository.selectById(1L);
+
+        // then
+        verify(delegate, times(2)).selectById(1L);
+    }
+}
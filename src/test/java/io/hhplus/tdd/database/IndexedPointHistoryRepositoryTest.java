@@ -0,0 +1,229 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryCursorExpiredException;
+import io.hhplus.tdd.point.PointHistoryQuery;
+import io.hhplus.tdd.point.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("IndexedPointHistoryRepository 단위 테스트")
+class IndexedPointHistoryRepositoryTest {
+
+    private static final long DAY = Duration.ofDays(1).toMillis();
+
+    private static PointHistoryCompactor compactor(IndexedPointHistoryRepository repository, Duration hotRetention, Duration dailyRetention) {
+        PointHistoryCompactor compactor = new PointHistoryCompactor(
+                new PointHistoryCompactionProperties(false, hotRetention, dailyRetention, Duration.ofHours(1), ZoneOffset.UTC));
+        compactor.register(repository);
+        return compactor;
+    }
+
+    @Test
+    @DisplayName("사용자별 색인에서 해당 사용자의 내역만 id 순서대로 조회한다")
+    void select_fromIndex() {
+        // given
+        PointHistoryTable pointHistoryTable = new PointHistoryTable();
+        IndexedPointHistoryRepository repository = new IndexedPointHistoryRepository(new TablePointHistoryRepository(pointHistoryTable));
+        repository.insert(1L, 100L, TransactionType.CHARGE, 10L);
+        repository.insert(2L, 200L, TransactionType.CHARGE, 20L);
+        repository.insert(1L, 50L, TransactionType.USE, 30L);
+
+        // when
+        List<PointHistory> histories = repository.selectAllByUserId(1L);
+
+        // then
+        assertThat(histories).containsExactly(
+                new PointHistory(1L, 1L, 100L, TransactionType.CHARGE, 10L),
+                new PointHistory(3L, 1L, 50L, TransactionType.USE, 30L)
+        );
+        assertThat(histories).isEqualTo(pointHistoryTable.selectAllByUserId(1L));
+        assertThat(repository.selectAllByUserId(3L)).isEmpty();
+        assertThat(repository.rowCount()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("id 순서가 뒤바뀌어 들어와도 id 오름차순을 유지한다")
+    void append_outOfOrder() {
+        // given
+        UserPointHistoryColumns columns = new UserPointHistoryColumns(1L);
+
+        // when
+        for (long id : new long[]{1L, 2L, 5L, 3L, 4L, 6L, 7L, 8L, 9L, 10L}) {
+            columns.append(id, id * 10, TransactionType.CHARGE, id);
+        }
+
+        // then
+        assertThat(columns.toList()).extracting("id")
+                .containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+        assertThat(columns.toList()).extracting("amount")
+                .containsExactly(10L, 20L, 30L, 40L, 50L, 60L, 70L, 80L, 90L, 100L);
+    }
+
+    @Test
+    @DisplayName("커서, 시간 범위, 종류 조건과 건수 제한을 적용해 조회한다")
+    void select_withQuery() {
+        // given
+        IndexedPointHistoryRepository repository = new IndexedPointHistoryRepository(new TablePointHistoryRepository(new PointHistoryTable()));
+        for (int i = 1; i <= 10; i++) {
+            repository.insert(1L, i, i % 2 == 0 ? TransactionType.USE : TransactionType.CHARGE, i * 100L);
+        }
+
+        // when
+        List<PointHistory> page = repository.selectByUserId(1L, new PointHistoryQuery(2L, 300L, 1000L, TransactionType.CHARGE, 2));
+
+        // then
+        assertThat(page).extracting("id").containsExactly(3L, 5L);
+    }
+
+    @Test
+    @DisplayName("스트리밍 조회는 조각 단위로 읽어도 모든 내역을 순서대로 넘긴다")
+    void forEach_inChunks() {
+        // given
+        IndexedPointHistoryRepository repository = new IndexedPointHistoryRepository(new InMemoryRepository());
+        for (int i = 1; i <= 1_000; i++) {
+            repository.insert(1L, i, TransactionType.CHARGE, i);
+        }
+        List<Long> ids = new ArrayList<>();
+
+        // when
+        repository.forEachByUserId(1L, PointHistoryQuery.all().withAfter(10L), pointHistory -> ids.add(pointHistory.id()));
+
+        // then
+        assertThat(ids).hasSize(990);
+        assertThat(ids).isSorted();
+        assertThat(ids.get(0)).isEqualTo(11L);
+    }
+
+    @Test
+    @DisplayName("보존 기간이 지난 내역은 (일, 종류)별 요약 행으로 합치고, 최근 내역과 id 순으로 섞어 조회한다")
+    void compact_daily() {
+        // given
+        IndexedPointHistoryRepository repository = new IndexedPointHistoryRepository(new InMemoryRepository());
+        repository.insert(1L, 100L, TransactionType.CHARGE, DAY + 1_000L);
+        repository.insert(1L, 30L, TransactionType.USE, DAY + 2_000L);
+        repository.insert(1L, 50L, TransactionType.CHARGE, DAY + 3_000L);
+        repository.insert(1L, 10L, TransactionType.CHARGE, 2 * DAY + 1_000L);
+        repository.insert(1L, 5L, TransactionType.USE, 99 * DAY);
+        repository.insert(1L, 7L, TransactionType.CHARGE, 99 * DAY + 1_000L);
+        PointHistoryCompactor compactor = compactor(repository, Duration.ofDays(30), Duration.ofDays(365));
+
+        // when
+        PointHistoryCompactor.Result result = compactor.compact(100 * DAY);
+
+        // then
+        assertThat(repository.selectAllByUserId(1L)).containsExactly(
+                new PointHistory(2L, 1L, 30L, TransactionType.USE, DAY),
+                new PointHistory(3L, 1L, 150L, TransactionType.CHARGE, DAY),
+                new PointHistory(4L, 1L, 10L, TransactionType.CHARGE, 2 * DAY),
+                new PointHistory(5L, 1L, 5L, TransactionType.USE, 99 * DAY),
+                new PointHistory(6L, 1L, 7L, TransactionType.CHARGE, 99 * DAY + 1_000L)
+        );
+        assertThat(repository.selectByUserId(1L, new PointHistoryQuery(2L, null, null, TransactionType.CHARGE, null)))
+                .extracting("id").containsExactly(3L, 4L, 6L);
+        assertThat(result.users()).isEqualTo(1L);
+        assertThat(result.compactedRows()).isEqualTo(1L);
+        assertThat(repository.rowCount()).isEqualTo(5L);
+    }
+
+    @Test
+    @DisplayName("압축 전에 받은 커서가 요약 행이 합친 id 범위 안을 가리키면 거절하고, 요약 행의 id 인 커서로는 이어 조회한다")
+    void compact_staleCursor() {
+        // given
+        IndexedPointHistoryRepository repository = new IndexedPointHistoryRepository(new InMemoryRepository());
+        repository.insert(1L, 100L, TransactionType.CHARGE, DAY + 1_000L);
+        repository.insert(1L, 30L, TransactionType.USE, DAY + 2_000L);
+        repository.insert(1L, 50L, TransactionType.CHARGE, DAY + 3_000L);
+        repository.insert(1L, 7L, TransactionType.CHARGE, 99 * DAY);
+        PointHistoryCompactor compactor = compactor(repository, Duration.ofDays(30), Duration.ofDays(365));
+
+        // when
+        compactor.compact(100 * DAY);
+
+        // then
+        assertThatThrownBy(() -> repository.selectByUserId(1L, PointHistoryQuery.all().withAfter(1L)))
+                .isInstanceOf(PointHistoryCursorExpiredException.class);
+        assertThatThrownBy(() -> repository.forEachByUserId(1L, PointHistoryQuery.all().withAfter(1L), pointHistory -> {
+        })).isInstanceOf(PointHistoryCursorExpiredException.class);
+        assertThat(repository.selectByUserId(1L, PointHistoryQuery.all().withAfter(2L)))
+                .extracting("id").containsExactly(3L, 4L);
+        assertThat(repository.selectByUserId(1L, PointHistoryQuery.all().withAfter(3L)))
+                .extracting("id").containsExactly(4L);
+    }
+
+    @Test
+    @DisplayName("일 요약 행이 일 보존 기간을 지나면 월 요약 행으로 다시 합치고, 종류별 합계는 그대로이다")
+    void compact_monthly() {
+        // given
+        IndexedPointHistoryRepository repository = new IndexedPointHistoryRepository(new InMemoryRepository());
+        for (int day = 0; day < 40; day++) {
+            repository.insert(1L, 10L, TransactionType.CHARGE, day * DAY);
+        }
+        PointHistoryCompactor compactor = compactor(repository, Duration.ofDays(10), Duration.ofDays(60));
+        compactor.compact(50 * DAY);
+        assertThat(repository.selectAllByUserId(1L)).hasSize(40);
+
+        // when
+        compactor.compact(100 * DAY);
+
+        // then
+        assertThat(repository.selectAllByUserId(1L)).containsExactly(
+                new PointHistory(31L, 1L, 310L, TransactionType.CHARGE, 0L),
+                new PointHistory(40L, 1L, 90L, TransactionType.CHARGE, 31 * DAY)
+        );
+        assertThat(compactor.compactedRowCount()).isEqualTo(38L);
+    }
+
+    @Test
+    @DisplayName("많은 내역을 합치면 회수한 메모리를 보고하고, 합칠 내역이 없으면 건너뛴다. 압축 뒤의 새 내역은 최근 내역으로 쌓인다")
+    void compact_reclaim() {
+        // given
+        IndexedPointHistoryRepository repository = new IndexedPointHistoryRepository(new InMemoryRepository());
+        for (int i = 0; i < 1_000; i++) {
+            repository.insert(1L, 1L, TransactionType.CHARGE, DAY + i);
+        }
+        repository.insert(2L, 1L, TransactionType.CHARGE, 100 * DAY);
+        PointHistoryCompactor compactor = compactor(repository, Duration.ofDays(30), Duration.ofDays(365));
+
+        // when
+        PointHistoryCompactor.Result first = compactor.compact(100 * DAY);
+        PointHistoryCompactor.Result second = compactor.compact(100 * DAY);
+        repository.insert(1L, 1L, TransactionType.USE, 100 * DAY);
+
+        // then
+        assertThat(first.users()).isEqualTo(1L);
+        assertThat(first.compactedRows()).isEqualTo(999L);
+        assertThat(first.reclaimedBytes()).isPositive();
+        assertThat(compactor.reclaimedBytes()).isEqualTo(first.reclaimedBytes());
+        assertThat(second).isEqualTo(PointHistoryCompactor.Result.EMPTY);
+        assertThat(repository.selectAllByUserId(1L)).containsExactly(
+                new PointHistory(1_000L, 1L, 1_000L, TransactionType.CHARGE, DAY),
+                new PointHistory(1_002L, 1L, 1L, TransactionType.USE, 100 * DAY)
+        );
+    }
+
+    /**
+     * 테이블의 지연 없이 id 만 부여하는 원본 저장소
+     */
+    private static class InMemoryRepository implements PointHistoryRepository {
+
+        private long cursor = 1;
+
+        @Override
+        public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+            return new PointHistory(cursor++, userId, amount, type, updateMillis);
+        }
+
+        @Override
+        public List<PointHistory> selectAllByUserId(long userId) {
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryQuery;
+import io.hhplus.tdd.point.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("OffHeapPointHistoryRepository 단위 테스트")
+class OffHeapPointHistoryRepositoryTest {
+
+    @Test
+    @DisplayName("여러 조각에 걸쳐 저장해도 해당 사용자의 내역만 id 순서대로 조회한다")
+    void select_acrossChunks() {
+        // given
+        OffHeapPointHistoryRepository repository = new OffHeapPointHistoryRepository(4);
+        for (int i = 1; i <= 10; i++) {
+            repository.insert(i % 2 == 0 ? 2L : 1L, i * 10L, i % 3 == 0 ? TransactionType.USE : TransactionType.CHARGE, i);
+        }
+
+        // when
+        List<PointHistory> histories = repository.selectAllByUserId(1L);
+
+        // then
+        assertThat(histories).extracting("id").containsExactly(1L, 3L, 5L, 7L, 9L);
+        assertThat(histories.get(1)).isEqualTo(new PointHistory(3L, 1L, 30L, TransactionType.USE, 3L));
+        assertThat(repository.selectAllByUserId(3L)).isEmpty();
+        assertThat(repository.rowCount()).isEqualTo(10L);
+        assertThat(repository.userCount()).isEqualTo(2);
+        assertThat(repository.offHeapBytes()).isEqualTo(3L * 4 * 41);
+    }
+
+    @Test
+    @DisplayName("커서, 시간 범위, 종류 조건과 건수 제한을 적용해 조회한다")
+    void select_withQuery() {
+        // given
+        OffHeapPointHistoryRepository repository = new OffHeapPointHistoryRepository(4);
+        for (int i = 1; i <= 10; i++) {
+            repository.insert(1L, i, i % 2 == 0 ? TransactionType.USE : TransactionType.CHARGE, i * 100L);
+        }
+        List<Long> ids = new ArrayList<>();
+
+        // when
+        List<PointHistory> page = repository.selectByUserId(1L, new PointHistoryQuery(2L, 300L, 1000L, TransactionType.CHARGE, 2));
+        repository.forEachByUserId(1L, PointHistoryQuery.all().withAfter(7L), pointHistory -> ids.add(pointHistory.id()));
+
+        // then
+        assertThat(page).extracting("id").containsExactly(3L, 5L);
+        assertThat(ids).containsExactly(8L, 9L, 10L);
+    }
+}
@@ -0,0 +1,201 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.database.persistence.FsyncPolicy;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("PersistentPointStore 복구 테스트")
+class PersistentPointStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("닫지 않고 다시 열어도 로그를 다시 적용해 잔고와 내역을 복구한다")
+    void recover_fromLog() throws Exception {
+        // given
+        PersistentPointStore store = new PersistentPointStore(properties(FsyncPolicy.BATCHED));
+        store.pointHistoryRepository().insert(1L, 100L, TransactionType.CHARGE, 10L);
+        store.pointHistoryRepository().insert(1L, 30L, TransactionType.USE, 20L);
+        store.userPointRepository().insertOrUpdate(1L, 70L);
+
+        // when
+        PersistentPointStore recovered = new PersistentPointStore(properties(FsyncPolicy.BATCHED));
+
+        // then
+        assertThat(recovered.userPointRepository().selectById(1L).point()).isEqualTo(70L);
+        assertThat(recovered.pointHistoryRepository().selectAllByUserId(1L)).containsExactly(
+                new PointHistory(1L, 1L, 100L, TransactionType.CHARGE, 10L),
+                new PointHistory(2L, 1L, 30L, TransactionType.USE, 20L)
+        );
+        recovered.close();
+        store.close();
+    }
+
+    @Test
+    @DisplayName("스냅샷 이후의 변경은 로그에서 이어 적용하고, 내역 id 는 마지막 id 다음부터 부여한다")
+    void recover_fromSnapshotAndLog() throws Exception {
+        // given
+        PersistentPointStore store = new PersistentPointStore(properties(FsyncPolicy.PER_OP));
+        for (long userId = 1; userId <= 100; userId++) {
+            store.pointHistoryRepository().insert(userId, userId, TransactionType.CHARGE, userId);
+            store.userPointRepository().insertOrUpdate(userId, userId);
+        }
+        store.snapshot();
+        store.userPointRepository().insertOrUpdate(1L, 500L);
+        store.close();
+
+        // when
+        PersistentPointStore recovered = new PersistentPointStore(properties(FsyncPolicy.PER_OP));
+        PointHistory inserted = recovered.pointHistoryRepository().insert(1L, 10L, TransactionType.USE, 1000L);
+
+        // then
+        assertThat(recovered.userPointRepository().selectById(1L).point()).isEqualTo(500L);
+        assertThat(recovered.userPointRepository().selectById(100L).point()).isEqualTo(100L);
+        assertThat(inserted.id()).isEqualTo(101L);
+        recovered.close();
+    }
+
+    @Test
+    @DisplayName("중간에 잘린 마지막 기록은 버리고 그 앞까지만 복구한다")
+    void recover_ignoresTornRecord() throws Exception {
+        // given
+        PersistentPointStore store = new PersistentPointStore(properties(FsyncPolicy.OS));
+        store.userPointRepository().insertOrUpdate(1L, 100L);
+        store.userPointRepository().insertOrUpdate(1L, 200L);
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(path -> path.getFileName().toString().startsWith("wal-")).findFirst().orElseThrow();
+        }
+        // 두 번째 기록의 내용 일부를 망가뜨려 체크섬이 맞지 않게 한다.
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(33 + 8 + 10);
+            file.write(0x7F);
+        }
+
+        // when
+        PersistentPointStore recovered = new PersistentPointStore(properties(FsyncPolicy.OS));
+
+        // then
+        assertThat(recovered.userPointRepository().selectById(1L).point()).isEqualTo(100L);
+        assertThat(recovered.pointHistoryRepository().selectAllByUserId(1L)).isEqualTo(List.of());
+        recovered.close();
+        store.close();
+    }
+
+    @Test
+    @DisplayName("한 번의 변경으로 묶은 내역과 잔고는 하나의 기록으로 남아 함께 복구되고, 실패하면 둘 다 남지 않는다")
+    void writeAtomically_recoversTogether() throws Exception {
+        // given
+        PersistentPointStore store = new PersistentPointStore(properties(FsyncPolicy.OS));
+        store.userPointRepository().writeAtomically(1L, () -> {
+            store.pointHistoryRepository().insert(1L, 100L, TransactionType.CHARGE, 10L);
+            return store.userPointRepository().insertOrUpdate(1L, 100L);
+        });
+        assertThatThrownBy(() -> store.userPointRepository().writeAtomically(1L, () -> {
+            store.pointHistoryRepository().insert(1L, 30L, TransactionType.USE, 20L);
+            throw new IllegalStateException("잔고를 쓰기 전에 실패");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // when
+        PersistentPointStore recovered = new PersistentPointStore(properties(FsyncPolicy.OS));
+
+        // then
+        assertThat(store.pointHistoryRepository().selectAllByUserId(1L)).hasSize(1);
+        assertThat(recovered.userPointRepository().selectById(1L).point()).isEqualTo(100L);
+        assertThat(recovered.pointHistoryRepository().selectAllByUserId(1L)).containsExactly(
+                new PointHistory(1L, 1L, 100L, TransactionType.CHARGE, 10L)
+        );
+        recovered.close();
+        store.close();
+    }
+
+    @Test
+    @DisplayName("낙관적 갱신을 동시에 해도 묶인 쓰기가 반영된 뒤에 다음 갱신이 읽으므로 갱신을 잃지 않고 함께 복구된다")
+    void optimisticUpdate_concurrently() throws Exception {
+        // given
+        PersistentPointStore store = new PersistentPointStore(properties(FsyncPolicy.OS));
+        VersionedUserPointRepository versioned = new VersionedUserPointRepository(store.userPointRepository(),
+                Integer.MAX_VALUE, Duration.ofNanos(1_000), Duration.ofMillis(1), Duration.ofSeconds(5));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // when
+        Future<?>[] futures = new Future<?>[4];
+        for (int t = 0; t < 4; t++) {
+            futures[t] = executor.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    versioned.update(1L, point -> point + 1,
+                            () -> store.pointHistoryRepository().insert(1L, 1L, TransactionType.CHARGE, System.currentTimeMillis()));
+                }
+            });
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        PersistentPointStore recovered = new PersistentPointStore(properties(FsyncPolicy.OS));
+
+        // then
+        assertThat(versioned.selectPoint(1L)).isEqualTo(2_000L);
+        assertThat(store.pointHistoryRepository().selectAllByUserId(1L)).hasSize(2_000);
+        assertThat(recovered.userPointRepository().selectById(1L).point()).isEqualTo(2_000L);
+        assertThat(recovered.pointHistoryRepository().selectAllByUserId(1L)).hasSize(2_000);
+        recovered.close();
+        store.close();
+    }
+
+    @Test
+    @DisplayName("앞쪽 세그먼트에서 손상된 기록을 만나면 뒤쪽 세그먼트의 기록도 적용하지 않는다")
+    void recover_stopsAtCorruptSegment() throws Exception {
+        // given
+        // 기록 하나(33 바이트)만 들어가는 크기로 잡아 기록마다 세그먼트가 나뉘게 한다.
+        PersistentPointStore store = new PersistentPointStore(properties(FsyncPolicy.OS, DataSize.ofBytes(48)));
+        store.userPointRepository().insertOrUpdate(1L, 100L);
+        store.userPointRepository().insertOrUpdate(1L, 200L);
+        store.userPointRepository().insertOrUpdate(1L, 300L);
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files.filter(path -> path.getFileName().toString().startsWith("wal-")).sorted().toList();
+        }
+        assertThat(segments).hasSize(3);
+        try (RandomAccessFile file = new RandomAccessFile(segments.get(1).toFile(), "rw")) {
+            file.seek(8 + 10);
+            file.write(0x7F);
+        }
+
+        // when
+        PersistentPointStore recovered = new PersistentPointStore(properties(FsyncPolicy.OS, DataSize.ofBytes(48)));
+
+        // then
+        assertThat(recovered.userPointRepository().selectById(1L).point()).isEqualTo(100L);
+        assertThat(Files.exists(segments.get(2))).isFalse();
+        recovered.close();
+        store.close();
+    }
+
+    private PointPersistenceProperties properties(FsyncPolicy fsyncPolicy) {
+        return properties(fsyncPolicy, DataSize.ofMegabytes(1));
+    }
+
+    private PointPersistenceProperties properties(FsyncPolicy fsyncPolicy, DataSize segmentSize) {
+        return new PointPersistenceProperties(true, directory.toString(), fsyncPolicy, Duration.ZERO,
+                segmentSize, Duration.ZERO);
+    }
+}
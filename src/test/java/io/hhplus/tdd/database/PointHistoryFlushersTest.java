@@ -0,0 +1,91 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.TddApplication;
+import io.hhplus.tdd.point.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("PointHistoryFlushers 종료 테스트")
+class PointHistoryFlushersTest {
+
+    @Test
+    @DisplayName("컨텍스트를 닫으면 다른 저장소에 감싸인 쓰기 버퍼도 남은 내역을 모두 테이블에 반영한다")
+    void contextClose_flushesWrappedWriteBehind() {
+        // given
+        // 빈으로 등록된 테이블에서 확인하도록 테이블을 나누지 않는다.
+        ConfigurableApplicationContext context = run("--point.history.write-behind=true", "--point.table.stripes=1");
+        PointHistoryRepository repository = context.getBean(PointHistoryRepository.class);
+        PointHistoryFlushers flushers = context.getBean(PointHistoryFlushers.class);
+        PointHistoryTable pointHistoryTable = context.getBean(PointHistoryTable.class);
+        for (int i = 1; i <= 5; i++) {
+            repository.insert(1L, i, TransactionType.CHARGE, i);
+        }
+
+        // when
+        context.close();
+
+        // then
+        assertThat(repository).isNotInstanceOf(WriteBehindPointHistoryRepository.class);
+        assertThat(flushers.pendingCount()).isZero();
+        assertThat(pointHistoryTable.selectAllByUserId(1L)).extracting("amount").containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(flusherThreadsAlive()).isZero();
+    }
+
+    @Test
+    @DisplayName("테이블을 사용자 id 로 나누면 나눈 테이블마다 만든 쓰기 버퍼가 모두 닫힌다")
+    void contextClose_flushesStripeWriteBehinds() {
+        // given
+        ConfigurableApplicationContext context = run("--point.history.write-behind=true", "--point.table.stripes=4");
+        PointHistoryRepository repository = context.getBean(PointHistoryRepository.class);
+        PointHistoryFlushers flushers = context.getBean(PointHistoryFlushers.class);
+        for (long userId = 1; userId <= 20; userId++) {
+            repository.insert(userId, 100L, TransactionType.CHARGE, userId);
+        }
+
+        // when
+        context.close();
+
+        // then
+        assertThat(flushers.pendingCount()).isZero();
+        assertThat(flusherThreadsAlive()).isZero();
+        for (long userId = 1; userId <= 20; userId++) {
+            assertThat(repository.selectAllByUserId(userId)).extracting("amount").containsExactly(100L);
+        }
+    }
+
+    @Test
+    @DisplayName("샤딩을 켜도 컨텍스트를 닫으면 샤드마다 만든 쓰기 버퍼가 모두 닫힌다")
+    void contextClose_flushesShardWriteBehinds() {
+        // given
+        ConfigurableApplicationContext context = run("--point.history.write-behind=true", "--point.shard.enabled=true", "--point.shard.count=4");
+        PointHistoryRepository repository = context.getBean(PointHistoryRepository.class);
+        PointHistoryFlushers flushers = context.getBean(PointHistoryFlushers.class);
+        for (long userId = 1; userId <= 20; userId++) {
+            repository.insert(userId, 100L, TransactionType.CHARGE, userId);
+        }
+
+        // when
+        context.close();
+
+        // then
+        assertThat(flushers.pendingCount()).isZero();
+        assertThat(flusherThreadsAlive()).isZero();
+    }
+
+    private ConfigurableApplicationContext run(String... args) {
+        return new SpringApplicationBuilder(TddApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args);
+    }
+
+    private long flusherThreadsAlive() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("point-history-flusher") && thread.isAlive())
+                .count();
+    }
+}
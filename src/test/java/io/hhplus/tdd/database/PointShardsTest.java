@@ -0,0 +1,107 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryQuery;
+import io.hhplus.tdd.point.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("PointShards 단위 테스트")
+class PointShardsTest {
+
+    private static PointShards shards(int count) {
+        UserPointRepository[] balances = new UserPointRepository[count];
+        PointHistoryRepository[] histories = new PointHistoryRepository[count];
+        for (int i = 0; i < count; i++) {
+            balances[i] = new PrimitiveUserPointRepository();
+            histories[i] = new OffHeapPointHistoryRepository(1024);
+        }
+        return new PointShards(64, balances, histories);
+    }
+
+    @Test
+    @DisplayName("사용자를 모든 샤드에 나누고, 내역 id 는 샤드끼리 겹치지 않으며 사용자별로 오름차순이다")
+    void insert_routing() {
+        // given
+        PointShards shards = shards(4);
+        PointHistoryRepository histories = shards.pointHistoryRepository();
+
+        // when
+        Set<Long> ids = new HashSet<>();
+        Set<Integer> usedShards = new HashSet<>();
+        for (long userId = 1; userId <= 100; userId++) {
+            ids.add(histories.insert(userId, 10L, TransactionType.CHARGE, 1L).id());
+            ids.add(histories.insert(userId, 5L, TransactionType.USE, 2L).id());
+            usedShards.add(shards.shardOf(userId));
+        }
+
+        // then
+        assertThat(ids).hasSize(200);
+        assertThat(usedShards).hasSize(4);
+        List<PointHistory> result = histories.selectAllByUserId(7L);
+        assertThat(result).extracting(PointHistory::amount).containsExactly(10L, 5L);
+        assertThat(result.get(0).id()).isLessThan(result.get(1).id());
+        assertThat(histories.selectByUserId(7L, PointHistoryQuery.all().withAfter(result.get(0).id())))
+                .containsExactly(result.get(1));
+    }
+
+    @Test
+    @DisplayName("가상 노드 수보다 작은 연속된 사용자 id 도 한 샤드에 몰리지 않고 고르게 나뉜다")
+    void shardOf_smallIds() {
+        // given
+        PointShards shards = shards(8);
+        int[] users = new int[8];
+
+        // when
+        for (long userId = 1; userId <= 64; userId++) {
+            users[shards.shardOf(userId)]++;
+        }
+
+        // then
+        assertThat(users).allSatisfy(count -> assertThat(count).isBetween(1, 24));
+    }
+
+    @Test
+    @DisplayName("사용자를 옮기면 잔고와 내역을 대상 샤드에서 읽고, 되돌아와도 옛 행을 다시 읽지 않는다")
+    void move() {
+        // given
+        PointShards shards = shards(4);
+        shards.pointHistoryRepository().insert(1L, 100L, TransactionType.CHARGE, 1L);
+        shards.userPointRepository().insertOrUpdate(1L, 100L);
+        int home = shards.shardOf(1L);
+        int target = (home + 1) % 4;
+
+        // when
+        int moved = shards.move(1L, target);
+        shards.pointHistoryRepository().insert(1L, 30L, TransactionType.USE, 2L);
+        shards.userPointRepository().insertOrUpdate(1L, 70L);
+        int movedBack = shards.move(1L, home);
+
+        // then
+        assertThat(moved).isEqualTo(1);
+        assertThat(movedBack).isEqualTo(2);
+        assertThat(shards.shardOf(1L)).isEqualTo(home);
+        assertThat(shards.userPointRepository().selectPoint(1L)).isEqualTo(70L);
+        assertThat(shards.pointHistoryRepository().selectAllByUserId(1L))
+                .extracting(PointHistory::amount)
+                .containsExactly(100L, 30L);
+        assertThat(shards.movedRowCount()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("없는 샤드로는 옮길 수 없다")
+    void move_invalidShard() {
+        // given
+        PointShards shards = shards(2);
+
+        // when & then
+        assertThatThrownBy(() -> shards.move(1L, 2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
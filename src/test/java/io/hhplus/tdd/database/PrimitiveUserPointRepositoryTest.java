@@ -0,0 +1,49 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("PrimitiveUserPointRepository 단위 테스트")
+class PrimitiveUserPointRepositoryTest {
+
+    @Test
+    @DisplayName("저장한 잔고를 조회하고, 없는 사용자는 0 포인트를 돌려준다")
+    void select() {
+        // given
+        PrimitiveUserPointRepository repository = new PrimitiveUserPointRepository();
+        UserPoint saved = repository.insertOrUpdate(1L, 100L);
+
+        // when
+        UserPoint result = repository.selectById(1L);
+
+        // then
+        assertThat(result).isEqualTo(saved);
+        assertThat(repository.selectPoint(1L)).isEqualTo(100L);
+        assertThat(repository.selectById(2L).point()).isZero();
+        assertThat(repository.selectPoint(2L)).isZero();
+    }
+
+    @Test
+    @DisplayName("세그먼트 용량을 넘게 저장해도 모든 사용자의 잔고를 유지한다")
+    void insertOrUpdate_grow() {
+        // given
+        PrimitiveUserPointRepository repository = new PrimitiveUserPointRepository();
+
+        // when
+        for (long id = 0; id < 100_000; id++) {
+            repository.insertOrUpdate(id, id * 10);
+        }
+        repository.insertOrUpdate(-1L, 5L);
+        repository.insertOrUpdate(7L, 1L);
+
+        // then
+        assertThat(repository.size()).isEqualTo(100_001L);
+        assertThat(repository.selectPoint(0L)).isZero();
+        assertThat(repository.selectPoint(99_999L)).isEqualTo(999_990L);
+        assertThat(repository.selectPoint(-1L)).isEqualTo(5L);
+        assertThat(repository.selectPoint(7L)).isEqualTo(1L);
+    }
+}
@@ -0,0 +1,113 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("SingleFlightUserPointRepository 단위 테스트")
+class SingleFlightUserPointRepositoryTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(16);
+    private final BlockingRepository delegate = new BlockingRepository();
+    private final SingleFlightUserPointRepository repository = new SingleFlightUserPointRepository(delegate);
+
+    @AfterEach
+    void tearDown() {
+        delegate.release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("같은 사용자를 동시에 조회하면 원본은 한 번만 조회하고 모두 같은 결과를 받는다")
+    void select_coalesced() throws Exception {
+        // given
+        int readers = 16;
+        delegate.insertOrUpdate(1L, 100L);
+        List<Future<UserPoint>> results = new ArrayList<>();
+
+        // when
+        results.add(executor.submit(() -> repository.selectById(1L)));
+        assertThat(delegate.entered.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 1; i < readers; i++) {
+            results.add(executor.submit(() -> repository.selectById(1L)));
+        }
+        waitUntilShared(readers - 1);
+        delegate.release.countDown();
+
+        // then
+        for (Future<UserPoint> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS).point()).isEqualTo(100L);
+        }
+        assertThat(delegate.selectCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("갱신이 끝난 뒤 시작한 조회는 갱신 전에 시작된 조회에 합류하지 않고 새 값을 읽는다")
+    void select_afterWrite() throws Exception {
+        // given
+        delegate.insertOrUpdate(1L, 100L);
+        Future<UserPoint> before = executor.submit(() -> repository.selectById(1L));
+        assertThat(delegate.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // when
+        repository.insertOrUpdate(1L, 200L);
+        Future<UserPoint> after = executor.submit(() -> repository.selectById(1L));
+        delegate.release.countDown();
+
+        // then
+        assertThat(after.get(5, TimeUnit.SECONDS).point()).isEqualTo(200L);
+        assertThat(before.get(5, TimeUnit.SECONDS).point()).isEqualTo(100L);
+        assertThat(delegate.selectCount.get()).isEqualTo(2);
+        assertThat(repository.sharedCount()).isZero();
+    }
+
+    private void waitUntilShared(long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (repository.sharedCount() < count) {
+            if (System.nanoTime() > deadline) fail("조회가 합쳐지지 않았습니다: " + repository.sharedCount());
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * 첫 조회가 release 될 때까지 원본 조회를 붙잡아 두는 저장소, 조회를 시작한 시점의 값을 돌려준다.
+     */
+    private static class BlockingRepository implements UserPointRepository {
+
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger selectCount = new AtomicInteger();
+        private volatile UserPoint current;
+
+        @Override
+        public UserPoint selectById(long id) {
+            UserPoint snapshot = current;
+            selectCount.incrementAndGet();
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return snapshot;
+        }
+
+        @Override
+        public UserPoint insertOrUpdate(long id, long amount) {
+            current = new UserPoint(id, amount, System.currentTimeMillis());
+            return current;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointConflictException;
+import io.hhplus.tdd.point.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("VersionedUserPointRepository 단위 테스트")
+class VersionedUserPointRepositoryTest {
+
+    private static VersionedUserPointRepository repository(int maxAttempts) {
+        return repository(maxAttempts, Duration.ofSeconds(5));
+    }
+
+    private static VersionedUserPointRepository repository(int maxAttempts, Duration maxWait) {
+        return new VersionedUserPointRepository(new PrimitiveUserPointRepository(), maxAttempts, Duration.ofNanos(1000), Duration.ofMillis(1), maxWait);
+    }
+
+    @Test
+    @DisplayName("읽은 뒤 다른 쓰기가 있었으면 조건부 쓰기는 실패하고, 다시 읽은 버전으로는 성공한다")
+    void compareAndSet() {
+        // given
+        VersionedUserPointRepository repository = repository(1);
+        VersionedUserPointRepository.VersionedPoint read = repository.selectVersioned(1L);
+        repository.insertOrUpdate(1L, 100L);
+
+        // when
+        boolean stale = repository.compareAndSet(1L, read.version(), 50L, null) != null;
+        VersionedUserPointRepository.VersionedPoint reread = repository.selectVersioned(1L);
+        boolean fresh = repository.compareAndSet(1L, reread.version(), 150L, null) != null;
+
+        // then
+        assertThat(stale).isFalse();
+        assertThat(reread.point()).isEqualTo(100L);
+        assertThat(fresh).isTrue();
+        assertThat(repository.selectPoint(1L)).isEqualTo(150L);
+    }
+
+    @Test
+    @DisplayName("겹친 갱신은 다시 읽어 계산하고, 최대 횟수만큼 모두 겹치면 실패한다")
+    void update_conflict() {
+        // given
+        VersionedUserPointRepository retrying = repository(2);
+        VersionedUserPointRepository giving = repository(1);
+        int[] calls = {0};
+
+        // when
+        retrying.update(1L, point -> {
+            // 처음 계산하는 동안 다른 쓰기가 끼어든다.
+            if (calls[0]++ == 0) retrying.insertOrUpdate(1L, 100L);
+            return point + 10;
+        }, null);
+
+        // then
+        assertThat(calls[0]).isEqualTo(2);
+        assertThat(retrying.selectPoint(1L)).isEqualTo(110L);
+        assertThat(retrying.conflictCount()).isEqualTo(1L);
+        assertThatThrownBy(() -> giving.update(1L, point -> {
+            giving.insertOrUpdate(1L, 100L);
+            return point + 10;
+        }, null)).isInstanceOf(PointConflictException.class);
+        assertThat(giving.exhaustedCount()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("같은 사용자를 동시에 갱신해도 모든 갱신과 내역이 한 번씩 반영된다")
+    void update_concurrently() throws Exception {
+        // given
+        VersionedUserPointRepository repository = repository(Integer.MAX_VALUE);
+        PointHistoryRepository histories = new OffHeapPointHistoryRepository(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // when
+        Future<?>[] futures = new Future<?>[4];
+        for (int t = 0; t < 4; t++) {
+            futures[t] = executor.submit(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    repository.update(1L, point -> point + 1,
+                            () -> histories.insert(1L, 1L, TransactionType.CHARGE, System.currentTimeMillis()));
+                }
+            });
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // then
+        assertThat(repository.selectPoint(1L)).isEqualTo(4_000L);
+        assertThat(histories.selectAllByUserId(1L)).hasSize(4_000);
+    }
+
+    @Test
+    @DisplayName("다른 갱신이 쓰는 동안에는 시도 횟수를 쓰지 않고 기다렸다가 반영한다")
+    void update_waitsForSlowWrite() throws Exception {
+        // given
+        VersionedUserPointRepository repository = repository(1);
+        CountDownLatch writing = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> slow = executor.submit(() -> repository.update(1L, point -> point + 100, () -> {
+            writing.countDown();
+            sleep(300);
+        }));
+        writing.await();
+
+        // when
+        repository.update(1L, point -> point + 10, null);
+        slow.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // then
+        assertThat(repository.selectPoint(1L)).isEqualTo(110L);
+        assertThat(repository.exhaustedCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("다른 갱신의 쓰기가 기다릴 수 있는 시간보다 오래 걸리면 409 로 포기하고 잔고를 바꾸지 않는다")
+    void update_waitTimesOut() throws Exception {
+        // given
+        VersionedUserPointRepository repository = repository(10, Duration.ofMillis(50));
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> slow = executor.submit(() -> repository.update(1L, point -> point + 100, () -> {
+            writing.countDown();
+            await(release);
+        }));
+        writing.await();
+
+        // when & then
+        assertThatThrownBy(() -> repository.update(1L, point -> point + 10, null))
+                .isInstanceOf(PointConflictException.class);
+        assertThatThrownBy(() -> repository.insertOrUpdate(1L, 10L))
+                .isInstanceOf(PointConflictException.class);
+        release.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+        assertThat(repository.selectPoint(1L)).isEqualTo(100L);
+        assertThat(repository.exhaustedCount()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("갱신이 끝난 사용자의 자리는 제거되고, 제거 전에 읽은 버전으로는 그 뒤 쓰기가 있었으면 쓰지 못한다")
+    void idleSlot_evicted() {
+        // given
+        VersionedUserPointRepository repository = repository(1);
+        VersionedUserPointRepository.VersionedPoint read = repository.selectVersioned(1L);
+        repository.update(1L, point -> point + 100, null);
+        repository.update(2L, point -> point + 100, null);
+
+        // when
+        boolean stale = repository.compareAndSet(1L, read.version(), 50L, null) != null;
+
+        // then
+        assertThat(stale).isFalse();
+        assertThat(repository.selectPoint(1L)).isEqualTo(100L);
+        assertThat(repository.activeSlotCount()).isZero();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package io.hhplus.tdd.database;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("WriteBehindPointHistoryRepository 단위 테스트")
+class WriteBehindPointHistoryRepositoryTest {
+
+    private PointHistoryTable pointHistoryTable;
+    private WriteBehindPointHistoryRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        pointHistoryTable = new PointHistoryTable();
+        repository = new WriteBehindPointHistoryRepository(new TablePointHistoryRepository(pointHistoryTable), 16);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        repository.close();
+    }
+
+    @Test
+    @DisplayName("insert 직후 조회해도 아직 반영되지 않은 내역까지 순서대로 조회된다")
+    void select_readYourWrites() {
+        // when
+        for (int i = 1; i <= 5; i++) {
+            repository.insert(1L, i * 100L, TransactionType.CHARGE, i);
+            repository.insert(2L, i, TransactionType.USE, i);
+        }
+        List<PointHistory> histories = repository.selectAllByUserId(1L);
+
+        // then
+        assertThat(histories).extracting("amount").containsExactly(100L, 200L, 300L, 400L, 500L);
+        assertThat(histories).extracting("id").containsExactly(1L, 3L, 5L, 7L, 9L);
+    }
+
+    @Test
+    @DisplayName("close 하면 버퍼에 남은 내역이 모두 테이블에 같은 id 로 반영된다")
+    void close_flushesPending() throws InterruptedException {
+        // given
+        for (int i = 1; i <= 5; i++) {
+            repository.insert(1L, i, TransactionType.CHARGE, i);
+        }
+
+        // when
+        repository.close();
+
+        // then
+        assertThat(repository.pendingCount()).isZero();
+        assertThat(pointHistoryTable.selectAllByUserId(1L)).extracting("id").containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThatThrownBy(() -> repository.insert(1L, 1L, TransactionType.CHARGE, 1L))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("반영이 실패하면 내역을 버리지 않고 다시 시도하며, 그동안 새 내역은 바로 거절한다")
+    void insert_retriesFailingInserts() throws InterruptedException {
+        // given
+        AtomicBoolean down = new AtomicBoolean(true);
+        TablePointHistoryRepository table = new TablePointHistoryRepository(pointHistoryTable);
+        WriteBehindPointHistoryRepository failing = new WriteBehindPointHistoryRepository(new PointHistoryRepository() {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                if (down.get()) throw new IllegalStateException("저장소 장애");
+                return table.insert(userId, amount, type, updateMillis);
+            }
+
+            @Override
+            public List<PointHistory> selectAllByUserId(long userId) {
+                return table.selectAllByUserId(userId);
+            }
+        }, 16);
+        for (int i = 1; i <= 3; i++) {
+            failing.insert(1L, i, TransactionType.CHARGE, i);
+        }
+        awaitRetry(failing);
+
+        // when
+        assertThatThrownBy(() -> failing.insert(1L, 4L, TransactionType.CHARGE, 4L))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(failing.pendingCount()).isEqualTo(3);
+        down.set(false);
+        failing.close();
+
+        // then
+        assertThat(failing.pendingCount()).isZero();
+        assertThat(pointHistoryTable.selectAllByUserId(1L)).extracting("id").containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    @DisplayName("저장된 id 가 미리 부여한 id 와 다르면 반영을 멈추고 이후 insert 와 close 에서 예외를 던진다")
+    void flush_failsOnIdMismatch() throws InterruptedException {
+        // given
+        WriteBehindPointHistoryRepository mismatched = new WriteBehindPointHistoryRepository(new PointHistoryRepository() {
+            @Override
+            public PointHistory insert(long userId, long amount, TransactionType type, long updateMillis) {
+                return new PointHistory(100L, userId, amount, type, updateMillis);
+            }
+
+            @Override
+            public List<PointHistory> selectAllByUserId(long userId) {
+                return List.of();
+            }
+        }, 16);
+        mismatched.insert(1L, 1L, TransactionType.CHARGE, 1L);
+
+        // when, then
+        assertThatThrownBy(mismatched::close).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> mismatched.insert(1L, 2L, TransactionType.CHARGE, 2L))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private void awaitRetry(WriteBehindPointHistoryRepository repository) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (repository.retryCount() == 0 && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertThat(repository.retryCount()).isPositive();
+    }
+}
@@ -0,0 +1,135 @@
+package io.hhplus.tdd.point;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("IdempotencyStore 단위 테스트")
+class IdempotencyStoreTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("같은 키로 다시 요청하면 명령을 실행하지 않고 처음 결과를 돌려준다")
+    void execute_repeat() {
+        // given
+        IdempotencyStore store = new IdempotencyStore(new IdempotencyProperties(100, Duration.ofMinutes(10)), meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+        UserPoint userPoint = new UserPoint(1L, 100L, 1L);
+
+        // when
+        UserPoint first = store.execute("key", 1L, TransactionType.CHARGE, 100L, () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(userPoint);
+        }).join();
+        UserPoint second = store.execute("key", 1L, TransactionType.CHARGE, 100L, () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(new UserPoint(1L, 200L, 2L));
+        }).join();
+
+        // then
+        assertThat(first).isEqualTo(userPoint);
+        assertThat(second).isEqualTo(userPoint);
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(meterRegistry.get("point.idempotency.requests").tag("result", "hit").functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("처리 중인 요청과 같은 키의 요청은 같은 결과를 함께 기다린다")
+    void execute_inFlight() {
+        // given
+        IdempotencyStore store = new IdempotencyStore(new IdempotencyProperties(100, Duration.ofMinutes(10)), meterRegistry);
+        CompletableFuture<UserPoint> pending = new CompletableFuture<>();
+        CompletableFuture<UserPoint> first = store.execute("key", 1L, TransactionType.USE, 10L, () -> pending);
+
+        // when
+        CompletableFuture<UserPoint> second = store.execute("key", 1L, TransactionType.USE, 10L,
+                () -> { throw new AssertionError("다시 실행되면 안 됩니다."); });
+        pending.complete(new UserPoint(1L, 90L, 1L));
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(second.join().point()).isEqualTo(90L);
+    }
+
+    @Test
+    @DisplayName("실패한 요청은 기억하지 않아 같은 키로 다시 실행할 수 있다")
+    void execute_retryAfterFailure() {
+        // given
+        IdempotencyStore store = new IdempotencyStore(new IdempotencyProperties(100, Duration.ofMinutes(10)), meterRegistry);
+        CompletableFuture<UserPoint> failed = store.execute("key", 1L, TransactionType.USE, 10L,
+                () -> CompletableFuture.failedFuture(new InsufficientPointException()));
+
+        // when
+        UserPoint result = store.execute("key", 1L, TransactionType.USE, 10L,
+                () -> CompletableFuture.completedFuture(new UserPoint(1L, 0L, 1L))).join();
+
+        // then
+        assertThat(failed.isCompletedExceptionally()).isTrue();
+        assertThat(result.point()).isEqualTo(0L);
+    }
+
+    @Test
+    @DisplayName("같은 키로 금액이 다른 요청을 보내면 예외가 발생한다")
+    void execute_conflict() {
+        // given
+        IdempotencyStore store = new IdempotencyStore(new IdempotencyProperties(100, Duration.ofMinutes(10)), meterRegistry);
+        store.execute("key", 1L, TransactionType.CHARGE, 100L, () -> CompletableFuture.completedFuture(UserPoint.empty(1L)));
+
+        // when & then
+        assertThatThrownBy(() -> store.execute("key", 1L, TransactionType.CHARGE, 200L,
+                () -> CompletableFuture.completedFuture(UserPoint.empty(1L))))
+                .isInstanceOf(IdempotencyKeyConflictException.class);
+    }
+
+    @Test
+    @DisplayName("ttl 이 지난 키는 잊어버려 다시 실행한다")
+    void execute_expired() throws InterruptedException {
+        // given
+        IdempotencyStore store = new IdempotencyStore(new IdempotencyProperties(100, Duration.ofMillis(10)), meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+        store.execute("key", 1L, TransactionType.CHARGE, 100L, () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(UserPoint.empty(1L));
+        });
+
+        // when
+        Thread.sleep(20);
+        store.execute("key", 1L, TransactionType.CHARGE, 100L, () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(UserPoint.empty(1L));
+        });
+
+        // then
+        assertThat(calls.get()).isEqualTo(2);
+        assertThat(store.size()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("크기를 넘거나 ttl 이 지나도 실행 중인 요청의 키는 지우지 않아, 같은 키로 다시 보내도 한 번만 실행된다")
+    void execute_inFlightNotEvicted() throws InterruptedException {
+        // given
+        IdempotencyStore store = new IdempotencyStore(new IdempotencyProperties(1, Duration.ofMillis(10)), meterRegistry);
+        CompletableFuture<UserPoint> pending = new CompletableFuture<>();
+        CompletableFuture<UserPoint> first = store.execute("a", 1L, TransactionType.CHARGE, 100L, () -> pending);
+        Thread.sleep(20);
+        store.execute("b", 2L, TransactionType.CHARGE, 100L, () -> CompletableFuture.completedFuture(UserPoint.empty(2L)));
+
+        // when
+        CompletableFuture<UserPoint> retried = store.execute("a", 1L, TransactionType.CHARGE, 100L,
+                () -> { throw new AssertionError("다시 실행되면 안 됩니다."); });
+        pending.complete(new UserPoint(1L, 100L, 1L));
+        store.execute("c", 3L, TransactionType.CHARGE, 100L, () -> CompletableFuture.completedFuture(UserPoint.empty(3L)));
+
+        // then
+        assertThat(retried).isSameAs(first);
+        assertThat(retried.join().point()).isEqualTo(100L);
+        assertThat(store.size()).isEqualTo(1L);
+    }
+}
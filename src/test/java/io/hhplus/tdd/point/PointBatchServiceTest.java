@@ -0,0 +1,147 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.UserPointRepository;
+import io.hhplus.tdd.database.VersionedUserPointRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PointBatchService 단위 테스트")
+class PointBatchServiceTest {
+
+    @Mock
+    private UserPointRepository userPointRepository;
+    @Mock
+    private PointHistoryRepository pointHistoryRepository;
+
+    private PointBatchService pointBatchService;
+
+    @BeforeEach
+    void setUp() {
+        // 한 번의 변경으로 묶는 기능이 없는 저장소처럼 그대로 실행한다.
+        doAnswer(invocation -> ((Supplier<?>) invocation.getArgument(1)).get())
+                .when(userPointRepository).writeAtomically(anyLong(), any());
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        pointBatchService = new PointBatchService(userPointRepository, pointHistoryRepository,
+                new UserLockManager(meterRegistry), new PointMetrics(meterRegistry), new PointBatchProperties(4, 100));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pointBatchService.shutdown();
+    }
+
+    @Test
+    @DisplayName("사용자마다 잔고는 한 번씩만 조회/갱신하고 내역은 명령마다 남긴다")
+    void execute_groupsByUser() {
+        // given
+        when(userPointRepository.selectById(1L)).thenReturn(new UserPoint(1L, 100L, 0L));
+        when(userPointRepository.selectById(2L)).thenReturn(new UserPoint(2L, 0L, 0L));
+        List<PointBatchCommand> commands = List.of(
+                new PointBatchCommand(1L, TransactionType.CHARGE, 50L),
+                new PointBatchCommand(2L, TransactionType.CHARGE, 30L),
+                new PointBatchCommand(1L, TransactionType.USE, 120L),
+                new PointBatchCommand(1L, TransactionType.CHARGE, 10L)
+        );
+
+        // when
+        List<PointBatchResult> results = pointBatchService.execute(commands).join();
+
+        // then
+        assertThat(results).extracting("point").containsExactly(150L, 30L, 30L, 40L);
+        verify(userPointRepository, times(1)).selectById(1L);
+        verify(userPointRepository, times(1)).insertOrUpdate(1L, 40L);
+        verify(userPointRepository, times(1)).insertOrUpdate(2L, 30L);
+        verify(pointHistoryRepository, times(3)).insert(eq(1L), anyLong(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("잔고가 부족하거나 잘못된 명령만 실패하고 나머지는 적용된다")
+    void execute_partialFailure() {
+        // given
+        when(userPointRepository.selectById(1L)).thenReturn(new UserPoint(1L, 100L, 0L));
+        List<PointBatchCommand> commands = List.of(
+                new PointBatchCommand(1L, TransactionType.USE, 300L),
+                new PointBatchCommand(1L, TransactionType.USE, 40L),
+                new PointBatchCommand(-1L, TransactionType.CHARGE, 10L)
+        );
+
+        // when
+        List<PointBatchResult> results = pointBatchService.execute(commands).join();
+
+        // then
+        assertThat(results).extracting("success").containsExactly(false, true, false);
+        assertThat(results).extracting("message").containsExactly("포인트 부족", null, "잘못된 사용자 ID");
+        verify(userPointRepository).insertOrUpdate(1L, 60L);
+        verify(pointHistoryRepository, times(1)).insert(anyLong(), anyLong(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("내역 저장이 중간에 실패하면 내역을 남긴 명령만 성공으로 돌려주고 잔고에도 그만큼만 반영한다")
+    void execute_historyFailure() {
+        // given
+        when(userPointRepository.selectById(1L)).thenReturn(new UserPoint(1L, 100L, 0L));
+        when(pointHistoryRepository.insert(eq(1L), anyLong(), any(), anyLong()))
+                .thenReturn(null)
+                .thenThrow(new IllegalStateException("저장소 장애"));
+        List<PointBatchCommand> commands = List.of(
+                new PointBatchCommand(1L, TransactionType.CHARGE, 50L),
+                new PointBatchCommand(1L, TransactionType.CHARGE, 30L),
+                new PointBatchCommand(1L, TransactionType.USE, 10L)
+        );
+
+        // when
+        List<PointBatchResult> results = pointBatchService.execute(commands).join();
+
+        // then
+        assertThat(results).extracting("success").containsExactly(true, false, false);
+        assertThat(results.get(0).point()).isEqualTo(150L);
+        verify(pointHistoryRepository, times(2)).insert(eq(1L), anyLong(), any(), anyLong());
+        verify(userPointRepository, times(1)).insertOrUpdate(1L, 150L);
+    }
+
+    @Test
+    @DisplayName("낙관적 갱신에서도 내역 저장이 중간에 실패하면 내역을 남긴 명령까지만 잔고에 반영한다")
+    void execute_historyFailure_optimistic() throws InterruptedException {
+        // given
+        VersionedUserPointRepository versioned = new VersionedUserPointRepository(userPointRepository,
+                1, Duration.ZERO, Duration.ZERO, Duration.ofSeconds(5));
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PointBatchService optimistic = new PointBatchService(versioned, pointHistoryRepository,
+                new UserLockManager(meterRegistry), new PointMetrics(meterRegistry), new PointBatchProperties(4, 100));
+        when(userPointRepository.selectPoint(1L)).thenReturn(100L);
+        when(pointHistoryRepository.insert(eq(1L), anyLong(), any(), anyLong()))
+                .thenReturn(null)
+                .thenThrow(new IllegalStateException("저장소 장애"));
+        List<PointBatchCommand> commands = List.of(
+                new PointBatchCommand(1L, TransactionType.CHARGE, 50L),
+                new PointBatchCommand(1L, TransactionType.CHARGE, 30L),
+                new PointBatchCommand(1L, TransactionType.USE, 10L)
+        );
+
+        // when
+        List<PointBatchResult> results = optimistic.execute(commands).join();
+        optimistic.shutdown();
+
+        // then
+        assertThat(results).extracting("success").containsExactly(true, false, false);
+        assertThat(results.get(0).point()).isEqualTo(150L);
+        verify(pointHistoryRepository, times(2)).insert(eq(1L), anyLong(), any(), anyLong());
+        verify(userPointRepository, times(1)).insertOrUpdate(1L, 150L);
+    }
+}
@@ -0,0 +1,87 @@
+package io.hhplus.tdd.point;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("PointBinaryFormat 단위 테스트")
+class PointBinaryFormatTest {
+
+    @Test
+    @DisplayName("잔고를 쓰고 읽으면 같은 값이고, 음수와 long 경계값도 그대로 읽힌다")
+    void userPoint_roundTrip() throws IOException {
+        // given
+        UserPoint userPoint = new UserPoint(Long.MAX_VALUE, Long.MIN_VALUE, -1L);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        PointBinaryFormat.writeUserPoint(userPoint, out);
+
+        // then
+        assertThat(PointBinaryFormat.readUserPoint(new ByteArrayInputStream(out.toByteArray()))).isEqualTo(userPoint);
+    }
+
+    @Test
+    @DisplayName("버퍼보다 긴 내역 목록도 순서와 값이 그대로 읽히고, 건당 크기가 작다")
+    void histories_roundTrip() throws IOException {
+        // given
+        List<PointHistory> histories = new ArrayList<>();
+        for (int i = 1; i <= 10_000; i++) {
+            histories.add(new PointHistory(i, 1L, i % 7 == 0 ? -i : i * 10L, i % 3 == 0 ? TransactionType.USE : TransactionType.CHARGE, 1_700_000_000_000L + i));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        PointBinaryFormat.writeHistories(histories, out);
+
+        // then
+        assertThat(PointBinaryFormat.readHistories(new ByteArrayInputStream(out.toByteArray()))).isEqualTo(histories);
+        assertThat(out.size()).isLessThan(histories.size() * 10);
+    }
+
+    @Test
+    @DisplayName("일괄 처리 명령과 결과를 쓰고 읽으면 같고, 실패 결과의 사유는 한글도 그대로 읽힌다")
+    void batch_roundTrip() throws IOException {
+        // given
+        List<PointBatchCommand> commands = List.of(
+                new PointBatchCommand(1L, TransactionType.CHARGE, 100L),
+                new PointBatchCommand(2L, TransactionType.USE, 50L));
+        List<PointBatchResult> results = List.of(
+                PointBatchResult.success(commands.get(0), 100L),
+                PointBatchResult.failure(commands.get(1), "잔고가 부족합니다."),
+                new PointBatchResult(3L, TransactionType.USE, 1L, false, null, null));
+        ByteArrayOutputStream commandsOut = new ByteArrayOutputStream();
+        ByteArrayOutputStream resultsOut = new ByteArrayOutputStream();
+
+        // when
+        PointBinaryFormat.writeBatchCommands(commands, commandsOut);
+        PointBinaryFormat.writeBatchResults(results, resultsOut);
+
+        // then
+        assertThat(PointBinaryFormat.readBatchCommands(new ByteArrayInputStream(commandsOut.toByteArray()))).isEqualTo(commands);
+        assertThat(PointBinaryFormat.readBatchResults(new ByteArrayInputStream(resultsOut.toByteArray()))).isEqualTo(results);
+    }
+
+    @Test
+    @DisplayName("종류가 다르거나 중간에 끝난 내용은 IllegalArgumentException 이 발생한다")
+    void malformed() throws IOException {
+        // given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PointBinaryFormat.writeHistories(List.of(new PointHistory(1L, 1L, 100L, TransactionType.CHARGE, 10L)), out);
+        byte[] bytes = out.toByteArray();
+
+        // when & then
+        assertThatThrownBy(() -> PointBinaryFormat.readUserPoint(new ByteArrayInputStream(bytes)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PointBinaryFormat.readHistories(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,88 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.TablePointHistoryRepository;
+import io.hhplus.tdd.database.TableUserPointRepository;
+import io.hhplus.tdd.database.UserPointTable;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PointCommandDispatcher 파티션 실행 테스트")
+class PointCommandDispatcherTest {
+
+    @Mock
+    private PointService mockPointService;
+
+    private PointCommandDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    @DisplayName("같은 사용자의 명령은 메일박스에 들어온 순서대로 적용된다")
+    void sameUser_appliedInOrder() {
+        // given
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PointService pointService = new PointService(new TableUserPointRepository(new UserPointTable()), new TablePointHistoryRepository(new PointHistoryTable()), new UserLockManager(meterRegistry), new PointMetrics(meterRegistry));
+        dispatcher = new PointCommandDispatcher(pointService, properties(4, 100));
+        long userId = 1L;
+        List<CompletableFuture<UserPoint>> futures = new ArrayList<>();
+
+        // when
+        futures.add(dispatcher.charge(userId, 100L));
+        futures.add(dispatcher.use(userId, 30L));
+        futures.add(dispatcher.charge(userId, 50L));
+        futures.add(dispatcher.use(userId, 120L));
+
+        // then
+        assertThat(futures.stream().map(CompletableFuture::join).map(UserPoint::point).toList())
+                .containsExactly(100L, 70L, 120L, 0L);
+        assertThat(pointService.history(userId)).extracting("type")
+                .containsExactly(TransactionType.CHARGE, TransactionType.USE, TransactionType.CHARGE, TransactionType.USE);
+    }
+
+    @Test
+    @DisplayName("메일박스가 가득 차면 PointMailboxFullException 으로 거절한다")
+    void mailboxFull_rejected() throws Exception {
+        // given
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(mockPointService.charge(anyLong(), anyLong())).thenAnswer(invocation -> {
+            blocked.countDown();
+            release.await();
+            return UserPoint.empty(1L);
+        });
+        dispatcher = new PointCommandDispatcher(mockPointService, properties(1, 1));
+        dispatcher.charge(1L, 100L);
+        blocked.await();
+        dispatcher.charge(1L, 100L);
+
+        // when & then
+        assertThatThrownBy(() -> dispatcher.charge(1L, 100L))
+                .isInstanceOf(PointMailboxFullException.class);
+        assertThat(dispatcher.queueDepths()).containsExactly(1);
+        assertThat(dispatcher.rejectedCount()).isEqualTo(1L);
+        release.countDown();
+    }
+
+    private PointExecutionProperties properties(int partitions, int mailboxCapacity) {
+        return new PointExecutionProperties(PointExecutionProperties.Mode.PARTITIONED, partitions, mailboxCapacity);
+    }
+}
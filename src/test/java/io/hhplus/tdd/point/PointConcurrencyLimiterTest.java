@@ -0,0 +1,46 @@
+package io.hhplus.tdd.point;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("PointConcurrencyLimiter 단위 테스트")
+class PointConcurrencyLimiterTest {
+
+    @Test
+    @DisplayName("동시 처리 한도를 넘으면 거절하고, 자리를 돌려주면 다시 받는다")
+    void acquire_overLimit() {
+        // given
+        PointConcurrencyLimiter limiter = new PointConcurrencyLimiter(
+                new PointConcurrencyLimitProperties(true, 2, 1, 10, Duration.ofSeconds(1), 0.5), new SimpleMeterRegistry());
+        limiter.acquire();
+        limiter.acquire();
+
+        // when & then
+        assertThatThrownBy(limiter::acquire).isInstanceOf(PointOverloadedException.class);
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(1));
+        assertThatCode(limiter::acquire).doesNotThrowAnyException();
+        assertThat(limiter.inFlight()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("처리 시간이 목표를 넘으면 한도를 줄인다")
+    void release_slowDecreasesLimit() {
+        // given
+        PointConcurrencyLimiter limiter = new PointConcurrencyLimiter(
+                new PointConcurrencyLimitProperties(true, 8, 1, 10, Duration.ZERO, 0.5), new SimpleMeterRegistry());
+        limiter.acquire();
+
+        // when
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(1));
+
+        // then
+        assertThat(limiter.limit()).isEqualTo(4);
+        assertThat(limiter.inFlight()).isZero();
+    }
+}
@@ -2,6 +2,7 @@ package io.hhplus.tdd.point;
 
 import io.hhplus.tdd.database.PointHistoryTable;
 import io.hhplus.tdd.database.UserPointTable;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -12,6 +13,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 
@@ -25,12 +27,16 @@ class PointControllerTest {
 
     @Mock
     private PointService pointService;
+    @Mock
+    private PointSummaryService pointSummaryService;
 
     private PointController pointController;
 
     @BeforeEach
     void setUp() {
-        pointController = new PointController(pointService);
+        pointController = new PointController(pointService,
+                new PointCommandDispatcher(pointService, new PointExecutionProperties(PointExecutionProperties.Mode.SYNC, 1, 1)),
+                pointSummaryService, new IdempotencyStore(new IdempotencyProperties(100, Duration.ofMinutes(10)), new SimpleMeterRegistry()));
     }
 
     @Nested
@@ -82,15 +88,15 @@ class PointControllerTest {
                     new PointHistory(1L, userId, 500L, TransactionType.CHARGE, System.currentTimeMillis()),
                     new PointHistory(2L, userId, 200L, TransactionType.USE, System.currentTimeMillis())
             );
-            when(pointService.history(userId)).thenReturn(expectedHistories);
+            when(pointService.history(userId, PointHistoryQuery.all())).thenReturn(expectedHistories);
 
             // when
-            List<PointHistory> result = pointController.history(userId);
+            List<PointHistory> result = pointController.history(userId, PointHistoryQuery.all());
 
             // then
             assertThat(result).isEqualTo(expectedHistories);
             assertThat(result).hasSize(2);
-            verify(pointService).history(userId);
+            verify(pointService).history(userId, PointHistoryQuery.all());
         }
 
         @Test
@@ -98,14 +104,14 @@ class PointControllerTest {
         void history_whenNoHistory() {
             // given
             long userId = 999L;
-            when(pointService.history(userId)).thenReturn(List.of());
+            when(pointService.history(userId, PointHistoryQuery.all())).thenReturn(List.of());
 
             // when
-            List<PointHistory> result = pointController.history(userId);
+            List<PointHistory> result = pointController.history(userId, PointHistoryQuery.all());
 
             // then
             assertThat(result).isEmpty();
-            verify(pointService).history(userId);
+            verify(pointService).history(userId, PointHistoryQuery.all());
         }
 
         @Test
@@ -115,12 +121,12 @@ class PointControllerTest {
             long negativeUserId = -1L;
 
             // when & then
-            assertThatThrownBy(() -> pointController.history(negativeUserId))
+            assertThatThrownBy(() -> pointController.history(negativeUserId, PointHistoryQuery.all()))
                     .isInstanceOf(ResponseStatusException.class)
                     .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST)
                     .hasMessageContaining("유효하지 않은 사용자 ID입니다: " + negativeUserId);
 
-            verify(pointService, never()).history(anyLong());
+            verify(pointService, never()).history(anyLong(), any());
         }
     }
 
@@ -144,7 +150,7 @@ class PointControllerTest {
             when(pointService.charge(userId, expectedNewPoint)).thenReturn(expectedUserPoint);
 
             // when
-            UserPoint result = pointController.charge(userId, chargeAmount);
+            UserPoint result = pointController.charge(userId, chargeAmount, null).join();
 
             // then
             assertThat(result.point()).isEqualTo(expectedNewPoint);
@@ -160,7 +166,7 @@ class PointControllerTest {
             long chargeAmount = 500L;
 
             // when & then
-            assertThatThrownBy(() -> pointController.charge(invalidUserId, chargeAmount))
+            assertThatThrownBy(() -> pointController.charge(invalidUserId, chargeAmount, null))
                     .isInstanceOf(ResponseStatusException.class)
                     .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST)
                     .hasMessageContaining("유효하지 않은 사용자 ID입니다: " + invalidUserId);
@@ -176,7 +182,7 @@ class PointControllerTest {
             long invalidAmount = 0L;
 
             // when & then
-            assertThatThrownBy(() -> pointController.charge(userId, invalidAmount))
+            assertThatThrownBy(() -> pointController.charge(userId, invalidAmount, null))
                     .isInstanceOf(ResponseStatusException.class)
                     .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST)
                     .hasMessageContaining("충전 금액은 0보다 커야 합니다: " + invalidAmount);
@@ -192,7 +198,7 @@ class PointControllerTest {
             long negativeAmount = -100L;
 
             // when & then
-            assertThatThrownBy(() -> pointController.charge(userId, negativeAmount))
+            assertThatThrownBy(() -> pointController.charge(userId, negativeAmount, null))
                     .isInstanceOf(ResponseStatusException.class)
                     .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST)
                     .hasMessageContaining("충전 금액은 0보다 커야 합니다: " + negativeAmount);
@@ -214,7 +220,7 @@ class PointControllerTest {
                             "충전 후 포인트가 최대값을 초과합니다"));
 
             // when & then
-            assertThatThrownBy(() -> pointController.charge(userId, chargeAmount))
+            assertThatThrownBy(() -> pointController.charge(userId, chargeAmount, null))
                     .isInstanceOf(ResponseStatusException.class)
                     .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST)
                     .hasMessageContaining("충전 후 포인트가 최대값을 초과합니다");
@@ -234,7 +240,7 @@ class PointControllerTest {
                             "충전 금액이 허용된 범위를 초과합니다"));
 
             // when & then
-            assertThatThrownBy(() -> pointController.charge(userId, maxAmount))
+            assertThatThrownBy(() -> pointController.charge(userId, maxAmount, null))
                     .isInstanceOf(ResponseStatusException.class)
                     .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST)
                     .hasMessageContaining("충전 금액이 허용된 범위를 초과합니다");
@@ -253,7 +259,7 @@ class PointControllerTest {
                     .thenThrow(new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Database connection failed"));
 
             // when & then
-            assertThatThrownBy(() -> pointController.charge(userId, chargeAmount))
+            assertThatThrownBy(() -> pointController.charge(userId, chargeAmount, null))
                     .isInstanceOf(ResponseStatusException.class)
                     .hasFieldOrPropertyWithValue("status", HttpStatus.INTERNAL_SERVER_ERROR)
                     .hasMessageContaining("Database connection failed");
@@ -279,8 +285,8 @@ class PointControllerTest {
             when(pointService.charge(userId, chargeAmount2)).thenReturn(afterSecondCharge);
 
             // when
-            UserPoint firstResult = pointController.charge(userId, chargeAmount1);
-            UserPoint secondResult = pointController.charge(userId, chargeAmount2);
+            UserPoint firstResult = pointController.charge(userId, chargeAmount1, null).join();
+            UserPoint secondResult = pointController.charge(userId, chargeAmount2, null).join();
 
             // then
             // 첫 번째 충전 후 검증
@@ -313,7 +319,7 @@ class PointControllerTest {
             when(pointService.use(userId, useAmount)).thenReturn(expectedUserPoint);
 
             // when
-            UserPoint result = pointController.use(userId, useAmount);
+            UserPoint result = pointController.use(userId, useAmount, null).join();
 
             // then
             assertThat(result.point()).isEqualTo(expectedNewPoint);
@@ -333,7 +339,7 @@ class PointControllerTest {
                     .thenThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, "포인트가 부족합니다."));
 
             // when & then
-            assertThatThrownBy(() -> pointController.use(userId, useAmount))
+            assertThatThrownBy(() -> pointController.use(userId, useAmount, null))
                     .isInstanceOf(ResponseStatusException.class)
                     .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST)
                     .hasMessageContaining("포인트가 부족합니다");
@@ -351,7 +357,7 @@ class PointControllerTest {
                     .thenThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, "유효하지 않은 사용자 ID입니다."));
 
             // when & then
-            assertThatThrownBy(() -> pointController.use(negativeUserId, useAmount))
+            assertThatThrownBy(() -> pointController.use(negativeUserId, useAmount, null))
                     .isInstanceOf(ResponseStatusException.class)
                     .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST)
                     .hasMessageContaining("유효하지 않은 사용자 ID입니다");
@@ -369,7 +375,7 @@ class PointControllerTest {
                     .thenThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, "충전 금액은 0보다 커야 합니다."));
 
             // when & then
-            assertThatThrownBy(() -> pointController.use(userId, negativeAmount))
+            assertThatThrownBy(() -> pointController.use(userId, negativeAmount, null))
                     .isInstanceOf(ResponseStatusException.class)
                     .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST)
                     .hasMessageContaining("충전 금액은 0보다 커야 합니다.");
@@ -389,7 +395,7 @@ class PointControllerTest {
             when(pointService.use(userId, useAmount)).thenReturn(expectedUserPoint);
 
             // when
-            UserPoint result = pointController.use(userId, useAmount);
+            UserPoint result = pointController.use(userId, useAmount, null).join();
 
             // then
             assertThat(result.point()).isEqualTo(0L);
@@ -0,0 +1,134 @@
+package io.hhplus.tdd.point;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("PointEventRingBuffer 단위 테스트")
+class PointEventRingBufferTest {
+
+    private static PointEventRingBuffer ringBuffer(int bufferSize) {
+        return new PointEventRingBuffer(new PointStreamProperties(true, bufferSize, 1, Duration.ofMinutes(1)), new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("발행한 이벤트를 순번으로 읽고, 아직 발행되지 않은 순번은 null 이다")
+    void publish_read() {
+        // given
+        PointEventRingBuffer ringBuffer = ringBuffer(4);
+        PointHistory pointHistory = new PointHistory(1L, 1L, 100L, TransactionType.CHARGE, 10L);
+
+        // when
+        ringBuffer.publish(pointHistory);
+
+        // then
+        assertThat(ringBuffer.read(0L)).isEqualTo(pointHistory);
+        assertThat(ringBuffer.read(1L)).isNull();
+        assertThat(ringBuffer.isOverrun(1L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("값을 읽지 못해 발행에 실패해도 순번을 차지하지 않아, 한 바퀴 뒤의 발행이 멈추지 않는다")
+    void publish_invalidEvent() throws Exception {
+        // given
+        PointEventRingBuffer ringBuffer = ringBuffer(4);
+        assertThatThrownBy(() -> ringBuffer.publish(new PointHistory(1L, 1L, 100L, null, 10L)))
+                .isInstanceOf(NullPointerException.class);
+
+        // when
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> published = executor.submit(() -> {
+            for (long id = 1; id <= 8; id++) {
+                ringBuffer.publish(new PointHistory(id, 1L, id, TransactionType.CHARGE, id));
+            }
+        });
+
+        // then
+        published.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+        assertThat(ringBuffer.nextSequence()).isEqualTo(8L);
+        assertThat(ringBuffer.read(7L).id()).isEqualTo(8L);
+    }
+
+    @Test
+    @DisplayName("버퍼가 한 바퀴 돌면 덮어쓰인 순번은 읽을 수 없고 뒤처진 것으로 판단한다")
+    void publish_overrun() {
+        // given
+        PointEventRingBuffer ringBuffer = ringBuffer(4);
+
+        // when
+        for (long id = 1; id <= 5; id++) {
+            ringBuffer.publish(new PointHistory(id, 1L, id, TransactionType.CHARGE, id));
+        }
+
+        // then
+        assertThat(ringBuffer.read(0L)).isNull();
+        assertThat(ringBuffer.isOverrun(0L)).isTrue();
+        assertThat(ringBuffer.oldestSequence()).isEqualTo(1L);
+        assertThat(ringBuffer.read(4L).id()).isEqualTo(5L);
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 발행해도 모든 이벤트를 한 번씩 읽는다")
+    void publish_concurrently() throws Exception {
+        // given
+        PointEventRingBuffer ringBuffer = ringBuffer(1 << 16);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        int perThread = 10_000;
+
+        // when
+        Future<?>[] futures = new Future<?>[4];
+        for (int t = 0; t < 4; t++) {
+            long base = t * (long) perThread;
+            futures[t] = executor.submit(() -> {
+                for (long i = 1; i <= perThread; i++) {
+                    ringBuffer.publish(new PointHistory(base + i, 1L, i, TransactionType.CHARGE, i));
+                }
+            });
+        }
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // then
+        Set<Long> ids = new HashSet<>();
+        for (long sequence = 0; sequence < 4L * perThread; sequence++) {
+            ids.add(ringBuffer.read(sequence).id());
+        }
+        assertThat(ids).hasSize(4 * perThread);
+    }
+
+    @Test
+    @DisplayName("publishAfter 안에서 들어온 이벤트는 작업이 성공한 뒤에만 발행된다")
+    void publishAfter() {
+        // given
+        PointEventRingBuffer ringBuffer = ringBuffer(4);
+        PointHistory charged = new PointHistory(1L, 1L, 1000L, TransactionType.CHARGE, 10L);
+
+        // when
+        ringBuffer.publishAfter(() -> {
+            ringBuffer.publish(charged);
+            assertThat(ringBuffer.nextSequence()).isZero();
+            return null;
+        });
+        assertThatThrownBy(() -> ringBuffer.publishAfter(() -> {
+            ringBuffer.publish(new PointHistory(2L, 1L, 300L, TransactionType.USE, 20L));
+            throw new IllegalStateException("잔고 쓰기 실패");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // then
+        assertThat(ringBuffer.nextSequence()).isEqualTo(1L);
+        assertThat(ringBuffer.read(0L)).isEqualTo(charged);
+    }
+}
@@ -0,0 +1,39 @@
+package io.hhplus.tdd.point;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("PointMetrics 단위 테스트")
+class PointMetricsTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PointMetrics pointMetrics = new PointMetrics(meterRegistry);
+
+    @Test
+    @DisplayName("처리 결과에 따라 성공, 잔고 부족, 잘못된 입력 타이머에 나눠 기록한다")
+    void record_byOutcome() {
+        // when
+        pointMetrics.record(PointMetrics.Operation.USE, () -> UserPoint.empty(1L));
+        assertThatThrownBy(() -> pointMetrics.record(PointMetrics.Operation.USE, () -> {
+            throw new InsufficientPointException();
+        })).isInstanceOf(InsufficientPointException.class);
+        assertThatThrownBy(() -> pointMetrics.record(PointMetrics.Operation.USE, () -> {
+            throw new IllegalArgumentException("잘못된 금액");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        // then
+        assertThat(count("use", "success")).isEqualTo(1L);
+        assertThat(count("use", "insufficient_balance")).isEqualTo(1L);
+        assertThat(count("use", "invalid_input")).isEqualTo(1L);
+        assertThat(count("charge", "success")).isZero();
+        assertThat(meterRegistry.get("point.operation.active").tag("operation", "use").gauge().value()).isZero();
+    }
+
+    private long count(String operation, String outcome) {
+        return meterRegistry.get("point.operation").tag("operation", operation).tag("outcome", outcome).timer().count();
+    }
+}
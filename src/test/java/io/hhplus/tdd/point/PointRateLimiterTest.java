@@ -0,0 +1,39 @@
+package io.hhplus.tdd.point;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("PointRateLimiter 단위 테스트")
+class PointRateLimiterTest {
+
+    @Test
+    @DisplayName("한 사용자가 버스트를 넘게 요청하면 그 사용자만 거절된다")
+    void acquire_userLimited() {
+        // given
+        PointRateLimiter rateLimiter = new PointRateLimiter(new PointRateLimitProperties(true, 1, 3, 1000, 1000, 100), new SimpleMeterRegistry());
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.acquire(1L);
+        }
+
+        // when & then
+        assertThatThrownBy(() -> rateLimiter.acquire(1L))
+                .isInstanceOf(PointRateLimitedException.class);
+        assertThatCode(() -> rateLimiter.acquire(2L)).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("전체 버스트를 넘으면 사용자와 관계없이 거절된다")
+    void acquire_globalLimited() {
+        // given
+        PointRateLimiter rateLimiter = new PointRateLimiter(new PointRateLimitProperties(true, 1000, 1000, 1, 2, 100), new SimpleMeterRegistry());
+        rateLimiter.acquire(1L);
+        rateLimiter.acquire(null);
+
+        // when & then
+        assertThatThrownBy(() -> rateLimiter.acquire(2L))
+                .isInstanceOf(PointRateLimitedException.class);
+    }
+}
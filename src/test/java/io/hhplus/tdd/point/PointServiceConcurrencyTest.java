@@ -0,0 +1,261 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.database.PointHistoryRepository;
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.PointShards;
+import io.hhplus.tdd.database.TablePointHistoryRepository;
+import io.hhplus.tdd.database.TableUserPointRepository;
+import io.hhplus.tdd.database.UserPointRepository;
+import io.hhplus.tdd.database.UserPointTable;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("PointService 동시성 테스트")
+class PointServiceConcurrencyTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UserLockManager userLockManager;
+    private PointHistoryRepository pointHistoryRepository;
+    private UserPointRepository userPointRepository;
+    private PointService pointService;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        userLockManager = new UserLockManager(meterRegistry);
+        // 운영 조립과 같이 테이블을 사용자 id 로 나눠 테이블마다 따로 잠근다.
+        PointShards tables = stripedTables(32);
+        pointHistoryRepository = tables.pointHistoryRepository();
+        userPointRepository = tables.userPointRepository();
+        pointService = new PointService(userPointRepository, pointHistoryRepository, userLockManager, new PointMetrics(meterRegistry));
+        executor = Executors.newFixedThreadPool(200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static PointShards stripedTables(int count) {
+        UserPointRepository[] balances = new UserPointRepository[count];
+        PointHistoryRepository[] histories = new PointHistoryRepository[count];
+        for (int i = 0; i < count; i++) {
+            balances[i] = new TableUserPointRepository(new UserPointTable());
+            histories[i] = new TablePointHistoryRepository(new PointHistoryTable());
+        }
+        return new PointShards(128, balances, histories);
+    }
+
+    @Nested
+    @DisplayName("같은 사용자에 대한 동시 요청")
+    class SameUserTest {
+
+        @Test
+        @DisplayName("동시에 충전해도 갱신 손실 없이 모든 충전 금액이 합산된다")
+        void charge_concurrently() throws Exception {
+            // given
+            long userId = 1L;
+            int requestCount = 20;
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<UserPoint>> futures = new ArrayList<>();
+
+            // when
+            for (int i = 0; i < requestCount; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return pointService.charge(userId, 100L);
+                }));
+            }
+            start.countDown();
+            for (Future<UserPoint> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+
+            // then
+            assertThat(pointService.point(userId).point()).isEqualTo(requestCount * 100L);
+            assertThat(pointService.history(userId)).hasSize(requestCount);
+            assertThat(userLockManager.activeLockCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("잔고보다 많은 동시 사용 요청은 잔고만큼만 성공하고 잔고가 음수가 되지 않는다")
+        void use_concurrently() throws Exception {
+            // given
+            long userId = 2L;
+            pointService.charge(userId, 500L);
+            int requestCount = 10;
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> futures = new ArrayList<>();
+
+            // when
+            for (int i = 0; i < requestCount; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        pointService.use(userId, 100L);
+                        return true;
+                    } catch (IllegalArgumentException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int succeeded = 0;
+            for (Future<Boolean> future : futures) {
+                if (future.get(60, TimeUnit.SECONDS)) succeeded++;
+            }
+
+            // then
+            assertThat(succeeded).isEqualTo(5);
+            assertThat(pointService.point(userId).point()).isZero();
+            assertThat(pointService.history(userId)).hasSize(1 + succeeded);
+        }
+    }
+
+    @Nested
+    @DisplayName("여러 사용자에 대한 동시 요청")
+    class ManyUsersTest {
+
+        @Test
+        @DisplayName("충전/사용이 섞인 수천 건의 요청 후 사용자별 잔고와 내역 수가 정확히 일치한다")
+        void mixed_chargeAndUse() throws Exception {
+            // given
+            int userCount = 50;
+            int requestsPerUser = 40;
+            AtomicLongArray expectedPoints = new AtomicLongArray(userCount + 1);
+            AtomicLongArray expectedHistories = new AtomicLongArray(userCount + 1);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+
+            // when
+            for (int i = 0; i < userCount * requestsPerUser; i++) {
+                int userId = i % userCount + 1;
+                boolean charge = ThreadLocalRandom.current().nextInt(3) != 0;
+                long amount = ThreadLocalRandom.current().nextLong(1, 1_000);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    if (charge) {
+                        pointService.charge(userId, amount);
+                        expectedPoints.addAndGet(userId, amount);
+                        expectedHistories.incrementAndGet(userId);
+                        return null;
+                    }
+                    try {
+                        pointService.use(userId, amount);
+                        expectedPoints.addAndGet(userId, -amount);
+                        expectedHistories.incrementAndGet(userId);
+                    } catch (IllegalArgumentException ignored) {
+                        // 잔고 부족으로 실패한 사용 요청은 잔고와 내역에 반영되지 않아야 한다.
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(120, TimeUnit.SECONDS);
+            }
+
+            // then
+            for (int userId = 1; userId <= userCount; userId++) {
+                assertThat(pointService.point(userId).point())
+                        .as("사용자 %d 잔고", userId)
+                        .isEqualTo(expectedPoints.get(userId))
+                        .isNotNegative();
+                assertThat(pointService.history(userId))
+                        .as("사용자 %d 내역 수", userId)
+                        .hasSize((int) expectedHistories.get(userId));
+            }
+            assertThat(userLockManager.activeLockCount()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("UserLockManager")
+    class LockManagerTest {
+
+        @Test
+        @DisplayName("한 사용자의 락이 점유된 동안에도 다른 사용자의 작업은 기다리지 않는다")
+        void otherUser_notBlocked() throws Exception {
+            // given
+            CountDownLatch locked = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            executor.submit(() -> userLockManager.executeWithLock(1L, () -> {
+                locked.countDown();
+                await(release);
+                return null;
+            }));
+            locked.await();
+
+            // when
+            Future<Long> otherUser = executor.submit(() -> userLockManager.executeWithLock(2L, () -> 2L));
+
+            // then
+            assertThat(otherUser.get(1, TimeUnit.SECONDS)).isEqualTo(2L);
+            release.countDown();
+        }
+
+        @Test
+        @DisplayName("같은 사용자의 작업은 앞선 작업이 끝날 때까지 대기한다")
+        void sameUser_blocked() throws Exception {
+            // given
+            CountDownLatch locked = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            AtomicLong order = new AtomicLong();
+            executor.submit(() -> userLockManager.executeWithLock(1L, () -> {
+                locked.countDown();
+                await(release);
+                return order.compareAndSet(0, 1);
+            }));
+            locked.await();
+
+            // when
+            Future<Boolean> sameUser = executor.submit(() -> userLockManager.executeWithLock(1L, () -> order.compareAndSet(1, 2)));
+
+            // then
+            assertThatThrownBy(() -> sameUser.get(200, TimeUnit.MILLISECONDS))
+                    .isInstanceOf(TimeoutException.class);
+            release.countDown();
+            assertThat(sameUser.get(1, TimeUnit.SECONDS)).isTrue();
+        }
+
+        @Test
+        @DisplayName("작업이 끝나면 사용하지 않는 락은 제거된다")
+        void idleLock_evicted() {
+            // when
+            userLockManager.executeWithLock(1L, () -> null);
+            assertThatThrownBy(() -> userLockManager.executeWithLock(2L, () -> {
+                throw new IllegalStateException("실패");
+            })).isInstanceOf(IllegalStateException.class);
+
+            // then
+            assertThat(userLockManager.activeLockCount()).isZero();
+        }
+
+        private void await(CountDownLatch latch) {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.hhplus.tdd.point;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("PointStatsStore 단위 테스트")
+class PointStatsStoreTest {
+
+    private final PointStatsStore store = new PointStatsStore(new PointStatsProperties(true, 4), new SimpleMeterRegistry());
+
+    @Test
+    @DisplayName("내역을 쓸 때마다 합계, 건수, 마지막 거래 시각이 갱신된다")
+    void record_stats() {
+        // given
+        store.record(1L, TransactionType.CHARGE, 1000L, 10L);
+        store.record(1L, TransactionType.USE, 300L, 20L);
+        store.record(1L, TransactionType.CHARGE, 500L, 30L);
+
+        // when
+        PointStats stats = store.stats(1L);
+
+        // then
+        assertThat(stats).isEqualTo(new PointStats(1L, 1200L, 1500L, 300L, 3L, 30L));
+        assertThat(store.stats(2L)).isEqualTo(PointStats.empty(2L));
+    }
+
+    @Test
+    @DisplayName("잔고 순위와 거래 규모 순위를 큰 순서로 조회한다")
+    void top() {
+        // given
+        for (long userId = 1; userId <= 10; userId++) {
+            store.record(userId, TransactionType.CHARGE, userId * 100, userId);
+        }
+        // 10번 사용자는 대부분을 사용해 잔고는 낮지만 거래 규모는 가장 크다.
+        store.record(10L, TransactionType.USE, 990L, 11L);
+
+        // when
+        List<PointStats> byBalance = store.top(PointStatsStore.Ranking.BALANCE, 3);
+        List<PointStats> byVolume = store.top(PointStatsStore.Ranking.VOLUME, 3);
+
+        // then
+        assertThat(byBalance).extracting("userId").containsExactly(9L, 8L, 7L);
+        assertThat(byVolume).extracting("userId").containsExactly(10L, 9L, 8L);
+        assertThatThrownBy(() -> store.top(PointStatsStore.Ranking.BALANCE, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("recordAfter 안에서 들어온 기록은 작업이 성공했을 때만 반영된다")
+    void recordAfter() {
+        // when
+        store.recordAfter(() -> {
+            store.record(1L, TransactionType.CHARGE, 1000L, 10L);
+            assertThat(store.stats(1L)).isEqualTo(PointStats.empty(1L));
+            return null;
+        });
+        assertThatThrownBy(() -> store.recordAfter(() -> {
+            store.record(1L, TransactionType.USE, 300L, 20L);
+            throw new IllegalStateException("잔고 쓰기 실패");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // then
+        assertThat(store.stats(1L)).isEqualTo(new PointStats(1L, 1000L, 1000L, 0L, 1L, 10L));
+    }
+}
@@ -0,0 +1,128 @@
+package io.hhplus.tdd.point;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PointSummaryService 단위 테스트")
+class PointSummaryServiceTest {
+
+    @Mock
+    private PointService pointService;
+
+    private PointSummaryService pointSummaryService;
+
+    @BeforeEach
+    void setUp() {
+        pointSummaryService = new PointSummaryService(pointService, new PointSummaryProperties(4, 16, 2, Duration.ZERO));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pointSummaryService.shutdown();
+    }
+
+    @Test
+    @DisplayName("잔고와 내역을 동시에 조회해 최근 내역과 합계를 함께 돌려준다")
+    void summary_fanOut() {
+        // given
+        when(pointService.point(1L)).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return new UserPoint(1L, 70L, 0L);
+        });
+        doAnswer(invocation -> {
+            Thread.sleep(300);
+            Consumer<PointHistory> action = invocation.getArgument(2);
+            action.accept(new PointHistory(1L, 1L, 100L, TransactionType.CHARGE, 1L));
+            action.accept(new PointHistory(2L, 1L, 50L, TransactionType.USE, 2L));
+            action.accept(new PointHistory(3L, 1L, 20L, TransactionType.CHARGE, 3L));
+            return null;
+        }).when(pointService).forEachHistory(eq(1L), any(), any());
+
+        // when
+        long start = System.nanoTime();
+        PointSummary summary = pointSummaryService.summary(1L, null, null, false).join();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // then
+        assertThat(summary.point()).isEqualTo(70L);
+        assertThat(summary.recentHistories()).extracting("id").containsExactly(2L, 3L);
+        assertThat(summary.totalCharged()).isEqualTo(120L);
+        assertThat(summary.totalUsed()).isEqualTo(50L);
+        assertThat(summary.partial()).isFalse();
+        assertThat(elapsedMillis).isLessThan(600L);
+    }
+
+    @Test
+    @DisplayName("제한 시간을 넘긴 조회는 partial 이면 비워서, 아니면 시간 초과로 돌려준다")
+    void summary_timeout() {
+        // given
+        when(pointService.point(1L)).thenReturn(new UserPoint(1L, 70L, 0L));
+        doAnswer(invocation -> {
+            Thread.sleep(500);
+            return null;
+        }).when(pointService).forEachHistory(eq(1L), any(), any());
+
+        // when
+        PointSummary summary = pointSummaryService.summary(1L, null, Duration.ofMillis(100), true).join();
+
+        // then
+        assertThat(summary.point()).isEqualTo(70L);
+        assertThat(summary.recentHistories()).isNull();
+        assertThat(summary.partial()).isTrue();
+        assertThatThrownBy(() -> pointSummaryService.summary(1L, null, Duration.ofMillis(100), false).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(TimeoutException.class);
+    }
+
+    @Test
+    @DisplayName("제한 시간이 잘못되면 조회를 시작하지 않고 실패한다")
+    void summary_invalidTimeout() {
+        // when & then
+        assertThatThrownBy(() -> pointSummaryService.summary(1L, null, Duration.ofMillis(-1), false))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(pointService);
+    }
+
+    @Test
+    @DisplayName("워커 대기열이 가득 차면 요청 스레드에서 실행하지 않고 거절한다")
+    void summary_saturated() throws InterruptedException {
+        // given
+        PointSummaryService saturated = new PointSummaryService(pointService, new PointSummaryProperties(1, 1, 2, Duration.ZERO));
+        CountDownLatch release = new CountDownLatch(1);
+        when(pointService.point(1L)).thenAnswer(invocation -> {
+            release.await();
+            return new UserPoint(1L, 70L, 0L);
+        });
+
+        try {
+            // 잔고 조회가 워커를 붙잡고 내역 조회가 대기열을 채운다.
+            CompletableFuture<PointSummary> first = saturated.summary(1L, null, null, false);
+
+            // when & then
+            assertThatThrownBy(() -> saturated.summary(1L, null, null, false))
+                    .isInstanceOf(PointOverloadedException.class);
+            release.countDown();
+            assertThat(first.join().point()).isEqualTo(70L);
+        } finally {
+            release.countDown();
+            saturated.shutdown();
+        }
+    }
+}
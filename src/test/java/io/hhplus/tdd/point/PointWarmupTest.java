@@ -0,0 +1,62 @@
+package io.hhplus.tdd.point;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PointWarmup 단위 테스트")
+class PointWarmupTest {
+
+    @Mock
+    private PointService pointService;
+
+    @Mock
+    private ObjectProvider<PointService> pointServiceProvider;
+
+    @Mock
+    private ObjectProvider<ObjectMapper> objectMapperProvider;
+
+    @Test
+    @DisplayName("실제 서비스로는 조회만 하고, 충전/사용은 별도 메모리 저장소에서 반복한다")
+    void run_readOnly() throws Exception {
+        // given
+        when(pointServiceProvider.getObject()).thenReturn(pointService);
+        when(objectMapperProvider.getObject()).thenReturn(new ObjectMapper());
+        when(pointService.point(1L)).thenReturn(new UserPoint(1L, 100L, 0L));
+        when(pointService.history(eq(1L), any(PointHistoryQuery.class)))
+                .thenReturn(List.of(new PointHistory(1L, 1L, 100L, TransactionType.CHARGE, 0L)));
+        PointWarmup warmup = new PointWarmup(new PointWarmupProperties(true, 1L, 100), pointServiceProvider, objectMapperProvider);
+
+        // when
+        warmup.run(null);
+
+        // then
+        verify(pointService).point(1L);
+        verify(pointService).history(eq(1L), any(PointHistoryQuery.class));
+        verify(pointService, never()).charge(anyLong(), anyLong());
+        verify(pointService, never()).use(anyLong(), anyLong());
+    }
+
+    @Test
+    @DisplayName("꺼져 있으면 지연 초기화된 빈을 만들지 않는다")
+    void run_disabled() throws Exception {
+        // given
+        PointWarmup warmup = new PointWarmup(new PointWarmupProperties(false, 1L, 100), pointServiceProvider, objectMapperProvider);
+
+        // when
+        warmup.run(null);
+
+        // then
+        verifyNoInteractions(pointServiceProvider, objectMapperProvider);
+    }
+}